@@ -0,0 +1,64 @@
+package com.hotel.benchmarks;
+
+import com.hotel.gestion.GestorClientes;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark de búsqueda de clientes en GestorClientes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ClientesBenchmark {
+    
+    @Param({"10", "1000", "100000", "10000000"})
+    private int numeroClientes;
+    
+    private GestorClientes gestorClientes;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        DatosBenchmark.silenciarConsola();
+        gestorClientes = new GestorClientes();
+        for (int i = 0; i < numeroClientes; i++) {
+            gestorClientes.registrarCliente(DatosBenchmark.cliente(i));
+        }
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public void buscarCliente(Blackhole bh) {
+        bh.consume(gestorClientes.buscarCliente("C" + ThreadLocalRandom.current().nextInt(numeroClientes)));
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void buscarClienteConcurrente(Blackhole bh) {
+        bh.consume(gestorClientes.buscarCliente("C" + ThreadLocalRandom.current().nextInt(numeroClientes)));
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public void buscarClientePorEmail(Blackhole bh) {
+        int i = ThreadLocalRandom.current().nextInt(numeroClientes);
+        bh.consume(gestorClientes.buscarClientePorEmail("cliente" + i + "@email.com"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.hotel.benchmarks;
+
+import com.hotel.eventos.BusEventos;
+import com.hotel.eventos.Eventos;
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.modelo.HabitacionSuite;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+
+/**
+ * Utilidades compartidas por los benchmarks para construir datos sintéticos.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: fabricar clientes y
+ * habitaciones reproducibles para los estados de JMH.
+ */
+final class DatosBenchmark {
+    
+    /** Fecha base de todos los calendarios sintéticos. */
+    static final LocalDate FECHA_BASE = LocalDate.of(2030, 1, 1);
+    
+    private DatosBenchmark() {
+    }
+    
+    /**
+     * Descarta la salida por consola de los gestores para que no domine la medición.
+     */
+    static void silenciarConsola() {
+        // Los eventos se siguen publicando, pero el bus no los entrega a ningún sumidero
+        Eventos.configurar(new BusEventos(1 << 16));
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // Descartar
+            }
+            
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // Descartar
+            }
+        }));
+    }
+    
+    /**
+     * Crea el cliente sintético número i.
+     */
+    static Cliente cliente(int i) {
+        return new Cliente("C" + i, "Cliente " + i, "cliente" + i + "@email.com", "300" + i);
+    }
+    
+    /**
+     * Crea la habitación sintética número i (una de cada cinco es suite).
+     */
+    static Habitacion habitacion(int i) {
+        String numero = "H" + i;
+        if (i % 5 == 0) {
+            return new HabitacionSuite(numero, 150000 + (i % 7) * 10000, 4, i % 2 == 0, i % 3 == 0);
+        }
+        return new HabitacionEstandar(numero, 50000 + (i % 5) * 5000, 2);
+    }
+}
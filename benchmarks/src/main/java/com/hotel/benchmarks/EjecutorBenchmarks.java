@@ -0,0 +1,38 @@
+package com.hotel.benchmarks;
+
+import java.io.IOException;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de los benchmarks.
+ * 
+ * Acepta las mismas opciones de línea de comandos que JMH (por ejemplo
+ * {@code -p numeroReservas=1000} o {@code ReservasBenchmark}) y agrega
+ * siempre el perfilador de GC para reportar la tasa de asignación de memoria
+ * (gc.alloc.rate y gc.alloc.rate.norm) junto a cada resultado.
+ */
+public final class EjecutorBenchmarks {
+    
+    private EjecutorBenchmarks() {
+    }
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions opcionesLinea = new CommandLineOptions(args);
+        if (opcionesLinea.shouldHelp() || opcionesLinea.shouldList()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        
+        Options opciones = new OptionsBuilder()
+                .parent(opcionesLinea)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.hotel.benchmarks;
+
+import com.hotel.eventos.BusEventos;
+import com.hotel.eventos.TipoEvento;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark del costo de informar un evento desde una ruta crítica.
+ * 
+ * Compara publicar en el bus de eventos (el productor solo reserva una ranura
+ * y copia referencias) con la antigua escritura síncrona en un PrintStream,
+ * que concatena el mensaje y toma el candado del flujo en cada llamada. El
+ * PrintStream descarta los bytes, así que se mide el costo sin la consola.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EventosBenchmark {
+    
+    private BusEventos bus;
+    private PrintStream salida;
+    private String idReserva;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        bus = new BusEventos(1 << 16);
+        salida = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // Descartar
+            }
+            
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // Descartar
+            }
+        });
+        idReserva = "R000042";
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        bus.close();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public boolean publicarEvento() {
+        return bus.publicar(TipoEvento.RESERVA_CREADA, idReserva);
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean publicarEventoConcurrente() {
+        return bus.publicar(TipoEvento.RESERVA_CREADA, idReserva);
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public void imprimirEnFlujo() {
+        salida.println("Reserva creada exitosamente: " + idReserva);
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void imprimirEnFlujoConcurrente() {
+        salida.println("Reserva creada exitosamente: " + idReserva);
+    }
+}
@@ -0,0 +1,121 @@
+package com.hotel.benchmarks;
+
+import com.hotel.gestion.CriteriosBusqueda;
+import com.hotel.gestion.GestorHabitaciones;
+import com.hotel.gestion.IndiceDisponibilidad;
+import com.hotel.gestion.InventarioColumnar;
+import com.hotel.gestion.InventarioObjetos;
+import com.hotel.modelo.HabitacionSuite;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark de consultas de disponibilidad en GestorHabitaciones.
+ * 
+ * La mitad de las habitaciones tiene ocupada la noche consultada, de modo
+ * que el filtro recorre tanto habitaciones libres como ocupadas.
+ * 
+ * La búsqueda combinada (suites para 4 o más personas con jacuzzi y precio
+ * tope) se mide con el índice de mapas de bits y con el recorrido
+ * equivalente sobre todas las habitaciones.
+ * 
+ * Cada caso se mide con el inventario de objetos y con el inventario por
+ * columnas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HabitacionesBenchmark {
+    
+    @Param({"10", "1000", "100000", "10000000"})
+    private int numeroHabitaciones;
+    
+    @Param({"objetos", "columnar"})
+    private String inventario;
+    
+    private GestorHabitaciones gestorHabitaciones;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private CriteriosBusqueda criterios;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        DatosBenchmark.silenciarConsola();
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        gestorHabitaciones = new GestorHabitaciones(indice,
+                "columnar".equals(inventario) ? new InventarioColumnar() : new InventarioObjetos());
+        fechaInicio = DatosBenchmark.FECHA_BASE;
+        fechaFin = fechaInicio.plusDays(1);
+        criterios = new CriteriosBusqueda();
+        criterios.setTipos("Suite");
+        criterios.setCapacidadMinima(4);
+        criterios.setConJacuzzi(true);
+        criterios.setPrecioMaximo(170000);
+        for (int i = 0; i < numeroHabitaciones; i++) {
+            gestorHabitaciones.agregarHabitacion(DatosBenchmark.habitacion(i));
+            if (i % 2 == 0) {
+                indice.ocupar("H" + i, fechaInicio, fechaFin, "R" + i);
+            }
+        }
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public void obtenerHabitacionesDisponibles(Blackhole bh) {
+        bh.consume(gestorHabitaciones.obtenerHabitacionesDisponibles(fechaInicio, fechaFin));
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void obtenerHabitacionesDisponiblesConcurrente(Blackhole bh) {
+        bh.consume(gestorHabitaciones.obtenerHabitacionesDisponibles(fechaInicio, fechaFin));
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public void buscarHabitaciones(Blackhole bh) {
+        bh.consume(gestorHabitaciones.buscarHabitaciones(criterios));
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void buscarHabitacionesConcurrente(Blackhole bh) {
+        bh.consume(gestorHabitaciones.buscarHabitaciones(criterios));
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public void buscarHabitacionesRecorriendo(Blackhole bh) {
+        long precioMaximo = criterios.getPrecioMaximoCentavos();
+        bh.consume(gestorHabitaciones.obtenerTodasLasHabitaciones().stream()
+                .filter(h -> h.isDisponible() && h.getTipo().equals("Suite") && h.getCapacidad() >= 4
+                        && ((HabitacionSuite) h).tieneJacuzzi() && h.getPrecioPorNocheCentavos() <= precioMaximo)
+                .collect(Collectors.toList()));
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public boolean estaDisponible() {
+        String numero = "H" + ThreadLocalRandom.current().nextInt(numeroHabitaciones);
+        return gestorHabitaciones.estaDisponible(numero, fechaInicio, fechaFin);
+    }
+}
@@ -0,0 +1,124 @@
+package com.hotel.benchmarks;
+
+import com.hotel.gestion.GestorReservas;
+import com.hotel.gestion.IndiceDisponibilidad;
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.Metricas;
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.reserva.Reserva;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark del costo de las métricas en la ruta de reserva.
+ * 
+ * Ejecuta el mismo ciclo de crear y cancelar que ReservasBenchmark con la
+ * medición habilitada y deshabilitada; la diferencia es el costo de los
+ * histogramas y contadores por operación. Aparte mide registrar un valor
+ * suelto en un histograma, con uno y con todos los hilos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MetricasBenchmark {
+    
+    private static final int NUMERO_HABITACIONES = 1000;
+    
+    @Param({"true", "false"})
+    private boolean metricas;
+    
+    private GestorReservas gestorReservas;
+    private Habitacion[] habitaciones;
+    private Cliente cliente;
+    private HistogramaLatencia histograma;
+    private AtomicInteger secuenciaHilos;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        DatosBenchmark.silenciarConsola();
+        Metricas.registro().setHabilitado(metricas);
+        gestorReservas = new GestorReservas(new IndiceDisponibilidad());
+        cliente = DatosBenchmark.cliente(0);
+        histograma = Metricas.registro().histograma("benchmark.registrar");
+        secuenciaHilos = new AtomicInteger();
+        
+        habitaciones = new Habitacion[NUMERO_HABITACIONES];
+        for (int i = 0; i < NUMERO_HABITACIONES; i++) {
+            habitaciones[i] = DatosBenchmark.habitacion(i);
+        }
+    }
+    
+    /**
+     * Estado por hilo: genera IDs de reserva únicos sin contención.
+     */
+    @State(Scope.Thread)
+    public static class Hilo {
+        private String prefijo;
+        private long secuencia;
+        
+        @Setup(Level.Trial)
+        public void preparar(MetricasBenchmark benchmark) {
+            prefijo = "M" + benchmark.secuenciaHilos.incrementAndGet() + "-";
+        }
+        
+        String siguienteId() {
+            return prefijo + (secuencia++);
+        }
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public boolean crearYCancelarReserva(Hilo hilo) {
+        return crearYCancelar(hilo.siguienteId());
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean crearYCancelarReservaConcurrente(Hilo hilo) {
+        return crearYCancelar(hilo.siguienteId());
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public void registrarLatencia() {
+        histograma.registrarDesde(histograma.iniciar());
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void registrarLatenciaConcurrente() {
+        histograma.registrarDesde(histograma.iniciar());
+    }
+    
+    private boolean crearYCancelar(String idReserva) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        LocalDate inicio = DatosBenchmark.FECHA_BASE.plusDays(aleatorio.nextInt(365));
+        Reserva reserva = new Reserva(idReserva, cliente, inicio, inicio.plusDays(1), null);
+        reserva.agregarHabitacion(habitaciones[aleatorio.nextInt(habitaciones.length)]);
+        
+        boolean creada = gestorReservas.crearReserva(reserva);
+        if (creada) {
+            gestorReservas.cancelarReserva(idReserva);
+        }
+        return creada;
+    }
+}
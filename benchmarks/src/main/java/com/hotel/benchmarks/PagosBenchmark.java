@@ -0,0 +1,95 @@
+package com.hotel.benchmarks;
+
+import com.hotel.pago.PasarelaLimitada;
+import com.hotel.pago.PasarelaSimulada;
+import com.hotel.pago.TarjetaCredito;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark del rendimiento de pagos contra una pasarela simulada.
+ * 
+ * Compara un lote de cobros hechos uno tras otro (cada hilo espera la
+ * respuesta de la pasarela) con el mismo lote enviado de forma asíncrona,
+ * donde solo el límite de concurrencia de la pasarela acota el rendimiento.
+ * El resultado se expresa en pagos por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class PagosBenchmark {
+    
+    private static final int PAGOS_POR_LOTE = 256;
+    
+    @Param({"1", "10"})
+    private int latenciaMs;
+    
+    @Param({"8", "64"})
+    private int concurrencia;
+    
+    private TarjetaCredito tarjeta;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        DatosBenchmark.silenciarConsola();
+        PasarelaLimitada pasarela = new PasarelaLimitada(
+                new PasarelaSimulada("Simulada", latenciaMs), concurrencia, PAGOS_POR_LOTE * 64, 60000);
+        tarjeta = new TarjetaCredito("1234567890123456", "Benchmark", pasarela);
+    }
+    
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(PAGOS_POR_LOTE)
+    public int pagarSincrono() {
+        int aprobados = 0;
+        for (int i = 0; i < PAGOS_POR_LOTE; i++) {
+            if (tarjeta.procesarPago(100.0)) {
+                aprobados++;
+            }
+        }
+        return aprobados;
+    }
+    
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(PAGOS_POR_LOTE)
+    public int pagarAsincrono() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Boolean>[] pagos = new CompletableFuture[PAGOS_POR_LOTE];
+        for (int i = 0; i < PAGOS_POR_LOTE; i++) {
+            pagos[i] = tarjeta.procesarPagoAsync(100.0);
+        }
+        CompletableFuture.allOf(pagos).join();
+        int aprobados = 0;
+        for (CompletableFuture<Boolean> pago : pagos) {
+            if (pago.join()) {
+                aprobados++;
+            }
+        }
+        return aprobados;
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    @OperationsPerInvocation(PAGOS_POR_LOTE)
+    public int pagarAsincronoConcurrente() {
+        return pagarAsincrono();
+    }
+}
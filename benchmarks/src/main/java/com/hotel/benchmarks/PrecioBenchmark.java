@@ -0,0 +1,116 @@
+package com.hotel.benchmarks;
+
+import com.hotel.modelo.Habitacion;
+import com.hotel.reserva.Reserva;
+import com.hotel.reserva.ReservaVIP;
+import com.hotel.tarifas.PlanTarifas;
+import com.hotel.tarifas.Tarifas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del cálculo de precios de Reserva y ReservaVIP.
+ * 
+ * El precio se actualiza de forma incremental en las operaciones públicas,
+ * así que se mide a través de ellas: armar la reserva habitación por
+ * habitación, cambiar sus fechas y leer el total con descuento VIP. Con
+ * {@code tarifas=temporadas} se activa un plan con temporadas, recargo de fin
+ * de semana y fechas puntuales, y cotizar pasa por el calendario precalculado.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PrecioBenchmark {
+    
+    @Param({"1", "10", "100"})
+    private int habitacionesPorReserva;
+    
+    @Param({"plano", "temporadas"})
+    private String tarifas;
+    
+    private Habitacion[] habitaciones;
+    private ReservaVIP reservaVIP;
+    private LocalDate fechaInicio;
+    private boolean alternar;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        DatosBenchmark.silenciarConsola();
+        Tarifas.configurar(crearPlan());
+        fechaInicio = DatosBenchmark.FECHA_BASE;
+        habitaciones = new Habitacion[habitacionesPorReserva];
+        reservaVIP = new ReservaVIP("V1", DatosBenchmark.cliente(0), fechaInicio, fechaInicio.plusDays(3), null);
+        for (int i = 0; i < habitacionesPorReserva; i++) {
+            habitaciones[i] = DatosBenchmark.habitacion(i);
+            reservaVIP.agregarHabitacion(habitaciones[i]);
+        }
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public long armarReserva() {
+        Reserva reserva = new Reserva("R1", null, fechaInicio, fechaInicio.plusDays(3), null);
+        for (Habitacion habitacion : habitaciones) {
+            reserva.agregarHabitacion(habitacion);
+        }
+        return reserva.getPrecioTotalCentavos();
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long armarReservaConcurrente() {
+        return armarReserva();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public long cambiarFecha() {
+        alternar = !alternar;
+        reservaVIP.cambiarFecha(fechaInicio, fechaInicio.plusDays(alternar ? 5 : 3));
+        return reservaVIP.getPrecioTotalCentavos();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public long leerPrecioVIP() {
+        return reservaVIP.getPrecioTotalCentavos();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public long cotizarSemana() {
+        alternar = !alternar;
+        return Tarifas.plan().cotizar("Suite", 15000000, fechaInicio.plusDays(alternar ? 40 : 200), 7);
+    }
+    
+    private PlanTarifas crearPlan() {
+        PlanTarifas plan = new PlanTarifas(DatosBenchmark.FECHA_BASE, Tarifas.DIAS_CALENDARIO_POR_DEFECTO);
+        if ("temporadas".equals(tarifas)) {
+            plan.agregarTemporada("alta", MonthDay.of(12, 15), MonthDay.of(1, 15), 1.30);
+            plan.definirFactorTemporada("alta", "suite", 1.40);
+            plan.agregarTemporada("vacaciones", MonthDay.of(6, 15), MonthDay.of(7, 31), 1.15);
+            plan.definirFinDeSemana(EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY), 1.10);
+            plan.definirFactorFecha(LocalDate.of(2030, 12, 31), 1.50);
+        }
+        return plan;
+    }
+}
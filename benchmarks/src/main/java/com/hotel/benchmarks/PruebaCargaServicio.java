@@ -0,0 +1,180 @@
+package com.hotel.benchmarks;
+
+import com.hotel.gestion.GestorClientes;
+import com.hotel.gestion.GestorHabitaciones;
+import com.hotel.gestion.GestorReservas;
+import com.hotel.gestion.IndiceDisponibilidad;
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.RegistroMetricas;
+import com.hotel.pago.PasarelaSimulada;
+import com.hotel.pago.TarjetaCredito;
+import com.hotel.servicio.ServicioReservas;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga local del servicio HTTP de reservas.
+ * 
+ * Levanta ServicioReservas en un puerto libre sobre un hotel sintético y lo
+ * ataca desde varios hilos durante un tiempo fijo con una mezcla de
+ * consultas de disponibilidad, cotizaciones, reservas, pagos (contra una
+ * pasarela simulada con latencia) y cancelaciones. Al terminar informa las
+ * peticiones por segundo y los percentiles 50 y 99 de cada operación, medidos
+ * desde el cliente.
+ * 
+ * No es un benchmark de JMH: se ejecuta con
+ * {@code java -cp target/benchmarks.jar com.hotel.benchmarks.PruebaCargaServicio [hilos] [segundos] [habitaciones]}.
+ */
+public final class PruebaCargaServicio {
+    
+    private static final String[] OPERACIONES = {"disponibilidad", "cotizacion", "reservar", "pagar", "cancelar"};
+    
+    private PruebaCargaServicio() {
+    }
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int numeroHabitaciones = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        
+        // El informe va a la salida original: silenciarConsola la reemplaza
+        PrintStream consola = System.out;
+        DatosBenchmark.silenciarConsola();
+        
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        GestorClientes gestorClientes = new GestorClientes();
+        GestorHabitaciones gestorHabitaciones = new GestorHabitaciones(indice);
+        GestorReservas gestorReservas = new GestorReservas(indice);
+        for (int i = 0; i < numeroHabitaciones; i++) {
+            gestorHabitaciones.agregarHabitacion(DatosBenchmark.habitacion(i));
+        }
+        for (int i = 0; i < hilos; i++) {
+            gestorClientes.registrarCliente(DatosBenchmark.cliente(i));
+        }
+        PasarelaSimulada pasarela = new PasarelaSimulada("Red de tarjetas", 20, 10, 0.0);
+        ServicioReservas servicio = new ServicioReservas(gestorClientes, gestorHabitaciones, gestorReservas,
+                datos -> new TarjetaCredito(String.valueOf(datos.get("numero")),
+                        String.valueOf(datos.get("titular")), pasarela));
+        servicio.iniciar(0);
+        
+        String base = "http://localhost:" + servicio.getPuerto();
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        RegistroMetricas registro = new RegistroMetricas();
+        HistogramaLatencia[] latencias = new HistogramaLatencia[OPERACIONES.length];
+        for (int i = 0; i < OPERACIONES.length; i++) {
+            latencias[i] = registro.histograma(OPERACIONES[i]);
+        }
+        AtomicLong errores = new AtomicLong();
+        long fin = System.nanoTime() + segundos * 1_000_000_000L;
+        
+        List<Thread> generadores = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            int numeroHilo = h;
+            Thread generador = new Thread(() -> generarCarga(cliente, base, numeroHilo, numeroHabitaciones, fin,
+                    latencias, errores), "carga-" + h);
+            generadores.add(generador);
+            generador.start();
+        }
+        for (Thread generador : generadores) {
+            generador.join();
+        }
+        servicio.close();
+        gestorReservas.close();
+        
+        consola.println(String.format("Servicio con %s, %d hilos cliente, %d s, %d habitaciones",
+                servicio.usaHilosVirtuales() ? "hilos virtuales" : "hilos de plataforma", hilos, segundos,
+                numeroHabitaciones));
+        long total = 0;
+        for (int i = 0; i < OPERACIONES.length; i++) {
+            HistogramaLatencia.Resumen resumen = latencias[i].resumir();
+            total += resumen.getConteo();
+            consola.println(String.format("%-15s %9d peticiones  p50 %8.2f ms  p99 %8.2f ms", OPERACIONES[i],
+                    resumen.getConteo(), resumen.percentilNanos(50) / 1e6, resumen.percentilNanos(99) / 1e6));
+        }
+        consola.println(String.format("Total: %.0f peticiones/s, %d errores", (double) total / segundos,
+                errores.get()));
+    }
+    
+    /**
+     * Bucle de un hilo cliente: elige operaciones al azar (con semilla por hilo)
+     * hasta que se cumple el tiempo.
+     */
+    private static void generarCarga(HttpClient cliente, String base, int numeroHilo, int numeroHabitaciones,
+                                     long fin, HistogramaLatencia[] latencias, AtomicLong errores) {
+        SplittableRandom aleatorio = new SplittableRandom(numeroHilo);
+        List<String> pendientesDePago = new ArrayList<>();
+        List<String> reservadas = new ArrayList<>();
+        int secuencia = 0;
+        while (System.nanoTime() < fin) {
+            int sorteo = aleatorio.nextInt(100);
+            LocalDate desde = DatosBenchmark.FECHA_BASE.plusDays(aleatorio.nextInt(365));
+            LocalDate hasta = desde.plusDays(1 + aleatorio.nextInt(4));
+            String habitacion = "H" + aleatorio.nextInt(numeroHabitaciones);
+            try {
+                if (sorteo < 50) {
+                    enviar(cliente, latencias[0], errores, HttpRequest.newBuilder(URI.create(base
+                            + "/disponibilidad?tipo=Suite&capacidad=4&desde=" + desde + "&hasta=" + hasta)).GET());
+                } else if (sorteo < 70) {
+                    enviar(cliente, latencias[1], errores, HttpRequest.newBuilder(URI.create(base
+                            + "/cotizacion?habitaciones=" + habitacion + "&desde=" + desde + "&hasta=" + hasta))
+                            .GET());
+                } else if (sorteo < 85) {
+                    String idReserva = "T" + numeroHilo + "-" + secuencia++;
+                    String cuerpo = "{\"idReserva\":\"" + idReserva + "\",\"idCliente\":\"C" + numeroHilo
+                            + "\",\"habitaciones\":[\"" + habitacion + "\"],\"desde\":\"" + desde
+                            + "\",\"hasta\":\"" + hasta + "\",\"metodoPago\":{\"tipo\":\"tarjeta\","
+                            + "\"numero\":\"4111111111111111\",\"titular\":\"Cliente " + numeroHilo + "\"}}";
+                    int estado = enviar(cliente, latencias[2], errores, HttpRequest.newBuilder(
+                            URI.create(base + "/reservas")).POST(HttpRequest.BodyPublishers.ofString(cuerpo)));
+                    if (estado == 201) {
+                        pendientesDePago.add(idReserva);
+                        reservadas.add(idReserva);
+                    }
+                } else if (sorteo < 95) {
+                    if (!pendientesDePago.isEmpty()) {
+                        String idReserva = pendientesDePago.remove(pendientesDePago.size() - 1);
+                        enviar(cliente, latencias[3], errores, HttpRequest.newBuilder(URI.create(
+                                base + "/reservas/" + idReserva + "/pago")).POST(HttpRequest.BodyPublishers.noBody()));
+                    }
+                } else if (!reservadas.isEmpty()) {
+                    String idReserva = reservadas.remove(aleatorio.nextInt(reservadas.size()));
+                    pendientesDePago.remove(idReserva);
+                    enviar(cliente, latencias[4], errores, HttpRequest.newBuilder(
+                            URI.create(base + "/reservas/" + idReserva)).DELETE());
+                }
+            } catch (IOException e) {
+                errores.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Envía una petición, registra su latencia y cuenta como error cualquier
+     * respuesta 5xx.
+     * 
+     * @return Código de estado HTTP
+     */
+    private static int enviar(HttpClient cliente, HistogramaLatencia latencia, AtomicLong errores,
+                              HttpRequest.Builder peticion) throws IOException, InterruptedException {
+        long inicio = latencia.iniciar();
+        HttpResponse<String> respuesta = cliente.send(peticion.build(), HttpResponse.BodyHandlers.ofString());
+        latencia.registrarDesde(inicio);
+        if (respuesta.statusCode() >= 500) {
+            errores.incrementAndGet();
+        }
+        return respuesta.statusCode();
+    }
+}
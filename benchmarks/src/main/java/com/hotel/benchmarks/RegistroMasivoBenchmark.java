@@ -0,0 +1,79 @@
+package com.hotel.benchmarks;
+
+import com.hotel.config.CargadorClientes;
+import com.hotel.gestion.GestorClientes;
+import com.hotel.gestion.ResultadoRegistroMasivo;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark de la importación de un archivo de clientes completo.
+ * 
+ * Compara registrar cada cliente a medida que se lee el CSV (con su
+ * verificación y su evento) contra leer el archivo y registrarlo en un solo
+ * lote con {@link GestorClientes#registrarClientes}. Cada medición parte de
+ * un gestor vacío.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class RegistroMasivoBenchmark {
+    
+    @Param({"100000", "2000000"})
+    private int numeroClientes;
+    
+    private Path archivo;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        DatosBenchmark.silenciarConsola();
+        archivo = Files.createTempFile("clientes", ".csv");
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            salida.write("id,nombre,email,telefono\n");
+            for (int i = 0; i < numeroClientes; i++) {
+                salida.write("C" + i + ",Cliente " + i + ",cliente" + i + "@email.com,300" + i + "\n");
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        Files.deleteIfExists(archivo);
+    }
+    
+    @Benchmark
+    public int importarPorFila() {
+        GestorClientes gestorClientes = new GestorClientes();
+        new CargadorClientes(archivo.toString()).cargarClientes(gestorClientes::registrarCliente);
+        return gestorClientes.obtenerNumeroTotalClientes();
+    }
+    
+    @Benchmark
+    public void importarEnLote(Blackhole bh) {
+        GestorClientes gestorClientes = new GestorClientes();
+        ResultadoRegistroMasivo resultado = gestorClientes.registrarClientes(
+                new CargadorClientes(archivo.toString()).cargarClientes());
+        bh.consume(resultado);
+    }
+}
@@ -0,0 +1,149 @@
+package com.hotel.benchmarks;
+
+import com.hotel.gestion.GestorReservas;
+import com.hotel.gestion.IndiceDisponibilidad;
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.reserva.Reserva;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark de creación y cancelación de reservas en GestorReservas.
+ * 
+ * El libro de reservas se precarga con el número de reservas indicado:
+ * cada habitación tiene {@value #NOCHES_OCUPADAS} reservas de una noche en
+ * los días pares del calendario. Cada operación reserva una noche impar de
+ * una habitación al azar y la cancela, de modo que el tamaño del libro se
+ * mantiene estable durante la medición.
+ * 
+ * Con {@code particiones} mayor que 1 las reservas se reparten entre hilos
+ * escritores; la variante concurrente muestra cómo escala con los núcleos y
+ * obtenerTodasLasReservas mide la consulta repartida entre particiones.
+ * obtenerReservasPorHabitacion mide una búsqueda en los índices secundarios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReservasBenchmark {
+    
+    static final int NOCHES_OCUPADAS = 10;
+    
+    @Param({"10", "1000", "100000", "10000000"})
+    private int numeroReservas;
+    
+    @Param({"1", "4"})
+    private int particiones;
+    
+    private GestorReservas gestorReservas;
+    private Habitacion[] habitaciones;
+    private Cliente cliente;
+    private AtomicInteger secuenciaHilos;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        DatosBenchmark.silenciarConsola();
+        gestorReservas = new GestorReservas(new IndiceDisponibilidad(), particiones);
+        cliente = DatosBenchmark.cliente(0);
+        secuenciaHilos = new AtomicInteger();
+        
+        int numeroHabitaciones = Math.max(1, numeroReservas / NOCHES_OCUPADAS);
+        habitaciones = new Habitacion[numeroHabitaciones];
+        for (int i = 0; i < numeroHabitaciones; i++) {
+            habitaciones[i] = DatosBenchmark.habitacion(i);
+        }
+        
+        for (int i = 0; i < numeroReservas; i++) {
+            LocalDate inicio = DatosBenchmark.FECHA_BASE.plusDays(2L * (i / numeroHabitaciones));
+            Reserva reserva = new Reserva("P" + i, cliente, inicio, inicio.plusDays(1), null);
+            reserva.agregarHabitacion(habitaciones[i % numeroHabitaciones]);
+            gestorReservas.crearReserva(reserva);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        gestorReservas.close();
+    }
+    
+    /**
+     * Estado por hilo: genera IDs de reserva únicos sin contención.
+     */
+    @State(Scope.Thread)
+    public static class Hilo {
+        private String prefijo;
+        private long secuencia;
+        
+        @Setup(Level.Trial)
+        public void preparar(ReservasBenchmark benchmark) {
+            prefijo = "B" + benchmark.secuenciaHilos.incrementAndGet() + "-";
+        }
+        
+        String siguienteId() {
+            return prefijo + (secuencia++);
+        }
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public boolean crearYCancelarReserva(Hilo hilo) {
+        return crearYCancelar(hilo.siguienteId());
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean crearYCancelarReservaConcurrente(Hilo hilo) {
+        return crearYCancelar(hilo.siguienteId());
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public Reserva buscarReserva() {
+        return gestorReservas.buscarReserva("P" + ThreadLocalRandom.current().nextInt(numeroReservas));
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public int obtenerTodasLasReservas() {
+        return gestorReservas.obtenerTodasLasReservas().size();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public int obtenerReservasPorHabitacion() {
+        String numero = habitaciones[ThreadLocalRandom.current().nextInt(habitaciones.length)].getNumero();
+        return gestorReservas.obtenerReservasPorHabitacion(numero).size();
+    }
+    
+    private boolean crearYCancelar(String idReserva) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        LocalDate inicio = DatosBenchmark.FECHA_BASE.plusDays(2L * aleatorio.nextInt(NOCHES_OCUPADAS) + 1);
+        Reserva reserva = new Reserva(idReserva, cliente, inicio, inicio.plusDays(1), null);
+        reserva.agregarHabitacion(habitaciones[aleatorio.nextInt(habitaciones.length)]);
+        
+        boolean creada = gestorReservas.crearReserva(reserva);
+        if (creada) {
+            gestorReservas.cancelarReserva(idReserva);
+        }
+        return creada;
+    }
+}
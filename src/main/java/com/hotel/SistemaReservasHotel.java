@@ -3,19 +3,57 @@ package com.hotel;
 import com.hotel.config.CargadorClientes;
 import com.hotel.config.CargadorDatos;
 import com.hotel.config.CargadorHabitaciones;
+import com.hotel.config.CargadorTarifas;
+import com.hotel.eventos.BusEventos;
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.SumideroConsola;
+import com.hotel.gestion.AgregadosDiarios;
+import com.hotel.gestion.CriteriosBusqueda;
+import com.hotel.gestion.GeneradorIdReserva;
 import com.hotel.gestion.GestorClientes;
 import com.hotel.gestion.GestorHabitaciones;
 import com.hotel.gestion.GestorReservas;
+import com.hotel.gestion.IndiceDisponibilidad;
+import com.hotel.gestion.InventarioColumnar;
+import com.hotel.gestion.InventarioHabitaciones;
+import com.hotel.gestion.InventarioObjetos;
+import com.hotel.gestion.ListaEspera;
+import com.hotel.gestion.ResumenDia;
+import com.hotel.gestion.SolicitudEspera;
+import com.hotel.metricas.Metricas;
+import com.hotel.metricas.RegistroMetricas;
 import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Dinero;
 import com.hotel.modelo.Habitacion;
 import com.hotel.pago.Criptomoneda;
+import com.hotel.pago.LiquidadorTransferencias;
 import com.hotel.pago.MetodoPago;
+import com.hotel.pago.PasarelaLimitada;
+import com.hotel.pago.PasarelaPago;
+import com.hotel.pago.PasarelaSimulada;
 import com.hotel.pago.TarjetaCredito;
 import com.hotel.pago.TransferenciaBancaria;
+import com.hotel.persistencia.InstantaneaBinaria;
+import com.hotel.persistencia.RegistroEscrituraAnticipada;
 import com.hotel.reserva.Reserva;
 import com.hotel.reserva.ReservaVIP;
+import com.hotel.servicio.ServicioReservas;
+import com.hotel.simulacion.ConfiguracionSimulacion;
+import com.hotel.simulacion.OperacionSimulacion;
+import com.hotel.simulacion.ResultadoSimulacion;
+import com.hotel.simulacion.SimuladorCarga;
+import com.hotel.tarifas.Tarifas;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.management.JMException;
 
 /**
  * Clase principal que demuestra el funcionamiento del sistema de reservas de hotel.
@@ -30,38 +68,74 @@ import java.util.List;
 public class SistemaReservasHotel {
     
     public static void main(String[] args) {
-        System.out.println("=== SISTEMA DE RESERVAS DE HOTEL ===\n");
+        Eventos.mensaje("=== SISTEMA DE RESERVAS DE HOTEL ===\n");
         
         // Cargar configuración desde archivos externos (evitando datos quemados)
         CargadorDatos cargadorDatos = new CargadorDatos();
-        CargadorClientes cargadorClientes = new CargadorClientes();
-        CargadorHabitaciones cargadorHabitaciones = new CargadorHabitaciones();
-        System.out.println();
+        configurarMetricas(cargadorDatos);
+        Tarifas.configurar(new CargadorTarifas(cargadorDatos).cargarPlan());
+        
+        // Modo simulación: medir una carga sintética en lugar de ejecutar la demostración
+        if (args.length > 0 && "simulacion".equalsIgnoreCase(args[0])) {
+            ejecutarSimulacion(cargadorDatos, args);
+            return;
+        }
+        
+        CargadorClientes cargadorClientes = new CargadorClientes(
+                cargadorDatos.obtenerPropiedad("datos.archivo.clientes"));
+        CargadorHabitaciones cargadorHabitaciones = new CargadorHabitaciones(
+                cargadorDatos.obtenerPropiedad("datos.archivo.habitaciones"));
+        Eventos.mensaje("");
         
         // Inicializar gestores (SRP: cada uno tiene una responsabilidad única)
+        // Ambos gestores comparten el índice de ocupación por fechas
+        IndiceDisponibilidad indiceDisponibilidad = new IndiceDisponibilidad();
         GestorClientes gestorClientes = new GestorClientes();
-        GestorHabitaciones gestorHabitaciones = new GestorHabitaciones();
-        GestorReservas gestorReservas = new GestorReservas();
+        GestorHabitaciones gestorHabitaciones = new GestorHabitaciones(indiceDisponibilidad,
+                crearInventario(cargadorDatos));
+        GestorReservas gestorReservas = new GestorReservas(indiceDisponibilidad, leerParticiones(cargadorDatos));
+        configurarIdempotencia(cargadorDatos, gestorReservas);
+        gestorReservas.setGeneradorIds(new GeneradorIdReserva(cargadorDatos.obtenerPropiedadInt("reservas.nodo", 0)));
         
-        // Cargar clientes desde archivo CSV
-        System.out.println("--- Registrando Clientes ---");
-        List<Cliente> clientes = cargadorClientes.cargarClientes();
-        for (Cliente cliente : clientes) {
-            gestorClientes.registrarCliente(cliente);
+        // Arranque rápido desde la instantánea binaria, si está habilitada y existe
+        InstantaneaBinaria instantanea = crearInstantanea(cargadorDatos);
+        long lsnInstantanea = cargarInstantanea(instantanea, gestorClientes, gestorHabitaciones, gestorReservas);
+        
+        if (lsnInstantanea < 0) {
+            // Cargar clientes desde archivo CSV y registrarlos en un solo lote
+            Eventos.mensaje("--- Registrando Clientes ---");
+            gestorClientes.registrarClientes(cargadorClientes.cargarClientes())
+                    .imprimirResumen("Clientes registrados");
+            Eventos.mensaje("");
+            
+            // Cargar habitaciones desde archivo CSV y agregarlas en un solo lote
+            Eventos.mensaje("--- Agregando Habitaciones ---");
+            gestorHabitaciones.agregarHabitaciones(cargadorHabitaciones.cargarHabitaciones())
+                    .imprimirResumen("Habitaciones agregadas");
+            Eventos.mensaje("");
         }
-        System.out.println();
         
-        // Cargar habitaciones desde archivo CSV
-        System.out.println("--- Agregando Habitaciones ---");
-        List<Habitacion> habitaciones = cargadorHabitaciones.cargarHabitaciones();
-        for (Habitacion habitacion : habitaciones) {
-            gestorHabitaciones.agregarHabitacion(habitacion);
+        List<Cliente> clientes = gestorClientes.obtenerTodosLosClientes();
+        clientes.sort(Comparator.comparing(Cliente::getId));
+        List<Habitacion> habitaciones = gestorHabitaciones.obtenerTodasLasHabitaciones();
+        habitaciones.sort(Comparator.comparing(Habitacion::getNumero));
+        
+        // Reconstruir las reservas desde el registro durable, si está habilitado
+        RegistroEscrituraAnticipada registro = abrirRegistro(cargadorDatos, gestorReservas,
+                gestorClientes, gestorHabitaciones, Math.max(0, lsnInstantanea));
+        
+        // Modo servicio: atender la API HTTP en lugar de ejecutar la demostración
+        if (args.length > 0 && "servicio".equalsIgnoreCase(args[0])) {
+            int puerto = args.length > 1 ? Integer.parseInt(args[1])
+                    : cargadorDatos.obtenerPropiedadInt("servicio.puerto", 8080);
+            ejecutarServicio(cargadorDatos, puerto, gestorClientes, gestorHabitaciones, gestorReservas,
+                    instantanea, registro);
+            return;
         }
-        System.out.println();
         
         // Verificar que hay suficientes datos cargados
         if (clientes.size() < 3 || habitaciones.size() < 4) {
-            System.err.println("Error: No hay suficientes datos para ejecutar el sistema");
+            Eventos.error("Error: No hay suficientes datos para ejecutar el sistema");
             return;
         }
         
@@ -75,83 +149,534 @@ public class SistemaReservasHotel {
         Habitacion habitacion4 = habitaciones.get(3);
         
         // Crear métodos de pago (OCP: nuevos métodos de pago sin modificar código existente)
-        System.out.println("--- Configurando Métodos de Pago ---");
-        MetodoPago tarjetaCredito = new TarjetaCredito("1234567890123456", cliente1.getNombre());
-        MetodoPago transferencia = new TransferenciaBancaria("987654321", "Banco Nacional");
-        MetodoPago criptomoneda = new Criptomoneda("BTC", "1A1zP1eP5QGefi2DMPTfTL5SLmv7DivfNa");
+        Eventos.mensaje("--- Configurando Métodos de Pago ---");
+        // Cada método cobra a través de su propia pasarela, con límites de concurrencia y plazo
+        MetodoPago tarjetaCredito = new TarjetaCredito("1234567890123456", cliente1.getNombre(),
+                crearPasarela(cargadorDatos, "tarjeta", "Red de tarjetas"));
+        // Las transferencias se liquidan en lotes: una llamada al banco por lote
+        LiquidadorTransferencias liquidador = crearLiquidador(cargadorDatos, "Banco Nacional");
+        MetodoPago transferencia = new TransferenciaBancaria("987654321", "Banco Nacional", liquidador);
+        MetodoPago criptomoneda = new Criptomoneda("BTC", "1A1zP1eP5QGefi2DMPTfTL5SLmv7DivfNa",
+                crearPasarela(cargadorDatos, "criptomoneda", "Exchange BTC"));
         
-        System.out.println("Métodos de pago disponibles:");
-        System.out.println("- " + tarjetaCredito.getNombreMetodo());
-        System.out.println("- " + transferencia.getNombreMetodo());
-        System.out.println("- " + criptomoneda.getNombreMetodo());
-        System.out.println();
+        Eventos.mensaje("Métodos de pago disponibles:");
+        Eventos.mensaje("- " + tarjetaCredito.getNombreMetodo());
+        Eventos.mensaje("- " + transferencia.getNombreMetodo());
+        Eventos.mensaje("- " + criptomoneda.getNombreMetodo());
+        Eventos.mensaje("");
         
         // Crear reservas normales
-        System.out.println("--- Creando Reservas ---");
+        Eventos.mensaje("--- Creando Reservas ---");
         LocalDate fechaInicio1 = LocalDate.now().plusDays(7);
         LocalDate fechaFin1 = LocalDate.now().plusDays(10);
         
         Reserva reserva1 = new Reserva("R001", cliente1, fechaInicio1, fechaFin1, tarjetaCredito);
         reserva1.agregarHabitacion(habitacion1);
-        gestorReservas.crearReserva(reserva1);
-        System.out.println("Precio total: $" + reserva1.getPrecioTotal());
-        System.out.println();
+        gestorReservas.crearReserva(reserva1, "alta-R001");
+        Eventos.mensaje("Precio total: $" + Dinero.formatear(reserva1.getPrecioTotalCentavos()));
+        // Un cliente que reintenta con la misma clave recibe el resultado original
+        Eventos.mensaje("Reintento del alta de R001 con la misma clave: "
+                + gestorReservas.crearReserva(reserva1, "alta-R001"));
+        Eventos.mensaje("");
         
         Reserva reserva2 = new Reserva("R002", cliente2, fechaInicio1, fechaFin1, transferencia);
         reserva2.agregarHabitacion(habitacion2);
         reserva2.agregarHabitacion(habitacion3); // Múltiples habitaciones
         gestorReservas.crearReserva(reserva2);
-        System.out.println("Precio total: $" + reserva2.getPrecioTotal());
-        System.out.println();
+        Eventos.mensaje("Precio total: $" + Dinero.formatear(reserva2.getPrecioTotalCentavos()));
+        Eventos.mensaje("");
         
         // Crear reserva VIP (LSP: puede reemplazar Reserva sin problemas)
-        System.out.println("--- Creando Reserva VIP ---");
+        Eventos.mensaje("--- Creando Reserva VIP ---");
         ReservaVIP reservaVIP = new ReservaVIP("R003", cliente3, fechaInicio1, fechaFin1, criptomoneda);
         reservaVIP.agregarHabitacion(habitacion4);
         gestorReservas.crearReserva(reservaVIP);
-        System.out.println("Precio total (con descuento VIP): $" + reservaVIP.getPrecioTotal());
-        System.out.println();
+        Eventos.mensaje("Precio total (con descuento VIP): $"
+                + Dinero.formatear(reservaVIP.getPrecioTotalCentavos()));
+        Eventos.mensaje("");
         
         // Procesar pagos (DIP: usando abstracciones)
-        System.out.println("--- Procesando Pagos ---");
-        System.out.println("Procesando pago de reserva R001:");
-        reserva1.procesarPago();
-        System.out.println();
-        
-        System.out.println("Procesando pago de reserva R002:");
-        reserva2.procesarPago();
-        System.out.println();
-        
-        System.out.println("Procesando pago de reserva VIP R003:");
-        reservaVIP.procesarPago();
-        System.out.println();
+        Eventos.mensaje("--- Procesando Pagos ---");
+        Eventos.mensaje("Enviando los pagos de R001, R002 y R003 a sus pasarelas en paralelo:");
+        CompletableFuture<Boolean> pago1 = gestorReservas.procesarPagoAsync(reserva1.getIdReserva(), "pago-R001");
+        CompletableFuture<Boolean> pago2 = gestorReservas.procesarPagoAsync(reserva2.getIdReserva());
+        CompletableFuture<Boolean> pago3 = gestorReservas.procesarPagoAsync(reservaVIP.getIdReserva());
+        CompletableFuture.allOf(pago1, pago2, pago3).join();
+        Eventos.mensaje("Pagos confirmados: R001=" + pago1.join() + ", R002=" + pago2.join()
+                + ", R003=" + pago3.join());
+        Eventos.mensaje("Reintento del pago de R001 con la misma clave: "
+                + gestorReservas.procesarPago(reserva1.getIdReserva(), "pago-R001")
+                + " (reintentos atendidos sin repetir la operación: " + gestorReservas.getReintentosAtendidos() + ")");
+        Eventos.mensaje("Lotes de transferencias liquidados: " + liquidador.getLotesEnviados()
+                + " (tamaño promedio " + liquidador.getTamanoPromedioLote() + ")");
+        Eventos.mensaje("");
         
         // Cambiar fecha de reserva
-        System.out.println("--- Cambiando Fecha de Reserva ---");
+        Eventos.mensaje("--- Cambiando Fecha de Reserva ---");
         LocalDate nuevaFechaInicio = LocalDate.now().plusDays(14);
         LocalDate nuevaFechaFin = LocalDate.now().plusDays(17);
         
-        System.out.println("Cambiando fecha de reserva R001:");
-        System.out.println("Fecha anterior: " + reserva1.getFechaInicio() + " a " + reserva1.getFechaFin());
-        boolean cambioExitoso = reserva1.cambiarFecha(nuevaFechaInicio, nuevaFechaFin);
+        Eventos.mensaje("Cambiando fecha de reserva R001:");
+        Eventos.mensaje("Fecha anterior: " + reserva1.getFechaInicio() + " a " + reserva1.getFechaFin());
+        boolean cambioExitoso = gestorReservas.cambiarFechaReserva(
+                reserva1.getIdReserva(), nuevaFechaInicio, nuevaFechaFin);
         if (cambioExitoso) {
-            System.out.println("Fecha nueva: " + reserva1.getFechaInicio() + " a " + reserva1.getFechaFin());
-            System.out.println("Nuevo precio total: $" + reserva1.getPrecioTotal());
+            Eventos.mensaje("Fecha nueva: " + reserva1.getFechaInicio() + " a " + reserva1.getFechaFin());
+            Eventos.mensaje("Nuevo precio total: $" + Dinero.formatear(reserva1.getPrecioTotalCentavos()));
         }
-        System.out.println();
+        Eventos.mensaje("");
         
         // Demostrar LSP: usar ReservaVIP como Reserva
-        System.out.println("--- Demostrando LSP (Liskov Substitution Principle) ---");
-        System.out.println("Usando ReservaVIP como Reserva:");
+        Eventos.mensaje("--- Demostrando LSP (Liskov Substitution Principle) ---");
+        Eventos.mensaje("Usando ReservaVIP como Reserva:");
         procesarReserva(reservaVIP); // Método que acepta Reserva pero funciona con ReservaVIP
-        System.out.println();
+        Eventos.mensaje("");
         
         // Mostrar resumen
-        System.out.println("--- Resumen del Sistema ---");
-        System.out.println("Total de clientes: " + gestorClientes.obtenerNumeroTotalClientes());
-        System.out.println("Total de habitaciones: " + gestorHabitaciones.obtenerTodasLasHabitaciones().size());
-        System.out.println("Total de reservas: " + gestorReservas.obtenerNumeroTotalReservas());
-        System.out.println("Habitaciones disponibles: " + gestorHabitaciones.obtenerHabitacionesDisponibles().size());
+        // Búsqueda combinada resuelta con el índice de atributos
+        Eventos.mensaje("--- Buscando Habitaciones ---");
+        CriteriosBusqueda criterios = new CriteriosBusqueda();
+        criterios.setCapacidadMinima(2);
+        criterios.setPrecioMaximo(200000);
+        criterios.setFechas(fechaInicio1, fechaFin1);
+        Eventos.mensaje("Habitaciones para 2 o más personas, hasta $200000.00 por noche, libres del "
+                + fechaInicio1 + " al " + fechaFin1 + ":");
+        for (Habitacion habitacion : gestorHabitaciones.buscarHabitaciones(criterios)) {
+            Eventos.mensaje("- " + habitacion.getNumero() + " (" + habitacion.getTipo() + ", capacidad "
+                    + habitacion.getCapacidad() + ", $"
+                    + Dinero.formatear(habitacion.getPrecioPorNocheCentavos()) + ")");
+        }
+        Eventos.mensaje("");
+        
+        // Lista de espera: las cancelaciones se reasignan solas, primero a los VIP
+        Eventos.mensaje("--- Lista de Espera ---");
+        ListaEspera listaEspera = new ListaEspera(gestorReservas, gestorHabitaciones);
+        gestorReservas.setOyenteDisponibilidad(listaEspera);
+        gestorHabitaciones.setOyenteDisponibilidad(listaEspera);
+        String estandar = habitacion1.getTipo();
+        listaEspera.agregar(new SolicitudEspera("R004", cliente1, fechaInicio1, fechaFin1, estandar, 2,
+                false, tarjetaCredito));
+        listaEspera.agregar(new SolicitudEspera("R005", cliente2, fechaInicio1, fechaFin1, estandar, 2,
+                false, transferencia));
+        listaEspera.agregar(new SolicitudEspera("R006", cliente1, fechaInicio1, fechaFin1, estandar, 2,
+                false, tarjetaCredito));
+        listaEspera.agregar(new SolicitudEspera("R007", cliente3, fechaInicio1, fechaFin1, estandar, 2,
+                true, criptomoneda));
+        Eventos.mensaje("Solicitudes en espera: " + listaEspera.tamano());
+        Eventos.mensaje("Cancelando la reserva R002:");
+        gestorReservas.cancelarReserva(reserva2.getIdReserva());
+        Eventos.mensaje("Solicitudes en espera: " + listaEspera.tamano());
+        Eventos.mensaje("");
+        
+        // IDs generados: únicos entre nodos y ordenados por momento de creación
+        Eventos.mensaje("--- IDs Generados ---");
+        Instant antes = Instant.now();
+        Reserva reservaGenerada = new Reserva(gestorReservas.generarIdReserva(), cliente2, nuevaFechaInicio,
+                nuevaFechaFin, transferencia);
+        reservaGenerada.agregarHabitacion(habitacion4);
+        gestorReservas.crearReserva(reservaGenerada);
+        long idGenerado = GeneradorIdReserva.decodificar(reservaGenerada.getIdReserva());
+        Eventos.mensaje("ID " + reservaGenerada.getIdReserva() + " = " + idGenerado
+                + " (nodo " + GeneradorIdReserva.nodoDe(idGenerado)
+                + ", creado " + GeneradorIdReserva.instanteDe(idGenerado) + ")");
+        Eventos.mensaje("Reservas creadas desde " + antes + ": "
+                + gestorReservas.obtenerReservasCreadasEntre(antes, Instant.now().plusMillis(1)).size());
+        Eventos.mensaje("");
+        
+        Eventos.mensaje("--- Resumen del Sistema ---");
+        Eventos.mensaje("Total de clientes: " + gestorClientes.obtenerNumeroTotalClientes());
+        Eventos.mensaje("Total de habitaciones: " + gestorHabitaciones.obtenerTodasLasHabitaciones().size());
+        Eventos.mensaje("Total de reservas: " + gestorReservas.obtenerNumeroTotalReservas());
+        Eventos.mensaje("Reservas de " + cliente1.getId() + ": "
+                + gestorReservas.obtenerReservasPorCliente(cliente1.getId()).size());
+        Eventos.mensaje("Llegadas del " + fechaInicio1 + ": " + gestorReservas.obtenerLlegadas(fechaInicio1).size()
+                + ", del " + nuevaFechaInicio + ": " + gestorReservas.obtenerLlegadas(nuevaFechaInicio).size());
+        imprimirOcupacion(gestorReservas.getAgregadosDiarios(), fechaInicio1,
+                gestorHabitaciones.obtenerTodasLasHabitaciones().size());
+        Eventos.mensaje("Habitaciones disponibles hoy: " + gestorHabitaciones.obtenerHabitacionesDisponibles().size());
+        Eventos.mensaje("Habitaciones disponibles del " + fechaInicio1 + " al " + fechaFin1 + ": "
+                + gestorHabitaciones.obtenerHabitacionesDisponibles(fechaInicio1, fechaFin1).size());
+        
+        escribirInstantanea(instantanea, gestorClientes, gestorHabitaciones, gestorReservas, registro);
+        liquidador.close();
+        gestorReservas.close();
+        cerrarRegistro(registro);
+        
+        if (Metricas.registro().isHabilitado()) {
+            Eventos.mensaje("");
+            Eventos.mensaje("--- Métricas ---");
+            Eventos.mensaje(Metricas.registro().volcarTexto());
+        }
+        
+        // Entregar los eventos pendientes antes de terminar
+        Eventos.vaciar();
+    }
+    
+    /**
+     * Inicia el servicio HTTP de reservas y deja que atienda hasta que se
+     * detenga el proceso; al detenerse cierra los recursos como la demostración.
+     */
+    private static void ejecutarServicio(CargadorDatos cargadorDatos, int puerto, GestorClientes gestorClientes,
+                                         GestorHabitaciones gestorHabitaciones, GestorReservas gestorReservas,
+                                         InstantaneaBinaria instantanea, RegistroEscrituraAnticipada registro) {
+        PasarelaPago pasarelaTarjeta = crearPasarela(cargadorDatos, "tarjeta", "Red de tarjetas");
+        LiquidadorTransferencias liquidador = crearLiquidador(cargadorDatos, "Banco Nacional");
+        PasarelaPago pasarelaCripto = crearPasarela(cargadorDatos, "criptomoneda", "Exchange BTC");
+        ServicioReservas servicio = new ServicioReservas(gestorClientes, gestorHabitaciones, gestorReservas,
+                datos -> crearMetodoPago(datos, pasarelaTarjeta, liquidador, pasarelaCripto));
+        
+        Runnable cerrar = () -> {
+            servicio.close();
+            escribirInstantanea(instantanea, gestorClientes, gestorHabitaciones, gestorReservas, registro);
+            liquidador.close();
+            gestorReservas.close();
+            cerrarRegistro(registro);
+            Eventos.vaciar();
+        };
+        try {
+            servicio.iniciar(puerto);
+        } catch (IOException e) {
+            Eventos.error("No se pudo iniciar el servicio en el puerto " + puerto + ": " + e.getMessage());
+            cerrar.run();
+            return;
+        }
+        // El hilo del servidor HTTP mantiene vivo el proceso hasta que se detenga
+        Runtime.getRuntime().addShutdownHook(new Thread(cerrar, "servicio-cierre"));
+    }
+    
+    /**
+     * Ejecuta una simulación de carga sobre un hotel sintético, con los mismos
+     * gestores, particiones, inventario y pasarela de tarjetas que el sistema.
+     * Durante la corrida los eventos se cuentan en las métricas pero no se
+     * imprimen, para que la consola no limite el rendimiento medido.
+     * 
+     * @param args "simulacion" [hilos] [segundos] [habitaciones]
+     */
+    private static void ejecutarSimulacion(CargadorDatos cargadorDatos, String[] args) {
+        ConfiguracionSimulacion configuracion;
+        try {
+            configuracion = leerConfiguracionSimulacion(cargadorDatos, args);
+        } catch (IllegalArgumentException e) {
+            Eventos.error("Configuración de simulación inválida: " + e.getMessage());
+            return;
+        }
+        
+        IndiceDisponibilidad indiceDisponibilidad = new IndiceDisponibilidad();
+        GestorClientes gestorClientes = new GestorClientes();
+        GestorHabitaciones gestorHabitaciones = new GestorHabitaciones(indiceDisponibilidad,
+                crearInventario(cargadorDatos));
+        GestorReservas gestorReservas = new GestorReservas(indiceDisponibilidad, leerParticiones(cargadorDatos));
+        SimuladorCarga simulador = new SimuladorCarga(configuracion, gestorClientes, gestorHabitaciones,
+                gestorReservas, crearPasarela(cargadorDatos, "tarjeta", "Red de tarjetas"));
+        
+        Eventos.mensaje("--- Simulación de Carga ---");
+        Eventos.mensaje("Calentamiento de " + configuracion.getSegundosCalentamiento() + " s y medición de "
+                + configuracion.getSegundos() + " s con " + configuracion.getHilos() + " hilos...");
+        Eventos.vaciar();
+        Eventos.configurar(new BusEventos(1 << 16));
+        ResultadoSimulacion resultado = null;
+        try {
+            resultado = simulador.ejecutar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            gestorReservas.close();
+            Eventos.configurar(new BusEventos(1 << 14, new SumideroConsola()));
+        }
+        
+        if (resultado == null) {
+            Eventos.error("Simulación interrumpida");
+        } else {
+            resultado.imprimirResumen();
+        }
+        Eventos.vaciar();
+    }
+    
+    /**
+     * Lee {@code simulacion.*}; los argumentos opcionales de la línea de
+     * comandos reemplazan hilos, segundos y habitaciones.
+     */
+    private static ConfiguracionSimulacion leerConfiguracionSimulacion(CargadorDatos cargadorDatos, String[] args) {
+        ConfiguracionSimulacion configuracion = new ConfiguracionSimulacion();
+        configuracion.setHabitaciones(args.length > 3 ? Integer.parseInt(args[3])
+                : cargadorDatos.obtenerPropiedadInt("simulacion.habitaciones", configuracion.getHabitaciones()));
+        configuracion.setClientes(cargadorDatos.obtenerPropiedadInt("simulacion.clientes",
+                configuracion.getClientes()));
+        configuracion.setHorizonteDias(cargadorDatos.obtenerPropiedadInt("simulacion.horizonte.dias",
+                configuracion.getHorizonteDias()));
+        configuracion.setNochesMaximas(cargadorDatos.obtenerPropiedadInt("simulacion.noches.maximas",
+                configuracion.getNochesMaximas()));
+        configuracion.setHilos(args.length > 1 ? Integer.parseInt(args[1])
+                : cargadorDatos.obtenerPropiedadInt("simulacion.hilos", configuracion.getHilos()));
+        configuracion.setSegundos(args.length > 2 ? Integer.parseInt(args[2])
+                : cargadorDatos.obtenerPropiedadInt("simulacion.segundos", configuracion.getSegundos()));
+        configuracion.setSegundosCalentamiento(cargadorDatos.obtenerPropiedadInt(
+                "simulacion.calentamiento.segundos", configuracion.getSegundosCalentamiento()));
+        configuracion.setSemilla(cargadorDatos.obtenerPropiedadInt("simulacion.semilla",
+                (int) configuracion.getSemilla()));
+        configuracion.setSesgoHabitaciones(cargadorDatos.obtenerPropiedadDouble("simulacion.zipf.habitaciones",
+                configuracion.getSesgoHabitaciones()));
+        configuracion.setSesgoFechas(cargadorDatos.obtenerPropiedadDouble("simulacion.zipf.fechas",
+                configuracion.getSesgoFechas()));
+        for (OperacionSimulacion operacion : OperacionSimulacion.values()) {
+            configuracion.setPeso(operacion, cargadorDatos.obtenerPropiedadInt(
+                    "simulacion.mezcla." + operacion.getClave(), configuracion.getPeso(operacion)));
+        }
+        return configuracion;
+    }
+    
+    /**
+     * Crea el método de pago descrito en una petición al servicio.
+     * 
+     * OCP: Un método de pago nuevo se agrega aquí, sin cambiar ServicioReservas.
+     * 
+     * @param datos Campos del método de pago; "tipo" es tarjeta, transferencia o criptomoneda
+     */
+    private static MetodoPago crearMetodoPago(Map<String, Object> datos, PasarelaPago pasarelaTarjeta,
+                                              PasarelaPago liquidador, PasarelaPago pasarelaCripto) {
+        String tipo = String.valueOf(datos.get("tipo"));
+        switch (tipo) {
+            case "tarjeta":
+                return new TarjetaCredito(campo(datos, "numero"), campo(datos, "titular"), pasarelaTarjeta);
+            case "transferencia":
+                return new TransferenciaBancaria(campo(datos, "cuenta"), campo(datos, "banco"), liquidador);
+            case "criptomoneda":
+                return new Criptomoneda(campo(datos, "moneda"), campo(datos, "wallet"), pasarelaCripto);
+            default:
+                throw new IllegalArgumentException("Método de pago desconocido: " + tipo);
+        }
+    }
+    
+    private static String campo(Map<String, Object> datos, String nombre) {
+        Object valor = datos.get(nombre);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta el campo metodoPago." + nombre);
+        }
+        return valor.toString();
+    }
+    
+    /**
+     * Imprime los totales precalculados de un día y del mes que lo contiene.
+     */
+    private static void imprimirOcupacion(AgregadosDiarios agregados, LocalDate fecha, int totalHabitaciones) {
+        ResumenDia dia = agregados.consultarDia(fecha);
+        Eventos.mensaje(String.format("Ocupación del %s: %d de %d habitaciones (%.0f%%), ingresos $%s, "
+                        + "llegadas %d, salidas %d", fecha, dia.getHabitacionesVendidas(), totalHabitaciones,
+                dia.calcularOcupacion(totalHabitaciones) * 100, Dinero.formatear(dia.getIngresosCentavos()),
+                dia.getLlegadas(), dia.getSalidas()));
+        long nochesVendidas = 0;
+        long ingresos = 0;
+        for (ResumenDia delMes : agregados.consultarMes(YearMonth.from(fecha))) {
+            nochesVendidas += delMes.getHabitacionesVendidas();
+            ingresos += delMes.getIngresosCentavos();
+        }
+        Eventos.mensaje("Mes " + YearMonth.from(fecha) + ": " + nochesVendidas + " noches vendidas, ingresos $"
+                + Dinero.formatear(ingresos));
+    }
+    
+    /**
+     * Crea la pasarela simulada de un método de pago y la envuelve con los
+     * límites configurados en {@code pago.<metodo>.*}.
+     * 
+     * @param metodo Clave del método en la configuración (tarjeta, transferencia, criptomoneda)
+     * @param nombre Nombre de la pasarela
+     * @return Pasarela con concurrencia y plazo limitados
+     */
+    private static PasarelaPago crearPasarela(CargadorDatos cargadorDatos, String metodo, String nombre) {
+        String prefijo = "pago." + metodo + ".";
+        PasarelaSimulada simulada = new PasarelaSimulada(nombre,
+                cargadorDatos.obtenerPropiedadInt(prefijo + "latencia.ms", 50),
+                cargadorDatos.obtenerPropiedadInt(prefijo + "latencia.variacion.ms", 0),
+                0.0);
+        PasarelaLimitada limitada = new PasarelaLimitada(simulada,
+                cargadorDatos.obtenerPropiedadInt(prefijo + "concurrencia", 16),
+                cargadorDatos.obtenerPropiedadInt(prefijo + "espera.maxima", 1000),
+                cargadorDatos.obtenerPropiedadInt(prefijo + "plazo.ms", 5000));
+        
+        RegistroMetricas metricas = Metricas.registro();
+        metricas.medidor(prefijo + "enCurso", limitada::getCobrosEnCurso);
+        metricas.medidor(prefijo + "enEspera", limitada::getCobrosEnEspera);
+        metricas.medidor(prefijo + "completados", limitada::getCobrosCompletados);
+        metricas.medidor(prefijo + "rechazados", limitada::getCobrosRechazados);
+        metricas.medidor(prefijo + "vencidos", limitada::getCobrosVencidos);
+        return limitada;
+    }
+    
+    /**
+     * Crea el liquidador por lotes de las transferencias con la configuración
+     * {@code pago.transferencia.*} y un banco simulado.
+     * 
+     * @param nombre Nombre del banco
+     * @return Liquidador que agrupa las transferencias en lotes
+     */
+    private static LiquidadorTransferencias crearLiquidador(CargadorDatos cargadorDatos, String nombre) {
+        PasarelaSimulada banco = new PasarelaSimulada(nombre,
+                cargadorDatos.obtenerPropiedadInt("pago.transferencia.latencia.ms", 150),
+                cargadorDatos.obtenerPropiedadInt("pago.transferencia.latencia.variacion.ms", 0),
+                0.0);
+        LiquidadorTransferencias liquidador = new LiquidadorTransferencias(banco,
+                cargadorDatos.obtenerPropiedadInt("pago.transferencia.lote.tamano", 50),
+                cargadorDatos.obtenerPropiedadInt("pago.transferencia.lote.ventana.ms", 200));
+        
+        RegistroMetricas metricas = Metricas.registro();
+        metricas.medidor("pago.transferencia.enCola", liquidador::getProfundidadCola);
+        metricas.medidor("pago.transferencia.colaMaxima", liquidador::getProfundidadMaxima);
+        metricas.medidor("pago.transferencia.lotes", liquidador::getLotesEnviados);
+        metricas.medidor("pago.transferencia.lotesFallidos", liquidador::getLotesFallidos);
+        metricas.medidor("pago.transferencia.loteMaximo", liquidador::getTamanoMaximoLote);
+        return liquidador;
+    }
+    
+    /**
+     * Habilita o deshabilita la medición según {@code metricas.habilitadas} y,
+     * si {@code metricas.jmx.habilitado} está activo, publica el registro como MBean.
+     */
+    private static void configurarMetricas(CargadorDatos cargadorDatos) {
+        RegistroMetricas metricas = Metricas.registro();
+        metricas.setHabilitado(cargadorDatos.obtenerPropiedadBoolean("metricas.habilitadas", true));
+        metricas.medidor("eventos.pendientes", () -> Eventos.bus().getPendientes());
+        metricas.medidor("eventos.descartados", () -> Eventos.bus().getDescartados());
+        
+        if (metricas.isHabilitado() && cargadorDatos.obtenerPropiedadBoolean("metricas.jmx.habilitado", false)) {
+            try {
+                Metricas.publicarEnJmx();
+                Eventos.mensaje("Métricas publicadas en JMX como " + Metricas.NOMBRE_JMX);
+            } catch (JMException e) {
+                Eventos.error("No se pudieron publicar las métricas en JMX: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Crea el manejador de la instantánea binaria si está habilitada en la configuración.
+     * 
+     * @return La instantánea configurada, o null si está deshabilitada
+     */
+    /**
+     * Lee {@code reservas.particiones}; 0 o menos significa una partición por núcleo.
+     */
+    private static int leerParticiones(CargadorDatos cargadorDatos) {
+        int particiones = cargadorDatos.obtenerPropiedadInt("reservas.particiones", 1);
+        return particiones > 0 ? particiones : Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * Aplica {@code reservas.idempotencia.*} a las claves de altas y pagos y
+     * publica cuántos reintentos se respondieron con el resultado original.
+     */
+    private static void configurarIdempotencia(CargadorDatos cargadorDatos, GestorReservas gestorReservas) {
+        gestorReservas.configurarIdempotencia(
+                cargadorDatos.obtenerPropiedadInt("reservas.idempotencia.capacidad", 100_000),
+                Duration.ofSeconds(cargadorDatos.obtenerPropiedadInt("reservas.idempotencia.vigencia.segundos",
+                        86_400)));
+        Metricas.registro().medidor("reservas.reintentos", gestorReservas::getReintentosAtendidos);
+    }
+    
+    /**
+     * Elige la representación del inventario de habitaciones según
+     * {@code habitaciones.inventario} ("objetos" o "columnar").
+     */
+    private static InventarioHabitaciones crearInventario(CargadorDatos cargadorDatos) {
+        String tipo = cargadorDatos.obtenerPropiedad("habitaciones.inventario");
+        if ("columnar".equalsIgnoreCase(tipo == null ? null : tipo.trim())) {
+            Eventos.mensaje("Inventario de habitaciones por columnas");
+            return new InventarioColumnar();
+        }
+        return new InventarioObjetos();
+    }
+    
+    private static InstantaneaBinaria crearInstantanea(CargadorDatos cargadorDatos) {
+        if (!cargadorDatos.obtenerPropiedadBoolean("persistencia.instantanea.habilitada", false)) {
+            return null;
+        }
+        return new InstantaneaBinaria(Paths.get(cargadorDatos.obtenerPropiedad("persistencia.instantanea.archivo")));
+    }
+    
+    /**
+     * Carga la instantánea binaria sobre los gestores, si existe.
+     * 
+     * @return LSN de la instantánea cargada, o -1 si no se cargó
+     */
+    private static long cargarInstantanea(InstantaneaBinaria instantanea, GestorClientes gestorClientes,
+                                          GestorHabitaciones gestorHabitaciones, GestorReservas gestorReservas) {
+        if (instantanea == null || !instantanea.existe()) {
+            return -1;
+        }
+        
+        Eventos.mensaje("--- Cargando Instantánea " + instantanea.getArchivo() + " ---");
+        try {
+            long lsn = instantanea.cargar(gestorClientes, gestorHabitaciones, gestorReservas);
+            Eventos.mensaje("Instantánea cargada hasta el evento " + lsn);
+            Eventos.mensaje("");
+            return lsn;
+        } catch (IOException e) {
+            // El CRC se verifica antes de poblar los gestores: se vuelve a los CSV y al registro completo
+            Eventos.error("No se pudo cargar la instantánea: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    /**
+     * Escribe la instantánea binaria del estado actual, si está habilitada.
+     */
+    private static void escribirInstantanea(InstantaneaBinaria instantanea, GestorClientes gestorClientes,
+                                            GestorHabitaciones gestorHabitaciones, GestorReservas gestorReservas,
+                                            RegistroEscrituraAnticipada registro) {
+        if (instantanea == null) {
+            return;
+        }
+        try {
+            long lsn = registro != null ? registro.getUltimoLsn() : 0;
+            instantanea.escribir(gestorClientes, gestorHabitaciones, gestorReservas, lsn);
+            Eventos.mensaje("Instantánea escrita en " + instantanea.getArchivo());
+        } catch (IOException e) {
+            Eventos.error("No se pudo escribir la instantánea: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Abre el registro de escritura anticipada si está habilitado en la configuración,
+     * reproduce sus eventos posteriores a la instantánea cargada y lo deja como
+     * bitácora de GestorReservas.
+     * 
+     * @return El registro abierto, o null si está deshabilitado o no pudo abrirse
+     */
+    private static RegistroEscrituraAnticipada abrirRegistro(CargadorDatos cargadorDatos,
+                                                            GestorReservas gestorReservas,
+                                                            GestorClientes gestorClientes,
+                                                            GestorHabitaciones gestorHabitaciones,
+                                                            long desdeLsn) {
+        if (!cargadorDatos.obtenerPropiedadBoolean("persistencia.registro.habilitado", false)) {
+            return null;
+        }
+        
+        String archivo = cargadorDatos.obtenerPropiedad("persistencia.registro.archivo");
+        try {
+            RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(Paths.get(archivo));
+            Eventos.mensaje("--- Recuperando Reservas desde " + archivo + " ---");
+            int eventos = registro.reproducir(gestorReservas, gestorClientes, gestorHabitaciones, desdeLsn);
+            Eventos.mensaje("Eventos recuperados: " + eventos);
+            Eventos.mensaje("");
+            gestorReservas.setBitacora(registro);
+            return registro;
+        } catch (IOException e) {
+            Eventos.error("No se pudo abrir el registro " + archivo + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Cierra el registro de escritura anticipada, si hay uno abierto.
+     */
+    private static void cerrarRegistro(RegistroEscrituraAnticipada registro) {
+        if (registro == null) {
+            return;
+        }
+        try {
+            registro.close();
+        } catch (IOException e) {
+            Eventos.error("Error al cerrar el registro: " + e.getMessage());
+        }
     }
     
     /**
@@ -161,19 +686,19 @@ public class SistemaReservasHotel {
      * @param reserva Reserva a procesar (puede ser Reserva o ReservaVIP)
      */
     private static void procesarReserva(Reserva reserva) {
-        System.out.println("Procesando reserva: " + reserva.getIdReserva());
-        System.out.println("Cliente: " + reserva.getCliente().getNombre());
-        System.out.println("Precio total: $" + reserva.getPrecioTotal());
-        System.out.println("Método de pago: " + reserva.getMetodoPago().getNombreMetodo());
+        Eventos.mensaje("Procesando reserva: " + reserva.getIdReserva());
+        Eventos.mensaje("Cliente: " + reserva.getCliente().getNombre());
+        Eventos.mensaje("Precio total: $" + Dinero.formatear(reserva.getPrecioTotalCentavos()));
+        Eventos.mensaje("Método de pago: " + reserva.getMetodoPago().getNombreMetodo());
         
         // Si es ReservaVIP, mostrar información adicional
         if (reserva instanceof ReservaVIP) {
             ReservaVIP reservaVIP = (ReservaVIP) reserva;
-            System.out.println("Tipo: Reserva VIP");
-            System.out.println("Incluye desayuno: " + reservaVIP.incluyeDesayuno());
-            System.out.println("Acceso a sala VIP: " + reservaVIP.tieneAccesoSalaVIP());
+            Eventos.mensaje("Tipo: Reserva VIP");
+            Eventos.mensaje("Incluye desayuno: " + reservaVIP.incluyeDesayuno());
+            Eventos.mensaje("Acceso a sala VIP: " + reservaVIP.tieneAccesoSalaVIP());
         } else {
-            System.out.println("Tipo: Reserva Estándar");
+            Eventos.mensaje("Tipo: Reserva Estándar");
         }
     }
 }
@@ -1,65 +1,108 @@
 package com.hotel.config;
 
+import com.hotel.eventos.Eventos;
 import com.hotel.modelo.Cliente;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Clase responsable de cargar clientes desde archivos CSV.
  * Implementa SRP: tiene una única responsabilidad - cargar datos de clientes.
+ * 
+ * Si el archivo configurado existe en el sistema de archivos se lee con
+ * LectorCsvParalelo (mapeado en memoria y en paralelo); si no, se busca como
+ * recurso del classpath.
  */
 public class CargadorClientes {
     
     private static final String ARCHIVO_CLIENTES = "config/clientes.csv";
     
+    private final String archivo;
+    
+    /**
+     * Constructor que usa el archivo de clientes por defecto.
+     */
+    public CargadorClientes() {
+        this(ARCHIVO_CLIENTES);
+    }
+    
+    /**
+     * Constructor que permite indicar el archivo de clientes
+     * (por ejemplo, la propiedad datos.archivo.clientes).
+     * 
+     * @param archivo Ruta del archivo o nombre del recurso del classpath
+     */
+    public CargadorClientes(String archivo) {
+        this.archivo = archivo != null ? archivo : ARCHIVO_CLIENTES;
+    }
+    
     /**
      * Carga la lista de clientes desde el archivo CSV.
      * 
      * @return Lista de clientes cargados
      */
     public List<Cliente> cargarClientes() {
-        List<Cliente> clientes = new ArrayList<>();
-        
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream(ARCHIVO_CLIENTES);
-             BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
-            
-            if (is == null) {
-                System.out.println("No se encontró " + ARCHIVO_CLIENTES + ", usando clientes por defecto");
-                return obtenerClientesPorDefecto();
-            }
-            
-            String linea;
-            boolean primeraLinea = true;
-            
-            while ((linea = br.readLine()) != null) {
-                if (primeraLinea) {
-                    primeraLinea = false; // Saltar encabezado
-                    continue;
-                }
-                
-                String[] datos = linea.split(",");
-                if (datos.length >= 4) {
-                    String id = datos[0].trim();
-                    String nombre = datos[1].trim();
-                    String email = datos[2].trim();
-                    String telefono = datos[3].trim();
-                    
-                    clientes.add(new Cliente(id, nombre, email, telefono));
+        List<Cliente> clientes = Collections.synchronizedList(new ArrayList<>());
+        cargarClientes(clientes::add);
+        return new ArrayList<>(clientes);
+    }
+    
+    /**
+     * Carga los clientes del archivo CSV entregándolos al destino a medida que
+     * se leen. Las filas inválidas se informan por línea sin detener la carga.
+     * 
+     * @param destino Receptor de cada cliente (debe ser seguro entre hilos),
+     *                por ejemplo GestorClientes::registrarCliente
+     * @return Resumen de la carga con los errores por línea
+     */
+    public ResultadoCarga cargarClientes(Predicate<Cliente> destino) {
+        LectorCsvParalelo lector = new LectorCsvParalelo();
+        ResultadoCarga resultado;
+        try {
+            Path ruta = Paths.get(archivo);
+            if (Files.isRegularFile(ruta)) {
+                resultado = lector.leer(ruta, CargadorClientes::convertirFila, destino);
+            } else {
+                ByteBuffer contenido = LectorCsvParalelo.leerRecurso(archivo);
+                if (contenido == null) {
+                    Eventos.mensaje("No se encontró " + archivo + ", usando clientes por defecto");
+                    return cargarPorDefecto(destino);
                 }
+                resultado = lector.leer(archivo, contenido, CargadorClientes::convertirFila, destino);
             }
-            
-            System.out.println("Clientes cargados desde " + ARCHIVO_CLIENTES + ": " + clientes.size());
-            
-        } catch (IOException | NullPointerException e) {
-            System.err.println("Error al cargar clientes: " + e.getMessage());
-            return obtenerClientesPorDefecto();
+        } catch (IOException e) {
+            Eventos.error("Error al cargar clientes: " + e.getMessage());
+            return cargarPorDefecto(destino);
         }
         
-        return clientes.isEmpty() ? obtenerClientesPorDefecto() : clientes;
+        resultado.imprimirResumen("Clientes cargados");
+        return resultado.getFilasLeidas() == 0 ? cargarPorDefecto(destino) : resultado;
+    }
+    
+    /**
+     * Convierte una fila id,nombre,email,telefono en un cliente.
+     */
+    private static Cliente convertirFila(FilaCsv fila) {
+        if (fila.numeroCampos() < 4) {
+            throw new IllegalArgumentException("Se esperaban 4 campos y hay " + fila.numeroCampos());
+        }
+        return new Cliente(fila.texto(0), fila.texto(1), fila.texto(2), fila.texto(3));
+    }
+    
+    /**
+     * Entrega los clientes por defecto al destino.
+     */
+    private ResultadoCarga cargarPorDefecto(Predicate<Cliente> destino) {
+        List<Cliente> clientes = obtenerClientesPorDefecto();
+        long cargados = clientes.stream().filter(destino).count();
+        return new ResultadoCarga("clientes por defecto", clientes.size(), cargados, new ArrayList<>());
     }
     
     /**
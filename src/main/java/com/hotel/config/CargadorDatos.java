@@ -1,7 +1,10 @@
 package com.hotel.config;
 
+import com.hotel.eventos.Eventos;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -24,14 +27,14 @@ public class CargadorDatos {
     private void cargarPropiedades() {
         try (InputStream input = getClass().getClassLoader().getResourceAsStream(ARCHIVO_CONFIG)) {
             if (input == null) {
-                System.out.println("No se pudo encontrar " + ARCHIVO_CONFIG + ", usando valores por defecto");
+                Eventos.mensaje("No se pudo encontrar " + ARCHIVO_CONFIG + ", usando valores por defecto");
                 cargarValoresPorDefecto();
                 return;
             }
             propiedades.load(input);
-            System.out.println("Configuración cargada desde " + ARCHIVO_CONFIG);
+            Eventos.mensaje("Configuración cargada desde " + ARCHIVO_CONFIG);
         } catch (IOException ex) {
-            System.err.println("Error al cargar configuración: " + ex.getMessage());
+            Eventos.error("Error al cargar configuración: " + ex.getMessage());
             cargarValoresPorDefecto();
         }
     }
@@ -46,6 +49,10 @@ public class CargadorDatos {
         propiedades.setProperty("reserva.vip.descuento", "0.15");
         propiedades.setProperty("datos.archivo.clientes", "config/clientes.csv");
         propiedades.setProperty("datos.archivo.habitaciones", "config/habitaciones.csv");
+        propiedades.setProperty("persistencia.registro.habilitado", "false");
+        propiedades.setProperty("persistencia.registro.archivo", "datos/reservas.wal");
+        propiedades.setProperty("persistencia.instantanea.habilitada", "false");
+        propiedades.setProperty("persistencia.instantanea.archivo", "datos/reservas.snap");
     }
     
     /**
@@ -89,4 +96,36 @@ public class CargadorDatos {
             return valorDefecto;
         }
     }
+    
+    /**
+     * Obtiene el valor de una propiedad como booleano.
+     * 
+     * @param clave Clave de la propiedad
+     * @param valorDefecto Valor por defecto si no existe
+     * @return Valor de la propiedad como boolean
+     */
+    public boolean obtenerPropiedadBoolean(String clave, boolean valorDefecto) {
+        String valor = propiedades.getProperty(clave);
+        return valor != null ? Boolean.parseBoolean(valor.trim()) : valorDefecto;
+    }
+    
+    /**
+     * Obtiene el valor de una propiedad como lista separada por comas.
+     * 
+     * @param clave Clave de la propiedad
+     * @return Elementos no vacíos de la lista, o una lista vacía si no existe
+     */
+    public List<String> obtenerPropiedadLista(String clave) {
+        String valor = propiedades.getProperty(clave);
+        List<String> elementos = new ArrayList<>();
+        if (valor == null) {
+            return elementos;
+        }
+        for (String elemento : valor.split(",")) {
+            if (!elemento.trim().isEmpty()) {
+                elementos.add(elemento.trim());
+            }
+        }
+        return elementos;
+    }
 }
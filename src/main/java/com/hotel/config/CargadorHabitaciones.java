@@ -1,73 +1,119 @@
 package com.hotel.config;
 
+import com.hotel.eventos.Eventos;
 import com.hotel.modelo.Habitacion;
 import com.hotel.modelo.HabitacionEstandar;
 import com.hotel.modelo.HabitacionSuite;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Clase responsable de cargar habitaciones desde archivos CSV.
  * Implementa SRP: tiene una única responsabilidad - cargar datos de habitaciones.
+ * 
+ * Si el archivo configurado existe en el sistema de archivos se lee con
+ * LectorCsvParalelo (mapeado en memoria y en paralelo); si no, se busca como
+ * recurso del classpath.
  */
 public class CargadorHabitaciones {
     
     private static final String ARCHIVO_HABITACIONES = "config/habitaciones.csv";
     
+    private final String archivo;
+    
+    /**
+     * Constructor que usa el archivo de habitaciones por defecto.
+     */
+    public CargadorHabitaciones() {
+        this(ARCHIVO_HABITACIONES);
+    }
+    
+    /**
+     * Constructor que permite indicar el archivo de habitaciones
+     * (por ejemplo, la propiedad datos.archivo.habitaciones).
+     * 
+     * @param archivo Ruta del archivo o nombre del recurso del classpath
+     */
+    public CargadorHabitaciones(String archivo) {
+        this.archivo = archivo != null ? archivo : ARCHIVO_HABITACIONES;
+    }
+    
     /**
      * Carga la lista de habitaciones desde el archivo CSV.
      * 
      * @return Lista de habitaciones cargadas
      */
     public List<Habitacion> cargarHabitaciones() {
-        List<Habitacion> habitaciones = new ArrayList<>();
-        
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream(ARCHIVO_HABITACIONES);
-             BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
-            
-            if (is == null) {
-                System.out.println("No se encontró " + ARCHIVO_HABITACIONES + ", usando habitaciones por defecto");
-                return obtenerHabitacionesPorDefecto();
-            }
-            
-            String linea;
-            boolean primeraLinea = true;
-            
-            while ((linea = br.readLine()) != null) {
-                if (primeraLinea) {
-                    primeraLinea = false; // Saltar encabezado
-                    continue;
-                }
-                
-                String[] datos = linea.split(",");
-                if (datos.length >= 4) {
-                    String numero = datos[0].trim();
-                    String tipo = datos[1].trim();
-                    double precio = Double.parseDouble(datos[2].trim());
-                    int capacidad = Integer.parseInt(datos[3].trim());
-                    
-                    if ("suite".equalsIgnoreCase(tipo) && datos.length >= 6) {
-                        boolean jacuzzi = Boolean.parseBoolean(datos[4].trim());
-                        boolean vista = Boolean.parseBoolean(datos[5].trim());
-                        habitaciones.add(new HabitacionSuite(numero, precio, capacidad, jacuzzi, vista));
-                    } else {
-                        habitaciones.add(new HabitacionEstandar(numero, precio, capacidad));
-                    }
+        List<Habitacion> habitaciones = Collections.synchronizedList(new ArrayList<>());
+        cargarHabitaciones(habitaciones::add);
+        return new ArrayList<>(habitaciones);
+    }
+    
+    /**
+     * Carga las habitaciones del archivo CSV entregándolas al destino a medida
+     * que se leen. Las filas inválidas se informan por línea sin detener la carga.
+     * 
+     * @param destino Receptor de cada habitación (debe ser seguro entre hilos),
+     *                por ejemplo GestorHabitaciones::agregarHabitacion
+     * @return Resumen de la carga con los errores por línea
+     */
+    public ResultadoCarga cargarHabitaciones(Predicate<Habitacion> destino) {
+        LectorCsvParalelo lector = new LectorCsvParalelo();
+        ResultadoCarga resultado;
+        try {
+            Path ruta = Paths.get(archivo);
+            if (Files.isRegularFile(ruta)) {
+                resultado = lector.leer(ruta, CargadorHabitaciones::convertirFila, destino);
+            } else {
+                ByteBuffer contenido = LectorCsvParalelo.leerRecurso(archivo);
+                if (contenido == null) {
+                    Eventos.mensaje("No se encontró " + archivo + ", usando habitaciones por defecto");
+                    return cargarPorDefecto(destino);
                 }
+                resultado = lector.leer(archivo, contenido, CargadorHabitaciones::convertirFila, destino);
             }
-            
-            System.out.println("Habitaciones cargadas desde " + ARCHIVO_HABITACIONES + ": " + habitaciones.size());
-            
-        } catch (IOException | NullPointerException | NumberFormatException e) {
-            System.err.println("Error al cargar habitaciones: " + e.getMessage());
-            return obtenerHabitacionesPorDefecto();
+        } catch (IOException e) {
+            Eventos.error("Error al cargar habitaciones: " + e.getMessage());
+            return cargarPorDefecto(destino);
         }
         
-        return habitaciones.isEmpty() ? obtenerHabitacionesPorDefecto() : habitaciones;
+        resultado.imprimirResumen("Habitaciones cargadas");
+        return resultado.getFilasLeidas() == 0 ? cargarPorDefecto(destino) : resultado;
+    }
+    
+    /**
+     * Convierte una fila numero,tipo,precio,capacidad[,jacuzzi,vistaMar] en una habitación.
+     */
+    private static Habitacion convertirFila(FilaCsv fila) {
+        if (fila.numeroCampos() < 4) {
+            throw new IllegalArgumentException("Se esperaban al menos 4 campos y hay " + fila.numeroCampos());
+        }
+        
+        String numero = fila.texto(0);
+        String tipo = fila.texto(1);
+        double precio = fila.decimal(2);
+        int capacidad = fila.entero(3);
+        
+        if ("suite".equalsIgnoreCase(tipo) && fila.numeroCampos() >= 6) {
+            return new HabitacionSuite(numero, precio, capacidad, fila.booleano(4), fila.booleano(5));
+        }
+        return new HabitacionEstandar(numero, precio, capacidad);
+    }
+    
+    /**
+     * Entrega las habitaciones por defecto al destino.
+     */
+    private ResultadoCarga cargarPorDefecto(Predicate<Habitacion> destino) {
+        List<Habitacion> habitaciones = obtenerHabitacionesPorDefecto();
+        long cargadas = habitaciones.stream().filter(destino).count();
+        return new ResultadoCarga("habitaciones por defecto", habitaciones.size(), cargadas, new ArrayList<>());
     }
     
     /**
@@ -0,0 +1,136 @@
+package com.hotel.config;
+
+import com.hotel.eventos.Eventos;
+import com.hotel.tarifas.PlanTarifas;
+import com.hotel.tarifas.Tarifas;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Clase responsable de armar el plan de tarifas desde la configuración.
+ * Implementa SRP: tiene una única responsabilidad - traducir las propiedades
+ * {@code tarifas.*}, {@code reserva.vip.descuento} y {@code pago.*.comision}
+ * a un PlanTarifas.
+ * 
+ * Una regla mal escrita se informa y se omite; el resto del plan se carga igual.
+ */
+public class CargadorTarifas {
+    
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("MM-dd");
+    private static final String[] METODOS_PAGO = {"tarjeta", "transferencia", "criptomoneda"};
+    
+    private final CargadorDatos cargadorDatos;
+    
+    /**
+     * Constructor de la clase CargadorTarifas.
+     * 
+     * @param cargadorDatos Configuración de la aplicación
+     */
+    public CargadorTarifas(CargadorDatos cargadorDatos) {
+        this.cargadorDatos = cargadorDatos;
+    }
+    
+    /**
+     * Arma el plan de tarifas configurado.
+     * 
+     * @return Plan de tarifas con todas sus reglas
+     */
+    public PlanTarifas cargarPlan() {
+        PlanTarifas plan = new PlanTarifas(leerInicioCalendario(), cargadorDatos.obtenerPropiedadInt(
+                "tarifas.calendario.dias", Tarifas.DIAS_CALENDARIO_POR_DEFECTO));
+        
+        for (String tipo : cargadorDatos.obtenerPropiedadLista("tarifas.tipos")) {
+            plan.definirFactorTipo(tipo,
+                    cargadorDatos.obtenerPropiedadDouble("tarifas.tipo." + tipo + ".factor", 1.0));
+        }
+        
+        for (String temporada : cargadorDatos.obtenerPropiedadLista("tarifas.temporadas")) {
+            cargarTemporada(plan, temporada);
+        }
+        
+        Set<DayOfWeek> diasFinDeSemana = leerDias("tarifas.finDeSemana.dias");
+        if (!diasFinDeSemana.isEmpty()) {
+            plan.definirFinDeSemana(diasFinDeSemana,
+                    cargadorDatos.obtenerPropiedadDouble("tarifas.finDeSemana.factor", 1.0));
+            for (String tipo : cargadorDatos.obtenerPropiedadLista("tarifas.tipos")) {
+                String clave = "tarifas.finDeSemana.factor." + tipo;
+                if (cargadorDatos.obtenerPropiedad(clave) != null) {
+                    plan.definirFactorFinDeSemana(tipo, cargadorDatos.obtenerPropiedadDouble(clave, 1.0));
+                }
+            }
+        }
+        
+        for (String fecha : cargadorDatos.obtenerPropiedadLista("tarifas.fechas")) {
+            try {
+                plan.definirFactorFecha(LocalDate.parse(fecha),
+                        cargadorDatos.obtenerPropiedadDouble("tarifas.fecha." + fecha + ".factor", 1.0));
+            } catch (DateTimeParseException e) {
+                Eventos.error("Fecha de tarifa no válida: " + fecha);
+            }
+        }
+        
+        plan.setDescuentoVip(cargadorDatos.obtenerPropiedadDouble(
+                "reserva.vip.descuento", PlanTarifas.DESCUENTO_VIP_POR_DEFECTO));
+        for (String metodo : METODOS_PAGO) {
+            plan.definirComision(metodo, cargadorDatos.obtenerPropiedadDouble("pago." + metodo + ".comision", 0.0));
+        }
+        
+        Eventos.mensaje("Tarifas cargadas: " + plan.getNumeroTemporadas() + " temporadas, calendario desde "
+                + plan.getInicioCalendario() + " por " + plan.getDiasCalendario() + " noches");
+        return plan;
+    }
+    
+    /**
+     * Agrega una temporada {@code tarifas.temporada.<nombre>.*} con sus
+     * factores por tipo de habitación.
+     */
+    private void cargarTemporada(PlanTarifas plan, String nombre) {
+        String prefijo = "tarifas.temporada." + nombre + ".";
+        try {
+            plan.agregarTemporada(nombre,
+                    MonthDay.parse(cargadorDatos.obtenerPropiedad(prefijo + "inicio"), FORMATO_DIA),
+                    MonthDay.parse(cargadorDatos.obtenerPropiedad(prefijo + "fin"), FORMATO_DIA),
+                    cargadorDatos.obtenerPropiedadDouble(prefijo + "factor", 1.0));
+        } catch (DateTimeParseException | NullPointerException e) {
+            Eventos.error("Temporada " + nombre + " sin inicio o fin válidos (formato MM-dd)");
+            return;
+        }
+        
+        for (String tipo : cargadorDatos.obtenerPropiedadLista("tarifas.tipos")) {
+            String clave = prefijo + "factor." + tipo;
+            if (cargadorDatos.obtenerPropiedad(clave) != null) {
+                plan.definirFactorTemporada(nombre, tipo, cargadorDatos.obtenerPropiedadDouble(clave, 1.0));
+            }
+        }
+    }
+    
+    private LocalDate leerInicioCalendario() {
+        String inicio = cargadorDatos.obtenerPropiedad("tarifas.calendario.inicio");
+        if (inicio != null) {
+            try {
+                return LocalDate.parse(inicio.trim());
+            } catch (DateTimeParseException e) {
+                Eventos.error("Inicio de calendario de tarifas no válido: " + inicio);
+            }
+        }
+        return LocalDate.now().withDayOfYear(1);
+    }
+    
+    private Set<DayOfWeek> leerDias(String clave) {
+        Set<DayOfWeek> dias = EnumSet.noneOf(DayOfWeek.class);
+        for (String dia : cargadorDatos.obtenerPropiedadLista(clave)) {
+            try {
+                dias.add(DayOfWeek.valueOf(dia.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                Eventos.error("Día de la semana no válido en " + clave + ": " + dia);
+            }
+        }
+        return dias;
+    }
+}
@@ -0,0 +1,260 @@
+package com.hotel.config;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Vista de una fila CSV sobre los bytes del archivo.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: ubicar los campos de una
+ * fila y convertirlos al tipo pedido. En lugar de String.split, guarda solo las
+ * posiciones de inicio y fin de cada campo y convierte los números directamente
+ * desde los bytes, sin crear cadenas intermedias.
+ * 
+ * Un campo puede ir entre comillas dobles para incluir comas o espacios
+ * extremos, y dentro de él una comilla se escribe duplicada (""), como en
+ * RFC 4180. Un campo entre comillas no puede contener saltos de línea: el
+ * lector corta los bloques en cualquier salto.
+ * 
+ * Una misma instancia se reutiliza para todas las filas de un bloque, por lo
+ * que no es segura entre hilos: cada hilo de carga usa la suya.
+ */
+public class FilaCsv {
+    private static final int CAMPOS_INICIALES = 8;
+    
+    private ByteBuffer datos;
+    private int[] inicios;
+    private int[] fines;
+    private boolean[] comillasDobles; // El campo tiene "" que texto() debe reducir a "
+    private int numeroCampos;
+    private long numeroLinea;
+    
+    FilaCsv() {
+        this.inicios = new int[CAMPOS_INICIALES];
+        this.fines = new int[CAMPOS_INICIALES];
+        this.comillasDobles = new boolean[CAMPOS_INICIALES];
+    }
+    
+    /**
+     * Ubica los campos de la línea [inicio, fin) del bloque.
+     * 
+     * @throws IllegalArgumentException si unas comillas no se cierran o les sigue texto
+     */
+    void ubicar(ByteBuffer datos, int inicio, int fin, long numeroLinea) {
+        this.datos = datos;
+        this.numeroLinea = numeroLinea;
+        this.numeroCampos = 0;
+        
+        int i = inicio;
+        while (true) {
+            int inicioCampo = i;
+            while (i < fin && esEspacio(datos.get(i))) {
+                i++;
+            }
+            if (i < fin && datos.get(i) == '"') {
+                i = ubicarEntreComillas(i + 1, fin);
+            } else {
+                while (i < fin && datos.get(i) != ',') {
+                    i++;
+                }
+                agregarCampo(inicioCampo, i, false, false);
+            }
+            if (i >= fin) {
+                return;
+            }
+            i++;
+        }
+    }
+    
+    /**
+     * Ubica un campo entre comillas cuyo contenido empieza en desde.
+     * 
+     * @return Posición de la coma que sigue al campo, o fin si es el último
+     */
+    private int ubicarEntreComillas(int desde, int fin) {
+        boolean duplicadas = false;
+        for (int i = desde; i < fin; i++) {
+            if (datos.get(i) != '"') {
+                continue;
+            }
+            if (i + 1 < fin && datos.get(i + 1) == '"') {
+                duplicadas = true;
+                i++;
+                continue;
+            }
+            agregarCampo(desde, i, true, duplicadas);
+            int siguiente = i + 1;
+            while (siguiente < fin && esEspacio(datos.get(siguiente))) {
+                siguiente++;
+            }
+            if (siguiente < fin && datos.get(siguiente) != ',') {
+                throw new IllegalArgumentException(
+                        "Campo " + numeroCampos + ": hay texto después de las comillas de cierre");
+            }
+            return siguiente;
+        }
+        throw new IllegalArgumentException("Campo " + (numeroCampos + 1) + ": comillas sin cerrar");
+    }
+    
+    /**
+     * Obtiene el número de campos de la fila.
+     * 
+     * @return Número de campos
+     */
+    public int numeroCampos() {
+        return numeroCampos;
+    }
+    
+    /**
+     * Obtiene el número de línea de la fila dentro del bloque.
+     * 
+     * @return Número de línea relativo al bloque (empezando en 1)
+     */
+    public long numeroLinea() {
+        return numeroLinea;
+    }
+    
+    /**
+     * Obtiene un campo como texto, sin espacios extremos salvo que vaya entre
+     * comillas, en cuyo caso se devuelve su contenido tal cual.
+     * 
+     * @param indice Índice del campo (desde 0)
+     * @return Texto del campo
+     */
+    public String texto(int indice) {
+        verificarIndice(indice);
+        int longitud = fines[indice] - inicios[indice];
+        byte[] bytes = new byte[longitud];
+        int copiados = 0;
+        for (int i = inicios[indice]; i < fines[indice]; i++) {
+            bytes[copiados++] = datos.get(i);
+            // De cada "" se copia solo la primera
+            if (comillasDobles[indice] && datos.get(i) == '"') {
+                i++;
+            }
+        }
+        return new String(bytes, 0, copiados, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Obtiene un campo como entero.
+     * 
+     * @param indice Índice del campo (desde 0)
+     * @return Valor entero del campo
+     * @throws NumberFormatException si el campo no es un entero válido
+     */
+    public int entero(int indice) {
+        verificarIndice(indice);
+        int inicio = inicios[indice];
+        int fin = fines[indice];
+        boolean negativo = inicio < fin && datos.get(inicio) == '-';
+        int i = negativo ? inicio + 1 : inicio;
+        if (i == fin) {
+            throw new NumberFormatException("Campo " + (indice + 1) + " vacío o no numérico");
+        }
+        
+        long valor = 0;
+        for (; i < fin; i++) {
+            int digito = datos.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw new NumberFormatException("Campo " + (indice + 1) + " no es un entero: " + texto(indice));
+            }
+            valor = valor * 10 + digito;
+            if (valor > Integer.MAX_VALUE + 1L) {
+                throw new NumberFormatException("Campo " + (indice + 1) + " fuera de rango: " + texto(indice));
+            }
+        }
+        valor = negativo ? -valor : valor;
+        if (valor > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Campo " + (indice + 1) + " fuera de rango: " + texto(indice));
+        }
+        return (int) valor;
+    }
+    
+    /**
+     * Obtiene un campo como número decimal.
+     * Los valores simples (dígitos con punto decimal opcional) se convierten
+     * directamente; cualquier otro formato se delega a Double.parseDouble.
+     * 
+     * @param indice Índice del campo (desde 0)
+     * @return Valor decimal del campo
+     * @throws NumberFormatException si el campo no es un número válido
+     */
+    public double decimal(int indice) {
+        verificarIndice(indice);
+        int inicio = inicios[indice];
+        int fin = fines[indice];
+        
+        long entero = 0;
+        long fraccion = 0;
+        long escala = 1;
+        boolean enFraccion = false;
+        int digitos = 0;
+        for (int i = inicio; i < fin; i++) {
+            byte b = datos.get(i);
+            if (b == '.' && !enFraccion) {
+                enFraccion = true;
+            } else if (b >= '0' && b <= '9' && digitos < 15) {
+                digitos++;
+                if (enFraccion) {
+                    fraccion = fraccion * 10 + (b - '0');
+                    escala *= 10;
+                } else {
+                    entero = entero * 10 + (b - '0');
+                }
+            } else {
+                return Double.parseDouble(texto(indice));
+            }
+        }
+        if (digitos == 0) {
+            throw new NumberFormatException("Campo " + (indice + 1) + " vacío o no numérico");
+        }
+        return entero + (double) fraccion / escala;
+    }
+    
+    /**
+     * Obtiene un campo como booleano ("true" sin distinguir mayúsculas).
+     * 
+     * @param indice Índice del campo (desde 0)
+     * @return true si el campo es "true"
+     */
+    public boolean booleano(int indice) {
+        verificarIndice(indice);
+        int inicio = inicios[indice];
+        if (fines[indice] - inicio != 4) {
+            return false;
+        }
+        return (datos.get(inicio) | 0x20) == 't' && (datos.get(inicio + 1) | 0x20) == 'r'
+                && (datos.get(inicio + 2) | 0x20) == 'u' && (datos.get(inicio + 3) | 0x20) == 'e';
+    }
+    
+    private void agregarCampo(int inicio, int fin, boolean entreComillas, boolean duplicadas) {
+        while (!entreComillas && inicio < fin && esEspacio(datos.get(inicio))) {
+            inicio++;
+        }
+        while (!entreComillas && fin > inicio && esEspacio(datos.get(fin - 1))) {
+            fin--;
+        }
+        
+        if (numeroCampos == inicios.length) {
+            inicios = Arrays.copyOf(inicios, numeroCampos * 2);
+            fines = Arrays.copyOf(fines, numeroCampos * 2);
+            comillasDobles = Arrays.copyOf(comillasDobles, numeroCampos * 2);
+        }
+        inicios[numeroCampos] = inicio;
+        fines[numeroCampos] = fin;
+        comillasDobles[numeroCampos] = duplicadas;
+        numeroCampos++;
+    }
+    
+    private void verificarIndice(int indice) {
+        if (indice < 0 || indice >= numeroCampos) {
+            throw new IllegalArgumentException("La fila tiene " + numeroCampos + " campos, se pidió el " + (indice + 1));
+        }
+    }
+    
+    private static boolean esEspacio(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
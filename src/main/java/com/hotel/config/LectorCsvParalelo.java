@@ -0,0 +1,274 @@
+package com.hotel.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Lector de archivos CSV en paralelo sobre archivos mapeados en memoria.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: recorrer un CSV y entregar
+ * cada fila convertida a su destino, informando los errores por línea.
+ * 
+ * El archivo se divide en bloques alineados a fin de línea; cada bloque se
+ * mapea con FileChannel.map y se procesa en un hilo distinto. Las filas se
+ * entregan al destino a medida que se convierten, sin materializar una lista
+ * completa, por lo que el destino debe ser seguro entre hilos (por ejemplo
+ * GestorClientes::registrarCliente). La primera línea se trata como encabezado.
+ * Los campos pueden ir entre comillas (ver FilaCsv), pero sin saltos de línea.
+ */
+public class LectorCsvParalelo {
+    private static final int TAMANO_MINIMO_BLOQUE = 1 << 20;
+    private static final int TAMANO_MAXIMO_BLOQUE = Integer.MAX_VALUE - 8;
+    
+    private final int paralelismo;
+    private final int tamanoMinimoBloque;
+    
+    /**
+     * Constructor que usa un hilo por núcleo disponible.
+     */
+    public LectorCsvParalelo() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Constructor que permite fijar el paralelismo.
+     * 
+     * @param paralelismo Número de bloques objetivo (1 para leer en un solo hilo)
+     */
+    public LectorCsvParalelo(int paralelismo) {
+        this(paralelismo, TAMANO_MINIMO_BLOQUE);
+    }
+    
+    /**
+     * Constructor con otro tamaño mínimo de bloque, para partir archivos
+     * pequeños en varios bloques.
+     * 
+     * @param paralelismo Número de bloques objetivo
+     * @param tamanoMinimoBloque Bytes mínimos por bloque (al menos 1)
+     */
+    LectorCsvParalelo(int paralelismo, int tamanoMinimoBloque) {
+        this.paralelismo = Math.max(1, paralelismo);
+        this.tamanoMinimoBloque = Math.max(1, tamanoMinimoBloque);
+    }
+    
+    /**
+     * Convierte una fila CSV en un registro del dominio.
+     * 
+     * @param <T> Tipo del registro
+     */
+    public interface ConversorFila<T> {
+        
+        /**
+         * Convierte la fila.
+         * 
+         * @param fila Fila a convertir
+         * @return Registro convertido
+         * @throws RuntimeException si la fila no es válida; el mensaje se informa como error de línea
+         */
+        T convertir(FilaCsv fila);
+    }
+    
+    /**
+     * Lee un archivo CSV del sistema de archivos.
+     * 
+     * @param archivo Ruta del archivo
+     * @param conversor Conversor de fila a registro
+     * @param destino Receptor de cada registro; si retorna false la fila se informa como rechazada
+     * @param <T> Tipo del registro
+     * @return Resumen de la carga con los errores por línea
+     * @throws IOException si el archivo no puede leerse
+     */
+    public <T> ResultadoCarga leer(Path archivo, ConversorFila<T> conversor, Predicate<T> destino)
+            throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            List<long[]> bloques = dividirEnBloques(canal);
+            List<ResultadoBloque> resultados = IntStream.range(0, bloques.size())
+                    .parallel()
+                    .mapToObj(i -> {
+                        long[] bloque = bloques.get(i);
+                        try {
+                            ByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, bloque[0], bloque[1]);
+                            return procesarBloque(datos, i == 0, conversor, destino);
+                        } catch (IOException e) {
+                            ResultadoBloque fallido = new ResultadoBloque();
+                            fallido.errores.add(new ResultadoCarga.ErrorFila(1,
+                                    "No se pudo leer el bloque en la posición " + bloque[0] + ": " + e.getMessage()));
+                            return fallido;
+                        }
+                    })
+                    .collect(Collectors.toList());
+            return combinar(archivo.toString(), resultados);
+        }
+    }
+    
+    /**
+     * Lee un CSV ya cargado en memoria (por ejemplo, un recurso del classpath)
+     * en un solo hilo, con el mismo conversor e informe de errores.
+     * 
+     * @param origen Nombre del origen, para el informe
+     * @param datos Contenido completo del archivo
+     * @param conversor Conversor de fila a registro
+     * @param destino Receptor de cada registro
+     * @param <T> Tipo del registro
+     * @return Resumen de la carga con los errores por línea
+     */
+    public <T> ResultadoCarga leer(String origen, ByteBuffer datos, ConversorFila<T> conversor,
+                                   Predicate<T> destino) {
+        List<ResultadoBloque> resultados = new ArrayList<>();
+        resultados.add(procesarBloque(datos, true, conversor, destino));
+        return combinar(origen, resultados);
+    }
+    
+    /**
+     * Lee completo un recurso del classpath.
+     * 
+     * @param recurso Nombre del recurso
+     * @return Contenido del recurso, o null si no existe
+     * @throws IOException si el recurso no puede leerse
+     */
+    public static ByteBuffer leerRecurso(String recurso) throws IOException {
+        try (InputStream is = LectorCsvParalelo.class.getClassLoader().getResourceAsStream(recurso)) {
+            if (is == null) {
+                return null;
+            }
+            ByteArrayOutputStream contenido = new ByteArrayOutputStream();
+            byte[] bufer = new byte[8192];
+            int leidos;
+            while ((leidos = is.read(bufer)) != -1) {
+                contenido.write(bufer, 0, leidos);
+            }
+            return ByteBuffer.wrap(contenido.toByteArray());
+        }
+    }
+    
+    /**
+     * Divide el archivo en bloques [posición, tamaño] que terminan justo después de un salto de línea.
+     */
+    private List<long[]> dividirEnBloques(FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        long objetivo = Math.max(tamanoMinimoBloque, tamano / paralelismo + 1);
+        objetivo = Math.min(objetivo, TAMANO_MAXIMO_BLOQUE);
+        
+        List<long[]> bloques = new ArrayList<>();
+        ByteBuffer lectura = ByteBuffer.allocate(8192);
+        long inicio = 0;
+        while (inicio < tamano) {
+            long fin = Math.min(tamano, inicio + objetivo);
+            // Avanzar hasta el siguiente salto de línea para no partir una fila
+            while (fin < tamano) {
+                lectura.clear();
+                int leidos = canal.read(lectura, fin);
+                if (leidos <= 0) {
+                    fin = tamano;
+                    break;
+                }
+                int salto = -1;
+                for (int i = 0; i < leidos; i++) {
+                    if (lectura.get(i) == '\n') {
+                        salto = i;
+                        break;
+                    }
+                }
+                if (salto >= 0) {
+                    fin += salto + 1;
+                    break;
+                }
+                fin += leidos;
+            }
+            if (fin - inicio > TAMANO_MAXIMO_BLOQUE) {
+                throw new IOException("Línea demasiado larga cerca de la posición " + inicio);
+            }
+            bloques.add(new long[] {inicio, fin - inicio});
+            inicio = fin;
+        }
+        return bloques;
+    }
+    
+    /**
+     * Recorre las líneas de un bloque y entrega cada fila convertida al destino.
+     */
+    private <T> ResultadoBloque procesarBloque(ByteBuffer datos, boolean primerBloque,
+                                               ConversorFila<T> conversor, Predicate<T> destino) {
+        ResultadoBloque resultado = new ResultadoBloque();
+        FilaCsv fila = new FilaCsv();
+        int limite = datos.limit();
+        int inicioLinea = datos.position();
+        
+        while (inicioLinea < limite) {
+            int finLinea = inicioLinea;
+            while (finLinea < limite && datos.get(finLinea) != '\n') {
+                finLinea++;
+            }
+            resultado.lineas++;
+            
+            boolean encabezado = primerBloque && resultado.lineas == 1;
+            if (!encabezado && !esLineaVacia(datos, inicioLinea, finLinea)) {
+                resultado.filasLeidas++;
+                try {
+                    fila.ubicar(datos, inicioLinea, finLinea, resultado.lineas);
+                    T registro = conversor.convertir(fila);
+                    if (destino.test(registro)) {
+                        resultado.filasCargadas++;
+                    } else {
+                        resultado.errores.add(new ResultadoCarga.ErrorFila(resultado.lineas,
+                                "Registro rechazado por el destino (duplicado o inválido)"));
+                    }
+                } catch (RuntimeException e) {
+                    resultado.errores.add(new ResultadoCarga.ErrorFila(resultado.lineas,
+                            e.getClass().getSimpleName() + ": " + e.getMessage()));
+                }
+            }
+            inicioLinea = finLinea + 1;
+        }
+        return resultado;
+    }
+    
+    /**
+     * Une los resultados de los bloques pasando los números de línea de relativos a absolutos.
+     */
+    private ResultadoCarga combinar(String origen, List<ResultadoBloque> resultados) {
+        long lineasPrevias = 0;
+        long filasLeidas = 0;
+        long filasCargadas = 0;
+        List<ResultadoCarga.ErrorFila> errores = new ArrayList<>();
+        for (ResultadoBloque resultado : resultados) {
+            for (ResultadoCarga.ErrorFila error : resultado.errores) {
+                errores.add(new ResultadoCarga.ErrorFila(lineasPrevias + error.getNumeroLinea(), error.getMensaje()));
+            }
+            lineasPrevias += resultado.lineas;
+            filasLeidas += resultado.filasLeidas;
+            filasCargadas += resultado.filasCargadas;
+        }
+        return new ResultadoCarga(origen, filasLeidas, filasCargadas, errores);
+    }
+    
+    private static boolean esLineaVacia(ByteBuffer datos, int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            byte b = datos.get(i);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Resultado parcial de un bloque, con números de línea relativos al bloque.
+     */
+    private static class ResultadoBloque {
+        private long lineas;
+        private long filasLeidas;
+        private long filasCargadas;
+        private final List<ResultadoCarga.ErrorFila> errores = new ArrayList<>();
+    }
+}
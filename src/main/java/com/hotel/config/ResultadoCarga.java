@@ -0,0 +1,98 @@
+package com.hotel.config;
+
+import com.hotel.eventos.Eventos;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resumen de una carga de archivo CSV.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: informar cuántas filas se
+ * leyeron y cargaron, y qué filas fallaron y por qué.
+ */
+public class ResultadoCarga {
+    private final String origen;
+    private final long filasLeidas;
+    private final long filasCargadas;
+    private final List<ErrorFila> errores;
+    
+    ResultadoCarga(String origen, long filasLeidas, long filasCargadas, List<ErrorFila> errores) {
+        this.origen = origen;
+        this.filasLeidas = filasLeidas;
+        this.filasCargadas = filasCargadas;
+        List<ErrorFila> ordenados = new ArrayList<>(errores);
+        ordenados.sort(Comparator.comparingLong(ErrorFila::getNumeroLinea));
+        this.errores = Collections.unmodifiableList(ordenados);
+    }
+    
+    public String getOrigen() {
+        return origen;
+    }
+    
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+    
+    public long getFilasCargadas() {
+        return filasCargadas;
+    }
+    
+    public List<ErrorFila> getErrores() {
+        return errores;
+    }
+    
+    public boolean tieneErrores() {
+        return !errores.isEmpty();
+    }
+    
+    /**
+     * Imprime el resumen de la carga y el detalle de las filas con error.
+     * 
+     * @param descripcion Descripción de lo cargado (ej: "Clientes cargados")
+     */
+    public void imprimirResumen(String descripcion) {
+        Eventos.mensaje(descripcion + " desde " + origen + ": " + filasCargadas
+                + " de " + filasLeidas + " filas");
+        for (ErrorFila error : errores) {
+            Eventos.error("  " + origen + ", " + error);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoCarga{" +
+                "origen='" + origen + '\'' +
+                ", filasLeidas=" + filasLeidas +
+                ", filasCargadas=" + filasCargadas +
+                ", errores=" + errores.size() +
+                '}';
+    }
+    
+    /**
+     * Error en una fila concreta del archivo.
+     */
+    public static class ErrorFila {
+        private final long numeroLinea;
+        private final String mensaje;
+        
+        ErrorFila(long numeroLinea, String mensaje) {
+            this.numeroLinea = numeroLinea;
+            this.mensaje = mensaje;
+        }
+        
+        public long getNumeroLinea() {
+            return numeroLinea;
+        }
+        
+        public String getMensaje() {
+            return mensaje;
+        }
+        
+        @Override
+        public String toString() {
+            return "línea " + numeroLinea + ": " + mensaje;
+        }
+    }
+}
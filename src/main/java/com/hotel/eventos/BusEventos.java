@@ -0,0 +1,273 @@
+package com.hotel.eventos;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bus de eventos sobre un búfer circular sin candados.
+ * 
+ * SRP: Solo traslada eventos de los hilos que los publican a un único hilo
+ * consumidor, que los formatea y los entrega a los sumideros.
+ * DIP: Los productores dependen de TipoEvento y no de la consola ni de
+ * ningún otro destino concreto.
+ * 
+ * Publicar nunca bloquea ni hace E/S: el productor reserva una ranura con
+ * una operación CAS, copia el tipo y hasta tres argumentos en arreglos
+ * preasignados y marca la ranura como publicada. Si el búfer está lleno,
+ * el evento se descarta y se cuenta, en lugar de frenar al productor. El
+ * mensaje se arma recién en el hilo consumidor.
+ */
+public class BusEventos implements Closeable {
+    private static final int MAXIMO_ARGUMENTOS = 3;
+    private static final int EVENTOS_POR_VACIADO = 1024;
+    private static final long ESPERA_INACTIVO_NS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long ESPERA_INACTIVO_MAXIMA_NS = TimeUnit.MILLISECONDS.toNanos(2);
+    
+    private final int capacidad;
+    private final int mascara;
+    private final TipoEvento[] tipos;
+    private final long[] instantes;
+    private final byte[] cantidades;
+    private final Object[] argumentos;
+    private final AtomicLongArray publicados;
+    private final AtomicLong siguiente = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final List<SumideroEventos> sumideros;
+    private final Thread consumidor;
+    private volatile long consumidos;
+    private volatile long entregados;
+    private volatile boolean cerrado;
+    
+    /**
+     * Constructor de la clase BusEventos. Arranca el hilo consumidor.
+     * 
+     * @param capacidad Número de ranuras del búfer (se redondea a potencia de dos)
+     * @param sumideros Destinos de los eventos
+     */
+    public BusEventos(int capacidad, SumideroEventos... sumideros) {
+        this.capacidad = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.mascara = this.capacidad - 1;
+        this.tipos = new TipoEvento[this.capacidad];
+        this.instantes = new long[this.capacidad];
+        this.cantidades = new byte[this.capacidad];
+        this.argumentos = new Object[this.capacidad * MAXIMO_ARGUMENTOS];
+        this.publicados = new AtomicLongArray(this.capacidad);
+        for (int i = 0; i < this.capacidad; i++) {
+            publicados.set(i, -1);
+        }
+        this.sumideros = new ArrayList<>(Arrays.asList(sumideros));
+        
+        this.consumidor = new Thread(this::consumir, "bus-eventos");
+        this.consumidor.setDaemon(true);
+        this.consumidor.start();
+    }
+    
+    /**
+     * Publica un evento sin argumentos.
+     * 
+     * @return true si se publicó, false si se descartó por búfer lleno o bus cerrado
+     */
+    public boolean publicar(TipoEvento tipo) {
+        return publicar(tipo, 0, null, null, null);
+    }
+    
+    /**
+     * Publica un evento con un argumento.
+     * 
+     * @return true si se publicó, false si se descartó por búfer lleno o bus cerrado
+     */
+    public boolean publicar(TipoEvento tipo, Object a) {
+        return publicar(tipo, 1, a, null, null);
+    }
+    
+    /**
+     * Publica un evento con dos argumentos.
+     * 
+     * @return true si se publicó, false si se descartó por búfer lleno o bus cerrado
+     */
+    public boolean publicar(TipoEvento tipo, Object a, Object b) {
+        return publicar(tipo, 2, a, b, null);
+    }
+    
+    /**
+     * Publica un evento con tres argumentos.
+     * 
+     * @return true si se publicó, false si se descartó por búfer lleno o bus cerrado
+     */
+    public boolean publicar(TipoEvento tipo, Object a, Object b, Object c) {
+        return publicar(tipo, 3, a, b, c);
+    }
+    
+    private boolean publicar(TipoEvento tipo, int cantidad, Object a, Object b, Object c) {
+        if (cerrado) {
+            descartados.incrementAndGet();
+            return false;
+        }
+        
+        // Reservar la siguiente secuencia solo si su ranura ya fue consumida
+        long secuencia;
+        do {
+            secuencia = siguiente.get();
+            if (secuencia - consumidos >= capacidad) {
+                descartados.incrementAndGet();
+                return false;
+            }
+        } while (!siguiente.compareAndSet(secuencia, secuencia + 1));
+        
+        int ranura = (int) secuencia & mascara;
+        int base = ranura * MAXIMO_ARGUMENTOS;
+        tipos[ranura] = tipo;
+        instantes[ranura] = System.currentTimeMillis();
+        cantidades[ranura] = (byte) cantidad;
+        argumentos[base] = a;
+        argumentos[base + 1] = b;
+        argumentos[base + 2] = c;
+        
+        // Escritura con orden de liberación: el consumidor ve la ranura completa
+        publicados.lazySet(ranura, secuencia);
+        
+        // Si el bus se cerró mientras se reservaba, el consumidor pudo terminar
+        // sin ver esta secuencia: se espera a que la entregue o se la cuenta
+        // como descartada. Como el consumidor lee cerrado antes que siguiente,
+        // si aquí cerrado todavía es false, la verá antes de terminar.
+        if (cerrado) {
+            while (consumidos <= secuencia && consumidor.isAlive()) {
+                LockSupport.parkNanos(ESPERA_INACTIVO_NS);
+            }
+            if (consumidos <= secuencia) {
+                descartados.incrementAndGet();
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Espera a que los eventos publicados hasta ahora lleguen a los sumideros
+     * y estos se vacíen. Útil antes de escribir directamente en la consola o al
+     * terminar el programa; no debe usarse en rutas críticas.
+     */
+    public void vaciar() {
+        long objetivo = siguiente.get();
+        while (entregados < objetivo && consumidor.isAlive()) {
+            LockSupport.parkNanos(ESPERA_INACTIVO_NS);
+        }
+    }
+    
+    /**
+     * Deja de aceptar eventos, entrega los pendientes y detiene el consumidor.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        try {
+            consumidor.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Bucle del hilo consumidor: entrega los eventos en orden de secuencia y
+     * vacía los sumideros cada vez que alcanza a los productores.
+     */
+    private void consumir() {
+        long secuencia = 0;
+        int inactivo = 0;
+        while (true) {
+            int ranura = (int) secuencia & mascara;
+            if (publicados.get(ranura) == secuencia) {
+                Evento evento = extraer(ranura);
+                secuencia++;
+                consumidos = secuencia;
+                entregar(evento);
+                if ((secuencia & (EVENTOS_POR_VACIADO - 1)) == 0) {
+                    vaciarSumideros(secuencia);
+                }
+                inactivo = 0;
+                continue;
+            }
+            
+            if (entregados < secuencia) {
+                vaciarSumideros(secuencia);
+            }
+            // Al cerrar se termina cuando no queda ninguna secuencia reservada sin entregar
+            if (cerrado && secuencia >= siguiente.get()) {
+                return;
+            }
+            
+            // Espera progresiva: ceder el procesador y luego dormir cada vez más
+            if (++inactivo < 64) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(inactivo < 1024 ? ESPERA_INACTIVO_NS : ESPERA_INACTIVO_MAXIMA_NS);
+            }
+        }
+    }
+    
+    /**
+     * Copia el evento de una ranura y libera sus referencias.
+     */
+    private Evento extraer(int ranura) {
+        int base = ranura * MAXIMO_ARGUMENTOS;
+        Object[] valores = Arrays.copyOfRange(argumentos, base, base + cantidades[ranura]);
+        Evento evento = new Evento(tipos[ranura], instantes[ranura], valores);
+        tipos[ranura] = null;
+        argumentos[base] = null;
+        argumentos[base + 1] = null;
+        argumentos[base + 2] = null;
+        return evento;
+    }
+    
+    private void entregar(Evento evento) {
+        for (SumideroEventos sumidero : sumideros) {
+            try {
+                sumidero.escribir(evento);
+            } catch (RuntimeException e) {
+                System.err.println("Error en el sumidero de eventos: " + e.getMessage());
+            }
+        }
+    }
+    
+    private void vaciarSumideros(long hasta) {
+        for (SumideroEventos sumidero : sumideros) {
+            try {
+                sumidero.vaciar();
+            } catch (RuntimeException e) {
+                System.err.println("Error al vaciar el sumidero de eventos: " + e.getMessage());
+            }
+        }
+        entregados = hasta;
+    }
+    
+    public int getCapacidad() {
+        return capacidad;
+    }
+    
+    /**
+     * @return Número de eventos publicados que aún no llegan al consumidor
+     */
+    public long getPendientes() {
+        return Math.max(0, siguiente.get() - consumidos);
+    }
+    
+    /**
+     * @return Número de eventos publicados desde que se creó el bus
+     */
+    public long getPublicados() {
+        return siguiente.get();
+    }
+    
+    /**
+     * @return Número de eventos descartados por búfer lleno o bus cerrado
+     */
+    public long getDescartados() {
+        return descartados.get();
+    }
+}
@@ -0,0 +1,57 @@
+package com.hotel.eventos;
+
+import java.util.Arrays;
+
+/**
+ * Evento ya consumido del bus, tal como lo reciben los sumideros.
+ * 
+ * SRP: Solo transporta el tipo, el instante y los argumentos del evento,
+ * y sabe armar su mensaje legible.
+ */
+public final class Evento {
+    private final TipoEvento tipo;
+    private final long instanteMs;
+    private final Object[] argumentos;
+    
+    /**
+     * Constructor de la clase Evento.
+     * 
+     * @param tipo Tipo del evento
+     * @param instanteMs Instante de publicación (milisegundos desde epoch)
+     * @param argumentos Argumentos del mensaje, en el orden del formato del tipo
+     */
+    public Evento(TipoEvento tipo, long instanteMs, Object... argumentos) {
+        this.tipo = tipo;
+        this.instanteMs = instanteMs;
+        this.argumentos = argumentos;
+    }
+    
+    public TipoEvento getTipo() {
+        return tipo;
+    }
+    
+    public long getInstanteMs() {
+        return instanteMs;
+    }
+    
+    /**
+     * @return Copia de los argumentos del evento
+     */
+    public Object[] getArgumentos() {
+        return Arrays.copyOf(argumentos, argumentos.length);
+    }
+    
+    /**
+     * Arma el mensaje legible del evento aplicando el formato de su tipo.
+     * 
+     * @return Mensaje del evento
+     */
+    public String getMensaje() {
+        return String.format(tipo.getFormato(), argumentos);
+    }
+    
+    @Override
+    public String toString() {
+        return tipo + ": " + getMensaje();
+    }
+}
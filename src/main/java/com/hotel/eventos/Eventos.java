@@ -0,0 +1,113 @@
+package com.hotel.eventos;
+
+import com.hotel.metricas.Metricas;
+
+/**
+ * Punto de acceso al bus de eventos del sistema.
+ * 
+ * Los gestores, las reservas y los métodos de pago publican aquí en lugar de
+ * escribir en la consola. Por defecto el bus entrega los eventos a un
+ * SumideroConsola; con {@link #configurar(BusEventos)} se reemplaza por otro
+ * bus con otros sumideros (archivo, métricas, o ninguno en los benchmarks).
+ * 
+ * Cada evento tipado se cuenta además en el registro de métricas antes de
+ * entrar al bus, así que los conteos no se pierden aunque el bus descarte.
+ * 
+ * Al terminar la JVM se entregan los eventos pendientes del bus activo.
+ */
+public final class Eventos {
+    private static final int CAPACIDAD_POR_DEFECTO = 16384;
+    private static volatile BusEventos bus;
+    
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            BusEventos actual = bus;
+            if (actual != null) {
+                actual.close();
+            }
+        }, "cierre-bus-eventos"));
+    }
+    
+    private Eventos() {
+    }
+    
+    /**
+     * Obtiene el bus activo, creando el bus por defecto (consola) si hace falta.
+     * 
+     * @return Bus de eventos activo
+     */
+    public static BusEventos bus() {
+        BusEventos actual = bus;
+        if (actual == null) {
+            synchronized (Eventos.class) {
+                actual = bus;
+                if (actual == null) {
+                    actual = new BusEventos(CAPACIDAD_POR_DEFECTO, new SumideroConsola());
+                    bus = actual;
+                }
+            }
+        }
+        return actual;
+    }
+    
+    /**
+     * Reemplaza el bus activo. El bus anterior entrega sus pendientes y se cierra.
+     * 
+     * @param nuevo Bus que recibirá los eventos a partir de ahora
+     */
+    public static void configurar(BusEventos nuevo) {
+        BusEventos anterior;
+        synchronized (Eventos.class) {
+            anterior = bus;
+            bus = nuevo;
+        }
+        if (anterior != null && anterior != nuevo) {
+            anterior.close();
+        }
+    }
+    
+    public static void publicar(TipoEvento tipo) {
+        Metricas.registro().contarEvento(tipo);
+        bus().publicar(tipo);
+    }
+    
+    public static void publicar(TipoEvento tipo, Object a) {
+        Metricas.registro().contarEvento(tipo);
+        bus().publicar(tipo, a);
+    }
+    
+    public static void publicar(TipoEvento tipo, Object a, Object b) {
+        Metricas.registro().contarEvento(tipo);
+        bus().publicar(tipo, a, b);
+    }
+    
+    public static void publicar(TipoEvento tipo, Object a, Object b, Object c) {
+        Metricas.registro().contarEvento(tipo);
+        bus().publicar(tipo, a, b, c);
+    }
+    
+    /**
+     * Publica un mensaje libre de nivel INFO.
+     * 
+     * @param mensaje Texto del mensaje
+     */
+    public static void mensaje(String mensaje) {
+        bus().publicar(TipoEvento.MENSAJE, mensaje);
+    }
+    
+    /**
+     * Publica un mensaje libre de nivel ERROR.
+     * 
+     * @param mensaje Texto del mensaje
+     */
+    public static void error(String mensaje) {
+        bus().publicar(TipoEvento.ERROR, mensaje);
+    }
+    
+    /**
+     * Espera a que los eventos publicados hasta ahora lleguen a los sumideros.
+     */
+    public static void vaciar() {
+        bus().vaciar();
+    }
+}
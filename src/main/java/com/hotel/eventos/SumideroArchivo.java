@@ -0,0 +1,64 @@
+package com.hotel.eventos;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Sumidero que agrega los eventos a un archivo de texto, uno por línea,
+ * con el instante, el nivel y el tipo antes del mensaje.
+ */
+public class SumideroArchivo implements SumideroEventos, Closeable {
+    private final BufferedWriter escritor;
+    
+    /**
+     * Constructor de la clase SumideroArchivo.
+     * 
+     * @param archivo Archivo destino; se crea si no existe y se agrega al final si existe
+     * @throws IOException Si no se puede abrir el archivo
+     */
+    public SumideroArchivo(Path archivo) throws IOException {
+        Path directorio = archivo.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        this.escritor = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+    
+    @Override
+    public void escribir(Evento evento) {
+        try {
+            escritor.write(Instant.ofEpochMilli(evento.getInstanteMs()).toString());
+            escritor.write(' ');
+            escritor.write(evento.getTipo().getNivel().name());
+            escritor.write(' ');
+            escritor.write(evento.getTipo().name());
+            escritor.write(' ');
+            escritor.write(evento.getMensaje());
+            escritor.newLine();
+        } catch (IOException e) {
+            // El sumidero no puede propagar errores al bus: se informa por consola
+            System.err.println("No se pudo escribir el evento en el archivo: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public void vaciar() {
+        try {
+            escritor.flush();
+        } catch (IOException e) {
+            System.err.println("No se pudo vaciar el archivo de eventos: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        escritor.close();
+    }
+}
@@ -0,0 +1,26 @@
+package com.hotel.eventos;
+
+/**
+ * Sumidero que escribe los mensajes en la consola.
+ * 
+ * Los eventos de nivel ERROR van a la salida de errores y el resto a la
+ * salida estándar. Las salidas se toman en cada escritura, así que respetan
+ * cualquier redirección hecha con System.setOut o System.setErr.
+ */
+public class SumideroConsola implements SumideroEventos {
+    
+    @Override
+    public void escribir(Evento evento) {
+        if (evento.getTipo().getNivel() == TipoEvento.Nivel.ERROR) {
+            System.err.println(evento.getMensaje());
+        } else {
+            System.out.println(evento.getMensaje());
+        }
+    }
+    
+    @Override
+    public void vaciar() {
+        System.out.flush();
+        System.err.flush();
+    }
+}
@@ -0,0 +1,27 @@
+package com.hotel.eventos;
+
+/**
+ * Destino de los eventos consumidos del bus (consola, archivo, etc.).
+ * 
+ * OCP: Agregar un destino nuevo es implementar esta interfaz; el bus y los
+ * productores no cambian.
+ * 
+ * Los métodos se invocan siempre desde el único hilo consumidor del bus, así
+ * que una implementación no necesita sincronización propia.
+ */
+public interface SumideroEventos {
+    
+    /**
+     * Escribe un evento. Puede quedar en un búfer hasta {@link #vaciar()}.
+     * 
+     * @param evento Evento a escribir
+     */
+    void escribir(Evento evento);
+    
+    /**
+     * Vacía los búferes pendientes. El bus lo llama cada vez que alcanza
+     * a los productores, de modo que las escrituras se agrupan bajo carga.
+     */
+    default void vaciar() {
+    }
+}
@@ -0,0 +1,78 @@
+package com.hotel.eventos;
+
+/**
+ * Tipos de evento que emite el sistema.
+ * 
+ * OCP: Un nuevo evento es una nueva constante; los sumideros no cambian,
+ * porque cada tipo trae su propio formato de mensaje.
+ * 
+ * El formato usa los marcadores de {@link String#format(String, Object...)}
+ * y se aplica en el hilo consumidor, nunca en el hilo que publica.
+ */
+public enum TipoEvento {
+    // Clientes
+    CLIENTE_REGISTRADO("Cliente registrado exitosamente: %s"),
+    CLIENTE_ID_DUPLICADO("Ya existe un cliente con el ID %s"),
+    CLIENTE_EMAIL_DUPLICADO("Ya existe un cliente con el email %s"),
+    
+    // Habitaciones
+    HABITACION_AGREGADA("Habitación agregada: %s"),
+    HABITACION_DUPLICADA("Ya existe una habitación con el número %s"),
+    
+    // Reservas
+    RESERVA_CREADA("Reserva creada exitosamente: %s"),
+    RESERVA_CANCELADA("Reserva cancelada exitosamente: %s"),
+    RESERVA_FECHAS_ACTUALIZADAS("Fechas de la reserva %s actualizadas"),
+    RESERVA_NO_ENCONTRADA("Reserva no encontrada: %s"),
+    RESERVA_ID_DUPLICADO("Ya existe una reserva con el ID %s"),
+    RESERVA_RANGO_INVALIDO("La reserva %s no tiene un rango de fechas válido"),
+    HABITACION_NO_DISPONIBLE("La habitación %s no está disponible del %s al %s"),
+    BITACORA_FALLIDA(Nivel.ERROR, "No se pudo registrar %s de la reserva %s: %s"),
+    
+    // Lista de espera
+    SOLICITUD_EN_ESPERA("Solicitud %s en lista de espera: %s desde el %s"),
+    SOLICITUD_ATENDIDA("Solicitud %s atendida con la habitación %s"),
+    
+    // Pagos
+    PAGO_SOLICITADO("Procesando pago de $%s con %s (%s)"),
+    PAGO_PROCESADO("Pago procesado exitosamente: reserva %s"),
+    PAGO_FALLIDO("El pago de la reserva %s no pudo completarse: %s"),
+    PAGO_SIN_CONFIRMAR("El cobro de la reserva %s sigue en curso en la pasarela: %s"),
+    PAGO_DUPLICADO("La reserva %s ya ha sido pagada"),
+    PAGO_EN_CURSO("La reserva %s ya tiene un pago en curso"),
+    PAGO_SIN_METODO("La reserva %s no tiene un método de pago configurado"),
+    METODO_PAGO_NO_DISPONIBLE("%s no disponible"),
+    BENEFICIOS_VIP_ACTIVADOS("Beneficios VIP activados para %s: desayuno incluido, acceso a sala VIP"
+            + " y descuento del %s%% aplicado"),
+    
+    // Mensajes libres (arranque, demostración y errores de infraestructura)
+    MENSAJE("%s"),
+    ERROR(Nivel.ERROR, "%s");
+    
+    /**
+     * Severidad del evento; los sumideros pueden enviarlos a salidas distintas.
+     */
+    public enum Nivel {
+        INFO, ERROR
+    }
+    
+    private final Nivel nivel;
+    private final String formato;
+    
+    TipoEvento(String formato) {
+        this(Nivel.INFO, formato);
+    }
+    
+    TipoEvento(Nivel nivel, String formato) {
+        this.nivel = nivel;
+        this.formato = formato;
+    }
+    
+    public Nivel getNivel() {
+        return nivel;
+    }
+    
+    public String getFormato() {
+        return formato;
+    }
+}
@@ -0,0 +1,202 @@
+package com.hotel.gestion;
+
+import com.hotel.modelo.Habitacion;
+import com.hotel.reserva.Reserva;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Totales diarios por tipo de habitación, mantenidos al vuelo.
+ * 
+ * SRP: Solo lleva los contadores de cada día (habitaciones vendidas,
+ * ingresos, llegadas y salidas); GestorReservas le informa cada alta,
+ * cancelación y cambio de fechas.
+ * 
+ * Cada tipo guarda un bloque de contadores atómicos por mes, así que una
+ * reserva se suma o se resta en O(noches) y consultar un día o armar el
+ * calendario de un mes lee contadores ya calculados, sin recorrer las
+ * reservas. Por cada reserva vigente se recuerda lo que aportó, de modo que
+ * al cancelarla o moverla se resta exactamente eso aunque el plan de
+ * tarifas haya cambiado.
+ */
+public class AgregadosDiarios {
+    private static final int VENDIDAS = 0;
+    private static final int INGRESOS = 1;
+    private static final int LLEGADAS = 2;
+    private static final int SALIDAS = 3;
+    private static final int MEDIDAS = 4;
+    private static final int DIAS_POR_MES = 31;
+    
+    private final ConcurrentMap<String, ConcurrentMap<YearMonth, AtomicLongArray>> porTipo =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Aporte> aportes = new ConcurrentHashMap<>();
+    
+    /**
+     * Lo que una reserva sumó a los contadores.
+     */
+    private static final class Aporte {
+        final LocalDate inicio;
+        final LocalDate fin;
+        final String[] tipos;
+        final int[] habitaciones;
+        final long[][] ingresos;
+        
+        Aporte(Reserva reserva) {
+            Map<String, Integer> habitacionesPorTipo = new LinkedHashMap<>();
+            for (Habitacion habitacion : reserva.getHabitaciones()) {
+                habitacionesPorTipo.merge(habitacion.getTipo(), 1, Integer::sum);
+            }
+            Map<String, long[]> desglose = reserva.desglosarPorNoche();
+            this.inicio = reserva.getFechaInicio();
+            this.fin = reserva.getFechaFin();
+            this.tipos = habitacionesPorTipo.keySet().toArray(new String[0]);
+            this.habitaciones = new int[tipos.length];
+            this.ingresos = new long[tipos.length][];
+            for (int i = 0; i < tipos.length; i++) {
+                habitaciones[i] = habitacionesPorTipo.get(tipos[i]);
+                ingresos[i] = desglose.get(tipos[i]);
+            }
+        }
+    }
+    
+    /**
+     * Suma una reserva recién creada.
+     */
+    void registrar(Reserva reserva) {
+        Aporte aporte = new Aporte(reserva);
+        if (aportes.putIfAbsent(reserva.getIdReserva(), aporte) == null) {
+            aplicar(aporte, 1);
+        }
+    }
+    
+    /**
+     * Resta una reserva cancelada.
+     */
+    void retirar(Reserva reserva) {
+        Aporte aporte = aportes.remove(reserva.getIdReserva());
+        if (aporte != null) {
+            aplicar(aporte, -1);
+        }
+    }
+    
+    /**
+     * Vuelve a sumar una reserva después de cambiar sus fechas.
+     */
+    void actualizar(Reserva reserva) {
+        retirar(reserva);
+        registrar(reserva);
+    }
+    
+    private void aplicar(Aporte aporte, int signo) {
+        for (int i = 0; i < aporte.tipos.length; i++) {
+            ConcurrentMap<YearMonth, AtomicLongArray> meses =
+                    porTipo.computeIfAbsent(aporte.tipos[i], t -> new ConcurrentHashMap<>());
+            long habitaciones = (long) signo * aporte.habitaciones[i];
+            sumar(meses, aporte.inicio, LLEGADAS, habitaciones);
+            sumar(meses, aporte.fin, SALIDAS, habitaciones);
+            long[] ingresos = aporte.ingresos[i];
+            for (int n = 0; n < ingresos.length; n++) {
+                LocalDate noche = aporte.inicio.plusDays(n);
+                sumar(meses, noche, VENDIDAS, habitaciones);
+                sumar(meses, noche, INGRESOS, signo * ingresos[n]);
+            }
+        }
+    }
+    
+    private static void sumar(ConcurrentMap<YearMonth, AtomicLongArray> meses, LocalDate fecha,
+                              int medida, long valor) {
+        AtomicLongArray mes = meses.computeIfAbsent(YearMonth.from(fecha),
+                m -> new AtomicLongArray(DIAS_POR_MES * MEDIDAS));
+        mes.addAndGet(posicion(fecha, medida), valor);
+    }
+    
+    private static int posicion(LocalDate fecha, int medida) {
+        return (fecha.getDayOfMonth() - 1) * MEDIDAS + medida;
+    }
+    
+    /**
+     * @return Tipos de habitación con alguna reserva registrada
+     */
+    public Set<String> getTipos() {
+        return Collections.unmodifiableSet(porTipo.keySet());
+    }
+    
+    /**
+     * Obtiene los totales de un día sumando todos los tipos de habitación.
+     * 
+     * @param fecha Día consultado
+     * @return Totales del día
+     */
+    public ResumenDia consultarDia(LocalDate fecha) {
+        return consultarMes(YearMonth.from(fecha)).get(fecha.getDayOfMonth() - 1);
+    }
+    
+    /**
+     * Obtiene los totales de un día para un tipo de habitación.
+     * 
+     * @param tipo Tipo de habitación (ej: "Suite")
+     * @param fecha Día consultado
+     * @return Totales del día
+     */
+    public ResumenDia consultarDia(String tipo, LocalDate fecha) {
+        return consultarMes(tipo, YearMonth.from(fecha)).get(fecha.getDayOfMonth() - 1);
+    }
+    
+    /**
+     * Arma el calendario de un mes sumando todos los tipos de habitación.
+     * 
+     * @param mes Mes consultado
+     * @return Un resumen por día del mes, en orden
+     */
+    public List<ResumenDia> consultarMes(YearMonth mes) {
+        long[] totales = new long[DIAS_POR_MES * MEDIDAS];
+        for (ConcurrentMap<YearMonth, AtomicLongArray> meses : porTipo.values()) {
+            acumular(totales, meses.get(mes));
+        }
+        return resumir(mes, totales);
+    }
+    
+    /**
+     * Arma el calendario de un mes para un tipo de habitación.
+     * 
+     * @param tipo Tipo de habitación (ej: "Suite")
+     * @param mes Mes consultado
+     * @return Un resumen por día del mes, en orden
+     */
+    public List<ResumenDia> consultarMes(String tipo, YearMonth mes) {
+        long[] totales = new long[DIAS_POR_MES * MEDIDAS];
+        ConcurrentMap<YearMonth, AtomicLongArray> meses = porTipo.get(tipo);
+        if (meses != null) {
+            acumular(totales, meses.get(mes));
+        }
+        return resumir(mes, totales);
+    }
+    
+    private static void acumular(long[] totales, AtomicLongArray mes) {
+        if (mes == null) {
+            return;
+        }
+        for (int i = 0; i < totales.length; i++) {
+            totales[i] += mes.get(i);
+        }
+    }
+    
+    private static List<ResumenDia> resumir(YearMonth mes, long[] totales) {
+        List<ResumenDia> dias = new ArrayList<>(mes.lengthOfMonth());
+        for (int dia = 1; dia <= mes.lengthOfMonth(); dia++) {
+            int base = (dia - 1) * MEDIDAS;
+            dias.add(new ResumenDia(mes.atDay(dia), totales[base + VENDIDAS], totales[base + INGRESOS],
+                    totales[base + LLEGADAS], totales[base + SALIDAS]));
+        }
+        return dias;
+    }
+}
@@ -0,0 +1,67 @@
+package com.hotel.gestion;
+
+import com.hotel.reserva.Reserva;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz que define el contrato para registrar de forma durable los cambios
+ * en el ciclo de vida de las reservas.
+ * 
+ * DIP: GestorReservas depende de esta abstracción y no de un formato o medio
+ * de almacenamiento concreto (archivo, base de datos, etc.).
+ * 
+ * Cada método toma lo que necesita de la reserva en el momento de la llamada,
+ * sin esperar al disco, y devuelve un resultado que se completa cuando el
+ * evento es durable (o con IOException si no pudo hacerse durable); en ese
+ * caso GestorReservas devuelve las noches que retenía para el cambio. La
+ * reserva misma no cambia hasta que el evento es durable, así que la
+ * cancelación y el cambio de fechas se registran antes de aplicarse. Los
+ * eventos se hacen durables en el orden en que se registran.
+ * 
+ * Contrato de detención ante fallas (fail-stop): si un evento no llega a ser
+ * durable, ninguno de los registrados después puede serlo. GestorReservas
+ * aplica los cambios de cada partición sin esperar al disco y, cuando uno
+ * falla, deshace en orden inverso todos los que seguían pendientes; eso solo
+ * es correcto si ninguno de ellos quedó en el registro.
+ */
+public interface BitacoraReservas {
+    
+    /**
+     * Registra la creación de una reserva.
+     * 
+     * @param reserva Reserva creada
+     * @return Resultado que se completa cuando el evento es durable
+     */
+    CompletableFuture<Void> registrarCreacion(Reserva reserva);
+    
+    /**
+     * Registra la cancelación de una reserva.
+     * 
+     * @param reserva Reserva cancelada
+     * @return Resultado que se completa cuando el evento es durable
+     */
+    CompletableFuture<Void> registrarCancelacion(Reserva reserva);
+    
+    /**
+     * Registra el cambio de fechas de una reserva.
+     * 
+     * @param reserva Reserva que cambia, todavía con sus fechas anteriores
+     * @param nuevaFechaInicio Nueva fecha de entrada
+     * @param nuevaFechaFin Nueva fecha de salida
+     * @param precioBaseCentavos Precio antes de beneficios con las fechas nuevas
+     * @param precioTotalCentavos Precio total con las fechas nuevas
+     * @return Resultado que se completa cuando el evento es durable
+     */
+    CompletableFuture<Void> registrarCambioFecha(Reserva reserva, LocalDate nuevaFechaInicio,
+                                                 LocalDate nuevaFechaFin, long precioBaseCentavos,
+                                                 long precioTotalCentavos);
+    
+    /**
+     * Registra el pago de una reserva.
+     * 
+     * @param reserva Reserva pagada
+     * @return Resultado que se completa cuando el evento es durable
+     */
+    CompletableFuture<Void> registrarPago(Reserva reserva);
+}
@@ -0,0 +1,238 @@
+package com.hotel.gestion;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Resultados recientes de operaciones identificadas por una clave de
+ * idempotencia, para que un reintento reciba el resultado original sin
+ * volver a ejecutar la operación.
+ * 
+ * SRP: Solo recuerda resultados por clave; qué operación se protege lo decide
+ * GestorReservas.
+ * 
+ * La primera llamada con una clave ejecuta la operación y deja su resultado
+ * futuro en un mapa concurrente; las siguientes (aunque lleguen mientras la
+ * primera sigue en curso) reciben ese mismo futuro en O(1). Cada clave vence
+ * a los {@code ttl} de creada y el mapa guarda a lo sumo {@code capacidad}
+ * claves: como todas viven lo mismo, una cola en orden de creación basta para
+ * desalojar primero las vencidas y luego las más antiguas, en O(1) amortizado
+ * por llamada y sin hilos propios. El límite es aproximado bajo concurrencia.
+ * 
+ * Una clave olvidada antes de tiempo (resultado no conservado, excepción o
+ * reemplazo de una vencida) queda marcada en la cola y se descarta al llegar
+ * al frente. Para que la cola tampoco crezca sin tope mientras tanto, cuando
+ * supera el doble de la capacidad se recorre una vez quitando las marcadas:
+ * O(capacidad) cada O(capacidad) llamadas, O(1) amortizado.
+ * 
+ * Si la operación termina con una excepción la clave se olvida, para que el
+ * reintento vuelva a intentarlo. Los resultados normales (incluido un rechazo)
+ * se recuerdan, salvo que quien llama indique cuáles conservar: un alta o un
+ * pago que terminó en false no debe bloquear el reintento.
+ * 
+ * @param <V> Tipo del resultado de la operación
+ */
+public class CacheIdempotencia<V> {
+    private final ConcurrentMap<String, Entrada<V>> entradas = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entrada<V>> porAntiguedad = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tamano = new AtomicInteger();
+    private final AtomicInteger enCola = new AtomicInteger();
+    private final AtomicBoolean compactando = new AtomicBoolean();
+    private final LongAdder aciertos = new LongAdder();
+    private final int capacidad;
+    private final long ttlNanos;
+    
+    /**
+     * @param capacidad Máximo de claves recordadas (mayor que 0)
+     * @param ttl Tiempo durante el cual se recuerda cada clave
+     */
+    public CacheIdempotencia(int capacidad, Duration ttl) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que 0: " + capacidad);
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("El tiempo de vida debe ser positivo: " + ttl);
+        }
+        this.capacidad = capacidad;
+        this.ttlNanos = ttl.toNanos();
+    }
+    
+    /**
+     * Ejecuta la operación la primera vez que se ve la clave y devuelve su
+     * resultado; mientras la clave no venza, las siguientes llamadas devuelven
+     * el mismo resultado sin ejecutarla.
+     * 
+     * @param clave Clave de idempotencia elegida por el cliente
+     * @param huella Identifica sobre qué se hizo la operación (por ejemplo el ID de la reserva)
+     * @param operacion Operación a ejecutar si la clave es nueva
+     * @return Resultado futuro de la operación original
+     * @throws IllegalArgumentException si la clave ya se usó con otra huella
+     */
+    public CompletableFuture<V> ejecutar(String clave, String huella, Supplier<CompletableFuture<V>> operacion) {
+        return ejecutar(clave, huella, operacion, valor -> true);
+    }
+    
+    /**
+     * Como {@link #ejecutar(String, String, Supplier)}, pero solo recuerda los
+     * resultados que cumplen {@code conservar}. Los demás se entregan a quienes
+     * esperaban la operación original y luego la clave se olvida, de modo que
+     * el siguiente reintento vuelve a ejecutarla.
+     * 
+     * @param clave Clave de idempotencia elegida por el cliente
+     * @param huella Identifica sobre qué se hizo la operación (por ejemplo el ID de la reserva)
+     * @param operacion Operación a ejecutar si la clave es nueva
+     * @param conservar Indica qué resultados se recuerdan durante la vigencia
+     * @return Resultado futuro de la operación original
+     * @throws IllegalArgumentException si la clave ya se usó con otra huella
+     */
+    public CompletableFuture<V> ejecutar(String clave, String huella, Supplier<CompletableFuture<V>> operacion,
+                                         Predicate<? super V> conservar) {
+        Objects.requireNonNull(clave, "clave");
+        long ahora = System.nanoTime();
+        desalojar(ahora);
+        
+        Entrada<V> propia;
+        while (true) {
+            Entrada<V> existente = entradas.get(clave);
+            if (existente != null && !existente.vencida(ahora)) {
+                if (!Objects.equals(existente.huella, huella)) {
+                    throw new IllegalArgumentException("La clave de idempotencia " + clave
+                            + " ya se usó para " + existente.huella);
+                }
+                aciertos.increment();
+                return existente.resultado;
+            }
+            propia = new Entrada<>(clave, huella, ahora + ttlNanos);
+            if (existente == null) {
+                if (entradas.putIfAbsent(clave, propia) == null) {
+                    tamano.incrementAndGet();
+                    break;
+                }
+            } else if (entradas.replace(clave, existente, propia)) {
+                existente.olvidada = true;
+                break;
+            }
+        }
+        porAntiguedad.add(propia);
+        enCola.incrementAndGet();
+        
+        Entrada<V> entrada = propia;
+        CompletableFuture<V> original;
+        try {
+            original = operacion.get();
+        } catch (RuntimeException e) {
+            quitar(entrada);
+            entrada.resultado.completeExceptionally(e);
+            throw e;
+        }
+        original.whenComplete((valor, error) -> {
+            if (error != null) {
+                quitar(entrada);
+                entrada.resultado.completeExceptionally(error);
+            } else {
+                if (!conservar.test(valor)) {
+                    quitar(entrada);
+                }
+                entrada.resultado.complete(valor);
+            }
+        });
+        return entrada.resultado;
+    }
+    
+    /**
+     * Saca de la cola las claves ya olvidadas, las vencidas y, si sobran, las
+     * más antiguas; si aun así la cola es demasiado larga, la compacta.
+     */
+    private void desalojar(long ahora) {
+        Entrada<V> masAntigua;
+        while ((masAntigua = porAntiguedad.peek()) != null
+                && (masAntigua.olvidada || masAntigua.vencida(ahora) || tamano.get() > capacidad)) {
+            Entrada<V> sacada = porAntiguedad.poll();
+            if (sacada != null) {
+                enCola.decrementAndGet();
+                quitar(sacada);
+            }
+        }
+        if (enCola.get() > 2 * capacidad && compactando.compareAndSet(false, true)) {
+            try {
+                porAntiguedad.removeIf(entrada -> entrada.olvidada);
+                enCola.set(porAntiguedad.size());
+            } finally {
+                compactando.set(false);
+            }
+        }
+    }
+    
+    /**
+     * Olvida la clave solo si todavía apunta a esta entrada (un reintento
+     * posterior al vencimiento pudo reemplazarla). La entrada queda marcada
+     * para descartarla de la cola.
+     */
+    private void quitar(Entrada<V> entrada) {
+        entrada.olvidada = true;
+        if (entradas.remove(entrada.clave, entrada)) {
+            tamano.decrementAndGet();
+        }
+    }
+    
+    /**
+     * @param clave Clave de idempotencia
+     * @return Huella con la que se usó la clave, o null si no se recuerda o venció
+     */
+    public String huellaDe(String clave) {
+        Entrada<V> entrada = clave == null ? null : entradas.get(clave);
+        return entrada == null || entrada.vencida(System.nanoTime()) ? null : entrada.huella;
+    }
+    
+    /**
+     * @return Claves recordadas en este momento (incluye las vencidas aún no desalojadas)
+     */
+    public int getTamano() {
+        return tamano.get();
+    }
+    
+    public int getCapacidad() {
+        return capacidad;
+    }
+    
+    /**
+     * @return Entradas en la cola de desalojo, incluidas las ya olvidadas que aún no se descartaron
+     */
+    int getEnCola() {
+        return enCola.get();
+    }
+    
+    /**
+     * @return Llamadas que se resolvieron con un resultado recordado
+     */
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+    
+    private static final class Entrada<V> {
+        final String clave;
+        final String huella;
+        final long venceNanos;
+        final CompletableFuture<V> resultado = new CompletableFuture<>();
+        volatile boolean olvidada;
+        
+        Entrada(String clave, String huella, long venceNanos) {
+            this.clave = clave;
+            this.huella = huella;
+            this.venceNanos = venceNanos;
+        }
+        
+        boolean vencida(long ahora) {
+            return ahora - venceNanos >= 0;
+        }
+    }
+}
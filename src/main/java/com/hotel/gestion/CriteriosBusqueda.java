@@ -0,0 +1,118 @@
+package com.hotel.gestion;
+
+import com.hotel.modelo.Dinero;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Criterios combinados para buscar habitaciones.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: describir qué habitaciones
+ * se buscan; la búsqueda la resuelve GestorHabitaciones.
+ * 
+ * Todos los criterios son opcionales y se combinan con Y; los tipos indicados
+ * se combinan entre sí con O. Sin criterios se obtienen todas las habitaciones
+ * habilitadas.
+ */
+public class CriteriosBusqueda {
+    private Set<String> tipos = Collections.emptySet();
+    private int capacidadMinima;
+    private Boolean conJacuzzi;
+    private Boolean conBar;
+    private long precioMaximoCentavos = Long.MAX_VALUE;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    
+    /**
+     * Restringe la búsqueda a uno o varios tipos de habitación (ej: "Estándar", "Suite").
+     * 
+     * @param tipos Tipos aceptados; sin argumentos acepta cualquier tipo
+     */
+    public void setTipos(String... tipos) {
+        this.tipos = new LinkedHashSet<>(Arrays.asList(tipos));
+    }
+    
+    /**
+     * @param capacidadMinima Número mínimo de personas que debe admitir la habitación
+     */
+    public void setCapacidadMinima(int capacidadMinima) {
+        this.capacidadMinima = capacidadMinima;
+    }
+    
+    /**
+     * @param conJacuzzi true para exigir jacuzzi, false para excluirlo, null para ignorarlo
+     */
+    public void setConJacuzzi(Boolean conJacuzzi) {
+        this.conJacuzzi = conJacuzzi;
+    }
+    
+    /**
+     * @param conBar true para exigir bar, false para excluirlo, null para ignorarlo
+     */
+    public void setConBar(Boolean conBar) {
+        this.conBar = conBar;
+    }
+    
+    /**
+     * @param precioMaximo Precio máximo por noche en pesos
+     */
+    public void setPrecioMaximo(double precioMaximo) {
+        this.precioMaximoCentavos = Dinero.aCentavos(precioMaximo);
+    }
+    
+    /**
+     * @param precioMaximoCentavos Precio máximo por noche en centavos
+     */
+    public void setPrecioMaximoCentavos(long precioMaximoCentavos) {
+        this.precioMaximoCentavos = precioMaximoCentavos;
+    }
+    
+    /**
+     * Exige que la habitación esté libre en un rango de fechas.
+     * 
+     * @param fechaInicio Fecha de entrada (incluida)
+     * @param fechaFin Fecha de salida (excluida)
+     */
+    public void setFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+    }
+    
+    public Set<String> getTipos() {
+        return Collections.unmodifiableSet(tipos);
+    }
+    
+    public int getCapacidadMinima() {
+        return capacidadMinima;
+    }
+    
+    public Boolean getConJacuzzi() {
+        return conJacuzzi;
+    }
+    
+    public Boolean getConBar() {
+        return conBar;
+    }
+    
+    public long getPrecioMaximoCentavos() {
+        return precioMaximoCentavos;
+    }
+    
+    public LocalDate getFechaInicio() {
+        return fechaInicio;
+    }
+    
+    public LocalDate getFechaFin() {
+        return fechaFin;
+    }
+    
+    /**
+     * @return true si la búsqueda exige disponibilidad en un rango de fechas
+     */
+    public boolean tieneFechas() {
+        return fechaInicio != null && fechaFin != null;
+    }
+}
@@ -0,0 +1,189 @@
+package com.hotel.gestion;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generador de IDs de reserva de 64 bits ordenados por tiempo.
+ * 
+ * SRP: Solo fabrica, codifica y descompone IDs; GestorReservas decide dónde
+ * se usan.
+ * 
+ * Cada ID tiene 41 bits de milisegundos desde 2024-01-01 (unos 69 años), 10
+ * bits de nodo (hasta 1024 instancias generando a la vez sin coordinarse) y 12
+ * bits de secuencia dentro del milisegundo. Los IDs de un nodo son
+ * estrictamente crecientes y los de nodos distintos nunca coinciden.
+ * 
+ * El estado es un único AtomicLong con el último (milisegundo, secuencia)
+ * entregado; cada ID es un compareAndSet, sin candados. Si se piden más de
+ * 4096 IDs en un milisegundo la secuencia desborda sobre el milisegundo
+ * siguiente, y si el reloj retrocede se sigue desde el último entregado: el
+ * orden se mantiene en ambos casos.
+ * 
+ * Como texto se codifican en 13 caracteres de base 32 (alfabeto de Crockford,
+ * sin I, L, O ni U). El ancho es fijo, así que el orden alfabético del texto es
+ * el orden numérico del ID, es decir, el orden de creación.
+ */
+public final class GeneradorIdReserva {
+    
+    /** Caracteres del ID en texto. */
+    public static final int ANCHO = 13;
+    
+    private static final long EPOCA_MS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    private static final int BITS_NODO = 10;
+    private static final int BITS_SECUENCIA = 12;
+    private static final int NODO_MAXIMO = (1 << BITS_NODO) - 1;
+    private static final long MASCARA_SECUENCIA = (1L << BITS_SECUENCIA) - 1;
+    private static final char[] ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] VALORES = new int[128];
+    
+    static {
+        Arrays.fill(VALORES, -1);
+        for (int i = 0; i < ALFABETO.length; i++) {
+            VALORES[ALFABETO[i]] = i;
+            VALORES[Character.toLowerCase(ALFABETO[i])] = i;
+        }
+    }
+    
+    private final int nodo;
+    private final LongSupplier reloj;
+    private final AtomicLong ultimo = new AtomicLong(-1);
+    
+    /**
+     * @param nodo Número de esta instancia, entre 0 y 1023, distinto en cada nodo que genere IDs
+     * @throws IllegalArgumentException si el nodo está fuera de rango
+     */
+    public GeneradorIdReserva(int nodo) {
+        this(nodo, System::currentTimeMillis);
+    }
+    
+    /**
+     * Generador con otro reloj (por ejemplo, uno que retrocede).
+     * 
+     * @param nodo Número de esta instancia, entre 0 y 1023
+     * @param reloj Milisegundos desde 1970, como System.currentTimeMillis
+     */
+    GeneradorIdReserva(int nodo, LongSupplier reloj) {
+        if (nodo < 0 || nodo > NODO_MAXIMO) {
+            throw new IllegalArgumentException("El nodo debe estar entre 0 y " + NODO_MAXIMO + ": " + nodo);
+        }
+        this.nodo = nodo;
+        this.reloj = reloj;
+    }
+    
+    /**
+     * Genera el siguiente ID numérico.
+     * 
+     * @return ID mayor que todos los entregados antes por este generador
+     */
+    public long siguiente() {
+        while (true) {
+            long anterior = ultimo.get();
+            long ahora = (reloj.getAsLong() - EPOCA_MS) << BITS_SECUENCIA;
+            long marca = Math.max(ahora, anterior + 1);
+            if (ultimo.compareAndSet(anterior, marca)) {
+                return ((marca >>> BITS_SECUENCIA) << (BITS_NODO + BITS_SECUENCIA))
+                        | ((long) nodo << BITS_SECUENCIA)
+                        | (marca & MASCARA_SECUENCIA);
+            }
+        }
+    }
+    
+    /**
+     * Genera el siguiente ID ya codificado como texto.
+     * 
+     * @return ID de {@value #ANCHO} caracteres
+     */
+    public String siguienteTexto() {
+        return codificar(siguiente());
+    }
+    
+    public int getNodo() {
+        return nodo;
+    }
+    
+    /**
+     * Codifica un ID en {@value #ANCHO} caracteres de base 32.
+     * 
+     * @param id ID no negativo
+     * @return Texto de ancho fijo que ordena igual que el número
+     */
+    public static String codificar(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID negativo: " + id);
+        }
+        char[] texto = new char[ANCHO];
+        long resto = id;
+        for (int i = ANCHO - 1; i >= 0; i--) {
+            texto[i] = ALFABETO[(int) (resto & 31)];
+            resto >>>= 5;
+        }
+        return new String(texto);
+    }
+    
+    /**
+     * Decodifica un ID escrito con {@link #codificar(long)} (acepta minúsculas).
+     * 
+     * @param texto ID en texto
+     * @return ID numérico
+     * @throws IllegalArgumentException si el texto no es un ID generado
+     */
+    public static long decodificar(String texto) {
+        if (!esId(texto)) {
+            throw new IllegalArgumentException("No es un ID generado: " + texto);
+        }
+        long id = 0;
+        for (int i = 0; i < ANCHO; i++) {
+            id = (id << 5) | VALORES[texto.charAt(i)];
+        }
+        return id;
+    }
+    
+    /**
+     * @param texto ID en texto
+     * @return true si tiene la forma de un ID generado
+     */
+    public static boolean esId(String texto) {
+        if (texto == null || texto.length() != ANCHO) {
+            return false;
+        }
+        for (int i = 0; i < ANCHO; i++) {
+            char c = texto.charAt(i);
+            if (c >= VALORES.length || VALORES[c] < 0) {
+                return false;
+            }
+        }
+        // 13 caracteres son 65 bits: el primero no puede pasar de 7 en un long no negativo
+        return VALORES[texto.charAt(0)] < 8;
+    }
+    
+    /**
+     * @param id ID numérico
+     * @return Instante (al milisegundo) en que se generó
+     */
+    public static Instant instanteDe(long id) {
+        return Instant.ofEpochMilli((id >>> (BITS_NODO + BITS_SECUENCIA)) + EPOCA_MS);
+    }
+    
+    /**
+     * @param id ID numérico
+     * @return Nodo que lo generó
+     */
+    public static int nodoDe(long id) {
+        return (int) ((id >>> BITS_SECUENCIA) & NODO_MAXIMO);
+    }
+    
+    /**
+     * Menor ID posible generado en un instante, para consultar rangos de
+     * creación sobre un índice ordenado por ID.
+     * 
+     * @param instante Instante (se trunca al milisegundo)
+     * @return Menor ID de ese milisegundo, en texto
+     */
+    public static String primeroEn(Instant instante) {
+        long milisegundos = Math.max(0, instante.toEpochMilli() - EPOCA_MS);
+        return codificar(milisegundos << (BITS_NODO + BITS_SECUENCIA));
+    }
+}
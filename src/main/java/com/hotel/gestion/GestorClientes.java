@@ -1,50 +1,162 @@
 package com.hotel.gestion;
 
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.TipoEvento;
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.Metricas;
 import com.hotel.modelo.Cliente;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Clase responsable de gestionar los clientes del hotel.
  * 
  * SRP: Esta clase tiene una única responsabilidad: gestionar el registro
  * y búsqueda de clientes. No se encarga de reservas ni habitaciones.
+ * 
+ * Los clientes se indexan en mapas concurrentes por ID y por email normalizado,
+ * de modo que registrar y buscar cuesta O(1) y es seguro entre varios hilos.
+ * Un cliente queda registrado cuando aparece en el índice por ID; el email se
+ * reserva antes, así que un registro que falla nunca llega a ser visible.
  */
 public class GestorClientes {
-    private List<Cliente> clientes;
+    private ConcurrentMap<String, Cliente> clientesPorId;
+    private ConcurrentMap<String, Cliente> clientesPorEmail;
+    private final HistogramaLatencia latenciaRegistrar = Metricas.registro().histograma("clientes.registrar");
+    private final HistogramaLatencia latenciaBuscar = Metricas.registro().histograma("clientes.buscar");
+    private final HistogramaLatencia latenciaRegistrarLote =
+            Metricas.registro().histograma("clientes.registrarLote");
     
     /**
      * Constructor de la clase GestorClientes.
      */
     public GestorClientes() {
-        this.clientes = new ArrayList<>();
+        this.clientesPorId = new ConcurrentHashMap<>();
+        this.clientesPorEmail = new ConcurrentHashMap<>();
     }
     
     /**
      * Registra un nuevo cliente en el sistema.
      * 
+     * El ID y el email deben ser únicos. Primero se reserva el email y recién
+     * después se publica el ID: si el ID ya existe se devuelve el email, y
+     * mientras tanto ninguna búsqueda ni otro registro ve al cliente a medias.
+     * 
      * @param cliente Cliente a registrar
      * @return true si el cliente fue registrado exitosamente, false en caso contrario
      */
     public boolean registrarCliente(Cliente cliente) {
-        if (cliente == null) {
+        long inicio = latenciaRegistrar.iniciar();
+        boolean registrado = registrar(cliente);
+        latenciaRegistrar.registrarDesde(inicio);
+        return registrado;
+    }
+    
+    private boolean registrar(Cliente cliente) {
+        if (cliente == null || cliente.getId() == null) {
             return false;
         }
         
-        // Verificar que no exista un cliente con el mismo ID
-        boolean existe = clientes.stream()
-                .anyMatch(c -> c.getId().equals(cliente.getId()));
+        if (clientesPorId.containsKey(cliente.getId())) {
+            Eventos.publicar(TipoEvento.CLIENTE_ID_DUPLICADO, cliente.getId());
+            return false;
+        }
+        
+        String email = normalizarEmail(cliente.getEmail());
+        if (email != null && clientesPorEmail.putIfAbsent(email, cliente) != null) {
+            Eventos.publicar(TipoEvento.CLIENTE_EMAIL_DUPLICADO, cliente.getEmail());
+            return false;
+        }
         
-        if (existe) {
-            System.out.println("Ya existe un cliente con el ID " + cliente.getId());
+        // Publicar el ID al final: solo un hilo puede ganar la clave
+        if (clientesPorId.putIfAbsent(cliente.getId(), cliente) != null) {
+            liberarEmail(email, cliente);
+            Eventos.publicar(TipoEvento.CLIENTE_ID_DUPLICADO, cliente.getId());
             return false;
         }
         
-        clientes.add(cliente);
-        System.out.println("Cliente registrado exitosamente: " + cliente.getNombre());
+        Eventos.publicar(TipoEvento.CLIENTE_REGISTRADO, cliente.getNombre());
         return true;
     }
     
+    /**
+     * Registra un lote de clientes de una vez, por ejemplo todo un archivo.
+     * 
+     * Los duplicados dentro del lote se resuelven en una sola pasada con
+     * conjuntos de hash (gana el primero); luego se insertan los aceptados,
+     * con las mismas reglas de unicidad de ID y email (y el mismo orden: email
+     * y luego ID) que {@link #registrarCliente(Cliente)} frente a los ya
+     * registrados. No se publica un evento por cliente: el resumen informa
+     * los rechazos.
+     * 
+     * @param clientes Clientes a registrar
+     * @return Resumen con el número de registrados y los rechazados
+     */
+    public ResultadoRegistroMasivo registrarClientes(Collection<Cliente> clientes) {
+        long inicio = latenciaRegistrarLote.iniciar();
+        List<ResultadoRegistroMasivo.Rechazo> rechazos = new ArrayList<>();
+        
+        // Primera pasada: descartar inválidos y duplicados dentro del lote
+        Set<String> ids = new HashSet<>(clientes.size() * 4 / 3 + 1);
+        Set<String> emails = new HashSet<>(clientes.size() * 4 / 3 + 1);
+        Cliente[] aceptados = new Cliente[clientes.size()];
+        String[] emailsAceptados = new String[clientes.size()];
+        int[] posiciones = new int[clientes.size()];
+        int numeroAceptados = 0;
+        int posicion = 0;
+        for (Cliente cliente : clientes) {
+            if (cliente == null || cliente.getId() == null) {
+                rechazos.add(new ResultadoRegistroMasivo.Rechazo(posicion, null, "cliente sin ID"));
+            } else {
+                String email = normalizarEmail(cliente.getEmail());
+                if (ids.contains(cliente.getId())) {
+                    rechazos.add(new ResultadoRegistroMasivo.Rechazo(posicion, cliente.getId(),
+                            "ID repetido en el lote"));
+                } else if (email != null && !emails.add(email)) {
+                    rechazos.add(new ResultadoRegistroMasivo.Rechazo(posicion, cliente.getId(),
+                            "email repetido en el lote: " + cliente.getEmail()));
+                } else {
+                    ids.add(cliente.getId());
+                    aceptados[numeroAceptados] = cliente;
+                    emailsAceptados[numeroAceptados] = email;
+                    posiciones[numeroAceptados++] = posicion;
+                }
+            }
+            posicion++;
+        }
+        
+        // Segunda pasada: insertar, rechazando lo que choque con clientes ya registrados
+        int registrados = 0;
+        for (int i = 0; i < numeroAceptados; i++) {
+            Cliente cliente = aceptados[i];
+            if (clientesPorId.containsKey(cliente.getId())) {
+                rechazos.add(new ResultadoRegistroMasivo.Rechazo(posiciones[i], cliente.getId(),
+                        "ya existe un cliente con ese ID"));
+            } else if (emailsAceptados[i] != null
+                    && clientesPorEmail.putIfAbsent(emailsAceptados[i], cliente) != null) {
+                rechazos.add(new ResultadoRegistroMasivo.Rechazo(posiciones[i], cliente.getId(),
+                        "ya existe un cliente con el email " + cliente.getEmail()));
+            } else if (clientesPorId.putIfAbsent(cliente.getId(), cliente) != null) {
+                liberarEmail(emailsAceptados[i], cliente);
+                rechazos.add(new ResultadoRegistroMasivo.Rechazo(posiciones[i], cliente.getId(),
+                        "ya existe un cliente con ese ID"));
+            } else {
+                registrados++;
+            }
+        }
+        
+        rechazos.sort(Comparator.comparingInt(ResultadoRegistroMasivo.Rechazo::getPosicion));
+        latenciaRegistrarLote.registrarDesde(inicio);
+        return new ResultadoRegistroMasivo(clientes.size(), registrados, rechazos);
+    }
+    
     /**
      * Busca un cliente por su ID.
      * 
@@ -52,23 +164,23 @@ public class GestorClientes {
      * @return El cliente encontrado o null si no existe
      */
     public Cliente buscarCliente(String id) {
-        return clientes.stream()
-                .filter(c -> c.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        long inicio = latenciaBuscar.iniciar();
+        Cliente cliente = id == null ? null : clientesPorId.get(id);
+        latenciaBuscar.registrarDesde(inicio);
+        return cliente;
     }
     
     /**
-     * Busca un cliente por su email.
+     * Busca un cliente por su email (sin distinguir mayúsculas ni espacios extremos).
      * 
      * @param email Email del cliente a buscar
      * @return El cliente encontrado o null si no existe
      */
     public Cliente buscarClientePorEmail(String email) {
-        return clientes.stream()
-                .filter(c -> c.getEmail().equals(email))
-                .findFirst()
-                .orElse(null);
+        String clave = normalizarEmail(email);
+        Cliente cliente = clave == null ? null : clientesPorEmail.get(clave);
+        // Un email reservado por un registro que aún no publica su ID no cuenta
+        return cliente != null && clientesPorId.get(cliente.getId()) == cliente ? cliente : null;
     }
     
     /**
@@ -77,7 +189,7 @@ public class GestorClientes {
      * @return Lista de todos los clientes
      */
     public List<Cliente> obtenerTodosLosClientes() {
-        return new ArrayList<>(clientes);
+        return new ArrayList<>(clientesPorId.values());
     }
     
     /**
@@ -86,7 +198,29 @@ public class GestorClientes {
      * @return Número total de clientes
      */
     public int obtenerNumeroTotalClientes() {
-        return clientes.size();
+        return clientesPorId.size();
+    }
+    
+    /**
+     * Devuelve el email reservado por un registro que no pudo publicar su ID.
+     */
+    private void liberarEmail(String email, Cliente cliente) {
+        if (email != null) {
+            clientesPorEmail.remove(email, cliente);
+        }
+    }
+    
+    /**
+     * Normaliza un email para usarlo como clave del índice.
+     * 
+     * @param email Email a normalizar
+     * @return Email sin espacios extremos y en minúsculas, o null si está vacío
+     */
+    private static String normalizarEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        String normalizado = email.trim().toLowerCase(Locale.ROOT);
+        return normalizado.isEmpty() ? null : normalizado;
     }
 }
-
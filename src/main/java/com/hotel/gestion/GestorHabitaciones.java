@@ -1,24 +1,67 @@
 package com.hotel.gestion;
 
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.TipoEvento;
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.Metricas;
 import com.hotel.modelo.Habitacion;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Clase responsable de gestionar las habitaciones del hotel.
  * 
  * SRP: Esta clase tiene una única responsabilidad: gestionar el inventario
  * y disponibilidad de las habitaciones. No se encarga de reservas ni clientes.
+ * 
+ * DIP: Las habitaciones se guardan en un InventarioHabitaciones; por defecto
+ * InventarioObjetos (un objeto por habitación con índice de mapas de bits) y,
+ * para inventarios muy grandes, InventarioColumnar (arreglos primitivos).
+ * En ambos, agregar y buscar por número cuesta O(1) y admite varios hilos.
  */
 public class GestorHabitaciones {
-    private List<Habitacion> habitaciones;
+    private InventarioHabitaciones habitaciones;
+    private IndiceDisponibilidad indiceDisponibilidad;
+    private volatile OyenteDisponibilidad oyenteDisponibilidad;
+    private final HistogramaLatencia latenciaAgregar = Metricas.registro().histograma("habitaciones.agregar");
+    private final HistogramaLatencia latenciaDisponibles = Metricas.registro().histograma("habitaciones.disponibles");
+    private final HistogramaLatencia latenciaEstaDisponible =
+            Metricas.registro().histograma("habitaciones.estaDisponible");
+    private final HistogramaLatencia latenciaBuscar = Metricas.registro().histograma("habitaciones.buscar");
+    private final HistogramaLatencia latenciaAgregarLote =
+            Metricas.registro().histograma("habitaciones.agregarLote");
     
     /**
      * Constructor de la clase GestorHabitaciones.
      */
     public GestorHabitaciones() {
-        this.habitaciones = new ArrayList<>();
+        this(new IndiceDisponibilidad());
+    }
+    
+    /**
+     * Constructor que consulta la ocupación en un índice compartido con GestorReservas.
+     * 
+     * @param indiceDisponibilidad Índice de ocupación por rangos de fechas
+     */
+    public GestorHabitaciones(IndiceDisponibilidad indiceDisponibilidad) {
+        this(indiceDisponibilidad, new InventarioObjetos());
+    }
+    
+    /**
+     * Constructor que además elige la representación del inventario.
+     * 
+     * @param indiceDisponibilidad Índice de ocupación por rangos de fechas
+     * @param inventario Inventario vacío donde guardar las habitaciones
+     */
+    public GestorHabitaciones(IndiceDisponibilidad indiceDisponibilidad, InventarioHabitaciones inventario) {
+        this.habitaciones = inventario;
+        this.indiceDisponibilidad = indiceDisponibilidad;
     }
     
     /**
@@ -28,24 +71,94 @@ public class GestorHabitaciones {
      * @return true si fue agregada exitosamente, false en caso contrario
      */
     public boolean agregarHabitacion(Habitacion habitacion) {
-        if (habitacion == null) {
+        long inicio = latenciaAgregar.iniciar();
+        boolean agregada = agregar(habitacion);
+        latenciaAgregar.registrarDesde(inicio);
+        
+        OyenteDisponibilidad oyente = oyenteDisponibilidad;
+        if (agregada && oyente != null) {
+            oyente.habitacionesAgregadas(Collections.singletonList(habitacion));
+        }
+        return agregada;
+    }
+    
+    /**
+     * Configura a quién avisar cuando se agregan habitaciones al inventario
+     * o se vuelven a habilitar.
+     * 
+     * @param oyenteDisponibilidad Oyente a avisar, o null para no avisar
+     */
+    public void setOyenteDisponibilidad(OyenteDisponibilidad oyenteDisponibilidad) {
+        this.oyenteDisponibilidad = oyenteDisponibilidad;
+    }
+    
+    private boolean agregar(Habitacion habitacion) {
+        if (habitacion == null || habitacion.getNumero() == null) {
             return false;
         }
         
-        // Verificar que no exista una habitación con el mismo número
-        boolean existe = habitaciones.stream()
-                .anyMatch(h -> h.getNumero().equals(habitacion.getNumero()));
-        
-        if (existe) {
-            System.out.println("Ya existe una habitación con el número " + habitacion.getNumero());
+        // Verificar que no exista una habitación con el mismo número (de forma atómica)
+        if (!habitaciones.agregar(habitacion)) {
+            Eventos.publicar(TipoEvento.HABITACION_DUPLICADA, habitacion.getNumero());
             return false;
         }
         
-        habitaciones.add(habitacion);
-        System.out.println("Habitación agregada: " + habitacion.getNumero());
+        Eventos.publicar(TipoEvento.HABITACION_AGREGADA, habitacion.getNumero());
         return true;
     }
     
+    /**
+     * Agrega un lote de habitaciones de una vez, por ejemplo todo un archivo.
+     * 
+     * Los números repetidos dentro del lote se resuelven en una sola pasada
+     * con un conjunto de hash (gana la primera); las aceptadas se entregan
+     * juntas al inventario, que las indexa de una vez. No se publica un
+     * evento por habitación: el resumen informa los rechazos.
+     * 
+     * @param habitaciones Habitaciones a agregar
+     * @return Resumen con el número de agregadas y las rechazadas
+     */
+    public ResultadoRegistroMasivo agregarHabitaciones(Collection<Habitacion> habitaciones) {
+        long inicio = latenciaAgregarLote.iniciar();
+        List<ResultadoRegistroMasivo.Rechazo> rechazos = new ArrayList<>();
+        Set<String> numeros = new HashSet<>(habitaciones.size() * 4 / 3 + 1);
+        List<Habitacion> aceptadas = new ArrayList<>(habitaciones.size());
+        int[] posiciones = new int[habitaciones.size()];
+        int posicion = 0;
+        for (Habitacion habitacion : habitaciones) {
+            if (habitacion == null || habitacion.getNumero() == null) {
+                rechazos.add(new ResultadoRegistroMasivo.Rechazo(posicion, null, "habitación sin número"));
+            } else if (!numeros.add(habitacion.getNumero())) {
+                rechazos.add(new ResultadoRegistroMasivo.Rechazo(posicion, habitacion.getNumero(),
+                        "número repetido en el lote"));
+            } else {
+                posiciones[aceptadas.size()] = posicion;
+                aceptadas.add(habitacion);
+            }
+            posicion++;
+        }
+        
+        boolean[] agregadas = this.habitaciones.agregarTodas(aceptadas);
+        List<Habitacion> nuevas = new ArrayList<>(aceptadas.size());
+        for (int i = 0; i < agregadas.length; i++) {
+            if (agregadas[i]) {
+                nuevas.add(aceptadas.get(i));
+            } else {
+                rechazos.add(new ResultadoRegistroMasivo.Rechazo(posiciones[i], aceptadas.get(i).getNumero(),
+                        "ya existe una habitación con ese número"));
+            }
+        }
+        
+        rechazos.sort(Comparator.comparingInt(ResultadoRegistroMasivo.Rechazo::getPosicion));
+        latenciaAgregarLote.registrarDesde(inicio);
+        
+        OyenteDisponibilidad oyente = oyenteDisponibilidad;
+        if (!nuevas.isEmpty() && oyente != null) {
+            oyente.habitacionesAgregadas(nuevas);
+        }
+        return new ResultadoRegistroMasivo(habitaciones.size(), nuevas.size(), rechazos);
+    }
+    
     /**
      * Busca una habitación por su número.
      * 
@@ -53,21 +166,115 @@ public class GestorHabitaciones {
      * @return La habitación encontrada o null si no existe
      */
     public Habitacion buscarHabitacion(String numero) {
-        return habitaciones.stream()
-                .filter(h -> h.getNumero().equals(numero))
-                .findFirst()
-                .orElse(null);
+        return numero == null ? null : habitaciones.buscar(numero);
     }
     
     /**
-     * Obtiene todas las habitaciones disponibles.
+     * Obtiene las habitaciones disponibles para la noche de hoy.
      * 
      * @return Lista de habitaciones disponibles
      */
     public List<Habitacion> obtenerHabitacionesDisponibles() {
-        return habitaciones.stream()
-                .filter(Habitacion::isDisponible)
-                .collect(Collectors.toList());
+        LocalDate hoy = LocalDate.now();
+        return obtenerHabitacionesDisponibles(hoy, hoy.plusDays(1));
+    }
+    
+    /**
+     * Obtiene las habitaciones habilitadas que están libres en un rango de fechas.
+     * 
+     * Todas se evalúan contra una misma instantánea de la ocupación, sin
+     * candados: el resultado es coherente aunque se confirmen reservas mientras.
+     * 
+     * @param fechaInicio Fecha de entrada (incluida)
+     * @param fechaFin Fecha de salida (excluida)
+     * @return Lista de habitaciones disponibles en el rango
+     */
+    public List<Habitacion> obtenerHabitacionesDisponibles(LocalDate fechaInicio, LocalDate fechaFin) {
+        long inicio = latenciaDisponibles.iniciar();
+        InstantaneaDisponibilidad instantanea = indiceDisponibilidad.instantanea();
+        List<Habitacion> disponibles = habitaciones.habilitadas(
+                numero -> instantanea.estaDisponible(numero, fechaInicio, fechaFin));
+        latenciaDisponibles.registrarDesde(inicio);
+        return disponibles;
+    }
+    
+    /**
+     * Verifica si una habitación está habilitada y libre en un rango de fechas.
+     * 
+     * @param numero Número de la habitación
+     * @param fechaInicio Fecha de entrada (incluida)
+     * @param fechaFin Fecha de salida (excluida)
+     * @return true si la habitación existe y está libre en el rango
+     */
+    public boolean estaDisponible(String numero, LocalDate fechaInicio, LocalDate fechaFin) {
+        long inicio = latenciaEstaDisponible.iniciar();
+        Habitacion habitacion = buscarHabitacion(numero);
+        boolean disponible = habitacion != null && habitacion.isDisponible()
+                && indiceDisponibilidad.estaDisponible(numero, fechaInicio, fechaFin);
+        latenciaEstaDisponible.registrarDesde(inicio);
+        return disponible;
+    }
+    
+    /**
+     * Busca las habitaciones habilitadas que cumplen todos los criterios.
+     * 
+     * Los atributos los resuelve el inventario; el rango de fechas, si se
+     * indica, se consulta solo para las habitaciones que ya cumplen el resto,
+     * así que conviene combinarlo con otros criterios. Todas las candidatas se
+     * evalúan contra una misma instantánea de la ocupación.
+     * 
+     * @param criterios Criterios de búsqueda
+     * @return Habitaciones que cumplen los criterios, en orden de alta
+     */
+    public List<Habitacion> buscarHabitaciones(CriteriosBusqueda criterios) {
+        long inicio = latenciaBuscar.iniciar();
+        List<Habitacion> candidatas = habitaciones.buscar(criterios);
+        List<Habitacion> encontradas = new ArrayList<>(candidatas.size());
+        InstantaneaDisponibilidad instantanea = indiceDisponibilidad.instantanea();
+        for (Habitacion habitacion : candidatas) {
+            if (habitacion.isDisponible() && (!criterios.tieneFechas() || instantanea.estaDisponible(
+                    habitacion.getNumero(), criterios.getFechaInicio(), criterios.getFechaFin()))) {
+                encontradas.add(habitacion);
+            }
+        }
+        latenciaBuscar.registrarDesde(inicio);
+        return encontradas;
+    }
+    
+    /**
+     * Vuelve a indexar una habitación después de cambiar su capacidad o su
+     * precio con los setters, para que las búsquedas usen los valores nuevos.
+     * Con InventarioColumnar no hace falta, pero tampoco hace daño.
+     * 
+     * @param numero Número de la habitación
+     * @return true si la habitación existe
+     */
+    public boolean actualizarHabitacion(String numero) {
+        return numero != null && habitaciones.actualizar(numero);
+    }
+    
+    /**
+     * Habilita o deshabilita la venta de una habitación. Al volver a
+     * habilitarla se avisa al OyenteDisponibilidad, igual que con una
+     * habitación nueva, para que pueda atender a quien la esperaba.
+     * 
+     * @param numero Número de la habitación
+     * @param habilitada true para ponerla a la venta, false para retirarla
+     * @return true si la habitación existe
+     */
+    public boolean habilitarHabitacion(String numero, boolean habilitada) {
+        Habitacion habitacion = buscarHabitacion(numero);
+        if (habitacion == null) {
+            return false;
+        }
+        boolean estaba = habitacion.isDisponible();
+        habitacion.setDisponible(habilitada);
+        
+        OyenteDisponibilidad oyente = oyenteDisponibilidad;
+        if (habilitada && !estaba && oyente != null) {
+            oyente.habitacionesAgregadas(Collections.singletonList(habitacion));
+        }
+        return true;
     }
     
     /**
@@ -77,9 +284,9 @@ public class GestorHabitaciones {
      * @return Lista de habitaciones del tipo especificado
      */
     public List<Habitacion> obtenerHabitacionesPorTipo(String tipo) {
-        return habitaciones.stream()
-                .filter(h -> h.getTipo().equals(tipo))
-                .collect(Collectors.toList());
+        CriteriosBusqueda criterios = new CriteriosBusqueda();
+        criterios.setTipos(tipo);
+        return habitaciones.buscar(criterios);
     }
     
     /**
@@ -88,7 +295,7 @@ public class GestorHabitaciones {
      * @return Lista de todas las habitaciones
      */
     public List<Habitacion> obtenerTodasLasHabitaciones() {
-        return new ArrayList<>(habitaciones);
+        return habitaciones.todas();
     }
 }
 
@@ -1,11 +1,23 @@
 package com.hotel.gestion;
 
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.TipoEvento;
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.Metricas;
 import com.hotel.modelo.Cliente;
 import com.hotel.modelo.Habitacion;
 import com.hotel.reserva.Reserva;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 /**
  * Clase responsable de gestionar las reservas del hotel.
@@ -13,47 +25,438 @@ import java.util.stream.Collectors;
  * SRP: Esta clase tiene una única responsabilidad: gestionar el ciclo de vida
  * de las reservas (crear, buscar, cancelar, etc.). No se encarga de gestionar
  * clientes ni habitaciones directamente.
+ * 
+ * Es segura entre hilos: las habitaciones de una reserva se verifican y ocupan
+ * de forma atómica tomando sus candados en IndiceDisponibilidad, por lo que dos
+ * solicitudes concurrentes no pueden reservar la misma habitación en las mismas
+ * fechas, y las solicitudes sobre habitaciones distintas no se bloquean entre sí.
+ * 
+ * Las reservas se reparten en particiones según su primera habitación; cada
+ * partición ejecuta sus cambios en su propio hilo escritor, de modo que las
+ * reservas de habitaciones distintas se procesan en paralelo en varios
+ * núcleos. Un directorio concurrente ubica cada ID en su partición y las
+ * consultas sobre todas las reservas se reparten entre las particiones y se
+ * combinan. Con una sola partición (por defecto) todo se ejecuta en el hilo
+ * que llama.
+ * 
+ * Cada partición indexa sus reservas por ID, por cliente, por habitación y por
+ * fecha de entrada; las consultas por esos criterios son búsquedas en los
+ * índices de cada partición, no recorridos de todas las reservas.
+ * 
+ * Los totales diarios por tipo de habitación (AgregadosDiarios) se actualizan
+ * con cada alta, cancelación y cambio de fechas confirmados, así que el
+ * resumen del día y el calendario del mes no recorren las reservas.
+ * 
+ * Si se configura una BitacoraReservas, cada cambio se hace durable antes de
+ * confirmarse; si la bitácora falla, el cambio se deshace en memoria. El hilo
+ * escritor de la partición no espera al disco: aplica el cambio, lo entrega a
+ * la bitácora y sigue con la próxima operación, mientras quien la pidió espera
+ * la confirmación (ver ParticionReservas). Por eso lo que solo se confirma con
+ * la bitácora se aplica recién entonces: una reserva nueva se vuelve visible y
+ * una cancelación o un cambio de fechas liberan noches recién al ser durables.
+ * Hasta entonces las demás particiones solo ven habitaciones de más ocupadas,
+ * nunca noches liberadas que luego haya que volver a tomar.
+ * 
+ * Si se configura un OyenteDisponibilidad (por ejemplo ListaEspera), se le
+ * avisa de las noches que libera cada cancelación o cambio de fechas
+ * confirmado, ya sin candados tomados.
+ * 
+ * generarIdReserva() entrega IDs de GeneradorIdReserva: únicos entre nodos y
+ * ordenados por momento de creación, de modo que el índice ordenado por ID de
+ * cada partición responde qué reservas se crearon en un intervalo.
+ * 
+ * Las altas y los pagos aceptan una clave de idempotencia: un reintento con la
+ * misma clave recibe el resultado original desde CacheIdempotencia, sin tocar
+ * las habitaciones ni volver a cobrar en la pasarela. Solo se recuerdan los
+ * éxitos: un alta rechazada (habitación ocupada, bitácora fallida) o un cobro
+ * rechazado o vencido se pueden reintentar con la misma clave.
+ * 
+ * Los resultados se publican como eventos (Eventos). Publicar nunca bloquea,
+ * así que los rechazos se informan en el momento, con los candados tomados.
  */
-public class GestorReservas {
-    private List<Reserva> reservas;
+public class GestorReservas implements AutoCloseable {
+    private static final int CAPACIDAD_IDEMPOTENCIA = 100_000;
+    private static final Duration VIGENCIA_IDEMPOTENCIA = Duration.ofHours(24);
+    private static final CompletableFuture<Boolean> RECHAZADO = CompletableFuture.completedFuture(false);
+    private static final CompletableFuture<Void> SIN_BITACORA = CompletableFuture.completedFuture(null);
+    
+    private final ParticionReservas[] particiones;
+    private final ConcurrentMap<String, ParticionReservas> particionPorId;
+    private final AgregadosDiarios agregados = new AgregadosDiarios();
+    private IndiceDisponibilidad indiceDisponibilidad;
+    private volatile BitacoraReservas bitacora;
+    private volatile OyenteDisponibilidad oyenteDisponibilidad;
+    private volatile GeneradorIdReserva generadorIds = new GeneradorIdReserva(0);
+    private volatile CacheIdempotencia<Boolean> altasRecientes =
+            new CacheIdempotencia<>(CAPACIDAD_IDEMPOTENCIA, VIGENCIA_IDEMPOTENCIA);
+    private volatile CacheIdempotencia<Boolean> pagosRecientes =
+            new CacheIdempotencia<>(CAPACIDAD_IDEMPOTENCIA, VIGENCIA_IDEMPOTENCIA);
+    private final HistogramaLatencia latenciaCrear = Metricas.registro().histograma("reservas.crear");
+    private final HistogramaLatencia latenciaCancelar = Metricas.registro().histograma("reservas.cancelar");
+    private final HistogramaLatencia latenciaCambiarFecha = Metricas.registro().histograma("reservas.cambiarFecha");
+    private final HistogramaLatencia latenciaBuscar = Metricas.registro().histograma("reservas.buscar");
+    private final HistogramaLatencia latenciaPago = Metricas.registro().histograma("reservas.procesarPago");
     
     /**
      * Constructor de la clase GestorReservas.
      */
     public GestorReservas() {
-        this.reservas = new ArrayList<>();
+        this(new IndiceDisponibilidad());
+    }
+    
+    /**
+     * Constructor que comparte el índice de disponibilidad con otros gestores
+     * (por ejemplo GestorHabitaciones) para que todos consulten la misma ocupación.
+     * 
+     * @param indiceDisponibilidad Índice de ocupación por rangos de fechas
+     */
+    public GestorReservas(IndiceDisponibilidad indiceDisponibilidad) {
+        this(indiceDisponibilidad, 1);
+    }
+    
+    /**
+     * Constructor que reparte las reservas en varias particiones, cada una con
+     * su propio hilo escritor.
+     * 
+     * @param indiceDisponibilidad Índice de ocupación por rangos de fechas
+     * @param numeroParticiones Número de particiones (1 = sin hilos propios)
+     */
+    public GestorReservas(IndiceDisponibilidad indiceDisponibilidad, int numeroParticiones) {
+        if (numeroParticiones < 1) {
+            throw new IllegalArgumentException("El número de particiones debe ser al menos 1");
+        }
+        this.particiones = new ParticionReservas[numeroParticiones];
+        for (int i = 0; i < numeroParticiones; i++) {
+            particiones[i] = new ParticionReservas(i, numeroParticiones > 1);
+        }
+        this.particionPorId = new ConcurrentHashMap<>();
+        this.indiceDisponibilidad = indiceDisponibilidad;
+    }
+    
+    /**
+     * Configura la bitácora donde se hacen durables los cambios de reservas.
+     * 
+     * @param bitacora Bitácora durable, o null para trabajar solo en memoria
+     */
+    public void setBitacora(BitacoraReservas bitacora) {
+        this.bitacora = bitacora;
+    }
+    
+    /**
+     * Configura a quién avisar cuando una cancelación libera habitaciones.
+     * 
+     * @param oyenteDisponibilidad Oyente a avisar, o null para no avisar
+     */
+    public void setOyenteDisponibilidad(OyenteDisponibilidad oyenteDisponibilidad) {
+        this.oyenteDisponibilidad = oyenteDisponibilidad;
+    }
+    
+    /**
+     * Configura el generador de IDs; cada nodo que cree reservas debe tener
+     * su propio número de nodo.
+     * 
+     * @param generadorIds Generador de IDs de este nodo
+     */
+    public void setGeneradorIds(GeneradorIdReserva generadorIds) {
+        this.generadorIds = generadorIds;
+    }
+    
+    /**
+     * Genera un ID de reserva nuevo, ordenado por momento de creación.
+     * 
+     * @return ID de {@value GeneradorIdReserva#ANCHO} caracteres
+     */
+    public String generarIdReserva() {
+        return generadorIds.siguienteTexto();
+    }
+    
+    /**
+     * Cambia cuántas claves de idempotencia se recuerdan y por cuánto tiempo,
+     * por separado para altas y para pagos. Las claves ya recordadas se olvidan.
+     * 
+     * @param capacidad Máximo de claves por operación
+     * @param vigencia Tiempo durante el cual un reintento recibe el resultado original
+     */
+    public void configurarIdempotencia(int capacidad, Duration vigencia) {
+        this.altasRecientes = new CacheIdempotencia<>(capacidad, vigencia);
+        this.pagosRecientes = new CacheIdempotencia<>(capacidad, vigencia);
     }
     
     /**
      * Crea una nueva reserva y la agrega al sistema.
      * 
+     * Todas las habitaciones de la reserva se ocupan o ninguna: la verificación
+     * y la ocupación se hacen bajo los candados de esas habitaciones.
+     * 
      * @param reserva Reserva a crear
      * @return true si la reserva fue creada exitosamente, false en caso contrario
      */
     public boolean crearReserva(Reserva reserva) {
+        long inicio = latenciaCrear.iniciar();
+        boolean creada = crear(reserva);
+        latenciaCrear.registrarDesde(inicio);
+        return creada;
+    }
+    
+    /**
+     * Crea una reserva una sola vez por clave de idempotencia. Si la clave ya
+     * creó la reserva (por ejemplo, el cliente reintenta tras un tiempo de
+     * espera), se devuelve true sin volver a verificar ni ocupar habitaciones.
+     * Solo se recuerda un alta exitosa y durable: si terminó en false (una
+     * habitación ocupada o una falla de la bitácora), el reintento con la misma
+     * clave vuelve a intentarla.
+     * 
+     * @param reserva Reserva a crear
+     * @param claveIdempotencia Clave elegida por el cliente, o null para no deduplicar
+     * @return true si la reserva fue (o ya había sido) creada con esa clave
+     * @throws IllegalArgumentException si la clave ya se usó para otra reserva
+     */
+    public boolean crearReserva(Reserva reserva, String claveIdempotencia) {
+        if (claveIdempotencia == null || reserva == null) {
+            return crearReserva(reserva);
+        }
+        return altasRecientes.ejecutar(claveIdempotencia, reserva.getIdReserva(),
+                () -> CompletableFuture.completedFuture(crearReserva(reserva)), Boolean.TRUE::equals).join();
+    }
+    
+    private boolean crear(Reserva reserva) {
         if (reserva == null) {
             return false;
         }
         
-        // Verificar que las habitaciones estén disponibles
-        for (Habitacion habitacion : reserva.getHabitaciones()) {
-            if (!habitacion.isDisponible()) {
-                System.out.println("La habitación " + habitacion.getNumero() + 
-                                 " no está disponible");
-                return false;
-            }
+        LocalDate fechaInicio = reserva.getFechaInicio();
+        LocalDate fechaFin = reserva.getFechaFin();
+        if (fechaInicio == null || fechaFin == null || !fechaInicio.isBefore(fechaFin)) {
+            Eventos.publicar(TipoEvento.RESERVA_RANGO_INVALIDO, reserva.getIdReserva());
+            return false;
         }
         
-        // Marcar habitaciones como no disponibles
-        for (Habitacion habitacion : reserva.getHabitaciones()) {
-            habitacion.setDisponible(false);
+        if (particionPorId.containsKey(reserva.getIdReserva())) {
+            Eventos.publicar(TipoEvento.RESERVA_ID_DUPLICADO, reserva.getIdReserva());
+            return false;
         }
         
-        reservas.add(reserva);
-        System.out.println("Reserva creada exitosamente: " + reserva.getIdReserva());
+        // Verificar y ocupar las habitaciones en las fechas de la reserva (todo o nada),
+        // en el hilo escritor de su partición
+        List<Habitacion> habitaciones = reserva.getHabitaciones();
+        List<String> numeros = numerosDe(habitaciones);
+        ParticionReservas particion = particionDe(reserva);
+        boolean creada = particion.ejecutarDurable(reserva.getIdReserva(), () -> indiceDisponibilidad
+                .ejecutarConHabitacionesBloqueadas(numeros, () -> {
+                    Habitacion conflicto = buscarHabitacionNoDisponible(
+                            habitaciones, fechaInicio, fechaFin, null);
+                    if (conflicto == null) {
+                        conflicto = ocuparHabitaciones(reserva, habitaciones, fechaInicio, fechaFin);
+                    }
+                    if (conflicto != null) {
+                        Eventos.publicar(TipoEvento.HABITACION_NO_DISPONIBLE,
+                                conflicto.getNumero(), fechaInicio, fechaFin);
+                        return RECHAZADO;
+                    }
+                    
+                    // Registrar el ID; si otro hilo lo ganó primero, devolver las habitaciones
+                    if (particionPorId.putIfAbsent(reserva.getIdReserva(), particion) != null) {
+                        liberarHabitaciones(reserva, habitaciones, fechaInicio);
+                        Eventos.publicar(TipoEvento.RESERVA_ID_DUPLICADO, reserva.getIdReserva());
+                        return RECHAZADO;
+                    }
+                    
+                    // Hasta que la creación sea durable la reserva solo retiene sus habitaciones;
+                    // se vuelve visible al confirmarse
+                    return particion.alSerDurable(reserva.getIdReserva(),
+                            registrarEnBitacora(b -> b.registrarCreacion(reserva)),
+                            () -> {
+                                particion.agregar(reserva);
+                                agregados.registrar(reserva);
+                            },
+                            falla -> conHabitacionesBloqueadas(numeros, () -> {
+                                particionPorId.remove(reserva.getIdReserva(), particion);
+                                liberarHabitaciones(reserva, habitaciones, fechaInicio);
+                                Eventos.publicar(TipoEvento.BITACORA_FALLIDA, "la creación",
+                                        reserva.getIdReserva(), falla.getMessage());
+                            }));
+                }));
+        
+        if (!creada) {
+            return false;
+        }
+        
+        Eventos.publicar(TipoEvento.RESERVA_CREADA, reserva.getIdReserva());
         return true;
     }
     
+    /**
+     * Restaura reservas ya confirmadas, por ejemplo al cargar la instantánea o
+     * reproducir el registro durable.
+     * 
+     * Cada reserva ocupa sus habitaciones como en un alta, pero no se verifica
+     * que estén habilitadas para la venta, no se escribe en la bitácora (el
+     * evento ya es durable) y no se publica un evento ni se mide latencia por
+     * reserva. Las que repiten un ID o chocan con otra ocupación se rechazan
+     * en el resumen.
+     * 
+     * @param reservas Reservas a restaurar, con sus habitaciones y precio originales
+     * @return Resumen con el número de restauradas y las rechazadas
+     */
+    public ResultadoRegistroMasivo restaurarReservas(Collection<Reserva> reservas) {
+        List<ResultadoRegistroMasivo.Rechazo> rechazos = new ArrayList<>();
+        int restauradas = 0;
+        int posicion = 0;
+        for (Reserva reserva : reservas) {
+            String motivo = restaurar(reserva);
+            if (motivo == null) {
+                restauradas++;
+            } else {
+                rechazos.add(new ResultadoRegistroMasivo.Rechazo(posicion,
+                        reserva == null ? null : reserva.getIdReserva(), motivo));
+            }
+            posicion++;
+        }
+        return new ResultadoRegistroMasivo(reservas.size(), restauradas, rechazos);
+    }
+    
+    /**
+     * @return null si se restauró, o el motivo del rechazo
+     */
+    private String restaurar(Reserva reserva) {
+        if (reserva == null || reserva.getIdReserva() == null) {
+            return "reserva sin ID";
+        }
+        LocalDate fechaInicio = reserva.getFechaInicio();
+        LocalDate fechaFin = reserva.getFechaFin();
+        if (fechaInicio == null || fechaFin == null || !fechaInicio.isBefore(fechaFin)) {
+            return "rango de fechas no válido";
+        }
+        
+        List<Habitacion> habitaciones = reserva.getHabitaciones();
+        ParticionReservas particion = particionDe(reserva);
+        return particion.ejecutar(() -> indiceDisponibilidad.ejecutarConHabitacionesBloqueadas(
+                numerosDe(habitaciones), () -> {
+                    if (particionPorId.putIfAbsent(reserva.getIdReserva(), particion) != null) {
+                        return "ya existe una reserva con ese ID";
+                    }
+                    Habitacion conflicto = ocuparHabitaciones(reserva, habitaciones, fechaInicio, fechaFin);
+                    if (conflicto != null) {
+                        particionPorId.remove(reserva.getIdReserva(), particion);
+                        return "la habitación " + conflicto.getNumero() + " ya está ocupada en esas fechas";
+                    }
+                    particion.agregar(reserva);
+                    agregados.registrar(reserva);
+                    return null;
+                }));
+    }
+    
+    /**
+     * Aplica una cancelación ya durable, al reproducir el registro. Como en
+     * {@link #restaurarReservas}, no se escribe en la bitácora, no se publica
+     * un evento, no se mide latencia y no se avisa al oyente de disponibilidad.
+     * 
+     * @param idReserva ID de la reserva cancelada
+     * @return null si se aplicó, o el motivo del rechazo
+     */
+    public String restaurarCancelacion(String idReserva) {
+        ParticionReservas particion = idReserva == null ? null : particionPorId.get(idReserva);
+        Reserva reserva = particion == null ? null : particion.buscar(idReserva);
+        if (reserva == null) {
+            return "no existe una reserva con ese ID";
+        }
+        
+        List<Habitacion> habitaciones = reserva.getHabitaciones();
+        return particion.ejecutar(() -> indiceDisponibilidad.ejecutarConHabitacionesBloqueadas(
+                numerosDe(habitaciones), () -> {
+                    if (!particion.quitar(reserva)) {
+                        return "no existe una reserva con ese ID";
+                    }
+                    particionPorId.remove(idReserva, particion);
+                    liberarHabitaciones(reserva, habitaciones, reserva.getFechaInicio());
+                    agregados.retirar(reserva);
+                    return null;
+                }));
+    }
+    
+    /**
+     * Aplica un cambio de fechas ya durable con el precio con que se
+     * registró, al reproducir el registro; ver {@link #restaurarCancelacion}.
+     * 
+     * @param idReserva ID de la reserva que cambió
+     * @param nuevaFechaInicio Nueva fecha de entrada
+     * @param nuevaFechaFin Nueva fecha de salida
+     * @param precioBaseCentavos Precio antes de beneficios registrado para el cambio
+     * @param precioTotalCentavos Precio total registrado para el cambio
+     * @return null si se aplicó, o el motivo del rechazo
+     */
+    public String restaurarCambioFecha(String idReserva, LocalDate nuevaFechaInicio, LocalDate nuevaFechaFin,
+                                       long precioBaseCentavos, long precioTotalCentavos) {
+        return restaurarCambioFecha(idReserva, nuevaFechaInicio, nuevaFechaFin,
+                new long[] {precioBaseCentavos, precioTotalCentavos});
+    }
+    
+    /**
+     * Aplica un cambio de fechas ya durable registrado sin su precio
+     * (registros antiguos): se cotiza con el plan de tarifas actual.
+     * 
+     * @param idReserva ID de la reserva que cambió
+     * @param nuevaFechaInicio Nueva fecha de entrada
+     * @param nuevaFechaFin Nueva fecha de salida
+     * @return null si se aplicó, o el motivo del rechazo
+     */
+    public String restaurarCambioFecha(String idReserva, LocalDate nuevaFechaInicio, LocalDate nuevaFechaFin) {
+        return restaurarCambioFecha(idReserva, nuevaFechaInicio, nuevaFechaFin, null);
+    }
+    
+    /**
+     * Marca como pagada una reserva cuyo pago ya es durable, al reproducir el
+     * registro; ver {@link #restaurarCancelacion}.
+     * 
+     * @param idReserva ID de la reserva pagada
+     * @return null si se aplicó, o el motivo del rechazo
+     */
+    public String restaurarPago(String idReserva) {
+        ParticionReservas particion = idReserva == null ? null : particionPorId.get(idReserva);
+        Reserva reserva = particion == null ? null : particion.buscar(idReserva);
+        if (reserva == null) {
+            return "no existe una reserva con ese ID";
+        }
+        reserva.marcarComoPagada();
+        return null;
+    }
+    
+    /**
+     * @param precio Precio base y total registrados, o null para cotizarlo
+     */
+    private String restaurarCambioFecha(String idReserva, LocalDate nuevaFechaInicio, LocalDate nuevaFechaFin,
+                                        long[] precio) {
+        ParticionReservas particion = idReserva == null ? null : particionPorId.get(idReserva);
+        Reserva reserva = particion == null ? null : particion.buscar(idReserva);
+        if (reserva == null) {
+            return "no existe una reserva con ese ID";
+        }
+        if (nuevaFechaInicio == null || nuevaFechaFin == null || !nuevaFechaInicio.isBefore(nuevaFechaFin)) {
+            return "rango de fechas no válido";
+        }
+        
+        List<Habitacion> habitaciones = reserva.getHabitaciones();
+        return particion.ejecutar(() -> indiceDisponibilidad.ejecutarConHabitacionesBloqueadas(
+                numerosDe(habitaciones), () -> {
+                    if (particion.buscar(idReserva) != reserva) {
+                        return "no existe una reserva con ese ID";
+                    }
+                    LocalDate fechaInicioAnterior = reserva.getFechaInicio();
+                    LocalDate fechaFinAnterior = reserva.getFechaFin();
+                    liberarHabitaciones(reserva, habitaciones, fechaInicioAnterior);
+                    Habitacion conflicto = ocuparHabitaciones(reserva, habitaciones, nuevaFechaInicio, nuevaFechaFin);
+                    if (conflicto != null) {
+                        ocuparHabitaciones(reserva, habitaciones, fechaInicioAnterior, fechaFinAnterior);
+                        return "la habitación " + conflicto.getNumero() + " ya está ocupada en esas fechas";
+                    }
+                    long[] nuevo = precio != null ? precio : reserva.cotizarFechas(nuevaFechaInicio, nuevaFechaFin);
+                    reserva.cambiarFecha(nuevaFechaInicio, nuevaFechaFin, nuevo[0], nuevo[1]);
+                    particion.reindexarFechaEntrada(reserva, fechaInicioAnterior);
+                    agregados.actualizar(reserva);
+                    return null;
+                }));
+    }
+    
     /**
      * Busca una reserva por su ID.
      * 
@@ -61,10 +464,11 @@ public class GestorReservas {
      * @return La reserva encontrada o null si no existe
      */
     public Reserva buscarReserva(String idReserva) {
-        return reservas.stream()
-                .filter(r -> r.getIdReserva().equals(idReserva))
-                .findFirst()
-                .orElse(null);
+        long inicio = latenciaBuscar.iniciar();
+        ParticionReservas particion = idReserva == null ? null : particionPorId.get(idReserva);
+        Reserva reserva = particion == null ? null : particion.buscar(idReserva);
+        latenciaBuscar.registrarDesde(inicio);
+        return reserva;
     }
     
     /**
@@ -74,9 +478,51 @@ public class GestorReservas {
      * @return Lista de reservas del cliente
      */
     public List<Reserva> obtenerReservasPorCliente(Cliente cliente) {
-        return reservas.stream()
-                .filter(r -> r.getCliente().getId().equals(cliente.getId()))
-                .collect(Collectors.toList());
+        return obtenerReservasPorCliente(cliente.getId());
+    }
+    
+    /**
+     * Obtiene todas las reservas de un cliente a partir de su ID.
+     * 
+     * @param idCliente ID del cliente (ej: "C001")
+     * @return Lista de reservas del cliente
+     */
+    public List<Reserva> obtenerReservasPorCliente(String idCliente) {
+        return buscarEnIndices(particion -> particion.buscarPorCliente(idCliente));
+    }
+    
+    /**
+     * Obtiene las reservas que incluyen una habitación.
+     * 
+     * @param numeroHabitacion Número de la habitación
+     * @return Lista de reservas de la habitación
+     */
+    public List<Reserva> obtenerReservasPorHabitacion(String numeroHabitacion) {
+        return buscarEnIndices(particion -> particion.buscarPorHabitacion(numeroHabitacion));
+    }
+    
+    /**
+     * Obtiene las reservas que entran en una fecha (las llegadas del día).
+     * 
+     * @param fecha Fecha de entrada
+     * @return Lista de reservas que entran ese día
+     */
+    public List<Reserva> obtenerLlegadas(LocalDate fecha) {
+        return obtenerLlegadas(fecha, fecha.plusDays(1));
+    }
+    
+    /**
+     * Obtiene las reservas con fecha de entrada en un rango.
+     * 
+     * @param desde Primera fecha de entrada (incluida)
+     * @param hasta Última fecha de entrada (excluida)
+     * @return Lista de reservas que entran en el rango
+     */
+    public List<Reserva> obtenerLlegadas(LocalDate desde, LocalDate hasta) {
+        if (!desde.isBefore(hasta)) {
+            return new ArrayList<>();
+        }
+        return buscarEnIndices(particion -> particion.buscarPorFechaEntrada(desde, hasta));
     }
     
     /**
@@ -86,20 +532,310 @@ public class GestorReservas {
      * @return true si la reserva fue cancelada exitosamente, false en caso contrario
      */
     public boolean cancelarReserva(String idReserva) {
+        long inicio = latenciaCancelar.iniciar();
+        Reserva cancelada = cancelar(idReserva);
+        latenciaCancelar.registrarDesde(inicio);
+        
+        OyenteDisponibilidad oyente = oyenteDisponibilidad;
+        if (cancelada != null && oyente != null) {
+            oyente.habitacionesLiberadas(cancelada.getHabitaciones(), cancelada.getFechaInicio(),
+                    cancelada.getFechaFin());
+        }
+        return cancelada != null;
+    }
+    
+    /**
+     * @return La reserva cancelada, o null si no pudo cancelarse
+     */
+    private Reserva cancelar(String idReserva) {
         Reserva reserva = buscarReserva(idReserva);
-        if (reserva == null) {
-            System.out.println("Reserva no encontrada");
-            return false;
+        ParticionReservas particion = reserva == null ? null : particionPorId.get(idReserva);
+        if (particion == null) {
+            Eventos.publicar(TipoEvento.RESERVA_NO_ENCONTRADA, idReserva);
+            return null;
         }
         
-        // Liberar habitaciones
-        for (Habitacion habitacion : reserva.getHabitaciones()) {
-            habitacion.setDisponible(true);
+        // Quitar la reserva y liberar sus habitaciones bajo los candados de esas habitaciones
+        List<Habitacion> habitaciones = reserva.getHabitaciones();
+        List<String> numeros = numerosDe(habitaciones);
+        boolean cancelada = particion.ejecutarDurable(idReserva, () -> indiceDisponibilidad
+                .ejecutarConHabitacionesBloqueadas(numeros, () -> {
+                    // La reserva pudo cancelarse mientras se esperaban los candados
+                    if (particion.buscar(idReserva) != reserva) {
+                        Eventos.publicar(TipoEvento.RESERVA_NO_ENCONTRADA, idReserva);
+                        return RECHAZADO;
+                    }
+                    
+                    // Hasta que la cancelación sea durable la reserva sigue visible y con sus
+                    // noches: nadie puede tomarlas, ni verla cancelada, mientras aún podría deshacerse
+                    return particion.alSerDurable(idReserva,
+                            registrarEnBitacora(b -> b.registrarCancelacion(reserva)),
+                            () -> conHabitacionesBloqueadas(numeros, () -> {
+                                particion.quitar(reserva);
+                                particionPorId.remove(idReserva, particion);
+                                liberarHabitaciones(reserva, habitaciones, reserva.getFechaInicio());
+                                agregados.retirar(reserva);
+                            }),
+                            falla -> Eventos.publicar(TipoEvento.BITACORA_FALLIDA, "la cancelación",
+                                    idReserva, falla.getMessage()));
+                }));
+        
+        if (!cancelada) {
+            return null;
         }
         
-        reservas.remove(reserva);
-        System.out.println("Reserva cancelada exitosamente: " + idReserva);
-        return true;
+        Eventos.publicar(TipoEvento.RESERVA_CANCELADA, idReserva);
+        return reserva;
+    }
+    
+    /**
+     * Cambia las fechas de una reserva registrada, validando que sus habitaciones
+     * estén libres en el nuevo rango y actualizando el índice de disponibilidad.
+     * El cambio es atómico respecto a otras reservas sobre las mismas habitaciones.
+     * 
+     * @param idReserva ID de la reserva a modificar
+     * @param nuevaFechaInicio Nueva fecha de entrada
+     * @param nuevaFechaFin Nueva fecha de salida
+     * @return true si el cambio fue exitoso, false en caso contrario
+     */
+    public boolean cambiarFechaReserva(String idReserva, LocalDate nuevaFechaInicio, LocalDate nuevaFechaFin) {
+        long inicio = latenciaCambiarFecha.iniciar();
+        Reserva reserva = buscarReserva(idReserva);
+        LocalDate[] anterior = cambiarFecha(idReserva, reserva, nuevaFechaInicio, nuevaFechaFin);
+        latenciaCambiarFecha.registrarDesde(inicio);
+        
+        // Avisar de las noches anteriores que no quedaron dentro del rango nuevo
+        OyenteDisponibilidad oyente = oyenteDisponibilidad;
+        if (anterior != null && oyente != null) {
+            if (anterior[0].isBefore(nuevaFechaInicio)) {
+                oyente.habitacionesLiberadas(reserva.getHabitaciones(), anterior[0],
+                        min(anterior[1], nuevaFechaInicio));
+            }
+            if (nuevaFechaFin.isBefore(anterior[1])) {
+                oyente.habitacionesLiberadas(reserva.getHabitaciones(), max(anterior[0], nuevaFechaFin),
+                        anterior[1]);
+            }
+        }
+        return anterior != null;
+    }
+    
+    /**
+     * @return Fechas de entrada y de salida anteriores al cambio, o null si no pudo hacerse
+     */
+    private LocalDate[] cambiarFecha(String idReserva, Reserva reserva, LocalDate nuevaFechaInicio,
+                                     LocalDate nuevaFechaFin) {
+        ParticionReservas particion = reserva == null ? null : particionPorId.get(idReserva);
+        if (particion == null) {
+            Eventos.publicar(TipoEvento.RESERVA_NO_ENCONTRADA, idReserva);
+            return null;
+        }
+        
+        if (nuevaFechaInicio == null || nuevaFechaFin == null || !nuevaFechaInicio.isBefore(nuevaFechaFin)) {
+            Eventos.publicar(TipoEvento.RESERVA_RANGO_INVALIDO, idReserva);
+            return null;
+        }
+        
+        List<Habitacion> habitaciones = reserva.getHabitaciones();
+        List<String> numeros = numerosDe(habitaciones);
+        LocalDate[] anterior = new LocalDate[2];
+        boolean cambiada = particion.ejecutarDurable(idReserva, () -> indiceDisponibilidad
+                .ejecutarConHabitacionesBloqueadas(numeros, () -> {
+                    // La reserva pudo cancelarse mientras se esperaban los candados
+                    if (particion.buscar(idReserva) != reserva) {
+                        Eventos.publicar(TipoEvento.RESERVA_NO_ENCONTRADA, idReserva);
+                        return RECHAZADO;
+                    }
+                    
+                    Habitacion conflicto = buscarHabitacionNoDisponible(
+                            habitaciones, nuevaFechaInicio, nuevaFechaFin, idReserva);
+                    if (conflicto != null) {
+                        Eventos.publicar(TipoEvento.HABITACION_NO_DISPONIBLE,
+                                conflicto.getNumero(), nuevaFechaInicio, nuevaFechaFin);
+                        return RECHAZADO;
+                    }
+                    
+                    // Hasta que el cambio sea durable la reserva conserva sus fechas y retiene las
+                    // noches anteriores y las nuevas: si los rangos se solapan, como un solo rango
+                    // que los cubre a ambos
+                    LocalDate fechaInicioAnterior = reserva.getFechaInicio();
+                    LocalDate fechaFinAnterior = reserva.getFechaFin();
+                    anterior[0] = fechaInicioAnterior;
+                    anterior[1] = fechaFinAnterior;
+                    boolean solapados = nuevaFechaInicio.isBefore(fechaFinAnterior)
+                            && fechaInicioAnterior.isBefore(nuevaFechaFin);
+                    LocalDate retenidaDesde = nuevaFechaInicio;
+                    LocalDate retenidaHasta = nuevaFechaFin;
+                    if (solapados) {
+                        retenidaDesde = min(fechaInicioAnterior, nuevaFechaInicio);
+                        retenidaHasta = max(fechaFinAnterior, nuevaFechaFin);
+                        liberarHabitaciones(reserva, habitaciones, fechaInicioAnterior);
+                    }
+                    conflicto = ocuparHabitaciones(reserva, habitaciones, retenidaDesde, retenidaHasta);
+                    if (conflicto != null) {
+                        if (solapados) {
+                            ocuparHabitaciones(reserva, habitaciones, fechaInicioAnterior, fechaFinAnterior);
+                        }
+                        Eventos.publicar(TipoEvento.HABITACION_NO_DISPONIBLE,
+                                conflicto.getNumero(), nuevaFechaInicio, nuevaFechaFin);
+                        return RECHAZADO;
+                    }
+                    
+                    // Las fechas, el precio, el índice por fecha de entrada y los agregados cambian
+                    // al confirmarse, con el precio cotizado ahora y guardado en la bitácora
+                    long[] precio = reserva.cotizarFechas(nuevaFechaInicio, nuevaFechaFin);
+                    LocalDate desde = retenidaDesde;
+                    return particion.alSerDurable(idReserva,
+                            registrarEnBitacora(b -> b.registrarCambioFecha(reserva,
+                                    nuevaFechaInicio, nuevaFechaFin, precio[0], precio[1])),
+                            () -> conHabitacionesBloqueadas(numeros, () -> {
+                                if (solapados) {
+                                    liberarHabitaciones(reserva, habitaciones, desde);
+                                    ocuparHabitaciones(reserva, habitaciones, nuevaFechaInicio, nuevaFechaFin);
+                                } else {
+                                    liberarHabitaciones(reserva, habitaciones, fechaInicioAnterior);
+                                }
+                                reserva.cambiarFecha(nuevaFechaInicio, nuevaFechaFin, precio[0], precio[1]);
+                                particion.reindexarFechaEntrada(reserva, fechaInicioAnterior);
+                                agregados.actualizar(reserva);
+                            }),
+                            falla -> conHabitacionesBloqueadas(numeros, () -> {
+                                // Devolver lo retenido y dejar solo la ocupación original
+                                liberarHabitaciones(reserva, habitaciones, desde);
+                                if (solapados) {
+                                    ocuparHabitaciones(reserva, habitaciones,
+                                            fechaInicioAnterior, fechaFinAnterior);
+                                }
+                                Eventos.publicar(TipoEvento.BITACORA_FALLIDA, "el cambio de fecha",
+                                        idReserva, falla.getMessage());
+                            }));
+                }));
+        
+        if (!cambiada) {
+            return null;
+        }
+        
+        Eventos.publicar(TipoEvento.RESERVA_FECHAS_ACTUALIZADAS, idReserva);
+        return anterior;
+    }
+    
+    /**
+     * Procesa el pago de una reserva registrada y lo hace durable en la bitácora.
+     * Espera la respuesta de la pasarela; ver {@link #procesarPagoAsync(String)}.
+     * 
+     * @param idReserva ID de la reserva a pagar
+     * @return true si el pago fue exitoso, false en caso contrario
+     */
+    public boolean procesarPago(String idReserva) {
+        return procesarPagoAsync(idReserva).join();
+    }
+    
+    /**
+     * Procesa el pago de una reserva una sola vez por clave de idempotencia.
+     * Espera la respuesta de la pasarela; ver {@link #procesarPagoAsync(String, String)}.
+     * 
+     * @param idReserva ID de la reserva a pagar
+     * @param claveIdempotencia Clave elegida por el cliente, o null para no deduplicar
+     * @return true si el pago fue (o ya había sido) aprobado con esa clave
+     */
+    public boolean procesarPago(String idReserva, String claveIdempotencia) {
+        return procesarPagoAsync(idReserva, claveIdempotencia).join();
+    }
+    
+    /**
+     * Procesa el pago de una reserva una sola vez por clave de idempotencia.
+     * Un reintento con la misma clave recibe el resultado del cobro original
+     * (aunque este siga en curso) sin volver a llamar a la pasarela. Solo se
+     * recuerda un cobro aprobado: si terminó en false (rechazo, plazo vencido,
+     * pasarela saturada), el reintento vuelve a intentarlo.
+     * 
+     * @param idReserva ID de la reserva a pagar
+     * @param claveIdempotencia Clave elegida por el cliente, o null para no deduplicar
+     * @return Resultado futuro del cobro original: true si fue aprobado
+     * @throws IllegalArgumentException si la clave ya se usó para otra reserva
+     */
+    public CompletableFuture<Boolean> procesarPagoAsync(String idReserva, String claveIdempotencia) {
+        if (claveIdempotencia == null) {
+            return procesarPagoAsync(idReserva);
+        }
+        return pagosRecientes.ejecutar(claveIdempotencia, idReserva, () -> procesarPagoAsync(idReserva),
+                Boolean.TRUE::equals);
+    }
+    
+    /**
+     * Procesa el pago de una reserva registrada sin bloquear al hilo que lo solicita.
+     * 
+     * Cuando la pasarela aprueba el cobro, el pago se registra en la bitácora
+     * antes de completar el resultado, en el hilo que entregó la respuesta.
+     * 
+     * Si el plazo venció con la pasarela todavía procesando el cobro, el
+     * resultado es false, pero una aprobación tardía también se registra en la
+     * bitácora; y un nuevo intento mientras tanto espera esa respuesta en lugar
+     * de volver a cobrar.
+     * 
+     * @param idReserva ID de la reserva a pagar
+     * @return Resultado futuro: true si el pago fue exitoso
+     */
+    public CompletableFuture<Boolean> procesarPagoAsync(String idReserva) {
+        long inicio = latenciaPago.iniciar();
+        Reserva reserva = buscarReserva(idReserva);
+        if (reserva == null) {
+            Eventos.publicar(TipoEvento.RESERVA_NO_ENCONTRADA, idReserva);
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        CompletableFuture<Boolean> sinConfirmar = reserva.getCobroSinConfirmar();
+        CompletableFuture<Boolean> pago = sinConfirmar != null ? sinConfirmar
+                : reserva.procesarPagoAsync(() -> registrarPago(reserva).join())
+                        .thenCompose(exito -> exito ? registrarPago(reserva).thenApply(v -> true)
+                                : CompletableFuture.completedFuture(false));
+        // La latencia del pago incluye la espera de la pasarela y el registro en la bitácora
+        return pago.whenComplete((exito, error) -> latenciaPago.registrarDesde(inicio));
+    }
+    
+    /**
+     * Hace durable un pago aprobado por la pasarela.
+     * 
+     * @return Resultado que se completa cuando el pago es durable o se informó la falla
+     */
+    private CompletableFuture<Void> registrarPago(Reserva reserva) {
+        return registrarEnBitacora(b -> b.registrarPago(reserva)).handle((valor, error) -> {
+            if (error != null) {
+                // El cobro ya se hizo: se informa, pero el pago no se revierte
+                Throwable causa = error.getCause() != null ? error.getCause() : error;
+                Eventos.publicar(TipoEvento.BITACORA_FALLIDA, "el pago", reserva.getIdReserva(),
+                        causa.getMessage());
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Obtiene las reservas con ID generado creadas en un intervalo, en orden de
+     * creación, recorriendo solo ese tramo del índice ordenado por ID.
+     * 
+     * @param desde Inicio del intervalo (incluido)
+     * @param hasta Fin del intervalo (excluido)
+     * @return Reservas creadas en el intervalo
+     */
+    public List<Reserva> obtenerReservasCreadasEntre(Instant desde, Instant hasta) {
+        String primero = GeneradorIdReserva.primeroEn(desde);
+        String limite = GeneradorIdReserva.primeroEn(hasta);
+        List<Reserva> resultado = buscarEnIndices(particion -> particion.buscarPorRangoId(primero, limite));
+        if (particiones.length > 1) {
+            resultado.sort(Comparator.comparing(Reserva::getIdReserva));
+        }
+        return resultado;
+    }
+    
+    /**
+     * ID de la reserva creada con una clave de idempotencia, para que un
+     * reintento sin ID propio reciba el mismo que la primera petición.
+     * 
+     * @param claveIdempotencia Clave usada en crearReserva
+     * @return ID de la reserva, o null si la clave no se recuerda
+     */
+    public String buscarIdPorClave(String claveIdempotencia) {
+        return altasRecientes.huellaDe(claveIdempotencia);
     }
     
     /**
@@ -108,7 +844,7 @@ public class GestorReservas {
      * @return Lista de todas las reservas
      */
     public List<Reserva> obtenerTodasLasReservas() {
-        return new ArrayList<>(reservas);
+        return reunir(ArrayList::new);
     }
     
     /**
@@ -117,7 +853,166 @@ public class GestorReservas {
      * @return Número total de reservas
      */
     public int obtenerNumeroTotalReservas() {
-        return reservas.size();
+        int total = 0;
+        for (ParticionReservas particion : particiones) {
+            total += particion.tamano();
+        }
+        return total;
+    }
+    
+    /**
+     * @return Totales diarios de ocupación e ingresos por tipo de habitación
+     */
+    public AgregadosDiarios getAgregadosDiarios() {
+        return agregados;
+    }
+    
+    /**
+     * @return Altas y pagos respondidos con el resultado de una llamada anterior con la misma clave
+     */
+    public long getReintentosAtendidos() {
+        return altasRecientes.getAciertos() + pagosRecientes.getAciertos();
+    }
+    
+    /**
+     * @return Número de particiones en que se reparten las reservas
+     */
+    public int getNumeroParticiones() {
+        return particiones.length;
+    }
+    
+    /**
+     * Termina las operaciones en curso y detiene los hilos de las particiones.
+     */
+    @Override
+    public void close() {
+        for (ParticionReservas particion : particiones) {
+            particion.cerrar();
+        }
+    }
+    
+    /**
+     * Elige la partición de una reserva según su primera habitación, de modo
+     * que las reservas de una misma habitación queden en la misma partición.
+     */
+    private ParticionReservas particionDe(Reserva reserva) {
+        List<Habitacion> habitaciones = reserva.getHabitaciones();
+        String clave = habitaciones.isEmpty() ? reserva.getIdReserva() : habitaciones.get(0).getNumero();
+        return particiones[Math.floorMod(clave.hashCode(), particiones.length)];
+    }
+    
+    /**
+     * Consulta un índice secundario de cada partición y une los resultados.
+     * Son búsquedas cortas bajo el candado de lectura de cada partición, así
+     * que se hacen en el hilo que llama, sin pasar por los hilos escritores.
+     */
+    private List<Reserva> buscarEnIndices(Function<ParticionReservas, List<Reserva>> busqueda) {
+        if (particiones.length == 1) {
+            return busqueda.apply(particiones[0]);
+        }
+        List<Reserva> resultado = new ArrayList<>();
+        for (ParticionReservas particion : particiones) {
+            resultado.addAll(busqueda.apply(particion));
+        }
+        return resultado;
+    }
+    
+    /**
+     * Ejecuta una consulta en todas las particiones en paralelo y une los resultados.
+     */
+    private List<Reserva> reunir(Function<Collection<Reserva>, List<Reserva>> consulta) {
+        List<CompletableFuture<List<Reserva>>> parciales = new ArrayList<>(particiones.length);
+        for (ParticionReservas particion : particiones) {
+            parciales.add(particion.consultar(consulta));
+        }
+        List<Reserva> resultado = new ArrayList<>();
+        for (CompletableFuture<List<Reserva>> parcial : parciales) {
+            resultado.addAll(parcial.join());
+        }
+        return resultado;
+    }
+    
+    /**
+     * Busca la primera habitación que no puede ocuparse en el rango indicado.
+     * Debe llamarse con los candados de las habitaciones tomados.
+     * 
+     * @return La habitación en conflicto o null si todas están libres
+     */
+    private Habitacion buscarHabitacionNoDisponible(List<Habitacion> habitaciones, LocalDate fechaInicio,
+                                                    LocalDate fechaFin, String idReservaExcluida) {
+        for (Habitacion habitacion : habitaciones) {
+            if (!habitacion.isDisponible() || !indiceDisponibilidad.estaDisponible(
+                    habitacion.getNumero(), fechaInicio, fechaFin, idReservaExcluida)) {
+                return habitacion;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Ocupa todas las habitaciones de la reserva en el rango indicado.
+     * Si alguna no puede ocuparse (por ejemplo, si la reserva repite una
+     * habitación), deshace las ocupaciones ya hechas.
+     * 
+     * @return La habitación que no pudo ocuparse o null si se ocuparon todas
+     */
+    private Habitacion ocuparHabitaciones(Reserva reserva, List<Habitacion> habitaciones,
+                                          LocalDate fechaInicio, LocalDate fechaFin) {
+        for (int i = 0; i < habitaciones.size(); i++) {
+            if (!indiceDisponibilidad.ocupar(habitaciones.get(i).getNumero(),
+                    fechaInicio, fechaFin, reserva.getIdReserva())) {
+                liberarHabitaciones(reserva, habitaciones.subList(0, i), fechaInicio);
+                return habitaciones.get(i);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Libera las habitaciones de la reserva que empiezan en la fecha indicada.
+     */
+    private void liberarHabitaciones(Reserva reserva, List<Habitacion> habitaciones, LocalDate fechaInicio) {
+        for (Habitacion habitacion : habitaciones) {
+            indiceDisponibilidad.liberar(habitacion.getNumero(), fechaInicio, reserva.getIdReserva());
+        }
+    }
+    
+    /**
+     * Entrega un evento a la bitácora, si hay una configurada, sin esperar al disco.
+     * 
+     * @return Resultado que se completa cuando el evento es durable
+     */
+    private CompletableFuture<Void> registrarEnBitacora(Function<BitacoraReservas, CompletableFuture<Void>> evento) {
+        BitacoraReservas actual = bitacora;
+        return actual == null ? SIN_BITACORA : evento.apply(actual);
+    }
+    
+    /**
+     * Ejecuta una acción con los candados de las habitaciones indicadas.
+     */
+    private void conHabitacionesBloqueadas(List<String> numeros, Runnable accion) {
+        indiceDisponibilidad.ejecutarConHabitacionesBloqueadas(numeros, () -> {
+            accion.run();
+            return null;
+        });
+    }
+    
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+    
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+    
+    /**
+     * Obtiene los números de un conjunto de habitaciones.
+     */
+    private static List<String> numerosDe(List<Habitacion> habitaciones) {
+        List<String> numeros = new ArrayList<>(habitaciones.size());
+        for (Habitacion habitacion : habitaciones) {
+            numeros.add(habitacion.getNumero());
+        }
+        return numeros;
     }
 }
-
@@ -0,0 +1,210 @@
+package com.hotel.gestion;
+
+import com.hotel.modelo.Habitacion;
+import com.hotel.modelo.HabitacionSuite;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de habitaciones por atributo basado en mapas de bits.
+ * 
+ * SRP: Solo responde qué habitaciones cumplen una combinación de atributos;
+ * la disponibilidad por fechas la sigue resolviendo IndiceDisponibilidad.
+ * 
+ * Cada habitación recibe una posición densa y cada valor de atributo (tipo,
+ * capacidad, precio por noche, jacuzzi, bar) guarda un BitSet con las
+ * posiciones que lo tienen. Una búsqueda combina esos conjuntos con AND, OR y
+ * AND NOT, procesando 64 habitaciones por operación, y solo al final convierte
+ * los bits en habitaciones. Para los rangos (capacidad mínima, precio máximo)
+ * se une el lado del rango con menos valores distintos y, si es el
+ * complementario, se resta en lugar de intersecar.
+ * 
+ * Las altas y actualizaciones toman el candado de escritura; las búsquedas,
+ * el de lectura, así que pueden ejecutarse en paralelo entre sí.
+ */
+class IndiceAtributos {
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+    private final Map<String, Integer> posiciones = new HashMap<>();
+    private Habitacion[] habitaciones = new Habitacion[64];
+    private int[] capacidades = new int[64];
+    private long[] precios = new long[64];
+    private int numeroHabitaciones;
+    private final BitSet todas = new BitSet();
+    private final Map<String, BitSet> porTipo = new HashMap<>();
+    private final NavigableMap<Integer, BitSet> porCapacidad = new TreeMap<>();
+    private final NavigableMap<Long, BitSet> porPrecio = new TreeMap<>();
+    private final BitSet conJacuzzi = new BitSet();
+    private final BitSet conBar = new BitSet();
+    
+    /**
+     * Indexa una habitación nueva.
+     */
+    void agregar(Habitacion habitacion) {
+        candado.writeLock().lock();
+        try {
+            indexar(habitacion);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Indexa un lote de habitaciones nuevas tomando el candado una sola vez.
+     */
+    void agregarTodas(Collection<Habitacion> lote) {
+        candado.writeLock().lock();
+        try {
+            for (Habitacion habitacion : lote) {
+                indexar(habitacion);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+    
+    private void indexar(Habitacion habitacion) {
+        if (posiciones.containsKey(habitacion.getNumero())) {
+            return;
+        }
+        int posicion = numeroHabitaciones++;
+        if (posicion == habitaciones.length) {
+            int capacidad = habitaciones.length * 2;
+            habitaciones = Arrays.copyOf(habitaciones, capacidad);
+            capacidades = Arrays.copyOf(capacidades, capacidad);
+            precios = Arrays.copyOf(precios, capacidad);
+        }
+        posiciones.put(habitacion.getNumero(), posicion);
+        habitaciones[posicion] = habitacion;
+        todas.set(posicion);
+        porTipo.computeIfAbsent(habitacion.getTipo(), t -> new BitSet()).set(posicion);
+        if (habitacion instanceof HabitacionSuite) {
+            HabitacionSuite suite = (HabitacionSuite) habitacion;
+            conJacuzzi.set(posicion, suite.tieneJacuzzi());
+            conBar.set(posicion, suite.tieneBar());
+        }
+        indexarValores(posicion, habitacion);
+    }
+    
+    /**
+     * Vuelve a indexar la capacidad y el precio de una habitación ya indexada,
+     * después de modificarlos con sus setters.
+     * 
+     * @return true si la habitación estaba indexada
+     */
+    boolean actualizar(Habitacion habitacion) {
+        candado.writeLock().lock();
+        try {
+            Integer posicion = posiciones.get(habitacion.getNumero());
+            if (posicion == null) {
+                return false;
+            }
+            quitar(porCapacidad, capacidades[posicion], posicion);
+            quitar(porPrecio, precios[posicion], posicion);
+            indexarValores(posicion, habitacion);
+            return true;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+    
+    private void indexarValores(int posicion, Habitacion habitacion) {
+        capacidades[posicion] = habitacion.getCapacidad();
+        precios[posicion] = habitacion.getPrecioPorNocheCentavos();
+        porCapacidad.computeIfAbsent(capacidades[posicion], c -> new BitSet()).set(posicion);
+        porPrecio.computeIfAbsent(precios[posicion], p -> new BitSet()).set(posicion);
+    }
+    
+    private static <K> void quitar(NavigableMap<K, BitSet> indice, K valor, int posicion) {
+        BitSet conjunto = indice.get(valor);
+        conjunto.clear(posicion);
+        if (conjunto.isEmpty()) {
+            indice.remove(valor);
+        }
+    }
+    
+    /**
+     * Obtiene las habitaciones que cumplen los criterios de atributos (sin
+     * considerar fechas ni si la habitación está habilitada).
+     * 
+     * @param criterios Criterios de búsqueda
+     * @return Habitaciones que cumplen, en orden de alta
+     */
+    List<Habitacion> buscar(CriteriosBusqueda criterios) {
+        candado.readLock().lock();
+        try {
+            BitSet resultado = (BitSet) todas.clone();
+            
+            if (!criterios.getTipos().isEmpty()) {
+                BitSet tipos = new BitSet();
+                for (String tipo : criterios.getTipos()) {
+                    BitSet conjunto = porTipo.get(tipo);
+                    if (conjunto != null) {
+                        tipos.or(conjunto);
+                    }
+                }
+                resultado.and(tipos);
+            }
+            
+            if (!porCapacidad.isEmpty() && criterios.getCapacidadMinima() > porCapacidad.firstKey()) {
+                Integer minima = criterios.getCapacidadMinima();
+                filtrarRango(resultado, porCapacidad.tailMap(minima, true), porCapacidad.headMap(minima, false));
+            }
+            
+            if (!porPrecio.isEmpty() && criterios.getPrecioMaximoCentavos() < porPrecio.lastKey()) {
+                Long maximo = criterios.getPrecioMaximoCentavos();
+                filtrarRango(resultado, porPrecio.headMap(maximo, true), porPrecio.tailMap(maximo, false));
+            }
+            
+            filtrarMarca(resultado, conJacuzzi, criterios.getConJacuzzi());
+            filtrarMarca(resultado, conBar, criterios.getConBar());
+            
+            List<Habitacion> encontradas = new ArrayList<>(resultado.cardinality());
+            for (int i = resultado.nextSetBit(0); i >= 0; i = resultado.nextSetBit(i + 1)) {
+                encontradas.add(habitaciones[i]);
+            }
+            return encontradas;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Restringe el resultado a las habitaciones con un valor dentro del rango,
+     * uniendo el lado (dentro o fuera del rango) que tenga menos valores.
+     */
+    private static void filtrarRango(BitSet resultado, Map<?, BitSet> dentro, Map<?, BitSet> fuera) {
+        if (dentro.size() <= fuera.size()) {
+            resultado.and(unir(dentro.values()));
+        } else {
+            resultado.andNot(unir(fuera.values()));
+        }
+    }
+    
+    private static void filtrarMarca(BitSet resultado, BitSet marca, Boolean requerida) {
+        if (requerida == null) {
+            return;
+        }
+        if (requerida) {
+            resultado.and(marca);
+        } else {
+            resultado.andNot(marca);
+        }
+    }
+    
+    private static BitSet unir(Collection<BitSet> conjuntos) {
+        BitSet union = new BitSet();
+        for (BitSet conjunto : conjuntos) {
+            union.or(conjunto);
+        }
+        return union;
+    }
+}
@@ -0,0 +1,296 @@
+package com.hotel.gestion;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Índice de ocupación por rangos de fechas para cada habitación.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: saber qué noches está
+ * ocupada cada habitación. Es compartida por GestorReservas (que ocupa y
+ * libera rangos) y GestorHabitaciones (que consulta disponibilidad).
+ * 
+ * Cada habitación guarda sus ocupaciones ordenadas por el día de entrada
+ * (epoch day). Como las ocupaciones de una misma habitación nunca se solapan,
+ * basta con revisar la última ocupación que empieza antes de la fecha de
+ * salida consultada, por lo que cada consulta cuesta O(log n) sobre las
+ * reservas de esa habitación.
+ * 
+ * Los rangos son semiabiertos: [fechaInicio, fechaFin). La noche de la fecha
+ * de salida queda libre para otra reserva.
+ * 
+ * Concurrencia (MVCC): el estado vigente es una InstantaneaDisponibilidad
+ * inmutable y versionada. Las consultas leen la versión publicada sin tomar
+ * candados, así que las búsquedas nunca esperan a una reserva ni la frenan.
+ * Las escrituras sí se coordinan entre sí: cada habitación queda protegida por
+ * uno de un conjunto fijo de candados (lock striping), que se toman siempre en
+ * orden ascendente para evitar interbloqueos. Lo que una acción ocupa o libera
+ * se acumula aparte y se publica como una única versión nueva antes de soltar
+ * los candados, de modo que un lector ve la reserva entera o nada de ella.
+ * Por eso una acción anidada solo puede tocar habitaciones cuyos candados ya
+ * tiene la externa: un candado nuevo se tomaría fuera de orden (interbloqueo)
+ * y se soltaría antes de publicar, de modo que otra acción podría pisar el
+ * cambio entremedio.
+ */
+public class IndiceDisponibilidad {
+    private final AtomicReference<InstantaneaDisponibilidad> vigente;
+    private final Map<String, Integer> posiciones;
+    private final AtomicInteger siguientePosicion;
+    private final ThreadLocal<Map<String, OcupacionesHabitacion>> transaccion;
+    private final ReentrantLock[] candados;
+    
+    /**
+     * Constructor de la clase IndiceDisponibilidad.
+     * Usa un número de candados proporcional a los núcleos disponibles.
+     */
+    public IndiceDisponibilidad() {
+        this(Runtime.getRuntime().availableProcessors() * 16);
+    }
+    
+    /**
+     * Constructor que permite fijar el número de candados.
+     * 
+     * @param numeroCandados Número de candados (se redondea a potencia de dos)
+     */
+    public IndiceDisponibilidad(int numeroCandados) {
+        int tamano = Integer.highestOneBit(Math.max(1, numeroCandados - 1)) << 1;
+        this.posiciones = new ConcurrentHashMap<>();
+        this.siguientePosicion = new AtomicInteger();
+        this.vigente = new AtomicReference<>(new InstantaneaDisponibilidad(posiciones));
+        this.transaccion = new ThreadLocal<>();
+        this.candados = new ReentrantLock[tamano];
+        for (int i = 0; i < tamano; i++) {
+            candados[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Obtiene la última versión publicada de la ocupación.
+     * 
+     * Una búsqueda que evalúa muchas habitaciones debe tomar una sola
+     * instantánea y consultarlas todas contra ella: así el resultado corresponde
+     * a un único momento, sin candados y sin importar lo que se confirme mientras.
+     * 
+     * @return Instantánea inmutable de la disponibilidad
+     */
+    public InstantaneaDisponibilidad instantanea() {
+        return vigente.get();
+    }
+    
+    /**
+     * Ejecuta una acción con los candados de todas las habitaciones indicadas.
+     * 
+     * Los candados se toman en orden ascendente y sin repetir, de modo que la
+     * acción puede verificar y ocupar varias habitaciones de forma atómica
+     * (todo o nada) sin bloquear al resto del hotel. Lo que la acción ocupe o
+     * libere (solo en estas habitaciones) se publica como una sola versión al
+     * terminar; las llamadas anidadas se suman a la versión de la más externa.
+     * 
+     * @param numeros Números de las habitaciones involucradas
+     * @param accion Acción a ejecutar mientras se mantienen los candados
+     * @param <T> Tipo del resultado de la acción
+     * @return Resultado de la acción
+     * @throws IllegalStateException si es una llamada anidada sobre una habitación que la externa no bloqueó
+     */
+    public <T> T ejecutarConHabitacionesBloqueadas(Collection<String> numeros, Supplier<T> accion) {
+        int[] indices = new int[numeros.size()];
+        int total = 0;
+        for (String numero : numeros) {
+            indices[total++] = indiceCandado(numero);
+        }
+        Arrays.sort(indices);
+        if (transaccion.get() != null) {
+            for (int i = 0; i < total; i++) {
+                if (!candados[indices[i]].isHeldByCurrentThread()) {
+                    throw new IllegalStateException(
+                            "Una acción anidada solo puede usar habitaciones que la externa ya bloqueó");
+                }
+            }
+        }
+        
+        int tomados = 0;
+        try {
+            for (int i = 0; i < total; i++) {
+                if (i == 0 || indices[i] != indices[i - 1]) {
+                    candados[indices[i]].lock();
+                    tomados = i + 1;
+                }
+            }
+            if (transaccion.get() != null) {
+                return accion.get();
+            }
+            Map<String, OcupacionesHabitacion> cambios = new HashMap<>();
+            transaccion.set(cambios);
+            try {
+                return accion.get();
+            } finally {
+                // Se publica aun si la acción falla, igual que si hubiera escrito en el lugar
+                transaccion.remove();
+                publicar(cambios);
+            }
+        } finally {
+            for (int i = tomados - 1; i >= 0; i--) {
+                if (i == 0 || indices[i] != indices[i - 1]) {
+                    candados[indices[i]].unlock();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Verifica si una habitación está libre en un rango de fechas.
+     * 
+     * @param numero Número de la habitación
+     * @param fechaInicio Fecha de entrada (incluida)
+     * @param fechaFin Fecha de salida (excluida)
+     * @return true si ninguna reserva ocupa la habitación en ese rango
+     */
+    public boolean estaDisponible(String numero, LocalDate fechaInicio, LocalDate fechaFin) {
+        return estaDisponible(numero, fechaInicio, fechaFin, null);
+    }
+    
+    /**
+     * Verifica si una habitación está libre en un rango de fechas ignorando
+     * la ocupación de una reserva concreta (útil al cambiar sus fechas).
+     * 
+     * Fuera de una acción con candados consulta la última versión publicada sin
+     * bloquear; dentro de una, ve además lo que la propia acción ya cambió.
+     * 
+     * @param numero Número de la habitación
+     * @param fechaInicio Fecha de entrada (incluida)
+     * @param fechaFin Fecha de salida (excluida)
+     * @param idReservaExcluida ID de la reserva cuya ocupación se ignora, o null
+     * @return true si ninguna otra reserva ocupa la habitación en ese rango
+     */
+    public boolean estaDisponible(String numero, LocalDate fechaInicio, LocalDate fechaFin,
+                                  String idReservaExcluida) {
+        if (!esRangoValido(fechaInicio, fechaFin)) {
+            return false;
+        }
+        return ocupaciones(numero).estaLibre(fechaInicio.toEpochDay(), fechaFin.toEpochDay(), idReservaExcluida);
+    }
+    
+    /**
+     * Ocupa una habitación en un rango de fechas a nombre de una reserva.
+     * 
+     * @param numero Número de la habitación
+     * @param fechaInicio Fecha de entrada (incluida)
+     * @param fechaFin Fecha de salida (excluida)
+     * @param idReserva ID de la reserva que ocupa la habitación
+     * @return true si se ocupó, false si el rango no es válido o ya está ocupado
+     */
+    public boolean ocupar(String numero, LocalDate fechaInicio, LocalDate fechaFin, String idReserva) {
+        if (!esRangoValido(fechaInicio, fechaFin)) {
+            return false;
+        }
+        
+        long inicio = fechaInicio.toEpochDay();
+        long fin = fechaFin.toEpochDay();
+        return ejecutarConHabitacionesBloqueadas(Collections.singletonList(numero), () -> {
+            OcupacionesHabitacion ocupaciones = ocupaciones(numero);
+            if (!ocupaciones.estaLibre(inicio, fin, null)) {
+                return false;
+            }
+            
+            transaccion.get().put(numero, ocupaciones.con(inicio, fin, idReserva));
+            return true;
+        });
+    }
+    
+    /**
+     * Libera la ocupación de una reserva sobre una habitación.
+     * 
+     * @param numero Número de la habitación
+     * @param fechaInicio Fecha de entrada con la que se ocupó la habitación
+     * @param idReserva ID de la reserva que ocupaba la habitación
+     * @return true si se liberó, false si no existía esa ocupación
+     */
+    public boolean liberar(String numero, LocalDate fechaInicio, String idReserva) {
+        if (fechaInicio == null) {
+            return false;
+        }
+        
+        long inicio = fechaInicio.toEpochDay();
+        return ejecutarConHabitacionesBloqueadas(Collections.singletonList(numero), () -> {
+            OcupacionesHabitacion restantes = ocupaciones(numero).sin(inicio, idReserva);
+            if (restantes == null) {
+                return false;
+            }
+            
+            transaccion.get().put(numero, restantes);
+            return true;
+        });
+    }
+    
+    /**
+     * Obtiene el número de ocupaciones registradas para una habitación.
+     * 
+     * @param numero Número de la habitación
+     * @return Número de ocupaciones de la habitación
+     */
+    public int obtenerNumeroOcupaciones(String numero) {
+        return ocupaciones(numero).tamano();
+    }
+    
+    /**
+     * Ocupaciones de una habitación vistas por el hilo actual: las que dejó su
+     * acción en curso o, si no las tocó, las de la última versión publicada.
+     */
+    private OcupacionesHabitacion ocupaciones(String numero) {
+        Map<String, OcupacionesHabitacion> cambios = transaccion.get();
+        if (cambios != null) {
+            OcupacionesHabitacion propias = cambios.get(numero);
+            if (propias != null) {
+                return propias;
+            }
+        }
+        return vigente.get().ocupaciones(numero);
+    }
+    
+    /**
+     * Publica los cambios de una acción como una versión nueva.
+     * 
+     * Otra acción sobre habitaciones distintas puede publicar a la vez; si gana
+     * la carrera, los cambios se reaplican sobre su versión. Es correcto porque
+     * cada acción solo reemplaza las habitaciones cuyos candados tiene.
+     */
+    private void publicar(Map<String, OcupacionesHabitacion> cambios) {
+        if (cambios.isEmpty()) {
+            return;
+        }
+        
+        Map<Integer, OcupacionesHabitacion> porPosicion = new HashMap<>();
+        for (Map.Entry<String, OcupacionesHabitacion> cambio : cambios.entrySet()) {
+            int posicion = posiciones.computeIfAbsent(cambio.getKey(), n -> siguientePosicion.getAndIncrement());
+            porPosicion.put(posicion, cambio.getValue());
+        }
+        InstantaneaDisponibilidad anterior;
+        do {
+            anterior = vigente.get();
+        } while (!vigente.compareAndSet(anterior, anterior.con(porPosicion)));
+    }
+    
+    /**
+     * Calcula el candado que protege a una habitación.
+     */
+    private int indiceCandado(String numero) {
+        int hash = numero.hashCode();
+        return (hash ^ (hash >>> 16)) & (candados.length - 1);
+    }
+    
+    /**
+     * Un rango es válido si ambas fechas existen y cubre al menos una noche.
+     */
+    private boolean esRangoValido(LocalDate fechaInicio, LocalDate fechaFin) {
+        return fechaInicio != null && fechaFin != null && fechaInicio.isBefore(fechaFin);
+    }
+}
@@ -0,0 +1,136 @@
+package com.hotel.gestion;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Versión inmutable de la ocupación de todas las habitaciones.
+ * 
+ * SRP: Solo responde consultas de disponibilidad sobre una versión fija;
+ * IndiceDisponibilidad decide cuándo se publica una versión nueva.
+ * 
+ * Las ocupaciones de cada habitación (OcupacionesHabitacion) cuelgan de un
+ * árbol de 32 ramas por nivel indexado por la posición de la habitación.
+ * Publicar un cambio copia solo el camino hasta las habitaciones tocadas
+ * (unos pocos arreglos de 32 referencias) y comparte el resto con la versión
+ * anterior, así que cada versión cuesta O(log32 n) y no O(n). Quien tiene una
+ * instantánea la consulta sin candados y siempre ve el mismo estado, aunque
+ * mientras tanto se confirmen otras reservas.
+ */
+public final class InstantaneaDisponibilidad {
+    private static final int BITS = 5;
+    private static final int RAMAS = 1 << BITS;
+    private static final int MASCARA = RAMAS - 1;
+    
+    private final long version;
+    private final Object[] raiz;
+    private final int niveles;
+    private final Map<String, Integer> posiciones;
+    
+    /**
+     * Instantánea vacía (versión 0).
+     * 
+     * @param posiciones Posición de cada habitación en el árbol; solo crece
+     */
+    InstantaneaDisponibilidad(Map<String, Integer> posiciones) {
+        this(0, new Object[RAMAS], 1, posiciones);
+    }
+    
+    private InstantaneaDisponibilidad(long version, Object[] raiz, int niveles, Map<String, Integer> posiciones) {
+        this.version = version;
+        this.raiz = raiz;
+        this.niveles = niveles;
+        this.posiciones = posiciones;
+    }
+    
+    /**
+     * @return Número de versión; crece con cada confirmación que cambia la ocupación
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Verifica si una habitación está libre en un rango de fechas en esta versión.
+     * 
+     * @param numero Número de la habitación
+     * @param fechaInicio Fecha de entrada (incluida)
+     * @param fechaFin Fecha de salida (excluida)
+     * @return true si ninguna reserva ocupa la habitación en ese rango
+     */
+    public boolean estaDisponible(String numero, LocalDate fechaInicio, LocalDate fechaFin) {
+        return estaDisponible(numero, fechaInicio, fechaFin, null);
+    }
+    
+    /**
+     * Verifica si una habitación está libre en un rango de fechas en esta
+     * versión, ignorando la ocupación de una reserva concreta.
+     * 
+     * @param numero Número de la habitación
+     * @param fechaInicio Fecha de entrada (incluida)
+     * @param fechaFin Fecha de salida (excluida)
+     * @param idReservaExcluida ID de la reserva cuya ocupación se ignora, o null
+     * @return true si ninguna otra reserva ocupa la habitación en ese rango
+     */
+    public boolean estaDisponible(String numero, LocalDate fechaInicio, LocalDate fechaFin,
+                                  String idReservaExcluida) {
+        if (fechaInicio == null || fechaFin == null || !fechaInicio.isBefore(fechaFin)) {
+            return false;
+        }
+        return ocupaciones(numero).estaLibre(fechaInicio.toEpochDay(), fechaFin.toEpochDay(), idReservaExcluida);
+    }
+    
+    /**
+     * @param numero Número de la habitación
+     * @return Número de ocupaciones de la habitación en esta versión
+     */
+    public int obtenerNumeroOcupaciones(String numero) {
+        return ocupaciones(numero).tamano();
+    }
+    
+    OcupacionesHabitacion ocupaciones(String numero) {
+        Integer posicion = posiciones.get(numero);
+        if (posicion == null || posicion >= capacidad(niveles)) {
+            // Una habitación que recibió posición después de esta versión no tenía ocupaciones en ella
+            return OcupacionesHabitacion.VACIA;
+        }
+        Object nodo = raiz;
+        for (int nivel = niveles; nivel > 0 && nodo != null; nivel--) {
+            nodo = ((Object[]) nodo)[(posicion >>> (BITS * (nivel - 1))) & MASCARA];
+        }
+        return nodo == null ? OcupacionesHabitacion.VACIA : (OcupacionesHabitacion) nodo;
+    }
+    
+    /**
+     * Versión siguiente con las ocupaciones indicadas reemplazadas.
+     * 
+     * @param cambios Ocupaciones nuevas por posición de habitación
+     * @return Instantánea nueva; esta no cambia
+     */
+    InstantaneaDisponibilidad con(Map<Integer, OcupacionesHabitacion> cambios) {
+        Object[] nuevaRaiz = raiz;
+        int nuevosNiveles = niveles;
+        for (Map.Entry<Integer, OcupacionesHabitacion> cambio : cambios.entrySet()) {
+            int posicion = cambio.getKey();
+            while (posicion >= capacidad(nuevosNiveles)) {
+                Object[] crecida = new Object[RAMAS];
+                crecida[0] = nuevaRaiz;
+                nuevaRaiz = crecida;
+                nuevosNiveles++;
+            }
+            nuevaRaiz = asignar(nuevaRaiz, nuevosNiveles, posicion, cambio.getValue());
+        }
+        return new InstantaneaDisponibilidad(version + 1, nuevaRaiz, nuevosNiveles, posiciones);
+    }
+    
+    private static Object[] asignar(Object[] nodo, int nivel, int posicion, Object valor) {
+        Object[] copia = nodo == null ? new Object[RAMAS] : nodo.clone();
+        int rama = (posicion >>> (BITS * (nivel - 1))) & MASCARA;
+        copia[rama] = nivel == 1 ? valor : asignar((Object[]) copia[rama], nivel - 1, posicion, valor);
+        return copia;
+    }
+    
+    private static long capacidad(int niveles) {
+        return 1L << (BITS * niveles);
+    }
+}
@@ -0,0 +1,453 @@
+package com.hotel.gestion;
+
+import com.hotel.modelo.Habitacion;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.modelo.HabitacionSuite;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Inventario por columnas para cadenas con muchísimas habitaciones.
+ * 
+ * SRP: Solo guarda los atributos de las habitaciones; la ocupación por fechas
+ * sigue en IndiceDisponibilidad.
+ * 
+ * En lugar de un objeto por habitación, cada atributo vive en su propio
+ * arreglo primitivo (precio en centavos, capacidad, código de tipo y marcas de
+ * habilitada, jacuzzi y bar), todos indexados por la misma posición. Una
+ * tabla hash de direccionamiento abierto traduce el número de habitación a su
+ * posición. Los recorridos leen memoria contigua y solo crean objetos para
+ * las habitaciones que devuelven.
+ * 
+ * LSP: A quien consulta se le entregan vistas que extienden HabitacionEstandar
+ * o HabitacionSuite y leen y escriben las columnas, así que el resto del
+ * sistema las usa como cualquier Habitacion. Los cambios deben hacerse sobre
+ * esas vistas: la habitación original se copia al agregarla.
+ * 
+ * Las escrituras se serializan con un candado y publican las columnas en un
+ * campo volatile; las lecturas no toman candados.
+ */
+public class InventarioColumnar implements InventarioHabitaciones {
+    private static final byte TIPO_ESTANDAR = 0;
+    private static final byte TIPO_SUITE = 1;
+    // Los nombres salen de las propias clases para que coincidan con getTipo()
+    private static final String[] NOMBRES_TIPO = {
+            new HabitacionEstandar("", 0, 0).getTipo(), new HabitacionSuite("", 0, 0, false, false).getTipo()};
+    
+    private static final int MARCA_DISPONIBLE = 1;
+    private static final int MARCA_JACUZZI = 1 << 1;
+    private static final int MARCA_BAR = 1 << 2;
+    
+    private static final int CAPACIDAD_INICIAL = 64;
+    
+    private final Object candado = new Object();
+    private volatile Columnas columnas = new Columnas(CAPACIDAD_INICIAL);
+    
+    /**
+     * Columnas publicadas juntas. Los arreglos se comparten entre versiones
+     * hasta que hay que crecer; cada alta publica una versión con un tamaño
+     * mayor, de modo que un lector solo mira posiciones ya escritas.
+     */
+    private static final class Columnas {
+        final String[] numeros;
+        final long[] precios;
+        final int[] capacidades;
+        final byte[] tipos;
+        final byte[] marcas;
+        final int[] tabla; // Posición + 1 por ranura; 0 = libre. Ocupación máxima: la mitad
+        final int tamano;
+        
+        Columnas(int capacidad) {
+            this(new String[capacidad], new long[capacidad], new int[capacidad], new byte[capacidad],
+                    new byte[capacidad], new int[capacidad * 2], 0);
+        }
+        
+        Columnas(String[] numeros, long[] precios, int[] capacidades, byte[] tipos, byte[] marcas,
+                 int[] tabla, int tamano) {
+            this.numeros = numeros;
+            this.precios = precios;
+            this.capacidades = capacidades;
+            this.tipos = tipos;
+            this.marcas = marcas;
+            this.tabla = tabla;
+            this.tamano = tamano;
+        }
+        
+        Columnas conTamano(int nuevoTamano) {
+            return new Columnas(numeros, precios, capacidades, tipos, marcas, tabla, nuevoTamano);
+        }
+        
+        Columnas crecer(int capacidadMinima) {
+            int capacidad = numeros.length * 2;
+            while (capacidad < capacidadMinima) {
+                capacidad *= 2;
+            }
+            Columnas mayor = new Columnas(Arrays.copyOf(numeros, capacidad), Arrays.copyOf(precios, capacidad),
+                    Arrays.copyOf(capacidades, capacidad), Arrays.copyOf(tipos, capacidad),
+                    Arrays.copyOf(marcas, capacidad), new int[capacidad * 2], tamano);
+            for (int posicion = 0; posicion < tamano; posicion++) {
+                mayor.enlazar(posicion);
+            }
+            return mayor;
+        }
+        
+        void enlazar(int posicion) {
+            int mascara = tabla.length - 1;
+            int ranura = dispersar(numeros[posicion]) & mascara;
+            while (tabla[ranura] != 0) {
+                ranura = (ranura + 1) & mascara;
+            }
+            tabla[ranura] = posicion + 1;
+        }
+        
+        int posicionDe(String numero) {
+            return posicionDe(numero, tamano);
+        }
+        
+        /**
+         * @param limite Solo se consideran las posiciones menores que este valor
+         */
+        int posicionDe(String numero, int limite) {
+            int mascara = tabla.length - 1;
+            int ranura = dispersar(numero) & mascara;
+            for (int entrada = tabla[ranura]; entrada != 0; entrada = tabla[ranura]) {
+                int posicion = entrada - 1;
+                // Una entrada de un alta todavía no publicada en esta versión se ignora
+                if (posicion < limite && numeros[posicion].equals(numero)) {
+                    return posicion;
+                }
+                ranura = (ranura + 1) & mascara;
+            }
+            return -1;
+        }
+        
+        private static int dispersar(String numero) {
+            int h = numero.hashCode();
+            return h ^ (h >>> 16);
+        }
+    }
+    
+    @Override
+    public boolean agregar(Habitacion habitacion) {
+        byte tipo = codigoTipo(habitacion);
+        synchronized (candado) {
+            Columnas actuales = columnas;
+            if (actuales.posicionDe(habitacion.getNumero()) >= 0) {
+                return false;
+            }
+            if (actuales.tamano == actuales.numeros.length) {
+                actuales = actuales.crecer(actuales.tamano + 1);
+            }
+            int posicion = actuales.tamano;
+            escribir(actuales, posicion, habitacion, tipo);
+            columnas = actuales.conTamano(posicion + 1);
+            return true;
+        }
+    }
+    
+    /**
+     * Agrega el lote creciendo las columnas una sola vez y publicándolas al
+     * final, de modo que los lectores ven el lote completo o nada de él.
+     */
+    @Override
+    public boolean[] agregarTodas(List<Habitacion> habitaciones) {
+        byte[] tipos = new byte[habitaciones.size()];
+        for (int i = 0; i < tipos.length; i++) {
+            tipos[i] = codigoTipo(habitaciones.get(i));
+        }
+        boolean[] agregadas = new boolean[habitaciones.size()];
+        synchronized (candado) {
+            Columnas actuales = columnas;
+            if (actuales.tamano + tipos.length > actuales.numeros.length) {
+                actuales = actuales.crecer(actuales.tamano + tipos.length);
+            }
+            int tamano = actuales.tamano;
+            for (int i = 0; i < tipos.length; i++) {
+                Habitacion habitacion = habitaciones.get(i);
+                if (actuales.posicionDe(habitacion.getNumero(), tamano) < 0) {
+                    escribir(actuales, tamano++, habitacion, tipos[i]);
+                    agregadas[i] = true;
+                }
+            }
+            columnas = actuales.conTamano(tamano);
+        }
+        return agregadas;
+    }
+    
+    private static void escribir(Columnas columnas, int posicion, Habitacion habitacion, byte tipo) {
+        columnas.numeros[posicion] = habitacion.getNumero();
+        columnas.precios[posicion] = habitacion.getPrecioPorNocheCentavos();
+        columnas.capacidades[posicion] = habitacion.getCapacidad();
+        columnas.tipos[posicion] = tipo;
+        columnas.marcas[posicion] = (byte) marcas(habitacion);
+        columnas.enlazar(posicion);
+    }
+    
+    private static byte codigoTipo(Habitacion habitacion) {
+        if (habitacion instanceof HabitacionSuite) {
+            return TIPO_SUITE;
+        }
+        if (habitacion instanceof HabitacionEstandar) {
+            return TIPO_ESTANDAR;
+        }
+        throw new IllegalArgumentException(
+                "El inventario columnar no admite habitaciones de tipo " + habitacion.getTipo());
+    }
+    
+    private static int marcas(Habitacion habitacion) {
+        int marcas = habitacion.isDisponible() ? MARCA_DISPONIBLE : 0;
+        if (habitacion instanceof HabitacionSuite) {
+            HabitacionSuite suite = (HabitacionSuite) habitacion;
+            marcas |= suite.tieneJacuzzi() ? MARCA_JACUZZI : 0;
+            marcas |= suite.tieneBar() ? MARCA_BAR : 0;
+        }
+        return marcas;
+    }
+    
+    @Override
+    public Habitacion buscar(String numero) {
+        Columnas actuales = columnas;
+        int posicion = actuales.posicionDe(numero);
+        return posicion < 0 ? null : vista(actuales, posicion);
+    }
+    
+    @Override
+    public List<Habitacion> habilitadas(Predicate<String> filtroNumero) {
+        Columnas actuales = columnas;
+        List<Habitacion> encontradas = new ArrayList<>();
+        for (int i = 0; i < actuales.tamano; i++) {
+            if ((actuales.marcas[i] & MARCA_DISPONIBLE) != 0 && filtroNumero.test(actuales.numeros[i])) {
+                encontradas.add(vista(actuales, i));
+            }
+        }
+        return encontradas;
+    }
+    
+    @Override
+    public List<Habitacion> buscar(CriteriosBusqueda criterios) {
+        int tiposAceptados = -1;
+        if (!criterios.getTipos().isEmpty()) {
+            tiposAceptados = 0;
+            for (int codigo = 0; codigo < NOMBRES_TIPO.length; codigo++) {
+                if (criterios.getTipos().contains(NOMBRES_TIPO[codigo])) {
+                    tiposAceptados |= 1 << codigo;
+                }
+            }
+        }
+        int requeridas = marcaSi(criterios.getConJacuzzi(), true, MARCA_JACUZZI)
+                | marcaSi(criterios.getConBar(), true, MARCA_BAR);
+        int excluidas = marcaSi(criterios.getConJacuzzi(), false, MARCA_JACUZZI)
+                | marcaSi(criterios.getConBar(), false, MARCA_BAR);
+        int capacidadMinima = criterios.getCapacidadMinima();
+        long precioMaximo = criterios.getPrecioMaximoCentavos();
+        
+        Columnas actuales = columnas;
+        List<Habitacion> encontradas = new ArrayList<>();
+        for (int i = 0; i < actuales.tamano; i++) {
+            int marcas = actuales.marcas[i];
+            if ((tiposAceptados >>> actuales.tipos[i] & 1) != 0
+                    && actuales.capacidades[i] >= capacidadMinima
+                    && actuales.precios[i] <= precioMaximo
+                    && (marcas & requeridas) == requeridas && (marcas & excluidas) == 0) {
+                encontradas.add(vista(actuales, i));
+            }
+        }
+        return encontradas;
+    }
+    
+    private static int marcaSi(Boolean criterio, boolean valor, int marca) {
+        return criterio != null && criterio == valor ? marca : 0;
+    }
+    
+    /**
+     * Las vistas escriben directamente en las columnas, así que no hay nada
+     * que volver a indexar.
+     */
+    @Override
+    public boolean actualizar(String numero) {
+        return columnas.posicionDe(numero) >= 0;
+    }
+    
+    @Override
+    public List<Habitacion> todas() {
+        Columnas actuales = columnas;
+        List<Habitacion> todas = new ArrayList<>(actuales.tamano);
+        for (int i = 0; i < actuales.tamano; i++) {
+            todas.add(vista(actuales, i));
+        }
+        return todas;
+    }
+    
+    @Override
+    public int tamano() {
+        return columnas.tamano;
+    }
+    
+    private Habitacion vista(Columnas actuales, int posicion) {
+        return actuales.tipos[posicion] == TIPO_SUITE
+                ? new VistaSuite(this, posicion)
+                : new VistaEstandar(this, posicion);
+    }
+    
+    // Acceso de las vistas a las columnas
+    
+    private String numero(int posicion) {
+        return columnas.numeros[posicion];
+    }
+    
+    private long precio(int posicion) {
+        return columnas.precios[posicion];
+    }
+    
+    private int capacidad(int posicion) {
+        return columnas.capacidades[posicion];
+    }
+    
+    private boolean tieneMarca(int posicion, int marca) {
+        return (columnas.marcas[posicion] & marca) != 0;
+    }
+    
+    private void definirPrecio(int posicion, long precioCentavos) {
+        synchronized (candado) {
+            columnas.precios[posicion] = precioCentavos;
+        }
+    }
+    
+    private void definirCapacidad(int posicion, int capacidad) {
+        synchronized (candado) {
+            columnas.capacidades[posicion] = capacidad;
+        }
+    }
+    
+    private void definirMarca(int posicion, int marca, boolean activa) {
+        synchronized (candado) {
+            byte[] marcas = columnas.marcas;
+            marcas[posicion] = (byte) (activa ? marcas[posicion] | marca : marcas[posicion] & ~marca);
+        }
+    }
+    
+    private static UnsupportedOperationException numeroFijo() {
+        return new UnsupportedOperationException(
+                "El número de una habitación del inventario columnar no se puede cambiar");
+    }
+    
+    /**
+     * Habitación estándar que lee y escribe una posición de las columnas.
+     */
+    private static final class VistaEstandar extends HabitacionEstandar {
+        private final InventarioColumnar inventario;
+        private final int posicion;
+        
+        VistaEstandar(InventarioColumnar inventario, int posicion) {
+            super(null, 0, 0);
+            this.inventario = inventario;
+            this.posicion = posicion;
+        }
+        
+        @Override
+        public String getNumero() {
+            return inventario.numero(posicion);
+        }
+        
+        @Override
+        public void setNumero(String numero) {
+            throw numeroFijo();
+        }
+        
+        @Override
+        public long getPrecioPorNocheCentavos() {
+            return inventario.precio(posicion);
+        }
+        
+        @Override
+        public void setPrecioPorNocheCentavos(long precioPorNocheCentavos) {
+            inventario.definirPrecio(posicion, precioPorNocheCentavos);
+        }
+        
+        @Override
+        public int getCapacidad() {
+            return inventario.capacidad(posicion);
+        }
+        
+        @Override
+        public void setCapacidad(int capacidad) {
+            inventario.definirCapacidad(posicion, capacidad);
+        }
+        
+        @Override
+        public boolean isDisponible() {
+            return inventario.tieneMarca(posicion, MARCA_DISPONIBLE);
+        }
+        
+        @Override
+        public void setDisponible(boolean disponible) {
+            inventario.definirMarca(posicion, MARCA_DISPONIBLE, disponible);
+        }
+    }
+    
+    /**
+     * Suite que lee y escribe una posición de las columnas.
+     */
+    private static final class VistaSuite extends HabitacionSuite {
+        private final InventarioColumnar inventario;
+        private final int posicion;
+        
+        VistaSuite(InventarioColumnar inventario, int posicion) {
+            super(null, 0, 0, false, false);
+            this.inventario = inventario;
+            this.posicion = posicion;
+        }
+        
+        @Override
+        public String getNumero() {
+            return inventario.numero(posicion);
+        }
+        
+        @Override
+        public void setNumero(String numero) {
+            throw numeroFijo();
+        }
+        
+        @Override
+        public long getPrecioPorNocheCentavos() {
+            return inventario.precio(posicion);
+        }
+        
+        @Override
+        public void setPrecioPorNocheCentavos(long precioPorNocheCentavos) {
+            inventario.definirPrecio(posicion, precioPorNocheCentavos);
+        }
+        
+        @Override
+        public int getCapacidad() {
+            return inventario.capacidad(posicion);
+        }
+        
+        @Override
+        public void setCapacidad(int capacidad) {
+            inventario.definirCapacidad(posicion, capacidad);
+        }
+        
+        @Override
+        public boolean isDisponible() {
+            return inventario.tieneMarca(posicion, MARCA_DISPONIBLE);
+        }
+        
+        @Override
+        public void setDisponible(boolean disponible) {
+            inventario.definirMarca(posicion, MARCA_DISPONIBLE, disponible);
+        }
+        
+        @Override
+        public boolean tieneJacuzzi() {
+            return inventario.tieneMarca(posicion, MARCA_JACUZZI);
+        }
+        
+        @Override
+        public boolean tieneBar() {
+            return inventario.tieneMarca(posicion, MARCA_BAR);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.hotel.gestion;
+
+import com.hotel.modelo.Habitacion;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Almacenamiento de las habitaciones que administra GestorHabitaciones.
+ * 
+ * DIP: GestorHabitaciones depende de esta abstracción y no de cómo se guardan
+ * las habitaciones. OCP: se puede elegir otra representación del inventario
+ * sin modificar el gestor.
+ * 
+ * Hay dos implementaciones: InventarioObjetos guarda cada Habitacion tal como
+ * se agregó; InventarioColumnar guarda los atributos en arreglos primitivos
+ * paralelos y entrega vistas Habitacion sobre ellos.
+ */
+public interface InventarioHabitaciones {
+    
+    /**
+     * Agrega una habitación al inventario de forma atómica.
+     * 
+     * @param habitacion Habitación con número no nulo
+     * @return true si fue agregada, false si ya había una con el mismo número
+     */
+    boolean agregar(Habitacion habitacion);
+    
+    /**
+     * Agrega un lote de habitaciones con números distintos entre sí.
+     * Las implementaciones pueden aprovechar para indexarlas de una vez.
+     * 
+     * @param habitaciones Habitaciones con número no nulo y sin repetir
+     * @return Para cada posición, true si fue agregada y false si ya había una con ese número
+     */
+    default boolean[] agregarTodas(List<Habitacion> habitaciones) {
+        boolean[] agregadas = new boolean[habitaciones.size()];
+        for (int i = 0; i < agregadas.length; i++) {
+            agregadas[i] = agregar(habitaciones.get(i));
+        }
+        return agregadas;
+    }
+    
+    /**
+     * @param numero Número de la habitación
+     * @return La habitación con ese número o null si no existe
+     */
+    Habitacion buscar(String numero);
+    
+    /**
+     * Obtiene las habitaciones habilitadas (disponibles para la venta) cuyo
+     * número cumple un filtro.
+     * 
+     * @param filtroNumero Filtro sobre el número, por ejemplo la ocupación por fechas
+     * @return Habitaciones que cumplen, en orden de alta
+     */
+    List<Habitacion> habilitadas(Predicate<String> filtroNumero);
+    
+    /**
+     * Obtiene las habitaciones que cumplen los criterios de atributos, sin
+     * considerar fechas ni si la habitación está habilitada.
+     * 
+     * @param criterios Criterios de búsqueda
+     * @return Habitaciones que cumplen, en orden de alta
+     */
+    List<Habitacion> buscar(CriteriosBusqueda criterios);
+    
+    /**
+     * Toma en cuenta los cambios hechos con los setters de una habitación.
+     * 
+     * @param numero Número de la habitación
+     * @return true si la habitación existe
+     */
+    boolean actualizar(String numero);
+    
+    /**
+     * @return Todas las habitaciones del inventario
+     */
+    List<Habitacion> todas();
+    
+    /**
+     * @return Número de habitaciones del inventario
+     */
+    int tamano();
+}
@@ -0,0 +1,79 @@
+package com.hotel.gestion;
+
+import com.hotel.modelo.Habitacion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Inventario que guarda cada habitación como el objeto que se agregó.
+ * 
+ * Las habitaciones se indexan por número en un mapa concurrente, de modo que
+ * agregar y buscar cuesta O(1) y pueden cargarse desde varios hilos a la vez.
+ * Además se indexan por atributo en mapas de bits (IndiceAtributos), para
+ * resolver búsquedas que combinan tipo, capacidad, precio y servicios.
+ */
+public class InventarioObjetos implements InventarioHabitaciones {
+    private final ConcurrentMap<String, Habitacion> habitaciones = new ConcurrentHashMap<>();
+    private final IndiceAtributos indiceAtributos = new IndiceAtributos();
+    
+    @Override
+    public boolean agregar(Habitacion habitacion) {
+        if (habitaciones.putIfAbsent(habitacion.getNumero(), habitacion) != null) {
+            return false;
+        }
+        indiceAtributos.agregar(habitacion);
+        return true;
+    }
+    
+    @Override
+    public boolean[] agregarTodas(List<Habitacion> lote) {
+        boolean[] agregadas = new boolean[lote.size()];
+        List<Habitacion> nuevas = new ArrayList<>(lote.size());
+        for (int i = 0; i < agregadas.length; i++) {
+            Habitacion habitacion = lote.get(i);
+            agregadas[i] = habitaciones.putIfAbsent(habitacion.getNumero(), habitacion) == null;
+            if (agregadas[i]) {
+                nuevas.add(habitacion);
+            }
+        }
+        indiceAtributos.agregarTodas(nuevas);
+        return agregadas;
+    }
+    
+    @Override
+    public Habitacion buscar(String numero) {
+        return habitaciones.get(numero);
+    }
+    
+    @Override
+    public List<Habitacion> habilitadas(Predicate<String> filtroNumero) {
+        return habitaciones.values().stream()
+                .filter(h -> h.isDisponible() && filtroNumero.test(h.getNumero()))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Habitacion> buscar(CriteriosBusqueda criterios) {
+        return indiceAtributos.buscar(criterios);
+    }
+    
+    @Override
+    public boolean actualizar(String numero) {
+        Habitacion habitacion = habitaciones.get(numero);
+        return habitacion != null && indiceAtributos.actualizar(habitacion);
+    }
+    
+    @Override
+    public List<Habitacion> todas() {
+        return new ArrayList<>(habitaciones.values());
+    }
+    
+    @Override
+    public int tamano() {
+        return habitaciones.size();
+    }
+}
@@ -0,0 +1,314 @@
+package com.hotel.gestion;
+
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.TipoEvento;
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.Metricas;
+import com.hotel.modelo.Habitacion;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Lista de espera de habitaciones que se atiende sola cuando se liberan.
+ * 
+ * SRP: Solo guarda las solicitudes pendientes y decide cuál atender con
+ * cada habitación que queda libre; crear la reserva sigue siendo trabajo de
+ * GestorReservas.
+ * 
+ * Las solicitudes se indexan por tipo de habitación, y dentro del tipo por
+ * cada noche que piden y por la capacidad mínima, en conjuntos ordenados por
+ * prioridad: primero las VIP y, entre iguales, por orden de llegada. Cuando
+ * se liberan noches de una habitación, solo se miran los conjuntos de su tipo
+ * y de esas noches, mezclados por prioridad, así que la mejor candidata sale
+ * en O(log n) sin recorrer toda la lista. Atendida una, la habitación ya no
+ * sirve para las que se solapan con ella: solo se buscan candidatas para las
+ * noches liberadas que quedaron libres antes y después. Una habitación nueva
+ * o rehabilitada toma su primera candidata de los conjuntos de capacidad que
+ * admite y sigue igual con las noches que le quedan libres.
+ * 
+ * Es segura entre hilos: las operaciones se serializan en la propia lista.
+ */
+public class ListaEspera implements OyenteDisponibilidad {
+    private static final Comparator<SolicitudEspera> PRIORIDAD =
+            Comparator.comparing((SolicitudEspera solicitud) -> !solicitud.isVip())
+                    .thenComparingLong(SolicitudEspera::getSecuencia);
+    
+    private final GestorReservas gestorReservas;
+    private final GestorHabitaciones gestorHabitaciones;
+    private final Map<String, SolicitudEspera> porId = new HashMap<>();
+    private final Map<String, NavigableMap<Integer, NavigableSet<SolicitudEspera>>> porTipoYCapacidad =
+            new HashMap<>();
+    private final Map<String, NavigableMap<LocalDate, NavigableSet<SolicitudEspera>>> porTipoYNoche =
+            new HashMap<>();
+    private long siguienteSecuencia;
+    private final HistogramaLatencia latenciaAtender = Metricas.registro().histograma("listaEspera.atender");
+    
+    /**
+     * Constructor de la clase ListaEspera. Para que reaccione a las
+     * liberaciones hay que registrarla como oyente en ambos gestores.
+     * 
+     * @param gestorReservas Gestor donde se crean las reservas de las solicitudes atendidas
+     * @param gestorHabitaciones Gestor donde se busca y verifica la disponibilidad
+     */
+    public ListaEspera(GestorReservas gestorReservas, GestorHabitaciones gestorHabitaciones) {
+        this.gestorReservas = gestorReservas;
+        this.gestorHabitaciones = gestorHabitaciones;
+    }
+    
+    /**
+     * Agrega una solicitud. Si ya hay una habitación libre que la cumple se
+     * atiende en el momento; si no, queda en espera.
+     * 
+     * @param solicitud Solicitud a agregar
+     * @return true si fue atendida o quedó en espera, false si es inválida o su ID ya existe
+     */
+    public synchronized boolean agregar(SolicitudEspera solicitud) {
+        if (solicitud == null || solicitud.getIdReserva() == null || solicitud.getTipoHabitacion() == null) {
+            return false;
+        }
+        String idReserva = solicitud.getIdReserva();
+        if (solicitud.getFechaInicio() == null || solicitud.getFechaFin() == null
+                || !solicitud.getFechaInicio().isBefore(solicitud.getFechaFin())) {
+            Eventos.publicar(TipoEvento.RESERVA_RANGO_INVALIDO, idReserva);
+            return false;
+        }
+        if (porId.containsKey(idReserva) || gestorReservas.buscarReserva(idReserva) != null) {
+            Eventos.publicar(TipoEvento.RESERVA_ID_DUPLICADO, idReserva);
+            return false;
+        }
+        
+        CriteriosBusqueda criterios = new CriteriosBusqueda();
+        criterios.setTipos(solicitud.getTipoHabitacion());
+        criterios.setCapacidadMinima(solicitud.getCapacidadMinima());
+        criterios.setFechas(solicitud.getFechaInicio(), solicitud.getFechaFin());
+        for (Habitacion habitacion : gestorHabitaciones.buscarHabitaciones(criterios)) {
+            if (reservar(solicitud, habitacion)) {
+                return true;
+            }
+        }
+        
+        solicitud.setSecuencia(siguienteSecuencia++);
+        indexar(solicitud);
+        Eventos.publicar(TipoEvento.SOLICITUD_EN_ESPERA, idReserva, solicitud.getTipoHabitacion(),
+                solicitud.getFechaInicio());
+        return true;
+    }
+    
+    /**
+     * Retira una solicitud que ya no se quiere atender.
+     * 
+     * @param idReserva ID de la solicitud
+     * @return true si estaba en espera
+     */
+    public synchronized boolean retirar(String idReserva) {
+        SolicitudEspera solicitud = porId.get(idReserva);
+        if (solicitud == null) {
+            return false;
+        }
+        quitar(solicitud);
+        return true;
+    }
+    
+    /**
+     * @param idReserva ID de la solicitud
+     * @return true si la solicitud sigue en espera
+     */
+    public synchronized boolean estaEnEspera(String idReserva) {
+        return porId.containsKey(idReserva);
+    }
+    
+    /**
+     * @return Número de solicitudes en espera
+     */
+    public synchronized int tamano() {
+        return porId.size();
+    }
+    
+    @Override
+    public synchronized void habitacionesLiberadas(List<Habitacion> habitaciones, LocalDate fechaInicio,
+                                                   LocalDate fechaFin) {
+        long inicio = latenciaAtender.iniciar();
+        for (Habitacion habitacion : habitaciones) {
+            atenderNoches(habitacion, fechaInicio, fechaFin);
+        }
+        latenciaAtender.registrarDesde(inicio);
+    }
+    
+    @Override
+    public synchronized void habitacionesAgregadas(List<Habitacion> habitaciones) {
+        long inicio = latenciaAtender.iniciar();
+        for (Habitacion habitacion : habitaciones) {
+            NavigableMap<Integer, NavigableSet<SolicitudEspera>> porCapacidad =
+                    porTipoYCapacidad.get(habitacion.getTipo());
+            if (porCapacidad == null) {
+                continue;
+            }
+            // Solo las solicitudes que la habitación admite por capacidad
+            SolicitudEspera atendida = atenderPrimera(habitacion,
+                    porCapacidad.headMap(habitacion.getCapacidad(), true).values());
+            if (atendida != null) {
+                atenderAlrededor(habitacion, atendida, null, null);
+            }
+        }
+        latenciaAtender.registrarDesde(inicio);
+    }
+    
+    /**
+     * Atiende con una habitación las solicitudes que piden noches de un rango
+     * que quedó libre, de a una y por prioridad.
+     * 
+     * @param desde Primera noche liberada (incluida), o null si no hay límite
+     * @param hasta Última noche liberada (excluida), o null si no hay límite
+     */
+    private void atenderNoches(Habitacion habitacion, LocalDate desde, LocalDate hasta) {
+        NavigableMap<LocalDate, NavigableSet<SolicitudEspera>> noches = porTipoYNoche.get(habitacion.getTipo());
+        if (noches == null) {
+            return;
+        }
+        if (desde != null) {
+            noches = noches.tailMap(desde, true);
+        }
+        if (hasta != null) {
+            noches = noches.headMap(hasta, false);
+        }
+        SolicitudEspera atendida = atenderPrimera(habitacion, noches.values());
+        if (atendida != null) {
+            atenderAlrededor(habitacion, atendida, desde, hasta);
+        }
+    }
+    
+    /**
+     * Sigue con las noches del rango que la solicitud atendida dejó libres.
+     * Cada tramo es más corto que el anterior, así que la recursión termina.
+     */
+    private void atenderAlrededor(Habitacion habitacion, SolicitudEspera atendida, LocalDate desde,
+                                  LocalDate hasta) {
+        if (desde == null || desde.isBefore(atendida.getFechaInicio())) {
+            atenderNoches(habitacion, desde, atendida.getFechaInicio());
+        }
+        if (hasta == null || atendida.getFechaFin().isBefore(hasta)) {
+            atenderNoches(habitacion, atendida.getFechaFin(), hasta);
+        }
+    }
+    
+    /**
+     * Mezcla por prioridad varios conjuntos de solicitudes y atiende la
+     * primera que la habitación pueda tomar; con ella la habitación deja de
+     * estar libre en esas noches y se termina la búsqueda.
+     * 
+     * @return La solicitud atendida (ya retirada de la lista), o null si ninguna pudo atenderse
+     */
+    private SolicitudEspera atenderPrimera(Habitacion habitacion,
+                                           Collection<NavigableSet<SolicitudEspera>> conjuntos) {
+        PriorityQueue<Cursor> cursores = new PriorityQueue<>();
+        for (NavigableSet<SolicitudEspera> conjunto : conjuntos) {
+            cursores.add(new Cursor(conjunto.iterator()));
+        }
+        // Una solicitud de varias noches aparece en el conjunto de cada una
+        Set<SolicitudEspera> vistas = new HashSet<>();
+        while (!cursores.isEmpty()) {
+            Cursor cursor = cursores.poll();
+            SolicitudEspera solicitud = cursor.actual;
+            if (vistas.add(solicitud) && reservar(solicitud, habitacion)) {
+                quitar(solicitud);
+                return solicitud;
+            }
+            if (cursor.avanzar()) {
+                cursores.add(cursor);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Intenta atender una solicitud con una habitación.
+     */
+    private boolean reservar(SolicitudEspera solicitud, Habitacion habitacion) {
+        if (!solicitud.admite(habitacion) || !gestorHabitaciones.estaDisponible(habitacion.getNumero(),
+                solicitud.getFechaInicio(), solicitud.getFechaFin())) {
+            return false;
+        }
+        if (!gestorReservas.crearReserva(solicitud.crearReserva(habitacion))) {
+            return false;
+        }
+        Eventos.publicar(TipoEvento.SOLICITUD_ATENDIDA, solicitud.getIdReserva(), habitacion.getNumero());
+        return true;
+    }
+    
+    private void indexar(SolicitudEspera solicitud) {
+        String tipo = solicitud.getTipoHabitacion();
+        porId.put(solicitud.getIdReserva(), solicitud);
+        porTipoYCapacidad.computeIfAbsent(tipo, t -> new TreeMap<>())
+                .computeIfAbsent(solicitud.getCapacidadMinima(), c -> new TreeSet<>(PRIORIDAD)).add(solicitud);
+        NavigableMap<LocalDate, NavigableSet<SolicitudEspera>> noches =
+                porTipoYNoche.computeIfAbsent(tipo, t -> new TreeMap<>());
+        for (LocalDate noche = solicitud.getFechaInicio(); noche.isBefore(solicitud.getFechaFin());
+                noche = noche.plusDays(1)) {
+            noches.computeIfAbsent(noche, n -> new TreeSet<>(PRIORIDAD)).add(solicitud);
+        }
+    }
+    
+    private void quitar(SolicitudEspera solicitud) {
+        String tipo = solicitud.getTipoHabitacion();
+        porId.remove(solicitud.getIdReserva());
+        NavigableMap<Integer, NavigableSet<SolicitudEspera>> porCapacidad = porTipoYCapacidad.get(tipo);
+        NavigableSet<SolicitudEspera> deLaCapacidad = porCapacidad.get(solicitud.getCapacidadMinima());
+        deLaCapacidad.remove(solicitud);
+        if (deLaCapacidad.isEmpty()) {
+            porCapacidad.remove(solicitud.getCapacidadMinima());
+        }
+        if (porCapacidad.isEmpty()) {
+            porTipoYCapacidad.remove(tipo);
+        }
+        NavigableMap<LocalDate, NavigableSet<SolicitudEspera>> noches = porTipoYNoche.get(tipo);
+        for (LocalDate noche = solicitud.getFechaInicio(); noche.isBefore(solicitud.getFechaFin());
+                noche = noche.plusDays(1)) {
+            NavigableSet<SolicitudEspera> deLaNoche = noches.get(noche);
+            deLaNoche.remove(solicitud);
+            if (deLaNoche.isEmpty()) {
+                noches.remove(noche);
+            }
+        }
+        if (noches.isEmpty()) {
+            porTipoYNoche.remove(tipo);
+        }
+    }
+    
+    /**
+     * Recorrido de las solicitudes de una noche, ordenable por la solicitud actual.
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Iterator<SolicitudEspera> iterador;
+        private SolicitudEspera actual;
+        
+        Cursor(Iterator<SolicitudEspera> iterador) {
+            this.iterador = iterador;
+            this.actual = iterador.next();
+        }
+        
+        boolean avanzar() {
+            if (!iterador.hasNext()) {
+                return false;
+            }
+            actual = iterador.next();
+            return true;
+        }
+        
+        @Override
+        public int compareTo(Cursor otro) {
+            return PRIORIDAD.compare(actual, otro.actual);
+        }
+    }
+}
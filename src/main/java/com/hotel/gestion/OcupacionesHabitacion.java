@@ -0,0 +1,108 @@
+package com.hotel.gestion;
+
+import java.util.Arrays;
+
+/**
+ * Ocupaciones de una habitación en una versión de la disponibilidad.
+ * 
+ * Es inmutable: ocupar o liberar devuelve una copia nueva y la versión
+ * anterior sigue siendo válida para quien la esté leyendo. Las ocupaciones se
+ * guardan en arreglos paralelos ordenados por el día de entrada (epoch day);
+ * como no se solapan, la única candidata a chocar con un rango es la última
+ * que empieza antes de su salida, y se encuentra con una búsqueda binaria.
+ * 
+ * Ocupar o liberar copia los arreglos: O(k) en las k ocupaciones de esa sola
+ * habitación, no del hotel. Se eligió así porque las consultas (cada búsqueda
+ * de disponibilidad) son mucho más frecuentes que las escrituras, y sobre
+ * arreglos contiguos la búsqueda binaria no persigue punteros. Con k en los
+ * cientos (una habitación rara vez tiene más estadías por delante) la copia es
+ * un System.arraycopy de unos pocos KB, más barata que los O(log k) nodos
+ * nuevos que crearía en cada escritura un árbol persistente. Si una habitación
+ * llegara a acumular miles de ocupaciones convendría ese árbol.
+ */
+final class OcupacionesHabitacion {
+    static final OcupacionesHabitacion VACIA = new OcupacionesHabitacion(new long[0], new long[0], new String[0]);
+    
+    private final long[] inicios;
+    private final long[] fines;
+    private final String[] reservas;
+    
+    private OcupacionesHabitacion(long[] inicios, long[] fines, String[] reservas) {
+        this.inicios = inicios;
+        this.fines = fines;
+        this.reservas = reservas;
+    }
+    
+    /**
+     * @param inicio Día de entrada (incluido)
+     * @param fin Día de salida (excluido)
+     * @param idReservaExcluida Reserva cuya ocupación se ignora, o null
+     * @return true si ninguna otra ocupación se solapa con [inicio, fin)
+     */
+    boolean estaLibre(long inicio, long fin, String idReservaExcluida) {
+        int anterior = ultimaAntesDe(fin);
+        if (anterior >= 0 && reservas[anterior].equals(idReservaExcluida)) {
+            anterior--;
+        }
+        return anterior < 0 || fines[anterior] <= inicio;
+    }
+    
+    /**
+     * Copia con una ocupación más; quien llama ya verificó que el rango está libre.
+     */
+    OcupacionesHabitacion con(long inicio, long fin, String idReserva) {
+        int posicion = ultimaAntesDe(inicio + 1) + 1;
+        int total = inicios.length;
+        long[] nuevosInicios = new long[total + 1];
+        long[] nuevosFines = new long[total + 1];
+        String[] nuevasReservas = new String[total + 1];
+        System.arraycopy(inicios, 0, nuevosInicios, 0, posicion);
+        System.arraycopy(fines, 0, nuevosFines, 0, posicion);
+        System.arraycopy(reservas, 0, nuevasReservas, 0, posicion);
+        nuevosInicios[posicion] = inicio;
+        nuevosFines[posicion] = fin;
+        nuevasReservas[posicion] = idReserva;
+        System.arraycopy(inicios, posicion, nuevosInicios, posicion + 1, total - posicion);
+        System.arraycopy(fines, posicion, nuevosFines, posicion + 1, total - posicion);
+        System.arraycopy(reservas, posicion, nuevasReservas, posicion + 1, total - posicion);
+        return new OcupacionesHabitacion(nuevosInicios, nuevosFines, nuevasReservas);
+    }
+    
+    /**
+     * Copia sin la ocupación de la reserva que entra ese día.
+     * 
+     * @return La copia, o null si no había tal ocupación
+     */
+    OcupacionesHabitacion sin(long inicio, String idReserva) {
+        int posicion = Arrays.binarySearch(inicios, inicio);
+        if (posicion < 0 || !reservas[posicion].equals(idReserva)) {
+            return null;
+        }
+        int total = inicios.length;
+        if (total == 1) {
+            return VACIA;
+        }
+        long[] nuevosInicios = new long[total - 1];
+        long[] nuevosFines = new long[total - 1];
+        String[] nuevasReservas = new String[total - 1];
+        System.arraycopy(inicios, 0, nuevosInicios, 0, posicion);
+        System.arraycopy(fines, 0, nuevosFines, 0, posicion);
+        System.arraycopy(reservas, 0, nuevasReservas, 0, posicion);
+        System.arraycopy(inicios, posicion + 1, nuevosInicios, posicion, total - posicion - 1);
+        System.arraycopy(fines, posicion + 1, nuevosFines, posicion, total - posicion - 1);
+        System.arraycopy(reservas, posicion + 1, nuevasReservas, posicion, total - posicion - 1);
+        return new OcupacionesHabitacion(nuevosInicios, nuevosFines, nuevasReservas);
+    }
+    
+    int tamano() {
+        return inicios.length;
+    }
+    
+    /**
+     * @return Posición de la última ocupación que entra antes del día indicado, o -1
+     */
+    private int ultimaAntesDe(long dia) {
+        int posicion = Arrays.binarySearch(inicios, dia - 1);
+        return posicion >= 0 ? posicion : -posicion - 2;
+    }
+}
@@ -0,0 +1,36 @@
+package com.hotel.gestion;
+
+import com.hotel.modelo.Habitacion;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Interfaz que define el contrato para enterarse de que hay habitaciones
+ * libres que antes no lo estaban.
+ * 
+ * DIP: GestorReservas y GestorHabitaciones avisan a esta abstracción y no a
+ * una lista de espera concreta.
+ * 
+ * Los avisos llegan después de confirmado el cambio y sin candados tomados,
+ * así que la implementación puede crear reservas desde ellos.
+ */
+public interface OyenteDisponibilidad {
+    
+    /**
+     * Avisa que una cancelación o un cambio de fechas dejó libres unas
+     * habitaciones en un rango.
+     * 
+     * @param habitaciones Habitaciones liberadas
+     * @param fechaInicio Primera noche liberada (incluida)
+     * @param fechaFin Última noche liberada (excluida)
+     */
+    void habitacionesLiberadas(List<Habitacion> habitaciones, LocalDate fechaInicio, LocalDate fechaFin);
+    
+    /**
+     * Avisa que hay habitaciones a la venta que antes no lo estaban: se
+     * agregaron al inventario o se volvieron a habilitar.
+     * 
+     * @param habitaciones Habitaciones agregadas o rehabilitadas
+     */
+    void habitacionesAgregadas(List<Habitacion> habitaciones);
+}
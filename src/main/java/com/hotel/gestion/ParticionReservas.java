@@ -0,0 +1,443 @@
+package com.hotel.gestion;
+
+import com.hotel.modelo.Habitacion;
+import com.hotel.reserva.Reserva;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Partición de las reservas de GestorReservas.
+ * 
+ * SRP: Solo guarda las reservas de la partición y decide en qué hilo se
+ * ejecutan las operaciones sobre ellas; las reglas de negocio siguen en
+ * GestorReservas.
+ * 
+ * Cada partición tiene un único hilo escritor: todas las altas, bajas y
+ * cambios de sus reservas se ejecutan en él, de modo que las particiones
+ * trabajan en paralelo sin competir entre sí. Las lecturas por ID se hacen
+ * desde cualquier hilo. Sin hilo escritor (una sola partición) las
+ * operaciones se ejecutan en el hilo que las pide.
+ * 
+ * El hilo escritor no espera al disco. Una operación retiene en el índice de
+ * disponibilidad las noches que necesita, entrega su cambio a la bitácora y
+ * deja en una cola de pendientes cómo confirmarlo (aplicarlo a las reservas y
+ * sus índices, que hasta entonces no cambian) y cómo deshacerlo (devolver las
+ * noches retenidas); el escritor pasa enseguida a la siguiente, y quien
+ * pidió la operación espera su resultado en su propio hilo. Así las
+ * operaciones seguidas de una partición comparten el mismo fsync de la
+ * bitácora en lugar de hacer uno cada una. Cuando la bitácora responde, el
+ * escritor recorre los pendientes en orden: confirma los durables y, ante la
+ * primera falla, deshace todos los que quedan desde el último hacia atrás (la
+ * bitácora se detiene ante una falla, así que ninguno de ellos es durable).
+ * Una operación sobre una reserva con un cambio pendiente espera antes a que
+ * se resuelvan los pendientes, de modo que cada reserva tiene a lo sumo uno.
+ * Sin hilo escritor, o si la operación se pide desde el propio escritor, el
+ * cambio se espera en el lugar, con los candados de sus habitaciones tomados.
+ * 
+ * Además del índice primario por ID, mantiene índices secundarios por
+ * cliente, por habitación, por fecha de entrada y por ID en orden (los IDs de
+ * GeneradorIdReserva ordenan por momento de creación). Se actualizan junto con el
+ * índice primario bajo el candado de escritura de la partición, así que una
+ * consulta (que toma el de lectura) nunca ve una reserva a medio indexar.
+ */
+class ParticionReservas {
+    private final int indice;
+    private final ConcurrentMap<String, Reserva> reservas = new ConcurrentHashMap<>();
+    private final ReadWriteLock candadoIndices = new ReentrantReadWriteLock();
+    private final Map<String, Set<Reserva>> porCliente = new HashMap<>();
+    private final Map<String, Set<Reserva>> porHabitacion = new HashMap<>();
+    private final NavigableMap<LocalDate, Set<Reserva>> porFechaEntrada = new TreeMap<>();
+    private final NavigableMap<String, Reserva> porIdOrdenado = new TreeMap<>();
+    private final ExecutorService escritor;
+    private volatile Thread hiloEscritor;
+    private final ArrayDeque<CambioPendiente> pendientes = new ArrayDeque<>();
+    private final Set<String> reservasConCambioPendiente = new HashSet<>();
+    private boolean esperarEnElLugar;
+    
+    /**
+     * @param indice Número de la partición, para nombrar su hilo
+     * @param conEscritor true para ejecutar las operaciones en un hilo propio
+     */
+    ParticionReservas(int indice, boolean conEscritor) {
+        this.indice = indice;
+        this.escritor = conEscritor ? Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "reservas-particion-" + indice);
+            hilo.setDaemon(true);
+            hiloEscritor = hilo;
+            return hilo;
+        }) : null;
+    }
+    
+    /**
+     * Ejecuta una operación en el hilo escritor de la partición y espera su resultado.
+     * 
+     * @param operacion Operación sobre las reservas de la partición
+     * @return Resultado de la operación
+     */
+    <T> T ejecutar(Supplier<T> operacion) {
+        if (escritor == null) {
+            return operacion.get();
+        }
+        if (Thread.currentThread() == hiloEscritor) {
+            // Llamada anidada: quien llama espera en el escritor, así que no puede dejar cambios pendientes
+            boolean anterior = esperarEnElLugar;
+            esperarEnElLugar = true;
+            try {
+                return operacion.get();
+            } finally {
+                esperarEnElLugar = anterior;
+            }
+        }
+        try {
+            return escritor.submit(operacion::get).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la partición de reservas " + indice, e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw new IllegalStateException(causa);
+        }
+    }
+    
+    /**
+     * Ejecuta en el hilo escritor una operación que registra un cambio en la
+     * bitácora (ver {@link #alSerDurable}) y espera, fuera del escritor, a que
+     * el cambio se confirme o se deshaga.
+     * 
+     * @param idReserva Reserva sobre la que opera; si tiene un cambio pendiente, se espera antes
+     * @param operacion Operación que devuelve el resultado de alSerDurable, o false si rechazó el cambio
+     * @return true si el cambio se confirmó
+     */
+    boolean ejecutarDurable(String idReserva, Supplier<CompletableFuture<Boolean>> operacion) {
+        CompletableFuture<Boolean> resultado = ejecutar(() -> {
+            if (reservasConCambioPendiente.contains(idReserva)) {
+                resolverPendientes();
+            }
+            return operacion.get();
+        });
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Deja un cambio, con sus noches ya retenidas, a la espera de que la
+     * bitácora lo haga durable. Debe llamarse dentro de
+     * {@link #ejecutarDurable}, con los candados de las habitaciones del
+     * cambio tomados. {@code confirmar} y {@code deshacer} pueden ejecutarse
+     * más tarde en el hilo escritor, sin esos candados, así que deben
+     * tomarlos si tocan la disponibilidad.
+     * 
+     * @param idReserva Reserva que cambia
+     * @param durable Resultado de la bitácora para el cambio
+     * @param confirmar Lo que falta aplicar cuando el cambio es durable
+     * @param deshacer Revierte el cambio si no llegó a ser durable; recibe la falla
+     * @return Resultado futuro: true si se confirmó, false si se deshizo
+     */
+    CompletableFuture<Boolean> alSerDurable(String idReserva, CompletableFuture<?> durable, Runnable confirmar,
+                                            Consumer<Throwable> deshacer) {
+        CambioPendiente cambio = new CambioPendiente(idReserva, durable, confirmar, deshacer);
+        if (escritor == null || esperarEnElLugar || (pendientes.isEmpty() && durable.isDone())) {
+            cambio.concluir(fallaDe(durable));
+            return cambio.resultado;
+        }
+        pendientes.addLast(cambio);
+        reservasConCambioPendiente.add(idReserva);
+        durable.whenComplete((valor, error) -> {
+            try {
+                escritor.execute(this::revisarPendientes);
+            } catch (RejectedExecutionException e) {
+                // La partición se cerró: cerrar() ya resolvió los pendientes
+            }
+        });
+        return cambio.resultado;
+    }
+    
+    /**
+     * Confirma, en orden, los cambios pendientes que ya son durables; ante la
+     * primera falla deshace todos los que quedan. Corre en el hilo escritor.
+     */
+    private void revisarPendientes() {
+        CambioPendiente primero;
+        while ((primero = pendientes.peekFirst()) != null && primero.durable.isDone()) {
+            Throwable falla = fallaDe(primero.durable);
+            if (falla != null) {
+                // La bitácora se detiene ante una falla: ninguno de los siguientes es durable
+                CambioPendiente ultimo;
+                while ((ultimo = pendientes.pollLast()) != null) {
+                    reservasConCambioPendiente.remove(ultimo.idReserva);
+                    ultimo.concluir(falla);
+                }
+                return;
+            }
+            pendientes.pollFirst();
+            reservasConCambioPendiente.remove(primero.idReserva);
+            primero.concluir(null);
+        }
+    }
+    
+    /**
+     * Espera a que la bitácora responda por todos los cambios pendientes y los
+     * resuelve. Corre en el hilo escritor; la espera es al hilo de la bitácora.
+     */
+    private void resolverPendientes() {
+        for (CambioPendiente pendiente : pendientes) {
+            fallaDe(pendiente.durable);
+        }
+        revisarPendientes();
+    }
+    
+    /**
+     * Espera el resultado de la bitácora.
+     * 
+     * @return La falla, o null si el cambio es durable
+     */
+    private static Throwable fallaDe(CompletableFuture<?> durable) {
+        try {
+            durable.join();
+            return null;
+        } catch (CompletionException | CancellationException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        }
+    }
+    
+    /**
+     * Ejecuta una consulta sobre las reservas de la partición en su hilo
+     * escritor, sin esperarla, para combinarla con las de otras particiones.
+     * 
+     * @param consulta Consulta sobre las reservas de la partición
+     * @return Resultado futuro de la consulta
+     */
+    <T> CompletableFuture<T> consultar(Function<Collection<Reserva>, T> consulta) {
+        if (escritor == null || Thread.currentThread() == hiloEscritor) {
+            return CompletableFuture.completedFuture(consulta.apply(reservas.values()));
+        }
+        return CompletableFuture.supplyAsync(() -> consulta.apply(reservas.values()), escritor);
+    }
+    
+    Reserva buscar(String idReserva) {
+        return reservas.get(idReserva);
+    }
+    
+    /**
+     * Agrega una reserva al índice primario y a los secundarios.
+     */
+    void agregar(Reserva reserva) {
+        candadoIndices.writeLock().lock();
+        try {
+            reservas.put(reserva.getIdReserva(), reserva);
+            if (reserva.getCliente() != null) {
+                indexar(porCliente, reserva.getCliente().getId(), reserva);
+            }
+            for (Habitacion habitacion : reserva.getHabitaciones()) {
+                indexar(porHabitacion, habitacion.getNumero(), reserva);
+            }
+            indexar(porFechaEntrada, reserva.getFechaInicio(), reserva);
+            porIdOrdenado.put(reserva.getIdReserva(), reserva);
+        } finally {
+            candadoIndices.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Quita una reserva del índice primario y de los secundarios.
+     * 
+     * @return true si la reserva estaba en la partición
+     */
+    boolean quitar(Reserva reserva) {
+        candadoIndices.writeLock().lock();
+        try {
+            if (!reservas.remove(reserva.getIdReserva(), reserva)) {
+                return false;
+            }
+            if (reserva.getCliente() != null) {
+                desindexar(porCliente, reserva.getCliente().getId(), reserva);
+            }
+            for (Habitacion habitacion : reserva.getHabitaciones()) {
+                desindexar(porHabitacion, habitacion.getNumero(), reserva);
+            }
+            desindexar(porFechaEntrada, reserva.getFechaInicio(), reserva);
+            porIdOrdenado.remove(reserva.getIdReserva());
+            return true;
+        } finally {
+            candadoIndices.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Mueve una reserva en el índice por fecha de entrada después de cambiar sus fechas.
+     * 
+     * @param reserva Reserva con sus fechas nuevas
+     * @param fechaInicioAnterior Fecha de entrada con la que estaba indexada
+     */
+    void reindexarFechaEntrada(Reserva reserva, LocalDate fechaInicioAnterior) {
+        candadoIndices.writeLock().lock();
+        try {
+            if (reservas.get(reserva.getIdReserva()) == reserva) {
+                desindexar(porFechaEntrada, fechaInicioAnterior, reserva);
+                indexar(porFechaEntrada, reserva.getFechaInicio(), reserva);
+            }
+        } finally {
+            candadoIndices.writeLock().unlock();
+        }
+    }
+    
+    List<Reserva> buscarPorCliente(String idCliente) {
+        return consultarIndice(porCliente, idCliente);
+    }
+    
+    List<Reserva> buscarPorHabitacion(String numeroHabitacion) {
+        return consultarIndice(porHabitacion, numeroHabitacion);
+    }
+    
+    /**
+     * @return Reservas con fecha de entrada en [desde, hasta), ordenadas por fecha
+     */
+    List<Reserva> buscarPorFechaEntrada(LocalDate desde, LocalDate hasta) {
+        candadoIndices.readLock().lock();
+        try {
+            List<Reserva> encontradas = new ArrayList<>();
+            for (Set<Reserva> delDia : porFechaEntrada.subMap(desde, true, hasta, false).values()) {
+                encontradas.addAll(delDia);
+            }
+            return encontradas;
+        } finally {
+            candadoIndices.readLock().unlock();
+        }
+    }
+    
+    /**
+     * @return Reservas con ID generado en [desde, hasta), ordenadas por ID
+     */
+    List<Reserva> buscarPorRangoId(String desde, String hasta) {
+        candadoIndices.readLock().lock();
+        try {
+            List<Reserva> encontradas = new ArrayList<>();
+            for (Reserva reserva : porIdOrdenado.subMap(desde, true, hasta, false).values()) {
+                // Un ID elegido por el cliente (como "R001") puede caer en el rango sin ser generado
+                if (GeneradorIdReserva.esId(reserva.getIdReserva())) {
+                    encontradas.add(reserva);
+                }
+            }
+            return encontradas;
+        } finally {
+            candadoIndices.readLock().unlock();
+        }
+    }
+    
+    private <K> List<Reserva> consultarIndice(Map<K, Set<Reserva>> indice, K clave) {
+        candadoIndices.readLock().lock();
+        try {
+            Set<Reserva> encontradas = indice.get(clave);
+            return encontradas == null ? new ArrayList<>() : new ArrayList<>(encontradas);
+        } finally {
+            candadoIndices.readLock().unlock();
+        }
+    }
+    
+    private static <K> void indexar(Map<K, Set<Reserva>> indice, K clave, Reserva reserva) {
+        indice.computeIfAbsent(clave, c -> new LinkedHashSet<>()).add(reserva);
+    }
+    
+    private static <K> void desindexar(Map<K, Set<Reserva>> indice, K clave, Reserva reserva) {
+        Set<Reserva> conjunto = indice.get(clave);
+        if (conjunto != null && conjunto.remove(reserva) && conjunto.isEmpty()) {
+            indice.remove(clave);
+        }
+    }
+    
+    int tamano() {
+        return reservas.size();
+    }
+    
+    /**
+     * Termina las operaciones encoladas y detiene el hilo escritor.
+     */
+    void cerrar() {
+        if (escritor == null) {
+            return;
+        }
+        try {
+            escritor.submit(this::resolverPendientes);
+        } catch (RejectedExecutionException e) {
+            return;
+        }
+        escritor.shutdown();
+        try {
+            escritor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Cambio aplicado en memoria que espera a ser durable en la bitácora.
+     */
+    private static final class CambioPendiente {
+        private final String idReserva;
+        private final CompletableFuture<?> durable;
+        private final Runnable confirmar;
+        private final Consumer<Throwable> deshacer;
+        private final CompletableFuture<Boolean> resultado = new CompletableFuture<>();
+        
+        CambioPendiente(String idReserva, CompletableFuture<?> durable, Runnable confirmar,
+                        Consumer<Throwable> deshacer) {
+            this.idReserva = idReserva;
+            this.durable = durable;
+            this.confirmar = confirmar;
+            this.deshacer = deshacer;
+        }
+        
+        /**
+         * Confirma el cambio si {@code falla} es null; si no, lo deshace.
+         */
+        void concluir(Throwable falla) {
+            try {
+                if (falla == null) {
+                    confirmar.run();
+                } else {
+                    deshacer.accept(falla);
+                }
+                resultado.complete(falla == null);
+            } catch (RuntimeException | Error e) {
+                resultado.completeExceptionally(e);
+            }
+        }
+    }
+}
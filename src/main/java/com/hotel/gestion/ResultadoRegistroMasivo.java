@@ -0,0 +1,96 @@
+package com.hotel.gestion;
+
+import com.hotel.eventos.Eventos;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumen de un registro masivo de clientes o habitaciones.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: informar cuántos elementos
+ * se recibieron y registraron, y cuáles se rechazaron y por qué.
+ */
+public class ResultadoRegistroMasivo {
+    private final int recibidos;
+    private final int registrados;
+    private final List<Rechazo> rechazos;
+    
+    ResultadoRegistroMasivo(int recibidos, int registrados, List<Rechazo> rechazos) {
+        this.recibidos = recibidos;
+        this.registrados = registrados;
+        this.rechazos = Collections.unmodifiableList(rechazos);
+    }
+    
+    public int getRecibidos() {
+        return recibidos;
+    }
+    
+    public int getRegistrados() {
+        return registrados;
+    }
+    
+    public List<Rechazo> getRechazos() {
+        return rechazos;
+    }
+    
+    public boolean tieneRechazos() {
+        return !rechazos.isEmpty();
+    }
+    
+    /**
+     * Imprime el resumen del registro y el detalle de los rechazos.
+     * 
+     * @param descripcion Descripción de lo registrado (ej: "Clientes registrados")
+     */
+    public void imprimirResumen(String descripcion) {
+        Eventos.mensaje(descripcion + ": " + registrados + " de " + recibidos
+                + (rechazos.isEmpty() ? "" : " (" + rechazos.size() + " rechazados)"));
+        for (Rechazo rechazo : rechazos) {
+            Eventos.error("  " + rechazo);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoRegistroMasivo{" +
+                "recibidos=" + recibidos +
+                ", registrados=" + registrados +
+                ", rechazos=" + rechazos.size() +
+                '}';
+    }
+    
+    /**
+     * Elemento rechazado, con su posición en la colección recibida.
+     */
+    public static class Rechazo {
+        private final int posicion;
+        private final String clave;
+        private final String motivo;
+        
+        Rechazo(int posicion, String clave, String motivo) {
+            this.posicion = posicion;
+            this.clave = clave;
+            this.motivo = motivo;
+        }
+        
+        public int getPosicion() {
+            return posicion;
+        }
+        
+        /**
+         * @return ID del cliente o número de la habitación rechazada (puede ser null)
+         */
+        public String getClave() {
+            return clave;
+        }
+        
+        public String getMotivo() {
+            return motivo;
+        }
+        
+        @Override
+        public String toString() {
+            return "posición " + posicion + " (" + clave + "): " + motivo;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hotel.gestion;
+
+import com.hotel.modelo.Dinero;
+import java.time.LocalDate;
+
+/**
+ * Totales de un día, para un tipo de habitación o para todo el hotel.
+ * 
+ * SRP: Solo transporta los contadores ya calculados por AgregadosDiarios.
+ */
+public class ResumenDia {
+    private final LocalDate fecha;
+    private final long habitacionesVendidas;
+    private final long ingresosCentavos;
+    private final long llegadas;
+    private final long salidas;
+    
+    ResumenDia(LocalDate fecha, long habitacionesVendidas, long ingresosCentavos, long llegadas, long salidas) {
+        this.fecha = fecha;
+        this.habitacionesVendidas = habitacionesVendidas;
+        this.ingresosCentavos = ingresosCentavos;
+        this.llegadas = llegadas;
+        this.salidas = salidas;
+    }
+    
+    public LocalDate getFecha() {
+        return fecha;
+    }
+    
+    /**
+     * @return Habitaciones ocupadas la noche que empieza en esta fecha
+     */
+    public long getHabitacionesVendidas() {
+        return habitacionesVendidas;
+    }
+    
+    /**
+     * @return Ingresos de la noche en centavos, con beneficios aplicados y sin comisiones de pago
+     */
+    public long getIngresosCentavos() {
+        return ingresosCentavos;
+    }
+    
+    /**
+     * @return Habitaciones cuya estadía empieza este día
+     */
+    public long getLlegadas() {
+        return llegadas;
+    }
+    
+    /**
+     * @return Habitaciones cuya estadía termina este día
+     */
+    public long getSalidas() {
+        return salidas;
+    }
+    
+    /**
+     * @param totalHabitaciones Habitaciones en el inventario
+     * @return Fracción del inventario vendida esa noche (0 si no hay habitaciones)
+     */
+    public double calcularOcupacion(int totalHabitaciones) {
+        return totalHabitaciones == 0 ? 0 : (double) habitacionesVendidas / totalHabitaciones;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResumenDia{" +
+                "fecha=" + fecha +
+                ", habitacionesVendidas=" + habitacionesVendidas +
+                ", ingresos=" + Dinero.formatear(ingresosCentavos) +
+                ", llegadas=" + llegadas +
+                ", salidas=" + salidas +
+                '}';
+    }
+}
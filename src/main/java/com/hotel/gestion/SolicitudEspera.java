@@ -0,0 +1,123 @@
+package com.hotel.gestion;
+
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.pago.MetodoPago;
+import com.hotel.reserva.Reserva;
+import com.hotel.reserva.ReservaVIP;
+import java.time.LocalDate;
+
+/**
+ * Pedido de una habitación que no pudo atenderse y espera una liberación.
+ * 
+ * SRP: Solo describe lo que se pidió (fechas, tipo, capacidad y si es VIP)
+ * y sabe armar la reserva que lo atiende; el orden y la asignación son de
+ * ListaEspera.
+ */
+public class SolicitudEspera {
+    private final String idReserva;
+    private final Cliente cliente;
+    private final LocalDate fechaInicio;
+    private final LocalDate fechaFin;
+    private final String tipoHabitacion;
+    private final int capacidadMinima;
+    private final boolean vip;
+    private final MetodoPago metodoPago;
+    private long secuencia;
+    
+    /**
+     * Constructor de la clase SolicitudEspera.
+     * 
+     * @param idReserva ID que tendrá la reserva cuando se atienda
+     * @param cliente Cliente que pide la habitación
+     * @param fechaInicio Fecha de entrada (incluida)
+     * @param fechaFin Fecha de salida (excluida)
+     * @param tipoHabitacion Tipo de habitación pedido (ej: "Suite")
+     * @param capacidadMinima Número mínimo de personas que debe admitir
+     * @param vip true para atenderla como ReservaVIP, antes que las demás
+     * @param metodoPago Método de pago de la reserva
+     */
+    public SolicitudEspera(String idReserva, Cliente cliente, LocalDate fechaInicio, LocalDate fechaFin,
+                           String tipoHabitacion, int capacidadMinima, boolean vip, MetodoPago metodoPago) {
+        this.idReserva = idReserva;
+        this.cliente = cliente;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.tipoHabitacion = tipoHabitacion;
+        this.capacidadMinima = capacidadMinima;
+        this.vip = vip;
+        this.metodoPago = metodoPago;
+    }
+    
+    /**
+     * Arma la reserva que atiende la solicitud con una habitación.
+     * 
+     * LSP: Las solicitudes VIP producen una ReservaVIP, que GestorReservas
+     * trata como cualquier otra Reserva.
+     */
+    Reserva crearReserva(Habitacion habitacion) {
+        Reserva reserva = vip
+                ? new ReservaVIP(idReserva, cliente, fechaInicio, fechaFin, metodoPago)
+                : new Reserva(idReserva, cliente, fechaInicio, fechaFin, metodoPago);
+        reserva.agregarHabitacion(habitacion);
+        return reserva;
+    }
+    
+    /**
+     * @return true si la habitación es del tipo pedido y admite a las personas pedidas
+     */
+    boolean admite(Habitacion habitacion) {
+        return habitacion.getTipo().equals(tipoHabitacion) && habitacion.getCapacidad() >= capacidadMinima;
+    }
+    
+    /**
+     * Orden de llegada, asignado por ListaEspera al agregarla.
+     */
+    long getSecuencia() {
+        return secuencia;
+    }
+    
+    void setSecuencia(long secuencia) {
+        this.secuencia = secuencia;
+    }
+    
+    public String getIdReserva() {
+        return idReserva;
+    }
+    
+    public Cliente getCliente() {
+        return cliente;
+    }
+    
+    public LocalDate getFechaInicio() {
+        return fechaInicio;
+    }
+    
+    public LocalDate getFechaFin() {
+        return fechaFin;
+    }
+    
+    public String getTipoHabitacion() {
+        return tipoHabitacion;
+    }
+    
+    public int getCapacidadMinima() {
+        return capacidadMinima;
+    }
+    
+    public boolean isVip() {
+        return vip;
+    }
+    
+    @Override
+    public String toString() {
+        return "SolicitudEspera{" +
+                "idReserva='" + idReserva + '\'' +
+                ", tipoHabitacion='" + tipoHabitacion + '\'' +
+                ", capacidadMinima=" + capacidadMinima +
+                ", fechaInicio=" + fechaInicio +
+                ", fechaFin=" + fechaFin +
+                ", vip=" + vip +
+                '}';
+    }
+}
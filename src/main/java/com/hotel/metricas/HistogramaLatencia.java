@@ -0,0 +1,188 @@
+package com.hotel.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con cubetas logarítmico-lineales (estilo HDR).
+ * 
+ * SRP: Solo acumula duraciones y responde percentiles sobre ellas.
+ * 
+ * Los valores (en nanosegundos) se agrupan por potencia de dos y cada
+ * potencia se divide en {@value #SUBCUBETAS} subcubetas lineales, por lo que
+ * el error relativo de cualquier percentil es menor al 3,2 %. El rango cubre
+ * hasta unos 68 segundos; los valores mayores se cuentan en la última cubeta.
+ * 
+ * Registrar no toma candados ni asigna memoria: calcula la cubeta con
+ * operaciones de bits e incrementa un contador atómico. Para que hilos
+ * distintos no compitan por la misma línea de caché, los contadores se
+ * reparten en varias franjas según el hilo, y se suman al consultar.
+ */
+public class HistogramaLatencia {
+    private static final int BITS_SUBCUBETA = 5;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int BITS_MAXIMOS = 36;
+    private static final int CUBETAS = SUBCUBETAS + (BITS_MAXIMOS - BITS_SUBCUBETA) * SUBCUBETAS;
+    private static final long VALOR_MAXIMO = (1L << BITS_MAXIMOS) - 1;
+    
+    private final String nombre;
+    private final RegistroMetricas registro;
+    private final AtomicLongArray[] franjas;
+    private final int mascaraFranjas;
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+    
+    /**
+     * Constructor de la clase HistogramaLatencia.
+     * 
+     * @param nombre Nombre de la operación medida
+     * @param registro Registro al que pertenece (decide si la medición está habilitada)
+     */
+    HistogramaLatencia(String nombre, RegistroMetricas registro) {
+        this.nombre = nombre;
+        this.registro = registro;
+        int cantidad = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        this.franjas = new AtomicLongArray[Math.min(cantidad, 16)];
+        for (int i = 0; i < franjas.length; i++) {
+            franjas[i] = new AtomicLongArray(CUBETAS);
+        }
+        this.mascaraFranjas = franjas.length - 1;
+    }
+    
+    /**
+     * Marca el inicio de una operación medida.
+     * 
+     * @return Instante actual en nanosegundos, o 0 si la medición está deshabilitada
+     */
+    public long iniciar() {
+        return registro.isHabilitado() ? System.nanoTime() : 0L;
+    }
+    
+    /**
+     * Registra la duración de una operación iniciada con {@link #iniciar()}.
+     * 
+     * @param inicio Valor devuelto por {@link #iniciar()}
+     */
+    public void registrarDesde(long inicio) {
+        if (inicio != 0L) {
+            registrar(System.nanoTime() - inicio);
+        }
+    }
+    
+    /**
+     * Registra una duración.
+     * 
+     * @param nanos Duración en nanosegundos
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        int franja = (int) Thread.currentThread().getId() & mascaraFranjas;
+        franjas[franja].incrementAndGet(indiceCubeta(Math.min(valor, VALOR_MAXIMO)));
+        suma.add(valor);
+        if (valor > maximo.get()) {
+            maximo.accumulateAndGet(valor, Math::max);
+        }
+    }
+    
+    /**
+     * Calcula la cubeta de un valor: exacta por debajo de {@value #SUBCUBETAS},
+     * y por potencia de dos más los bits siguientes al más alto por encima.
+     */
+    static int indiceCubeta(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int desplazamiento = exponente - BITS_SUBCUBETA;
+        int subcubeta = (int) (valor >>> desplazamiento) & (SUBCUBETAS - 1);
+        return SUBCUBETAS + desplazamiento * SUBCUBETAS + subcubeta;
+    }
+    
+    /**
+     * Valor más alto que cae en una cubeta.
+     */
+    static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int desplazamiento = (indice - SUBCUBETAS) / SUBCUBETAS;
+        long subcubeta = (indice - SUBCUBETAS) % SUBCUBETAS;
+        long inferior = (SUBCUBETAS + subcubeta) << desplazamiento;
+        return inferior + (1L << desplazamiento) - 1;
+    }
+    
+    /**
+     * Suma las franjas en una instantánea. Mientras otros hilos registran, la
+     * instantánea puede quedar desfasada en unas pocas mediciones.
+     * 
+     * @return Instantánea del histograma
+     */
+    public Resumen resumir() {
+        long[] conteos = new long[CUBETAS];
+        long total = 0;
+        for (AtomicLongArray franja : franjas) {
+            for (int i = 0; i < CUBETAS; i++) {
+                long valor = franja.get(i);
+                conteos[i] += valor;
+                total += valor;
+            }
+        }
+        return new Resumen(conteos, total, suma.sum(), maximo.get());
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    /**
+     * Instantánea inmutable de un histograma para calcular percentiles.
+     */
+    public static final class Resumen {
+        private final long[] conteos;
+        private final long total;
+        private final long suma;
+        private final long maximo;
+        
+        private Resumen(long[] conteos, long total, long suma, long maximo) {
+            this.conteos = conteos;
+            this.total = total;
+            this.suma = suma;
+            this.maximo = maximo;
+        }
+        
+        public long getConteo() {
+            return total;
+        }
+        
+        public long getMaximoNanos() {
+            return maximo;
+        }
+        
+        public double getMediaNanos() {
+            return total == 0 ? 0.0 : (double) suma / total;
+        }
+        
+        /**
+         * Calcula un percentil.
+         * 
+         * @param percentil Percentil entre 0 y 100
+         * @return Límite superior de la cubeta del percentil en nanosegundos, o 0 sin datos
+         */
+        public long percentilNanos(double percentil) {
+            if (total == 0) {
+                return 0;
+            }
+            long objetivo = (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentil)) / 100.0);
+            objetivo = Math.max(1, objetivo);
+            long acumulado = 0;
+            for (int i = 0; i < conteos.length; i++) {
+                acumulado += conteos[i];
+                if (acumulado >= objetivo) {
+                    return Math.min(limiteSuperior(i), maximo);
+                }
+            }
+            return maximo;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.hotel.metricas;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Punto de acceso al registro de métricas del sistema.
+ * 
+ * Los gestores y los métodos de pago obtienen aquí sus histogramas y
+ * contadores al construirse, de modo que en la ruta crítica solo tocan
+ * objetos ya resueltos.
+ */
+public final class Metricas {
+    /** Nombre con el que se publica el registro en JMX. */
+    public static final String NOMBRE_JMX = "com.hotel:type=Metricas";
+    
+    private static final RegistroMetricas REGISTRO = new RegistroMetricas();
+    
+    private Metricas() {
+    }
+    
+    /**
+     * @return Registro de métricas del sistema
+     */
+    public static RegistroMetricas registro() {
+        return REGISTRO;
+    }
+    
+    /**
+     * Publica el registro en el servidor JMX de la plataforma (jconsole,
+     * VisualVM) bajo {@value #NOMBRE_JMX}. Llamarlo más de una vez no tiene efecto.
+     * 
+     * @throws JMException Si el servidor JMX rechaza el registro
+     */
+    public static synchronized void publicarEnJmx() throws JMException {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nombre = new ObjectName(NOMBRE_JMX);
+        if (!servidor.isRegistered(nombre)) {
+            servidor.registerMBean(new MetricasJmx(REGISTRO), nombre);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.hotel.metricas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ReflectionException;
+
+/**
+ * Adaptador JMX del registro de métricas.
+ * 
+ * SRP: Solo traduce los valores del registro a atributos JMX de solo lectura.
+ * Es un MBean dinámico porque las métricas se crean a medida que los gestores
+ * las piden; cada consulta de la descripción refleja las existentes.
+ */
+class MetricasJmx implements DynamicMBean {
+    private final RegistroMetricas registro;
+    
+    MetricasJmx(RegistroMetricas registro) {
+        this.registro = registro;
+    }
+    
+    @Override
+    public Object getAttribute(String atributo) throws AttributeNotFoundException {
+        Number valor = registro.obtenerValores().get(atributo);
+        if (valor == null) {
+            throw new AttributeNotFoundException("Métrica desconocida: " + atributo);
+        }
+        return valor;
+    }
+    
+    @Override
+    public AttributeList getAttributes(String[] atributos) {
+        Map<String, Number> valores = registro.obtenerValores();
+        AttributeList lista = new AttributeList();
+        for (String atributo : atributos) {
+            Number valor = valores.get(atributo);
+            if (valor != null) {
+                lista.add(new Attribute(atributo, valor));
+            }
+        }
+        return lista;
+    }
+    
+    @Override
+    public void setAttribute(Attribute atributo) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Las métricas son de solo lectura");
+    }
+    
+    @Override
+    public AttributeList setAttributes(AttributeList atributos) {
+        return new AttributeList();
+    }
+    
+    @Override
+    public Object invoke(String operacion, Object[] parametros, String[] firma) throws ReflectionException {
+        if ("volcarTexto".equals(operacion)) {
+            return registro.volcarTexto();
+        }
+        throw new ReflectionException(new NoSuchMethodException(operacion));
+    }
+    
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> atributos = new ArrayList<>();
+        for (Map.Entry<String, Number> valor : registro.obtenerValores().entrySet()) {
+            atributos.add(new MBeanAttributeInfo(valor.getKey(), valor.getValue().getClass().getName(),
+                    valor.getKey(), true, false, false));
+        }
+        MBeanOperationInfo volcar = new MBeanOperationInfo("volcarTexto", "Vuelca todas las métricas como texto",
+                new MBeanParameterInfo[0], String.class.getName(), MBeanOperationInfo.INFO);
+        return new MBeanInfo(getClass().getName(), "Métricas del sistema de reservas",
+                atributos.toArray(new MBeanAttributeInfo[0]), null,
+                new MBeanOperationInfo[] {volcar}, null);
+    }
+}
@@ -0,0 +1,174 @@
+package com.hotel.metricas;
+
+import com.hotel.eventos.TipoEvento;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de las métricas del sistema: histogramas de latencia, contadores
+ * y medidores.
+ * 
+ * SRP: Solo crea, agrupa por nombre y publica las métricas; las mediciones
+ * las hacen los gestores y los métodos de pago sobre los objetos que obtienen
+ * aquí una sola vez.
+ * 
+ * Además cuenta cada evento publicado por tipo, con lo que los rechazos
+ * (habitación no disponible, IDs duplicados, pagos fallidos) quedan contados
+ * sin instrumentar cada punto donde se producen.
+ */
+public class RegistroMetricas {
+    private final ConcurrentMap<String, HistogramaLatencia> histogramas = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> contadores = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongSupplier> medidores = new ConcurrentHashMap<>();
+    private final LongAdder[] eventosPorTipo;
+    private final long inicioNanos;
+    private volatile boolean habilitado = true;
+    
+    /**
+     * Constructor de la clase RegistroMetricas.
+     */
+    public RegistroMetricas() {
+        this.eventosPorTipo = new LongAdder[TipoEvento.values().length];
+        for (int i = 0; i < eventosPorTipo.length; i++) {
+            eventosPorTipo[i] = new LongAdder();
+        }
+        this.inicioNanos = System.nanoTime();
+    }
+    
+    /**
+     * Obtiene (o crea) el histograma de latencia de una operación.
+     * 
+     * @param nombre Nombre de la operación, por ejemplo "reservas.crear"
+     * @return Histograma de la operación
+     */
+    public HistogramaLatencia histograma(String nombre) {
+        return histogramas.computeIfAbsent(nombre, n -> new HistogramaLatencia(n, this));
+    }
+    
+    /**
+     * Obtiene (o crea) un contador.
+     * 
+     * @param nombre Nombre del contador
+     * @return Contador sin contención entre hilos
+     */
+    public LongAdder contador(String nombre) {
+        return contadores.computeIfAbsent(nombre, n -> new LongAdder());
+    }
+    
+    /**
+     * Registra un medidor: un valor que se lee en el momento de consultarlo
+     * (por ejemplo la profundidad de una cola). Reemplaza uno anterior con el mismo nombre.
+     * 
+     * @param nombre Nombre del medidor
+     * @param lectura Función que lee el valor actual
+     */
+    public void medidor(String nombre, LongSupplier lectura) {
+        medidores.put(nombre, lectura);
+    }
+    
+    /**
+     * Cuenta un evento publicado.
+     * 
+     * @param tipo Tipo del evento
+     */
+    public void contarEvento(TipoEvento tipo) {
+        if (habilitado) {
+            eventosPorTipo[tipo.ordinal()].increment();
+        }
+    }
+    
+    /**
+     * @param tipo Tipo de evento
+     * @return Número de eventos de ese tipo publicados
+     */
+    public long getEventos(TipoEvento tipo) {
+        return eventosPorTipo[tipo.ordinal()].sum();
+    }
+    
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+    
+    /**
+     * Habilita o deshabilita las mediciones; deshabilitadas, los histogramas
+     * ni siquiera leen el reloj. Sirve para medir el costo de la instrumentación.
+     * 
+     * @param habilitado true para medir
+     */
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+    
+    /**
+     * @return Segundos transcurridos desde que se creó el registro
+     */
+    public double getSegundosActivo() {
+        return Math.max(1e-9, (System.nanoTime() - inicioNanos) / 1e9);
+    }
+    
+    /**
+     * Obtiene todos los valores actuales como un mapa ordenado de nombre a
+     * valor numérico. Es la vista que publican el volcado de texto y JMX.
+     * 
+     * @return Valores de histogramas, contadores, medidores y eventos
+     */
+    public Map<String, Number> obtenerValores() {
+        Map<String, Number> valores = new TreeMap<>();
+        double segundos = getSegundosActivo();
+        for (HistogramaLatencia histograma : histogramas.values()) {
+            HistogramaLatencia.Resumen resumen = histograma.resumir();
+            String nombre = histograma.getNombre();
+            valores.put(nombre + ".conteo", resumen.getConteo());
+            valores.put(nombre + ".porSegundo", resumen.getConteo() / segundos);
+            valores.put(nombre + ".mediaUs", resumen.getMediaNanos() / 1000.0);
+            valores.put(nombre + ".p50Us", microsegundos(resumen.percentilNanos(50)));
+            valores.put(nombre + ".p90Us", microsegundos(resumen.percentilNanos(90)));
+            valores.put(nombre + ".p99Us", microsegundos(resumen.percentilNanos(99)));
+            valores.put(nombre + ".p999Us", microsegundos(resumen.percentilNanos(99.9)));
+            valores.put(nombre + ".maxUs", microsegundos(resumen.getMaximoNanos()));
+        }
+        for (Map.Entry<String, LongAdder> contador : contadores.entrySet()) {
+            valores.put(contador.getKey(), contador.getValue().sum());
+        }
+        for (Map.Entry<String, LongSupplier> medidor : medidores.entrySet()) {
+            valores.put(medidor.getKey(), medidor.getValue().getAsLong());
+        }
+        for (TipoEvento tipo : TipoEvento.values()) {
+            long cantidad = eventosPorTipo[tipo.ordinal()].sum();
+            if (cantidad > 0) {
+                valores.put("eventos." + tipo.name(), cantidad);
+            }
+        }
+        return valores;
+    }
+    
+    /**
+     * Vuelca todas las métricas como texto, una por línea ("nombre valor").
+     * 
+     * @return Volcado de texto de las métricas
+     */
+    public String volcarTexto() {
+        StringBuilder texto = new StringBuilder();
+        for (Map.Entry<String, Number> valor : obtenerValores().entrySet()) {
+            texto.append(valor.getKey()).append(' ');
+            Number numero = valor.getValue();
+            if (numero instanceof Double) {
+                texto.append(String.format(Locale.ROOT, "%.3f", numero.doubleValue()));
+            } else {
+                texto.append(numero);
+            }
+            texto.append('\n');
+        }
+        return texto.toString();
+    }
+    
+    private static double microsegundos(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
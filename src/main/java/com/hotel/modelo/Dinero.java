@@ -0,0 +1,111 @@
+package com.hotel.modelo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Operaciones sobre montos en centavos de peso colombiano.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: convertir, operar y
+ * formatear montos de dinero en punto fijo.
+ * 
+ * Los precios se guardan como long en centavos, de modo que sumar noches y
+ * habitaciones es aritmética entera exacta. Los double solo aparecen en los
+ * bordes del sistema (archivos CSV y pasarelas de pago) y se convierten
+ * redondeando al centavo más cercano. Todo redondeo lleva las mitades lejos
+ * de cero (0,5 a 1 y -0,5 a -1), igual para montos positivos y negativos.
+ * Las operaciones que podrían desbordar lanzan ArithmeticException en lugar
+ * de producir un total incorrecto.
+ */
+public final class Dinero {
+    /** Centavos por peso. */
+    public static final long CENTAVOS_POR_PESO = 100;
+    /** Puntos básicos que representan el 100 %. */
+    public static final int PUNTOS_BASICOS_TOTALES = 10_000;
+    
+    private Dinero() {
+    }
+    
+    /**
+     * Convierte un monto en pesos a centavos, redondeando al centavo más cercano.
+     * Se redondea el valor decimal que representa el double (1.005 es 101
+     * centavos), no el producto binario por 100, que puede quedar apenas
+     * debajo de la mitad.
+     * 
+     * @param pesos Monto en pesos
+     * @return Monto en centavos
+     * @throws ArithmeticException si el monto no es finito o no cabe en un long
+     */
+    public static long aCentavos(double pesos) {
+        if (Double.isNaN(pesos) || Double.isInfinite(pesos)) {
+            throw new ArithmeticException("Monto no válido: " + pesos);
+        }
+        return BigDecimal.valueOf(pesos).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+    
+    /**
+     * Convierte un monto en centavos a pesos, para los bordes que usan double.
+     * 
+     * @param centavos Monto en centavos
+     * @return Monto en pesos
+     */
+    public static double aPesos(long centavos) {
+        return centavos / (double) CENTAVOS_POR_PESO;
+    }
+    
+    /**
+     * Multiplica un monto por una cantidad (por ejemplo, un precio por noches).
+     * 
+     * @param centavos Monto en centavos
+     * @param cantidad Factor entero
+     * @return Producto en centavos
+     * @throws ArithmeticException si el resultado desborda
+     */
+    public static long multiplicar(long centavos, long cantidad) {
+        return Math.multiplyExact(centavos, cantidad);
+    }
+    
+    /**
+     * Aplica un descuento expresado en puntos básicos (1500 = 15 %), redondeando
+     * el monto resultante al centavo más cercano (mitades lejos de cero).
+     * 
+     * @param centavos Monto en centavos
+     * @param puntosBasicos Descuento entre 0 y {@value #PUNTOS_BASICOS_TOTALES}
+     * @return Monto con el descuento aplicado
+     */
+    public static long descontar(long centavos, int puntosBasicos) {
+        if (puntosBasicos < 0 || puntosBasicos > PUNTOS_BASICOS_TOTALES) {
+            throw new IllegalArgumentException("Descuento fuera de rango: " + puntosBasicos);
+        }
+        return escalar(centavos, PUNTOS_BASICOS_TOTALES - puntosBasicos);
+    }
+    
+    /**
+     * Multiplica un monto por un factor expresado en puntos básicos
+     * (10000 = 1, 300 = 3 %), redondeando al centavo más cercano (mitades lejos de cero).
+     * 
+     * @param centavos Monto en centavos
+     * @param puntosBasicos Factor en puntos básicos
+     * @return Monto escalado en centavos
+     * @throws ArithmeticException si el resultado desborda
+     */
+    public static long escalar(long centavos, long puntosBasicos) {
+        long producto = Math.multiplyExact(centavos, puntosBasicos);
+        // Redondear con el resto en lugar de sumar la mitad antes de dividir, que desborda cerca del límite
+        long cociente = producto / PUNTOS_BASICOS_TOTALES;
+        long resto = Math.abs(producto % PUNTOS_BASICOS_TOTALES);
+        return resto * 2 >= PUNTOS_BASICOS_TOTALES ? cociente + Long.signum(producto) : cociente;
+    }
+    
+    /**
+     * Formatea un monto como pesos con dos decimales, por ejemplo 450000.50.
+     * 
+     * @param centavos Monto en centavos
+     * @return Texto del monto
+     */
+    public static String formatear(long centavos) {
+        long absoluto = Math.abs(centavos);
+        long fraccion = absoluto % CENTAVOS_POR_PESO;
+        return (centavos < 0 ? "-" : "") + absoluto / CENTAVOS_POR_PESO + (fraccion < 10 ? ".0" : ".") + fraccion;
+    }
+}
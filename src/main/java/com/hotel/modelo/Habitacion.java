@@ -8,20 +8,20 @@ package com.hotel.modelo;
  */
 public abstract class Habitacion {
     protected String numero;
-    protected double precioPorNoche;
+    protected long precioPorNocheCentavos;
     protected int capacidad;
-    protected boolean disponible;
+    protected volatile boolean disponible; // Habilitada para la venta; la ocupación por fechas vive en IndiceDisponibilidad
     
     /**
      * Constructor de la clase Habitacion.
      * 
      * @param numero Número identificador de la habitación
-     * @param precioPorNoche Precio por noche de la habitación
+     * @param precioPorNoche Precio por noche de la habitación en pesos (se redondea al centavo)
      * @param capacidad Capacidad máxima de personas
      */
     public Habitacion(String numero, double precioPorNoche, int capacidad) {
         this.numero = numero;
-        this.precioPorNoche = precioPorNoche;
+        this.precioPorNocheCentavos = Dinero.aCentavos(precioPorNoche);
         this.capacidad = capacidad;
         this.disponible = true;
     }
@@ -35,13 +35,24 @@ public abstract class Habitacion {
     public abstract String getTipo();
     
     /**
-     * Calcula el precio total para un número determinado de noches.
+     * Calcula el precio de lista para un número determinado de noches, sin
+     * temporadas ni recargos; las reservas cotizan con el plan de tarifas.
      * 
      * @param numeroNoches Número de noches
-     * @return Precio total
+     * @return Precio total en pesos
      */
     public double calcularPrecioTotal(int numeroNoches) {
-        return precioPorNoche * numeroNoches;
+        return Dinero.aPesos(calcularPrecioTotalCentavos(numeroNoches));
+    }
+    
+    /**
+     * Calcula el precio total para un número determinado de noches sin redondeos.
+     * 
+     * @param numeroNoches Número de noches
+     * @return Precio total en centavos
+     */
+    public long calcularPrecioTotalCentavos(int numeroNoches) {
+        return Dinero.multiplicar(getPrecioPorNocheCentavos(), numeroNoches);
     }
     
     // Getters y Setters
@@ -54,11 +65,31 @@ public abstract class Habitacion {
     }
     
     public double getPrecioPorNoche() {
-        return precioPorNoche;
+        return Dinero.aPesos(getPrecioPorNocheCentavos());
+    }
+    
+    public long getPrecioPorNocheCentavos() {
+        return precioPorNocheCentavos;
     }
     
+    /**
+     * Cambia el precio por noche. Las reservas ya armadas conservan el precio
+     * con el que se agregó la habitación.
+     * 
+     * @param precioPorNoche Precio por noche en pesos (se redondea al centavo)
+     */
     public void setPrecioPorNoche(double precioPorNoche) {
-        this.precioPorNoche = precioPorNoche;
+        setPrecioPorNocheCentavos(Dinero.aCentavos(precioPorNoche));
+    }
+    
+    /**
+     * Cambia el precio por noche sin pasar por pesos, por ejemplo al cargar
+     * un precio guardado en centavos; ver {@link #setPrecioPorNoche(double)}.
+     * 
+     * @param precioPorNocheCentavos Precio por noche en centavos
+     */
+    public void setPrecioPorNocheCentavos(long precioPorNocheCentavos) {
+        this.precioPorNocheCentavos = precioPorNocheCentavos;
     }
     
     public int getCapacidad() {
@@ -73,18 +104,23 @@ public abstract class Habitacion {
         return disponible;
     }
     
+    /**
+     * Para una habitación ya agregada a GestorHabitaciones conviene usar
+     * GestorHabitaciones.habilitarHabitacion, que además avisa a la lista de espera.
+     */
     public void setDisponible(boolean disponible) {
         this.disponible = disponible;
     }
     
     @Override
     public String toString() {
+        // Se usan los getters para que las vistas sobre otro almacenamiento se impriman igual
         return "Habitacion{" +
-                "numero='" + numero + '\'' +
+                "numero='" + getNumero() + '\'' +
                 ", tipo='" + getTipo() + '\'' +
-                ", precioPorNoche=" + precioPorNoche +
-                ", capacidad=" + capacidad +
-                ", disponible=" + disponible +
+                ", precioPorNoche=" + Dinero.formatear(getPrecioPorNocheCentavos()) +
+                ", capacidad=" + getCapacidad() +
+                ", disponible=" + isDisponible() +
                 '}';
     }
 }
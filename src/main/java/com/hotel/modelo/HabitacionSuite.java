@@ -43,8 +43,8 @@ public class HabitacionSuite extends Habitacion {
     @Override
     public String toString() {
         return super.toString() + 
-                ", tieneJacuzzi=" + tieneJacuzzi +
-                ", tieneBar=" + tieneBar +
+                ", tieneJacuzzi=" + tieneJacuzzi() +
+                ", tieneBar=" + tieneBar() +
                 '}';
     }
 }
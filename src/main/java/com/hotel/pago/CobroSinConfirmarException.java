@@ -0,0 +1,34 @@
+package com.hotel.pago;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Plazo vencido con el cobro ya enviado a la pasarela.
+ * 
+ * A diferencia de una TimeoutException común (el cobro venció esperando cupo
+ * y nunca salió), aquí el procesador puede aprobarlo más tarde: reintentarlo
+ * podría cobrar dos veces. La respuesta que finalmente dé la pasarela se
+ * entrega en {@link #getRespuesta()} para conciliarla.
+ */
+public class CobroSinConfirmarException extends TimeoutException {
+    private static final long serialVersionUID = 1L;
+    
+    private final transient CompletableFuture<Boolean> respuesta;
+    
+    /**
+     * @param mensaje Descripción del plazo vencido
+     * @param respuesta Respuesta futura de la pasarela para este cobro
+     */
+    public CobroSinConfirmarException(String mensaje, CompletableFuture<Boolean> respuesta) {
+        super(mensaje);
+        this.respuesta = respuesta;
+    }
+    
+    /**
+     * @return Respuesta de la pasarela, que se completa cuando finalmente responde
+     */
+    public CompletableFuture<Boolean> getRespuesta() {
+        return respuesta;
+    }
+}
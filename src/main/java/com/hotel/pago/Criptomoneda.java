@@ -1,5 +1,9 @@
 package com.hotel.pago;
 
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.TipoEvento;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Implementación del método de pago con criptomonedas.
  * 
@@ -11,6 +15,7 @@ public class Criptomoneda implements MetodoPago {
     private String tipoCriptomoneda; // BTC, ETH, etc.
     private String direccionWallet;
     private boolean disponible;
+    private PasarelaPago pasarela;
     
     /**
      * Constructor de la clase Criptomoneda.
@@ -24,20 +29,43 @@ public class Criptomoneda implements MetodoPago {
         this.disponible = true;
     }
     
+    /**
+     * Constructor que envía los cobros a una pasarela de pago.
+     * 
+     * @param tipoCriptomoneda Tipo de criptomoneda (BTC, ETH, etc.)
+     * @param direccionWallet Dirección de la wallet
+     * @param pasarela Pasarela que procesa los cobros (con sus límites de concurrencia y plazo)
+     */
+    public Criptomoneda(String tipoCriptomoneda, String direccionWallet, PasarelaPago pasarela) {
+        this(tipoCriptomoneda, direccionWallet);
+        this.pasarela = pasarela;
+    }
+    
     @Override
     public boolean procesarPago(double monto) {
+        return MetodoPago.esperarResultado(procesarPagoAsync(monto));
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> procesarPagoAsync(double monto) {
         if (!estaDisponible()) {
-            System.out.println("Pago con criptomoneda no disponible");
-            return false;
+            Eventos.publicar(TipoEvento.METODO_PAGO_NO_DISPONIBLE, getNombreMetodo());
+            return CompletableFuture.completedFuture(false);
         }
         
-        // Simulación del procesamiento del pago
-        System.out.println("Procesando pago de $" + monto + " con " + tipoCriptomoneda);
-        System.out.println("Wallet: " + direccionWallet);
+        String referencia = "wallet " + direccionWallet;
+        Eventos.publicar(TipoEvento.PAGO_SOLICITADO, monto, getNombreMetodo(), referencia);
         
-        // En una implementación real, aquí se haría la conexión con el exchange
-        // o procesador de criptomonedas
-        return true;
+        // Sin pasarela configurada el cobro se aprueba localmente
+        if (pasarela == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return pasarela.cobrar(monto, referencia);
+    }
+    
+    @Override
+    public String getClave() {
+        return "criptomoneda";
     }
     
     @Override
@@ -54,6 +82,10 @@ public class Criptomoneda implements MetodoPago {
         this.disponible = disponible;
     }
     
+    public PasarelaPago getPasarela() {
+        return pasarela;
+    }
+    
     public String getTipoCriptomoneda() {
         return tipoCriptomoneda;
     }
@@ -0,0 +1,265 @@
+package com.hotel.pago;
+
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.Metricas;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agrupa los cobros por transferencia en lotes y los liquida juntos.
+ * 
+ * SRP: Solo decide cuándo cerrar un lote y reparte su resultado; la
+ * liquidación la hace la PasarelaLotes del banco.
+ * OCP: Es otra PasarelaPago, así que TransferenciaBancaria la usa sin cambios.
+ * 
+ * Un lote se envía al banco cuando junta {@code tamanoLote} cobros o cuando
+ * pasa {@code ventanaMs} desde que entró su primer cobro, lo que ocurra
+ * antes. Así el banco recibe una llamada por lote en lugar de una por cobro,
+ * y ningún cobro espera más que la ventana para salir. El resultado de cada
+ * cobro vuelve por su propio CompletableFuture, con lo que cada Reserva marca
+ * su pago igual que con una pasarela individual.
+ */
+public class LiquidadorTransferencias implements PasarelaPago, Closeable {
+    private final PasarelaLotes banco;
+    private final int tamanoLote;
+    private final long ventanaMs;
+    private final ScheduledExecutorService temporizador;
+    private final Executor ejecutorRespuestas;
+    private final Object candado = new Object();
+    private List<Cobro> loteActual;
+    private ScheduledFuture<?> cierrePorVentana;
+    private boolean cerrado;
+    private final AtomicLong lotesEnviados = new AtomicLong();
+    private final AtomicLong lotesPorTamano = new AtomicLong();
+    private final AtomicLong lotesPorVentana = new AtomicLong();
+    private final AtomicLong cobrosEnviados = new AtomicLong();
+    private final AtomicLong lotesFallidos = new AtomicLong();
+    private final AtomicInteger profundidadMaxima = new AtomicInteger();
+    private final AtomicInteger tamanoMaximoLote = new AtomicInteger();
+    private final HistogramaLatencia latenciaLote;
+    
+    /**
+     * Constructor de la clase LiquidadorTransferencias.
+     * 
+     * @param banco Pasarela del banco que liquida los lotes
+     * @param tamanoLote Número de cobros que cierra un lote
+     * @param ventanaMs Tiempo máximo en milisegundos que un lote permanece abierto
+     */
+    public LiquidadorTransferencias(PasarelaLotes banco, int tamanoLote, long ventanaMs) {
+        if (tamanoLote < 1 || ventanaMs < 1) {
+            throw new IllegalArgumentException("Tamaño de lote y ventana deben ser positivos");
+        }
+        this.banco = banco;
+        this.tamanoLote = tamanoLote;
+        this.ventanaMs = ventanaMs;
+        this.temporizador = TemporizadorPagos.compartido();
+        this.ejecutorRespuestas = ForkJoinPool.commonPool();
+        this.loteActual = new ArrayList<>(tamanoLote);
+        this.latenciaLote = Metricas.registro().histograma(
+                "liquidador." + banco.getNombre().replaceAll("\\W+", "_") + ".lote");
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> cobrar(double monto, String referencia) {
+        Cobro cobro = new Cobro(monto, referencia);
+        List<Cobro> lleno = null;
+        synchronized (candado) {
+            if (cerrado) {
+                cobro.resultado.completeExceptionally(
+                        new RejectedExecutionException("El liquidador de " + getNombre() + " está cerrado"));
+                return cobro.resultado;
+            }
+            
+            loteActual.add(cobro);
+            int profundidad = loteActual.size();
+            profundidadMaxima.accumulateAndGet(profundidad, Math::max);
+            
+            if (profundidad >= tamanoLote) {
+                lleno = cortarLote();
+                lotesPorTamano.incrementAndGet();
+            } else if (profundidad == 1) {
+                cierrePorVentana = temporizador.schedule(this::vaciar, ventanaMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        
+        // El envío se hace fuera del candado: el banco puede tardar en aceptar la llamada
+        if (lleno != null) {
+            enviar(lleno);
+        }
+        return cobro.resultado;
+    }
+    
+    /**
+     * Separa el lote abierto y deja uno vacío en su lugar.
+     * Debe llamarse con el candado tomado.
+     */
+    private List<Cobro> cortarLote() {
+        List<Cobro> lote = loteActual;
+        loteActual = new ArrayList<>(tamanoLote);
+        if (cierrePorVentana != null) {
+            cierrePorVentana.cancel(false);
+            cierrePorVentana = null;
+        }
+        return lote;
+    }
+    
+    /**
+     * Liquida un lote en el banco y reparte el resultado a cada cobro.
+     */
+    private void enviar(List<Cobro> lote) {
+        int tamano = lote.size();
+        double[] montos = new double[tamano];
+        String[] referencias = new String[tamano];
+        for (int i = 0; i < tamano; i++) {
+            montos[i] = lote.get(i).monto;
+            referencias[i] = lote.get(i).referencia;
+        }
+        
+        lotesEnviados.incrementAndGet();
+        cobrosEnviados.addAndGet(tamano);
+        tamanoMaximoLote.accumulateAndGet(tamano, Math::max);
+        
+        long inicio = latenciaLote.iniciar();
+        CompletableFuture<boolean[]> respuesta;
+        try {
+            respuesta = banco.liquidar(montos, referencias);
+        } catch (RuntimeException e) {
+            respuesta = new CompletableFuture<>();
+            respuesta.completeExceptionally(e);
+        }
+        
+        respuesta.whenCompleteAsync((aprobados, error) -> {
+            latenciaLote.registrarDesde(inicio);
+            if (error != null || aprobados == null || aprobados.length != tamano) {
+                lotesFallidos.incrementAndGet();
+                Throwable causa = error != null ? error : new IllegalStateException(
+                        "El banco respondió un lote de tamaño distinto al enviado");
+                for (Cobro cobro : lote) {
+                    cobro.resultado.completeExceptionally(causa);
+                }
+                return;
+            }
+            for (int i = 0; i < tamano; i++) {
+                lote.get(i).resultado.complete(aprobados[i]);
+            }
+        }, ejecutorRespuestas);
+    }
+    
+    /**
+     * Envía el lote abierto sin esperar a que se llene ni a que venza su ventana.
+     */
+    public void vaciar() {
+        List<Cobro> lote;
+        synchronized (candado) {
+            if (loteActual.isEmpty()) {
+                return;
+            }
+            lote = cortarLote();
+            lotesPorVentana.incrementAndGet();
+        }
+        enviar(lote);
+    }
+    
+    /**
+     * Deja de aceptar cobros y envía los que quedaban en el lote abierto.
+     */
+    @Override
+    public void close() {
+        synchronized (candado) {
+            cerrado = true;
+        }
+        vaciar();
+    }
+    
+    @Override
+    public String getNombre() {
+        return banco.getNombre();
+    }
+    
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+    
+    public long getVentanaMs() {
+        return ventanaMs;
+    }
+    
+    /**
+     * @return Número de cobros esperando en el lote abierto
+     */
+    public int getProfundidadCola() {
+        synchronized (candado) {
+            return loteActual.size();
+        }
+    }
+    
+    /**
+     * @return Mayor número de cobros que llegó a esperar en un lote abierto
+     */
+    public int getProfundidadMaxima() {
+        return profundidadMaxima.get();
+    }
+    
+    public long getLotesEnviados() {
+        return lotesEnviados.get();
+    }
+    
+    /**
+     * @return Lotes enviados por llenarse antes de vencer su ventana
+     */
+    public long getLotesPorTamano() {
+        return lotesPorTamano.get();
+    }
+    
+    /**
+     * @return Lotes enviados por vencer su ventana (o al vaciar el liquidador)
+     */
+    public long getLotesPorVentana() {
+        return lotesPorVentana.get();
+    }
+    
+    public long getLotesFallidos() {
+        return lotesFallidos.get();
+    }
+    
+    public long getCobrosEnviados() {
+        return cobrosEnviados.get();
+    }
+    
+    /**
+     * @return Tamaño promedio de los lotes enviados, o 0 si no se envió ninguno
+     */
+    public double getTamanoPromedioLote() {
+        long lotes = lotesEnviados.get();
+        return lotes == 0 ? 0.0 : (double) cobrosEnviados.get() / lotes;
+    }
+    
+    public int getTamanoMaximoLote() {
+        return tamanoMaximoLote.get();
+    }
+    
+    /**
+     * Cobro que espera en un lote; su resultado se completa al liquidarse el lote.
+     */
+    private static class Cobro {
+        private final double monto;
+        private final String referencia;
+        private final CompletableFuture<Boolean> resultado;
+        
+        Cobro(double monto, String referencia) {
+            this.monto = monto;
+            this.referencia = referencia;
+            this.resultado = new CompletableFuture<>();
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.hotel.pago;
 
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.TipoEvento;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Interfaz que define el contrato para los métodos de pago.
  * 
@@ -19,6 +24,21 @@ public interface MetodoPago {
      */
     boolean procesarPago(double monto);
     
+    /**
+     * Procesa un pago sin bloquear al hilo que lo solicita.
+     * 
+     * La implementación por defecto ejecuta {@link #procesarPago(double)} en el
+     * pool común; los métodos que hablan con una PasarelaPago la sobrescriben
+     * para no ocupar ningún hilo mientras la pasarela responde.
+     * 
+     * @param monto Monto a pagar
+     * @return Resultado futuro: true si el pago fue exitoso. Se completa con
+     *         error si la pasarela vence su plazo o rechaza la solicitud.
+     */
+    default CompletableFuture<Boolean> procesarPagoAsync(double monto) {
+        return CompletableFuture.supplyAsync(() -> procesarPago(monto));
+    }
+    
     /**
      * Obtiene el nombre del método de pago.
      * 
@@ -26,11 +46,37 @@ public interface MetodoPago {
      */
     String getNombreMetodo();
     
+    /**
+     * Obtiene la clave del método en la configuración (por ejemplo, la
+     * comisión se lee de {@code pago.<clave>.comision}).
+     * 
+     * @return Clave del método de pago
+     */
+    default String getClave() {
+        return getClass().getSimpleName();
+    }
+    
     /**
      * Valida si el método de pago está disponible.
      * 
      * @return true si está disponible, false en caso contrario
      */
     boolean estaDisponible();
+    
+    /**
+     * Espera el resultado de un pago asíncrono, informando los errores como
+     * un pago fallido. Permite implementar la versión síncrona sobre la asíncrona.
+     * 
+     * @param resultado Resultado futuro del pago
+     * @return true si el pago fue exitoso, false si fue rechazado o falló
+     */
+    static boolean esperarResultado(CompletableFuture<Boolean> resultado) {
+        try {
+            return Boolean.TRUE.equals(resultado.join());
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            Eventos.publicar(TipoEvento.PAGO_FALLIDO, "sin reserva", causa.getMessage());
+            return false;
+        }
+    }
 }
-
@@ -0,0 +1,256 @@
+package com.hotel.pago;
+
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.Metricas;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pasarela que limita la concurrencia y el tiempo de espera de otra pasarela.
+ * 
+ * SRP: Solo aplica límites; el cobro en sí lo hace la pasarela envuelta.
+ * OCP: Se combina con cualquier PasarelaPago (decorador) sin modificarla.
+ * 
+ * Como mucho {@code maximoConcurrentes} cobros están en curso contra la
+ * pasarela; el resto espera en una cola sin ocupar hilos, y si la cola supera
+ * {@code maximoEnEspera} la solicitud se rechaza de inmediato. Cada cobro
+ * tiene un plazo total (cola más pasarela). Si vence en la cola, el cobro se
+ * descarta sin enviarse y el resultado se completa con TimeoutException: es
+ * seguro reintentarlo. Si vence con el cobro ya enviado, la pasarela todavía
+ * puede aprobarlo, así que el resultado se completa con
+ * CobroSinConfirmarException, que entrega la respuesta tardía para conciliarla
+ * en lugar de perderla. El estado de cada solicitud (en espera, enviada o
+ * vencida) cambia con una sola comparación atómica, de modo que el vencimiento
+ * y el despacho nunca deciden distinto sobre el mismo cobro. El cupo del cobro
+ * vencido se libera recién cuando la pasarela responde, para no superar nunca
+ * el límite contra el procesador.
+ * 
+ * Los resultados se completan en un ejecutor aparte, de modo que el código
+ * encadenado por quien paga nunca corre en los hilos del temporizador.
+ */
+public class PasarelaLimitada implements PasarelaPago {
+    private static final int ESPERANDO = 0;
+    private static final int ENVIADA = 1;
+    private static final int VENCIDA = 2;
+    
+    private final PasarelaPago pasarela;
+    private final int maximoConcurrentes;
+    private final int maximoEnEspera;
+    private final long plazoMs;
+    private final Semaphore cupos;
+    private final Queue<Solicitud> enEspera;
+    private final AtomicInteger solicitudesEnEspera;
+    private final AtomicLong completados;
+    private final AtomicLong rechazados;
+    private final AtomicLong vencidos;
+    private final ScheduledExecutorService temporizador;
+    private final Executor ejecutorRespuestas;
+    private final HistogramaLatencia latenciaCobro;
+    
+    /**
+     * Constructor de la clase PasarelaLimitada.
+     * 
+     * @param pasarela Pasarela a la que se envían los cobros
+     * @param maximoConcurrentes Máximo de cobros en curso a la vez
+     * @param maximoEnEspera Máximo de cobros esperando cupo antes de rechazar
+     * @param plazoMs Plazo total de cada cobro en milisegundos
+     */
+    public PasarelaLimitada(PasarelaPago pasarela, int maximoConcurrentes, int maximoEnEspera, long plazoMs) {
+        if (maximoConcurrentes < 1 || maximoEnEspera < 0 || plazoMs < 1) {
+            throw new IllegalArgumentException("Límites de pasarela no válidos");
+        }
+        this.pasarela = pasarela;
+        this.maximoConcurrentes = maximoConcurrentes;
+        this.maximoEnEspera = maximoEnEspera;
+        this.plazoMs = plazoMs;
+        this.cupos = new Semaphore(maximoConcurrentes);
+        this.enEspera = new ConcurrentLinkedQueue<>();
+        this.solicitudesEnEspera = new AtomicInteger();
+        this.completados = new AtomicLong();
+        this.rechazados = new AtomicLong();
+        this.vencidos = new AtomicLong();
+        this.temporizador = TemporizadorPagos.compartido();
+        this.ejecutorRespuestas = ForkJoinPool.commonPool();
+        this.latenciaCobro = Metricas.registro().histograma(
+                "pasarela." + pasarela.getNombre().replaceAll("\\W+", "_") + ".cobro");
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> cobrar(double monto, String referencia) {
+        CompletableFuture<Boolean> resultado = new CompletableFuture<>();
+        Solicitud solicitud = new Solicitud(monto, referencia, resultado);
+        long inicio = latenciaCobro.iniciar();
+        if (inicio != 0L) {
+            // Incluye la espera en cola: es la latencia que ve quien paga
+            resultado.whenComplete((exito, error) -> latenciaCobro.registrarDesde(inicio));
+        }
+        
+        // Camino rápido: nadie espera y hay cupo libre
+        if (enEspera.isEmpty() && cupos.tryAcquire()) {
+            solicitud.estado.set(ENVIADA);
+            programarVencimiento(solicitud);
+            enviar(solicitud);
+            return resultado;
+        }
+        
+        if (solicitudesEnEspera.incrementAndGet() > maximoEnEspera) {
+            solicitudesEnEspera.decrementAndGet();
+            rechazados.incrementAndGet();
+            resultado.completeExceptionally(new RejectedExecutionException(
+                    "Pasarela " + getNombre() + " saturada: " + maximoEnEspera + " cobros en espera"));
+            return resultado;
+        }
+        
+        programarVencimiento(solicitud);
+        enEspera.add(solicitud);
+        despachar();
+        return resultado;
+    }
+    
+    /**
+     * Programa el vencimiento del plazo del cobro y lo cancela si llega antes la respuesta.
+     */
+    private void programarVencimiento(Solicitud solicitud) {
+        ScheduledFuture<?> vencimiento = temporizador.schedule(() -> vencer(solicitud), plazoMs, TimeUnit.MILLISECONDS);
+        solicitud.resultado.whenComplete((exito, error) -> vencimiento.cancel(false));
+    }
+    
+    /**
+     * Envía a la pasarela tantas solicitudes en espera como cupos haya libres.
+     * Se llama al encolar y cada vez que la pasarela responde, así que ninguna
+     * solicitud queda en la cola con cupos disponibles.
+     */
+    private void despachar() {
+        while (!enEspera.isEmpty() && cupos.tryAcquire()) {
+            Solicitud solicitud = enEspera.poll();
+            if (solicitud == null) {
+                cupos.release();
+                continue;
+            }
+            solicitudesEnEspera.decrementAndGet();
+            
+            if (!solicitud.estado.compareAndSet(ESPERANDO, ENVIADA)) {
+                // Venció mientras esperaba cupo: no se envía a la pasarela
+                cupos.release();
+                continue;
+            }
+            enviar(solicitud);
+        }
+    }
+    
+    /**
+     * Envía una solicitud a la pasarela; el cupo se devuelve cuando responde.
+     */
+    private void enviar(Solicitud solicitud) {
+        CompletableFuture<Boolean> respuesta;
+        try {
+            respuesta = pasarela.cobrar(solicitud.monto, solicitud.referencia);
+        } catch (RuntimeException e) {
+            respuesta = new CompletableFuture<>();
+            respuesta.completeExceptionally(e);
+        }
+        
+        respuesta.whenComplete((exito, error) -> {
+            cupos.release();
+            completados.incrementAndGet();
+            ejecutorRespuestas.execute(() -> {
+                if (error != null) {
+                    solicitud.respuesta.completeExceptionally(error);
+                    solicitud.resultado.completeExceptionally(error);
+                } else {
+                    solicitud.respuesta.complete(exito);
+                    solicitud.resultado.complete(exito);
+                }
+            });
+            despachar();
+        });
+    }
+    
+    /**
+     * Completa el resultado si aún no tiene respuesta: con TimeoutException si
+     * el cobro seguía en la cola (y ya no se enviará), o con
+     * CobroSinConfirmarException si la pasarela lo está procesando.
+     */
+    private void vencer(Solicitud solicitud) {
+        if (solicitud.resultado.isDone()) {
+            return;
+        }
+        TimeoutException vencimiento = solicitud.estado.compareAndSet(ESPERANDO, VENCIDA)
+                ? new TimeoutException("El cobro no obtuvo cupo en la pasarela " + getNombre()
+                        + " en " + plazoMs + " ms")
+                : new CobroSinConfirmarException("La pasarela " + getNombre() + " no respondió en "
+                        + plazoMs + " ms; el cobro sigue en curso", solicitud.respuesta);
+        ejecutorRespuestas.execute(() -> {
+            if (solicitud.resultado.completeExceptionally(vencimiento)) {
+                vencidos.incrementAndGet();
+            }
+        });
+    }
+    
+    @Override
+    public String getNombre() {
+        return pasarela.getNombre();
+    }
+    
+    public int getMaximoConcurrentes() {
+        return maximoConcurrentes;
+    }
+    
+    public long getPlazoMs() {
+        return plazoMs;
+    }
+    
+    /**
+     * @return Número de cobros enviados a la pasarela que aún no responden
+     */
+    public int getCobrosEnCurso() {
+        return maximoConcurrentes - cupos.availablePermits();
+    }
+    
+    /**
+     * @return Número de cobros esperando cupo
+     */
+    public int getCobrosEnEspera() {
+        return Math.max(0, solicitudesEnEspera.get());
+    }
+    
+    public long getCobrosCompletados() {
+        return completados.get();
+    }
+    
+    public long getCobrosRechazados() {
+        return rechazados.get();
+    }
+    
+    public long getCobrosVencidos() {
+        return vencidos.get();
+    }
+    
+    /**
+     * Cobro que espera cupo en la pasarela.
+     */
+    private static class Solicitud {
+        private final double monto;
+        private final String referencia;
+        private final CompletableFuture<Boolean> resultado;
+        private final CompletableFuture<Boolean> respuesta = new CompletableFuture<>();
+        private final AtomicInteger estado = new AtomicInteger(ESPERANDO);
+        
+        Solicitud(double monto, String referencia, CompletableFuture<Boolean> resultado) {
+            this.monto = monto;
+            this.referencia = referencia;
+            this.resultado = resultado;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.hotel.pago;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz de una pasarela que liquida varios cobros en una sola llamada.
+ * 
+ * ISP: Se separa de PasarelaPago porque solo algunos procesadores (por
+ * ejemplo los bancos) aceptan lotes; quien cobra de a uno no la necesita.
+ */
+public interface PasarelaLotes {
+    
+    /**
+     * Liquida un lote de cobros en una única llamada a la pasarela.
+     * 
+     * @param montos Montos a cobrar
+     * @param referencias Referencia de cada cobro, en el mismo orden que los montos
+     * @return Resultado futuro con la aprobación de cada cobro, en el mismo orden.
+     *         Se completa con error si falla el lote completo.
+     */
+    CompletableFuture<boolean[]> liquidar(double[] montos, String[] referencias);
+    
+    /**
+     * Obtiene el nombre de la pasarela.
+     * 
+     * @return Nombre de la pasarela
+     */
+    String getNombre();
+}
@@ -0,0 +1,34 @@
+package com.hotel.pago;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz que define el contrato de una pasarela de pago externa.
+ * 
+ * DIP: Los métodos de pago dependen de esta abstracción y no del procesador
+ * concreto (banco, red de tarjetas, exchange), por lo que la pasarela real
+ * puede reemplazarse por una simulada o envolverse con límites sin cambiar
+ * TarjetaCredito, TransferenciaBancaria ni Criptomoneda.
+ * 
+ * Las llamadas son asíncronas: el hilo que solicita el cobro no queda
+ * bloqueado durante el viaje de ida y vuelta a la pasarela.
+ */
+public interface PasarelaPago {
+    
+    /**
+     * Solicita un cobro a la pasarela.
+     * 
+     * @param monto Monto a cobrar
+     * @param referencia Descripción del origen del cobro (cuenta, tarjeta, wallet)
+     * @return Resultado futuro: true si el cobro fue aprobado, false si fue rechazado.
+     *         Se completa con error si la pasarela no responde o no acepta la solicitud.
+     */
+    CompletableFuture<Boolean> cobrar(double monto, String referencia);
+    
+    /**
+     * Obtiene el nombre de la pasarela.
+     * 
+     * @return Nombre de la pasarela
+     */
+    String getNombre();
+}
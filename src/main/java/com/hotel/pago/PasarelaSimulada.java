@@ -0,0 +1,95 @@
+package com.hotel.pago;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pasarela de pago local que simula la latencia de un procesador externo.
+ * 
+ * OCP: Es otra implementación de PasarelaPago; permite medir el rendimiento
+ * de los pagos asíncronos sin conectarse a ningún servicio real.
+ * 
+ * Cada cobro responde tras una latencia fija más una variación aleatoria,
+ * y puede rechazarse con la probabilidad configurada. La espera se programa
+ * en un temporizador, de modo que ningún hilo queda dormido por cobro.
+ * Un lote completo cuesta una sola latencia, como una llamada a un banco.
+ */
+public class PasarelaSimulada implements PasarelaPago, PasarelaLotes {
+    private final String nombre;
+    private final long latenciaMs;
+    private final long variacionMs;
+    private final double probabilidadRechazo;
+    private final ScheduledExecutorService temporizador;
+    
+    /**
+     * Constructor de una pasarela simulada que aprueba todos los cobros.
+     * 
+     * @param nombre Nombre de la pasarela
+     * @param latenciaMs Latencia de cada respuesta en milisegundos
+     */
+    public PasarelaSimulada(String nombre, long latenciaMs) {
+        this(nombre, latenciaMs, 0, 0.0);
+    }
+    
+    /**
+     * Constructor de la clase PasarelaSimulada.
+     * 
+     * @param nombre Nombre de la pasarela
+     * @param latenciaMs Latencia mínima de cada respuesta en milisegundos
+     * @param variacionMs Variación aleatoria máxima que se suma a la latencia
+     * @param probabilidadRechazo Probabilidad (0 a 1) de rechazar un cobro
+     */
+    public PasarelaSimulada(String nombre, long latenciaMs, long variacionMs, double probabilidadRechazo) {
+        this.nombre = nombre;
+        this.latenciaMs = Math.max(0, latenciaMs);
+        this.variacionMs = Math.max(0, variacionMs);
+        this.probabilidadRechazo = probabilidadRechazo;
+        this.temporizador = TemporizadorPagos.compartido();
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> cobrar(double monto, String referencia) {
+        return responder(aprobar(monto));
+    }
+    
+    @Override
+    public CompletableFuture<boolean[]> liquidar(double[] montos, String[] referencias) {
+        boolean[] aprobados = new boolean[montos.length];
+        for (int i = 0; i < montos.length; i++) {
+            aprobados[i] = aprobar(montos[i]);
+        }
+        return responder(aprobados);
+    }
+    
+    /**
+     * Decide si un cobro se aprueba según la probabilidad de rechazo.
+     */
+    private boolean aprobar(double monto) {
+        return monto >= 0 && ThreadLocalRandom.current().nextDouble() >= probabilidadRechazo;
+    }
+    
+    /**
+     * Entrega una respuesta tras la latencia simulada.
+     */
+    private <T> CompletableFuture<T> responder(T valor) {
+        long latencia = latenciaMs + (variacionMs > 0 ? ThreadLocalRandom.current().nextLong(variacionMs + 1) : 0);
+        CompletableFuture<T> respuesta = new CompletableFuture<>();
+        if (latencia == 0) {
+            respuesta.complete(valor);
+        } else {
+            temporizador.schedule(() -> respuesta.complete(valor), latencia, TimeUnit.MILLISECONDS);
+        }
+        return respuesta;
+    }
+    
+    @Override
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public long getLatenciaMs() {
+        return latenciaMs;
+    }
+}
@@ -1,5 +1,9 @@
 package com.hotel.pago;
 
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.TipoEvento;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Implementación del método de pago con tarjeta de crédito.
  * 
@@ -10,6 +14,7 @@ public class TarjetaCredito implements MetodoPago {
     private String numeroTarjeta;
     private String nombreTitular;
     private boolean disponible;
+    private PasarelaPago pasarela;
     
     /**
      * Constructor de la clase TarjetaCredito.
@@ -23,20 +28,44 @@ public class TarjetaCredito implements MetodoPago {
         this.disponible = true;
     }
     
+    /**
+     * Constructor que envía los cobros a una pasarela de pago.
+     * 
+     * @param numeroTarjeta Número de la tarjeta de crédito
+     * @param nombreTitular Nombre del titular de la tarjeta
+     * @param pasarela Pasarela que procesa los cobros (con sus límites de concurrencia y plazo)
+     */
+    public TarjetaCredito(String numeroTarjeta, String nombreTitular, PasarelaPago pasarela) {
+        this(numeroTarjeta, nombreTitular);
+        this.pasarela = pasarela;
+    }
+    
     @Override
     public boolean procesarPago(double monto) {
+        return MetodoPago.esperarResultado(procesarPagoAsync(monto));
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> procesarPagoAsync(double monto) {
         if (!estaDisponible()) {
-            System.out.println("Tarjeta de crédito no disponible");
-            return false;
+            Eventos.publicar(TipoEvento.METODO_PAGO_NO_DISPONIBLE, getNombreMetodo());
+            return CompletableFuture.completedFuture(false);
         }
         
-        // Simulación del procesamiento del pago
-        System.out.println("Procesando pago de $" + monto + " con tarjeta de crédito " + 
-                          numeroTarjeta.substring(numeroTarjeta.length() - 4));
-        System.out.println("Titular: " + nombreTitular);
+        String referencia = "terminada en " + numeroTarjeta.substring(numeroTarjeta.length() - 4)
+                + ", titular " + nombreTitular;
+        Eventos.publicar(TipoEvento.PAGO_SOLICITADO, monto, getNombreMetodo(), referencia);
         
-        // En una implementación real, aquí se haría la conexión con el procesador de pagos
-        return true;
+        // Sin pasarela configurada el cobro se aprueba localmente
+        if (pasarela == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return pasarela.cobrar(monto, referencia);
+    }
+    
+    @Override
+    public String getClave() {
+        return "tarjeta";
     }
     
     @Override
@@ -52,5 +81,9 @@ public class TarjetaCredito implements MetodoPago {
     public void setDisponible(boolean disponible) {
         this.disponible = disponible;
     }
+    
+    public PasarelaPago getPasarela() {
+        return pasarela;
+    }
 }
 
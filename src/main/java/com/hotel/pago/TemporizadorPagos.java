@@ -0,0 +1,39 @@
+package com.hotel.pago;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Temporizador compartido por las pasarelas de pago.
+ * 
+ * SRP: Solo programa tareas diferidas (latencias simuladas y vencimientos).
+ * Sus hilos son daemon y nunca ejecutan trabajo bloqueante, así que unos
+ * pocos bastan para miles de cobros en curso.
+ */
+final class TemporizadorPagos {
+    private static final ScheduledExecutorService COMPARTIDO = crear();
+    
+    private TemporizadorPagos() {
+    }
+    
+    /**
+     * Obtiene el temporizador compartido.
+     * 
+     * @return Temporizador de hilos daemon
+     */
+    static ScheduledExecutorService compartido() {
+        return COMPARTIDO;
+    }
+    
+    private static ScheduledExecutorService crear() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = tarea -> {
+            Thread hilo = new Thread(tarea, "temporizador-pagos-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+        return Executors.newScheduledThreadPool(2, fabrica);
+    }
+}
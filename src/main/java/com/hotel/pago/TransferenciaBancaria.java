@@ -1,5 +1,9 @@
 package com.hotel.pago;
 
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.TipoEvento;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Implementación del método de pago mediante transferencia bancaria.
  * 
@@ -10,6 +14,7 @@ public class TransferenciaBancaria implements MetodoPago {
     private String numeroCuenta;
     private String banco;
     private boolean disponible;
+    private PasarelaPago pasarela;
     
     /**
      * Constructor de la clase TransferenciaBancaria.
@@ -23,20 +28,43 @@ public class TransferenciaBancaria implements MetodoPago {
         this.disponible = true;
     }
     
+    /**
+     * Constructor que envía los cobros a una pasarela de pago.
+     * 
+     * @param numeroCuenta Número de cuenta bancaria
+     * @param banco Nombre del banco
+     * @param pasarela Pasarela que procesa los cobros (con sus límites de concurrencia y plazo)
+     */
+    public TransferenciaBancaria(String numeroCuenta, String banco, PasarelaPago pasarela) {
+        this(numeroCuenta, banco);
+        this.pasarela = pasarela;
+    }
+    
     @Override
     public boolean procesarPago(double monto) {
+        return MetodoPago.esperarResultado(procesarPagoAsync(monto));
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> procesarPagoAsync(double monto) {
         if (!estaDisponible()) {
-            System.out.println("Transferencia bancaria no disponible");
-            return false;
+            Eventos.publicar(TipoEvento.METODO_PAGO_NO_DISPONIBLE, getNombreMetodo());
+            return CompletableFuture.completedFuture(false);
         }
         
-        // Simulación del procesamiento del pago
-        System.out.println("Procesando transferencia bancaria de $" + monto);
-        System.out.println("Banco: " + banco);
-        System.out.println("Cuenta: " + numeroCuenta);
+        String referencia = banco + ", cuenta " + numeroCuenta;
+        Eventos.publicar(TipoEvento.PAGO_SOLICITADO, monto, getNombreMetodo(), referencia);
         
-        // En una implementación real, aquí se haría la conexión con el banco
-        return true;
+        // Sin pasarela configurada el cobro se aprueba localmente
+        if (pasarela == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return pasarela.cobrar(monto, referencia);
+    }
+    
+    @Override
+    public String getClave() {
+        return "transferencia";
     }
     
     @Override
@@ -52,5 +80,9 @@ public class TransferenciaBancaria implements MetodoPago {
     public void setDisponible(boolean disponible) {
         this.disponible = disponible;
     }
+    
+    public PasarelaPago getPasarela() {
+        return pasarela;
+    }
 }
 
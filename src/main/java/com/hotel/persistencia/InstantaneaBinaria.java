@@ -0,0 +1,346 @@
+package com.hotel.persistencia;
+
+import com.hotel.eventos.Eventos;
+import com.hotel.gestion.GestorClientes;
+import com.hotel.gestion.GestorHabitaciones;
+import com.hotel.gestion.GestorReservas;
+import com.hotel.gestion.ResultadoRegistroMasivo;
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Dinero;
+import com.hotel.modelo.Habitacion;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.modelo.HabitacionSuite;
+import com.hotel.reserva.Reserva;
+import com.hotel.reserva.ReservaVIP;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantánea binaria y versionada del estado de los gestores.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: volcar clientes, habitaciones
+ * y reservas a un archivo binario compacto y volver a cargarlos.
+ * 
+ * Formato (big endian):
+ * [int MAGIA][short VERSION][long LSN]
+ * [int n][n clientes][int n][n habitaciones][int n][n reservas]
+ * [int CRC32 de todo lo anterior]
+ * Los textos se guardan como [int longitud][bytes UTF-8], el número de
+ * habitaciones de cada reserva como int y el precio por noche de cada
+ * habitación como long en centavos. Cada reserva guarda además su precio
+ * base y total en centavos, de modo que se restaura con el precio con que se
+ * vendió.
+ * 
+ * Se siguen leyendo las versiones anteriores: la 2 guardaba los textos y el
+ * número de habitaciones de cada reserva como short y el precio por noche
+ * como double en pesos; la 1, además, no guardaba el precio de las reservas,
+ * que se cotizan con el plan actual.
+ * 
+ * La carga mapea el archivo en memoria (MappedByteBuffer) y decodifica los
+ * registros directamente desde las páginas del archivo, sin interpretar texto
+ * CSV. Cada sección se entrega de una vez a las operaciones masivas de los
+ * gestores (registrarClientes, agregarHabitaciones y restaurarReservas), que
+ * no publican un evento ni miden latencia por registro ni pasan por la
+ * bitácora. Las reservas conservan todas sus habitaciones, aunque alguna esté
+ * deshabilitada para la venta. El LSN guardado es el del registro de escritura anticipada al momento
+ * de tomar la instantánea: al arrancar se carga la instantánea y luego se
+ * reproducen solo los eventos posteriores del registro.
+ */
+public class InstantaneaBinaria {
+    static final int MAGIA = 0x48544C53; // "HTLS"
+    static final short VERSION = 3;
+    private static final short VERSION_CAMPOS_CORTOS = 2;
+    private static final short VERSION_SIN_PRECIOS = 1;
+    
+    private static final byte TIPO_ESTANDAR = 0;
+    private static final byte TIPO_SUITE = 1;
+    private static final byte MARCA_DISPONIBLE = 1;
+    private static final byte MARCA_JACUZZI = 1 << 1;
+    private static final byte MARCA_BAR = 1 << 2;
+    
+    private final Path archivo;
+    
+    /**
+     * Constructor de la clase InstantaneaBinaria.
+     * 
+     * @param archivo Ruta del archivo de instantánea
+     */
+    public InstantaneaBinaria(Path archivo) {
+        this.archivo = archivo;
+    }
+    
+    /**
+     * Indica si ya existe una instantánea en disco.
+     * 
+     * @return true si el archivo existe
+     */
+    public boolean existe() {
+        return Files.isRegularFile(archivo);
+    }
+    
+    /**
+     * Escribe la instantánea del estado actual de los gestores.
+     * 
+     * Se escribe primero en un archivo temporal que luego reemplaza al anterior
+     * de forma atómica, de modo que una caída nunca deja una instantánea a medias.
+     * El LSN debe leerse antes de recorrer los gestores: los eventos posteriores
+     * que alcancen a quedar incluidos se vuelven a aplicar sin efecto al reproducir.
+     * 
+     * @param gestorClientes Gestor de clientes
+     * @param gestorHabitaciones Gestor de habitaciones
+     * @param gestorReservas Gestor de reservas
+     * @param lsn LSN del registro hasta el cual la instantánea está completa
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public void escribir(GestorClientes gestorClientes, GestorHabitaciones gestorHabitaciones,
+                         GestorReservas gestorReservas, long lsn) throws IOException {
+        if (archivo.getParent() != null) {
+            Files.createDirectories(archivo.getParent());
+        }
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        
+        CRC32 crc = new CRC32();
+        try (OutputStream archivoSalida = Files.newOutputStream(temporal);
+             CheckedOutputStream verificado = new CheckedOutputStream(
+                     new BufferedOutputStream(archivoSalida, 1 << 16), crc);
+             DataOutputStream salida = new DataOutputStream(verificado)) {
+            salida.writeInt(MAGIA);
+            salida.writeShort(VERSION);
+            salida.writeLong(lsn);
+            
+            List<Cliente> clientes = gestorClientes.obtenerTodosLosClientes();
+            salida.writeInt(clientes.size());
+            for (Cliente cliente : clientes) {
+                escribirTexto(salida, cliente.getId());
+                escribirTexto(salida, cliente.getNombre());
+                escribirTexto(salida, cliente.getEmail());
+                escribirTexto(salida, cliente.getTelefono());
+            }
+            
+            List<Habitacion> habitaciones = gestorHabitaciones.obtenerTodasLasHabitaciones();
+            salida.writeInt(habitaciones.size());
+            for (Habitacion habitacion : habitaciones) {
+                byte marcas = habitacion.isDisponible() ? MARCA_DISPONIBLE : 0;
+                boolean suite = habitacion instanceof HabitacionSuite;
+                if (suite) {
+                    HabitacionSuite habitacionSuite = (HabitacionSuite) habitacion;
+                    marcas |= habitacionSuite.tieneJacuzzi() ? MARCA_JACUZZI : 0;
+                    marcas |= habitacionSuite.tieneBar() ? MARCA_BAR : 0;
+                }
+                salida.writeByte(suite ? TIPO_SUITE : TIPO_ESTANDAR);
+                escribirTexto(salida, habitacion.getNumero());
+                salida.writeLong(habitacion.getPrecioPorNocheCentavos());
+                salida.writeInt(habitacion.getCapacidad());
+                salida.writeByte(marcas);
+            }
+            
+            List<Reserva> reservas = gestorReservas.obtenerTodasLasReservas();
+            salida.writeInt(reservas.size());
+            for (Reserva reserva : reservas) {
+                escribirTexto(salida, reserva.getIdReserva());
+                escribirTexto(salida, reserva.getCliente() != null ? reserva.getCliente().getId() : "");
+                salida.writeBoolean(reserva instanceof ReservaVIP);
+                salida.writeLong(reserva.getFechaInicio().toEpochDay());
+                salida.writeLong(reserva.getFechaFin().toEpochDay());
+                salida.writeBoolean(reserva.isPagada());
+                salida.writeLong(reserva.getPrecioBaseCentavos());
+                salida.writeLong(reserva.getPrecioTotalCentavos());
+                List<Habitacion> habitacionesReserva = reserva.getHabitaciones();
+                salida.writeInt(habitacionesReserva.size());
+                for (Habitacion habitacion : habitacionesReserva) {
+                    escribirTexto(salida, habitacion.getNumero());
+                }
+            }
+            
+            salida.flush();
+            // El CRC se escribe fuera del flujo verificado
+            new DataOutputStream(archivoSalida).writeInt((int) crc.getValue());
+        }
+        
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Carga la instantánea sobre gestores vacíos.
+     * 
+     * @param gestorClientes Gestor de clientes a poblar
+     * @param gestorHabitaciones Gestor de habitaciones a poblar
+     * @param gestorReservas Gestor de reservas a poblar
+     * @return LSN del registro hasta el cual la instantánea está completa
+     * @throws IOException si el archivo no existe, está corrupto o es de otra versión
+     */
+    public long cargar(GestorClientes gestorClientes, GestorHabitaciones gestorHabitaciones,
+                       GestorReservas gestorReservas) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < 4 + 2 + 8 + 4 || tamano > Integer.MAX_VALUE) {
+                throw new IOException("Tamaño de instantánea no válido: " + tamano);
+            }
+            ByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+            
+            int finContenido = (int) tamano - 4;
+            CRC32 crc = new CRC32();
+            ByteBuffer contenido = datos.duplicate();
+            contenido.limit(finContenido);
+            crc.update(contenido);
+            if ((int) crc.getValue() != datos.getInt(finContenido)) {
+                throw new IOException("La instantánea " + archivo + " está corrupta (CRC no coincide)");
+            }
+            
+            if (datos.getInt() != MAGIA) {
+                throw new IOException(archivo + " no es una instantánea del sistema de reservas");
+            }
+            short version = datos.getShort();
+            if (version != VERSION && version != VERSION_CAMPOS_CORTOS && version != VERSION_SIN_PRECIOS) {
+                throw new IOException("Versión de instantánea no soportada: " + version);
+            }
+            boolean camposCortos = version != VERSION;
+            long lsn = datos.getLong();
+            
+            int numeroClientes = datos.getInt();
+            List<Cliente> clientes = new ArrayList<>(numeroClientes);
+            for (int i = 0; i < numeroClientes; i++) {
+                clientes.add(new Cliente(leerTexto(datos, camposCortos), leerTexto(datos, camposCortos),
+                        leerTexto(datos, camposCortos), leerTexto(datos, camposCortos)));
+            }
+            informarRechazos("clientes", gestorClientes.registrarClientes(clientes));
+            
+            int numeroHabitaciones = datos.getInt();
+            List<Habitacion> habitaciones = new ArrayList<>(numeroHabitaciones);
+            for (int i = 0; i < numeroHabitaciones; i++) {
+                byte tipo = datos.get();
+                String numero = leerTexto(datos, camposCortos);
+                long precioCentavos = camposCortos ? Dinero.aCentavos(datos.getDouble()) : datos.getLong();
+                int capacidad = datos.getInt();
+                byte marcas = datos.get();
+                Habitacion habitacion = tipo == TIPO_SUITE
+                        ? new HabitacionSuite(numero, 0, capacidad,
+                                (marcas & MARCA_JACUZZI) != 0, (marcas & MARCA_BAR) != 0)
+                        : new HabitacionEstandar(numero, 0, capacidad);
+                habitacion.setPrecioPorNocheCentavos(precioCentavos);
+                habitacion.setDisponible((marcas & MARCA_DISPONIBLE) != 0);
+                habitaciones.add(habitacion);
+            }
+            informarRechazos("habitaciones", gestorHabitaciones.agregarHabitaciones(habitaciones));
+            
+            int numeroReservas = datos.getInt();
+            List<Reserva> reservas = new ArrayList<>(numeroReservas);
+            for (int i = 0; i < numeroReservas; i++) {
+                String idReserva = leerTexto(datos, camposCortos);
+                Cliente cliente = gestorClientes.buscarCliente(leerTexto(datos, camposCortos));
+                boolean vip = datos.get() != 0;
+                LocalDate inicio = LocalDate.ofEpochDay(datos.getLong());
+                LocalDate fin = LocalDate.ofEpochDay(datos.getLong());
+                boolean pagada = datos.get() != 0;
+                boolean conPrecio = version != VERSION_SIN_PRECIOS;
+                long precioBase = conPrecio ? datos.getLong() : 0;
+                long precioTotal = conPrecio ? datos.getLong() : 0;
+                Reserva reserva = vip
+                        ? new ReservaVIP(idReserva, cliente, inicio, fin, null)
+                        : new Reserva(idReserva, cliente, inicio, fin, null);
+                int numeroHabitacionesReserva = camposCortos ? datos.getShort() & 0xFFFF : datos.getInt();
+                List<Habitacion> habitacionesReserva = new ArrayList<>(numeroHabitacionesReserva);
+                for (int j = 0; j < numeroHabitacionesReserva; j++) {
+                    habitacionesReserva.add(gestorHabitaciones.buscarHabitacion(leerTexto(datos, camposCortos)));
+                }
+                if (conPrecio) {
+                    reserva.restaurar(habitacionesReserva, precioBase, precioTotal);
+                } else {
+                    reserva.restaurar(habitacionesReserva);
+                }
+                if (pagada) {
+                    reserva.marcarComoPagada();
+                }
+                reservas.add(reserva);
+            }
+            informarRechazos("reservas", gestorReservas.restaurarReservas(reservas));
+            return lsn;
+        }
+    }
+    
+    /**
+     * Programa la escritura periódica de la instantánea.
+     * 
+     * @param programador Ejecutor donde se programan las escrituras
+     * @param periodo Periodo entre escrituras
+     * @param unidad Unidad del periodo
+     * @param gestorClientes Gestor de clientes
+     * @param gestorHabitaciones Gestor de habitaciones
+     * @param gestorReservas Gestor de reservas
+     * @param lsnActual Proveedor del LSN durable del registro (por ejemplo registro::getUltimoLsn)
+     * @return Tarea programada, para poder cancelarla
+     */
+    public ScheduledFuture<?> programarEscrituraPeriodica(ScheduledExecutorService programador, long periodo,
+                                                          TimeUnit unidad, GestorClientes gestorClientes,
+                                                          GestorHabitaciones gestorHabitaciones,
+                                                          GestorReservas gestorReservas, LongSupplier lsnActual) {
+        return programador.scheduleWithFixedDelay(() -> {
+            try {
+                escribir(gestorClientes, gestorHabitaciones, gestorReservas, lsnActual.getAsLong());
+            } catch (IOException e) {
+                Eventos.error("No se pudo escribir la instantánea " + archivo + ": " + e.getMessage());
+            }
+        }, periodo, periodo, unidad);
+    }
+    
+    /**
+     * Obtiene la ruta del archivo de instantánea.
+     * 
+     * @return Ruta del archivo
+     */
+    public Path getArchivo() {
+        return archivo;
+    }
+    
+    /**
+     * Informa los registros de la instantánea que los gestores rechazaron
+     * (por ejemplo, un ID que ya estaba cargado).
+     */
+    private void informarRechazos(String seccion, ResultadoRegistroMasivo resultado) {
+        if (resultado.tieneRechazos()) {
+            Eventos.error("Instantánea " + archivo + ": " + resultado.getRechazos().size() + " " + seccion
+                    + " rechazados, el primero " + resultado.getRechazos().get(0));
+        }
+    }
+    
+    private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        byte[] bytes = (texto == null ? "" : texto).getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(bytes.length);
+        salida.write(bytes);
+    }
+    
+    /**
+     * @param camposCortos true si la longitud se guardó como short (versiones 1 y 2)
+     * @throws IOException si la longitud pasa del final del archivo
+     */
+    private String leerTexto(ByteBuffer datos, boolean camposCortos) throws IOException {
+        int longitud = camposCortos ? datos.getShort() & 0xFFFF : datos.getInt();
+        if (longitud < 0 || longitud > datos.remaining()) {
+            throw new IOException("Instantánea " + archivo + ": texto de " + longitud + " bytes fuera del archivo");
+        }
+        byte[] bytes = new byte[longitud];
+        datos.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
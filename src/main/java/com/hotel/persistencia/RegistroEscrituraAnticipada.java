@@ -0,0 +1,529 @@
+package com.hotel.persistencia;
+
+import com.hotel.eventos.Eventos;
+import com.hotel.gestion.BitacoraReservas;
+import com.hotel.gestion.GestorClientes;
+import com.hotel.gestion.GestorHabitaciones;
+import com.hotel.gestion.GestorReservas;
+import com.hotel.gestion.ResultadoRegistroMasivo;
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.reserva.Reserva;
+import com.hotel.reserva.ReservaVIP;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de escritura anticipada (write-ahead log) de los eventos de reservas.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: hacer durables los eventos
+ * de reservas (creación, cancelación, cambio de fecha y pago) y reproducirlos
+ * al arrancar para reconstruir los gestores.
+ * 
+ * Formato de cada registro (big endian):
+ * [int longitud del contenido][long LSN][byte tipo][contenido][int CRC32]
+ * El CRC cubre LSN, tipo y contenido. Un registro incompleto o corrupto al
+ * final del archivo (escritura interrumpida) se descarta al abrir.
+ * 
+ * Una creación guarda las habitaciones y el precio con que se vendió, y un
+ * cambio de fechas el precio con que se cotizó; al reproducirlos se
+ * restauran así, aunque hoy alguna habitación esté deshabilitada o el plan de
+ * tarifas sea otro. Los registros anteriores a guardar el precio se cotizan
+ * con el plan actual. La reproducción aplica los eventos sin publicarlos, sin
+ * medir latencias y sin avisar a la lista de espera: ya ocurrieron.
+ * 
+ * Confirmación en grupo (group commit): los hilos que registran eventos solo
+ * serializan y encolan su registro, y reciben un resultado que se completa
+ * cuando es durable; no esperan al disco. Un único hilo escritor toma todos
+ * los registros pendientes, los escribe juntos y hace un solo fsync por lote,
+ * de modo que muchas reservas concurrentes (y muchas operaciones seguidas de
+ * una misma partición de GestorReservas) comparten el mismo vaciado a disco.
+ * Los registros se escriben en el orden en que se encolaron.
+ * 
+ * Si escribir o sincronizar un lote falla, el archivo se recorta al punto
+ * donde empezaba el lote (nada de ese lote queda para reproducirse, aunque
+ * GestorReservas ya lo haya deshecho) y el registro se detiene: todo evento
+ * posterior se rechaza. Después de un fsync fallido no se sabe qué llegó al
+ * disco, así que seguir escribiendo detrás podría dejar lotes confirmados
+ * detrás de basura que el próximo arranque descartaría. Para volver a
+ * escribir hay que reabrir el registro. Así se cumple el contrato de
+ * BitacoraReservas: si un evento falla, ninguno de los posteriores es durable.
+ */
+public class RegistroEscrituraAnticipada implements BitacoraReservas, Closeable {
+    static final byte TIPO_CREACION = 1;
+    static final byte TIPO_CANCELACION = 2;
+    static final byte TIPO_CAMBIO_FECHA = 3;
+    static final byte TIPO_PAGO = 4;
+    
+    private static final int TAMANO_ENCABEZADO = 4 + 8 + 1;
+    private static final int TAMANO_MAXIMO_CONTENIDO = 1 << 20;
+    private static final int TAMANO_MAXIMO_LOTE = 4096;
+    
+    private final Path archivo;
+    private final FileChannel canal;
+    private final BlockingQueue<Pendiente> pendientes;
+    private final Thread escritor;
+    private volatile boolean activo;
+    private volatile IOException averia;
+    private long ultimoLsn;
+    private long finValido;
+    
+    /**
+     * Abre (o crea) el registro. Descarta cualquier registro incompleto al
+     * final del archivo y arranca el hilo escritor.
+     * 
+     * @param archivo Ruta del archivo de registro
+     * @throws IOException si el archivo no puede abrirse
+     */
+    public RegistroEscrituraAnticipada(Path archivo) throws IOException {
+        this(archivo, abrir(archivo));
+    }
+    
+    /**
+     * Abre el registro sobre un canal ya abierto (por ejemplo, uno que simula
+     * fallas de disco).
+     * 
+     * @param archivo Ruta del archivo, para los mensajes
+     * @param canal Canal de lectura y escritura sobre el archivo
+     * @throws IOException si el canal no puede leerse
+     */
+    RegistroEscrituraAnticipada(Path archivo, FileChannel canal) throws IOException {
+        this.archivo = archivo;
+        this.canal = canal;
+        recorrer((lsn, tipo, contenido) -> ultimoLsn = lsn);
+        if (canal.size() > finValido) {
+            Eventos.error("Registro " + archivo + ": se descartan " + (canal.size() - finValido)
+                    + " bytes incompletos al final");
+            canal.truncate(finValido);
+            canal.force(true);
+        }
+        canal.position(finValido);
+        
+        this.pendientes = new LinkedBlockingQueue<>();
+        this.activo = true;
+        this.escritor = new Thread(this::bucleEscritura, "registro-reservas");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+    
+    @Override
+    public CompletableFuture<Void> registrarCreacion(Reserva reserva) {
+        return escribir(TIPO_CREACION, 128, salida -> {
+            salida.writeUTF(reserva.getIdReserva());
+            salida.writeUTF(reserva.getCliente() != null ? reserva.getCliente().getId() : "");
+            salida.writeBoolean(reserva instanceof ReservaVIP);
+            salida.writeLong(reserva.getFechaInicio().toEpochDay());
+            salida.writeLong(reserva.getFechaFin().toEpochDay());
+            List<Habitacion> habitaciones = reserva.getHabitaciones();
+            salida.writeInt(habitaciones.size());
+            for (Habitacion habitacion : habitaciones) {
+                salida.writeUTF(habitacion.getNumero());
+            }
+            salida.writeBoolean(reserva.isPagada());
+            salida.writeLong(reserva.getPrecioBaseCentavos());
+            salida.writeLong(reserva.getPrecioTotalCentavos());
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> registrarCancelacion(Reserva reserva) {
+        return escribir(TIPO_CANCELACION, 32, salida -> salida.writeUTF(reserva.getIdReserva()));
+    }
+    
+    @Override
+    public CompletableFuture<Void> registrarCambioFecha(Reserva reserva, LocalDate nuevaFechaInicio,
+                                                        LocalDate nuevaFechaFin, long precioBaseCentavos,
+                                                        long precioTotalCentavos) {
+        return escribir(TIPO_CAMBIO_FECHA, 64, salida -> {
+            salida.writeUTF(reserva.getIdReserva());
+            salida.writeLong(nuevaFechaInicio.toEpochDay());
+            salida.writeLong(nuevaFechaFin.toEpochDay());
+            salida.writeLong(precioBaseCentavos);
+            salida.writeLong(precioTotalCentavos);
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> registrarPago(Reserva reserva) {
+        return escribir(TIPO_PAGO, 32, salida -> salida.writeUTF(reserva.getIdReserva()));
+    }
+    
+    /**
+     * Reproduce todos los eventos del registro sobre los gestores.
+     * Debe llamarse antes de asignar este registro como bitácora de GestorReservas,
+     * para que la reproducción no vuelva a escribir los mismos eventos.
+     * 
+     * @param gestorReservas Gestor de reservas a reconstruir
+     * @param gestorClientes Gestor donde buscar los clientes de cada reserva
+     * @param gestorHabitaciones Gestor donde buscar las habitaciones de cada reserva
+     * @return Número de eventos aplicados
+     * @throws IOException si el registro no puede leerse
+     */
+    public int reproducir(GestorReservas gestorReservas, GestorClientes gestorClientes,
+                          GestorHabitaciones gestorHabitaciones) throws IOException {
+        return reproducir(gestorReservas, gestorClientes, gestorHabitaciones, 0);
+    }
+    
+    /**
+     * Reproduce los eventos con LSN mayor al indicado (por ejemplo, los
+     * posteriores a una instantánea ya cargada).
+     * 
+     * @param gestorReservas Gestor de reservas a reconstruir
+     * @param gestorClientes Gestor donde buscar los clientes de cada reserva
+     * @param gestorHabitaciones Gestor donde buscar las habitaciones de cada reserva
+     * @param desdeLsn Solo se aplican eventos con LSN estrictamente mayor
+     * @return Número de eventos aplicados
+     * @throws IOException si el registro no puede leerse
+     */
+    public int reproducir(GestorReservas gestorReservas, GestorClientes gestorClientes,
+                          GestorHabitaciones gestorHabitaciones, long desdeLsn) throws IOException {
+        int[] aplicados = {0};
+        recorrer((lsn, tipo, contenido) -> {
+            if (lsn > desdeLsn) {
+                aplicar(tipo, contenido, gestorReservas, gestorClientes, gestorHabitaciones);
+                aplicados[0]++;
+            }
+        });
+        return aplicados[0];
+    }
+    
+    /**
+     * Obtiene el LSN del último evento durable.
+     * 
+     * @return Último LSN escrito, o 0 si el registro está vacío
+     */
+    public synchronized long getUltimoLsn() {
+        return ultimoLsn;
+    }
+    
+    /**
+     * Indica si el registro se detuvo por una falla de escritura.
+     * 
+     * @return La falla que lo detuvo, o null si sigue aceptando eventos
+     */
+    public IOException getAveria() {
+        return averia;
+    }
+    
+    /**
+     * Obtiene la ruta del archivo de registro.
+     * 
+     * @return Ruta del archivo
+     */
+    public Path getArchivo() {
+        return archivo;
+    }
+    
+    /**
+     * Detiene el hilo escritor después de vaciar los eventos pendientes y cierra el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        activo = false;
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        // Rechazar lo que se haya encolado mientras el escritor terminaba
+        Pendiente tardio;
+        while ((tardio = pendientes.poll()) != null) {
+            tardio.confirmacion.completeExceptionally(new IOException("El registro " + archivo + " está cerrado"));
+        }
+        canal.close();
+    }
+    
+    /**
+     * Serializa un registro en el hilo que llama y lo encola para el hilo
+     * escritor, sin esperar al disco.
+     * 
+     * @return Resultado que se completa cuando el registro es durable
+     */
+    private CompletableFuture<Void> escribir(byte tipo, int tamanoEstimado, Serializador serializador) {
+        Pendiente pendiente;
+        try {
+            if (!activo) {
+                throw new IOException("El registro " + archivo + " está cerrado");
+            }
+            rechazarSiAveriado();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(tamanoEstimado);
+            serializador.escribir(new DataOutputStream(bytes));
+            pendiente = new Pendiente(tipo, bytes.toByteArray());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        pendientes.add(pendiente);
+        return pendiente.confirmacion;
+    }
+    
+    /**
+     * Bucle del hilo escritor: toma todos los pendientes disponibles, los
+     * escribe en un único bloque y hace un solo fsync para el lote completo.
+     */
+    private void bucleEscritura() {
+        List<Pendiente> lote = new ArrayList<>();
+        ByteBuffer bufer = ByteBuffer.allocate(64 * 1024);
+        CRC32 crc = new CRC32();
+        
+        while (activo || !pendientes.isEmpty()) {
+            try {
+                Pendiente primero = pendientes.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                pendientes.drainTo(lote, TAMANO_MAXIMO_LOTE - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            
+            try {
+                synchronized (this) {
+                    rechazarSiAveriado();
+                    bufer.clear();
+                    long lsn = ultimoLsn;
+                    for (Pendiente pendiente : lote) {
+                        int tamano = TAMANO_ENCABEZADO + pendiente.contenido.length + 4;
+                        if (bufer.remaining() < tamano) {
+                            bufer = ampliar(bufer, tamano);
+                        }
+                        int inicio = bufer.position();
+                        bufer.putInt(pendiente.contenido.length);
+                        bufer.putLong(++lsn);
+                        bufer.put(pendiente.tipo);
+                        bufer.put(pendiente.contenido);
+                        crc.reset();
+                        crc.update(bufer.array(), inicio + 4, 8 + 1 + pendiente.contenido.length);
+                        bufer.putInt((int) crc.getValue());
+                    }
+                    
+                    bufer.flip();
+                    long inicioLote = canal.position();
+                    try {
+                        while (bufer.hasRemaining()) {
+                            canal.write(bufer);
+                        }
+                        canal.force(false);
+                    } catch (IOException e) {
+                        detener(e, inicioLote);
+                        throw e;
+                    }
+                    ultimoLsn = lsn;
+                }
+                for (Pendiente pendiente : lote) {
+                    pendiente.confirmacion.complete(null);
+                }
+            } catch (IOException e) {
+                for (Pendiente pendiente : lote) {
+                    pendiente.confirmacion.completeExceptionally(e);
+                }
+            }
+            lote.clear();
+        }
+    }
+    
+    /**
+     * Recorta el archivo al inicio del lote fallido y deja de aceptar eventos.
+     * Si ni siquiera puede recortarse, los bytes del lote pueden quedar en el
+     * archivo; el CRC descarta los incompletos al reabrir.
+     */
+    private void detener(IOException causa, long inicioLote) {
+        averia = causa;
+        try {
+            canal.truncate(inicioLote);
+            canal.position(inicioLote);
+            canal.force(true);
+        } catch (IOException e) {
+            causa.addSuppressed(e);
+        }
+        Eventos.error("Registro " + archivo + " detenido tras una falla de escritura: " + causa.getMessage());
+    }
+    
+    private void rechazarSiAveriado() throws IOException {
+        IOException causa = averia;
+        if (causa != null) {
+            throw new IOException("El registro " + archivo + " está detenido por una falla anterior: "
+                    + causa.getMessage(), causa);
+        }
+    }
+    
+    private static FileChannel abrir(Path archivo) throws IOException {
+        if (archivo.getParent() != null) {
+            Files.createDirectories(archivo.getParent());
+        }
+        return FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+    
+    /**
+     * Recorre los registros válidos desde el inicio del archivo y deja en
+     * finValido la posición donde termina el último registro íntegro.
+     */
+    private void recorrer(ConsumidorRegistro consumidor) throws IOException {
+        ByteBuffer encabezado = ByteBuffer.allocate(TAMANO_ENCABEZADO);
+        ByteBuffer crcLeido = ByteBuffer.allocate(4);
+        CRC32 crc = new CRC32();
+        long posicion = 0;
+        long tamanoArchivo = canal.size();
+        
+        while (posicion + TAMANO_ENCABEZADO <= tamanoArchivo) {
+            encabezado.clear();
+            leerCompleto(encabezado, posicion);
+            encabezado.flip();
+            int longitud = encabezado.getInt();
+            long lsn = encabezado.getLong();
+            byte tipo = encabezado.get();
+            if (longitud < 0 || longitud > TAMANO_MAXIMO_CONTENIDO
+                    || posicion + TAMANO_ENCABEZADO + longitud + 4 > tamanoArchivo) {
+                break;
+            }
+            
+            ByteBuffer contenido = ByteBuffer.allocate(longitud);
+            leerCompleto(contenido, posicion + TAMANO_ENCABEZADO);
+            crcLeido.clear();
+            leerCompleto(crcLeido, posicion + TAMANO_ENCABEZADO + longitud);
+            
+            crc.reset();
+            crc.update(encabezado.array(), 4, 8 + 1);
+            crc.update(contenido.array(), 0, longitud);
+            if ((int) crc.getValue() != crcLeido.getInt(0)) {
+                break;
+            }
+            
+            consumidor.aceptar(lsn, tipo, contenido.array());
+            posicion += TAMANO_ENCABEZADO + longitud + 4;
+        }
+        finValido = posicion;
+    }
+    
+    private void leerCompleto(ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, posicion + destino.position()) < 0) {
+                throw new IOException("Fin inesperado del registro " + archivo);
+            }
+        }
+    }
+    
+    /**
+     * Aplica un evento del registro sobre los gestores.
+     */
+    private void aplicar(byte tipo, byte[] contenido, GestorReservas gestorReservas,
+                         GestorClientes gestorClientes, GestorHabitaciones gestorHabitaciones)
+            throws IOException {
+        DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(contenido));
+        String idReserva = entrada.readUTF();
+        
+        switch (tipo) {
+            case TIPO_CREACION:
+                Cliente cliente = gestorClientes.buscarCliente(entrada.readUTF());
+                boolean vip = entrada.readBoolean();
+                LocalDate inicio = LocalDate.ofEpochDay(entrada.readLong());
+                LocalDate fin = LocalDate.ofEpochDay(entrada.readLong());
+                // El método de pago no se persiste: debe reasignarse antes de cobrar
+                Reserva reserva = vip
+                        ? new ReservaVIP(idReserva, cliente, inicio, fin, null)
+                        : new Reserva(idReserva, cliente, inicio, fin, null);
+                int numeroHabitaciones = entrada.readInt();
+                List<Habitacion> habitaciones = new ArrayList<>(numeroHabitaciones);
+                for (int i = 0; i < numeroHabitaciones; i++) {
+                    habitaciones.add(gestorHabitaciones.buscarHabitacion(entrada.readUTF()));
+                }
+                boolean creadaPagada = entrada.readBoolean();
+                if (entrada.available() >= 16) {
+                    reserva.restaurar(habitaciones, entrada.readLong(), entrada.readLong());
+                } else {
+                    // Registro anterior a guardar el precio: se cotiza con el plan actual
+                    reserva.restaurar(habitaciones);
+                }
+                if (creadaPagada) {
+                    reserva.marcarComoPagada();
+                }
+                ResultadoRegistroMasivo resultado = gestorReservas.restaurarReservas(List.of(reserva));
+                if (resultado.tieneRechazos()) {
+                    Eventos.error("Registro " + archivo + ": no se pudo reproducir la reserva " + idReserva
+                            + ": " + resultado.getRechazos().get(0).getMotivo());
+                }
+                break;
+            case TIPO_CANCELACION:
+                informarRechazo("la cancelación de " + idReserva,
+                        gestorReservas.restaurarCancelacion(idReserva));
+                break;
+            case TIPO_CAMBIO_FECHA:
+                LocalDate nuevaInicio = LocalDate.ofEpochDay(entrada.readLong());
+                LocalDate nuevaFin = LocalDate.ofEpochDay(entrada.readLong());
+                // Un registro anterior a guardar el precio se cotiza con el plan actual
+                informarRechazo("el cambio de fecha de " + idReserva, entrada.available() >= 16
+                        ? gestorReservas.restaurarCambioFecha(idReserva, nuevaInicio, nuevaFin,
+                                entrada.readLong(), entrada.readLong())
+                        : gestorReservas.restaurarCambioFecha(idReserva, nuevaInicio, nuevaFin));
+                break;
+            case TIPO_PAGO:
+                // Un cobro aprobado tarde puede registrarse después de cancelar la reserva
+                gestorReservas.restaurarPago(idReserva);
+                break;
+            default:
+                throw new IOException("Tipo de evento desconocido en el registro: " + tipo);
+        }
+    }
+    
+    private void informarRechazo(String evento, String motivo) {
+        if (motivo != null) {
+            Eventos.error("Registro " + archivo + ": no se pudo reproducir " + evento + ": " + motivo);
+        }
+    }
+    
+    private static ByteBuffer ampliar(ByteBuffer actual, int adicional) {
+        ByteBuffer nuevo = ByteBuffer.allocate(Math.max(actual.capacity() * 2, actual.position() + adicional));
+        actual.flip();
+        nuevo.put(actual);
+        return nuevo;
+    }
+    
+    /**
+     * Registro a la espera de ser escrito por el hilo escritor.
+     */
+    private static class Pendiente {
+        private final byte tipo;
+        private final byte[] contenido;
+        private final CompletableFuture<Void> confirmacion;
+        
+        Pendiente(byte tipo, byte[] contenido) {
+            this.tipo = tipo;
+            this.contenido = contenido;
+            this.confirmacion = new CompletableFuture<>();
+        }
+    }
+    
+    /**
+     * Escribe el contenido de un registro.
+     */
+    private interface Serializador {
+        void escribir(DataOutputStream salida) throws IOException;
+    }
+    
+    /**
+     * Receptor de los registros válidos durante un recorrido del archivo.
+     */
+    private interface ConsumidorRegistro {
+        void aceptar(long lsn, byte tipo, byte[] contenido) throws IOException;
+    }
+}
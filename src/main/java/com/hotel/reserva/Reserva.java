@@ -1,11 +1,23 @@
 package com.hotel.reserva;
 
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.TipoEvento;
 import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Dinero;
 import com.hotel.modelo.Habitacion;
+import com.hotel.pago.CobroSinConfirmarException;
 import com.hotel.pago.MetodoPago;
+import com.hotel.tarifas.PlanTarifas;
+import com.hotel.tarifas.Tarifas;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Clase que representa una reserva de hotel.
@@ -15,6 +27,13 @@ import java.util.List;
  * 
  * DIP: Depende de la abstracción MetodoPago en lugar de implementaciones concretas,
  * permitiendo cambiar el método de pago sin modificar esta clase.
+ * 
+ * Los precios se llevan en centavos (ver {@link Dinero}). La reserva acumula,
+ * por tipo de habitación, la suma de los precios por noche de sus habitaciones
+ * al agregarlas, y el plan de tarifas activo cotiza cada tipo con una suma de
+ * rango sobre su calendario precalculado. Agregar una habitación o cambiar las
+ * fechas recalcula el total sin recorrer las habitaciones ni las noches, y
+ * leer el total no calcula nada.
  */
 public class Reserva {
     private String idReserva;
@@ -23,8 +42,15 @@ public class Reserva {
     private LocalDate fechaInicio;
     private LocalDate fechaFin;
     private MetodoPago metodoPago;
-    private double precioTotal;
-    private boolean pagada;
+    private int numeroNoches;
+    private String[] tiposTarifa;
+    private long[] precioNochePorTipo;
+    private int numeroTiposTarifa;
+    private long precioBaseCentavos;
+    private long precioTotalCentavos;
+    private volatile boolean pagada;
+    private boolean pagoEnCurso;
+    private CompletableFuture<Boolean> cobroSinConfirmar;
     
     /**
      * Constructor de la clase Reserva.
@@ -40,41 +66,144 @@ public class Reserva {
         this.idReserva = idReserva;
         this.cliente = cliente;
         this.habitaciones = new ArrayList<>();
+        this.tiposTarifa = new String[2];
+        this.precioNochePorTipo = new long[2];
         this.fechaInicio = fechaInicio;
         this.fechaFin = fechaFin;
         this.metodoPago = metodoPago;
         this.pagada = false;
-        calcularPrecioTotal();
+        this.numeroNoches = contarNoches(fechaInicio, fechaFin);
+        actualizarPrecio();
     }
     
     /**
-     * Agrega una habitación a la reserva.
+     * Agrega una habitación a la reserva. Su precio por noche queda fijado en
+     * la reserva aunque la habitación cambie de precio después.
      * 
      * @param habitacion Habitación a agregar
      */
     public void agregarHabitacion(Habitacion habitacion) {
         if (habitacion != null && habitacion.isDisponible()) {
             habitaciones.add(habitacion);
-            calcularPrecioTotal();
+            int indice = indiceTipoTarifa(habitacion.getTipo());
+            precioNochePorTipo[indice] = Math.addExact(precioNochePorTipo[indice],
+                    habitacion.getPrecioPorNocheCentavos());
+            actualizarPrecio();
         }
     }
     
     /**
-     * Calcula el precio total de la reserva basado en las habitaciones
-     * y el número de noches.
+     * Restaura la reserva tal como se vendió, por ejemplo desde la instantánea
+     * o el registro durable: las habitaciones se agregan aunque hoy no estén
+     * habilitadas para la venta, y el precio queda el que se cobró en su
+     * momento en lugar de volver a cotizarse con el plan de tarifas actual.
+     * Si después se cambian las fechas, se cotiza de nuevo como cualquier
+     * cambio, salvo que se indique el precio registrado para ese cambio.
+     * 
+     * @param habitacionesVendidas Habitaciones de la reserva, en su orden original
+     * @param precioBaseCentavos Precio antes de beneficios con el que se vendió
+     * @param precioTotalCentavos Precio total con el que se vendió
+     */
+    public void restaurar(List<Habitacion> habitacionesVendidas, long precioBaseCentavos,
+                          long precioTotalCentavos) {
+        agregarVendidas(habitacionesVendidas);
+        this.precioBaseCentavos = precioBaseCentavos;
+        this.precioTotalCentavos = precioTotalCentavos;
+    }
+    
+    /**
+     * Restaura la reserva con sus habitaciones originales, habilitadas o no,
+     * cuando no se conoce el precio con que se vendió (registros antiguos):
+     * el precio se cotiza con el plan de tarifas actual.
+     * 
+     * @param habitacionesVendidas Habitaciones de la reserva, en su orden original
      */
-    private void calcularPrecioTotal() {
-        if (habitaciones.isEmpty() || fechaInicio == null || fechaFin == null) {
-            precioTotal = 0.0;
-            return;
+    public void restaurar(List<Habitacion> habitacionesVendidas) {
+        agregarVendidas(habitacionesVendidas);
+        actualizarPrecio();
+    }
+    
+    private void agregarVendidas(List<Habitacion> habitacionesVendidas) {
+        for (Habitacion habitacion : habitacionesVendidas) {
+            if (habitacion != null) {
+                habitaciones.add(habitacion);
+                int indice = indiceTipoTarifa(habitacion.getTipo());
+                precioNochePorTipo[indice] = Math.addExact(precioNochePorTipo[indice],
+                        habitacion.getPrecioPorNocheCentavos());
+            }
         }
-        
-        int numeroNoches = (int) java.time.temporal.ChronoUnit.DAYS.between(fechaInicio, fechaFin);
-        precioTotal = 0.0;
-        
-        for (Habitacion habitacion : habitaciones) {
-            precioTotal += habitacion.calcularPrecioTotal(numeroNoches);
+    }
+    
+    /**
+     * Busca (o agrega) la posición de un tipo de habitación en los precios
+     * acumulados. Una reserva tiene pocos tipos, así que basta recorrerlos.
+     */
+    private int indiceTipoTarifa(String tipo) {
+        for (int i = 0; i < numeroTiposTarifa; i++) {
+            if (tiposTarifa[i].equals(tipo)) {
+                return i;
+            }
+        }
+        if (numeroTiposTarifa == tiposTarifa.length) {
+            tiposTarifa = Arrays.copyOf(tiposTarifa, numeroTiposTarifa * 2);
+            precioNochePorTipo = Arrays.copyOf(precioNochePorTipo, numeroTiposTarifa * 2);
+        }
+        tiposTarifa[numeroTiposTarifa] = tipo;
+        return numeroTiposTarifa++;
+    }
+    
+    /**
+     * Recalcula el precio base y el total cotizando cada tipo de habitación
+     * con el plan de tarifas activo.
+     */
+    private void actualizarPrecio() {
+        precioBaseCentavos = cotizarBase(fechaInicio, numeroNoches);
+        precioTotalCentavos = aplicarBeneficios(precioBaseCentavos);
+    }
+    
+    private long cotizarBase(LocalDate desde, int noches) {
+        PlanTarifas plan = Tarifas.plan();
+        long precioBase = 0;
+        for (int i = 0; i < numeroTiposTarifa; i++) {
+            precioBase = Math.addExact(precioBase,
+                    plan.cotizar(tiposTarifa[i], precioNochePorTipo[i], desde, noches));
+        }
+        return precioBase;
+    }
+    
+    /**
+     * Cotiza la reserva con otras fechas, con el plan de tarifas activo, sin
+     * cambiarla. Permite registrar un cambio de fechas con su precio antes de
+     * aplicarlo (ver {@link #cambiarFecha(LocalDate, LocalDate, long, long)}).
+     * 
+     * @param nuevaFechaInicio Fecha de inicio a cotizar
+     * @param nuevaFechaFin Fecha de fin a cotizar
+     * @return Precio base y precio total en centavos, en ese orden
+     */
+    public long[] cotizarFechas(LocalDate nuevaFechaInicio, LocalDate nuevaFechaFin) {
+        long precioBase = cotizarBase(nuevaFechaInicio, contarNoches(nuevaFechaInicio, nuevaFechaFin));
+        return new long[] {precioBase, aplicarBeneficios(precioBase)};
+    }
+    
+    /**
+     * Ajusta el precio base de la reserva. Se llama una sola vez por cada
+     * cambio de habitaciones o de fechas, nunca al leer el precio; también se
+     * llama desde el constructor, así que no debe usar campos de la subclase.
+     * 
+     * OCP: Las subclases aplican sus beneficios sobrescribiendo este método.
+     * 
+     * @param precioBaseCentavos Precio sin ajustes en centavos
+     * @return Precio total en centavos
+     */
+    protected long aplicarBeneficios(long precioBaseCentavos) {
+        return precioBaseCentavos;
+    }
+    
+    private static int contarNoches(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio == null || fechaFin == null) {
+            return 0;
         }
+        return (int) ChronoUnit.DAYS.between(fechaInicio, fechaFin);
     }
     
     /**
@@ -93,35 +222,167 @@ public class Reserva {
             return false;
         }
         
+        long[] precio = cotizarFechas(nuevaFechaInicio, nuevaFechaFin);
+        return cambiarFecha(nuevaFechaInicio, nuevaFechaFin, precio[0], precio[1]);
+    }
+    
+    /**
+     * Cambia la fecha de la reserva con un precio ya conocido, sin volver a
+     * cotizar: el que devolvió {@link #cotizarFechas} al pedir el cambio, o el
+     * guardado en el registro durable al reproducirlo.
+     * 
+     * @param nuevaFechaInicio Nueva fecha de inicio
+     * @param nuevaFechaFin Nueva fecha de fin
+     * @param precioBaseCentavos Precio antes de beneficios con las fechas nuevas
+     * @param precioTotalCentavos Precio total con las fechas nuevas
+     * @return true si el cambio fue exitoso, false en caso contrario
+     */
+    public boolean cambiarFecha(LocalDate nuevaFechaInicio, LocalDate nuevaFechaFin, long precioBaseCentavos,
+                                long precioTotalCentavos) {
+        if (nuevaFechaInicio == null || nuevaFechaFin == null || nuevaFechaInicio.isAfter(nuevaFechaFin)) {
+            return false;
+        }
+        
         this.fechaInicio = nuevaFechaInicio;
         this.fechaFin = nuevaFechaFin;
-        calcularPrecioTotal();
+        this.numeroNoches = contarNoches(nuevaFechaInicio, nuevaFechaFin);
+        this.precioBaseCentavos = precioBaseCentavos;
+        this.precioTotalCentavos = precioTotalCentavos;
         return true;
     }
     
     /**
      * Procesa el pago de la reserva usando el método de pago configurado.
+     * Espera la respuesta de la pasarela; ver {@link #procesarPagoAsync()}.
      * 
      * @return true si el pago fue exitoso, false en caso contrario
      */
     public boolean procesarPago() {
-        if (pagada) {
-            System.out.println("La reserva ya ha sido pagada");
-            return false;
+        return procesarPagoAsync().join();
+    }
+    
+    /**
+     * Procesa el pago de la reserva sin bloquear al hilo que lo solicita.
+     * Se cobra el precio total, con los beneficios ya aplicados, más la
+     * comisión del método de pago según el plan de tarifas.
+     * 
+     * Solo puede haber un cobro en curso por reserva: mientras la pasarela
+     * responde, un segundo intento se rechaza en lugar de cobrar dos veces.
+     * Los errores de la pasarela (plazo vencido, saturación) se informan y el
+     * resultado se completa con false, de modo que la reserva puede volver a
+     * intentar el pago más tarde.
+     * 
+     * @return Resultado futuro: true si el pago fue exitoso
+     */
+    public CompletableFuture<Boolean> procesarPagoAsync() {
+        return procesarPagoAsync(null);
+    }
+    
+    /**
+     * Procesa el pago de la reserva sin bloquear al hilo que lo solicita; ver
+     * {@link #procesarPagoAsync()}.
+     * 
+     * Si el plazo vence con el cobro ya enviado (CobroSinConfirmarException),
+     * el resultado es false pero el cobro sigue en curso: la reserva no acepta
+     * otro hasta que la pasarela responda, y entonces concilia la respuesta
+     * tardía (queda pagada si fue aprobada) y ejecuta {@code alAprobarTarde}.
+     * Mientras tanto, {@link #getCobroSinConfirmar()} entrega esa respuesta.
+     * 
+     * @param alAprobarTarde Acción a ejecutar si un cobro sin confirmar se aprueba, o null
+     * @return Resultado futuro: true si el pago fue exitoso
+     */
+    public CompletableFuture<Boolean> procesarPagoAsync(Runnable alAprobarTarde) {
+        long montoCentavos;
+        synchronized (this) {
+            if (pagada) {
+                Eventos.publicar(TipoEvento.PAGO_DUPLICADO, idReserva);
+                return CompletableFuture.completedFuture(false);
+            }
+            
+            if (pagoEnCurso) {
+                Eventos.publicar(TipoEvento.PAGO_EN_CURSO, idReserva);
+                return CompletableFuture.completedFuture(false);
+            }
+            
+            if (metodoPago == null) {
+                Eventos.publicar(TipoEvento.PAGO_SIN_METODO, idReserva);
+                return CompletableFuture.completedFuture(false);
+            }
+            pagoEnCurso = true;
+            montoCentavos = Math.addExact(precioTotalCentavos,
+                    Tarifas.plan().comisionCentavos(metodoPago.getClave(), precioTotalCentavos));
         }
         
-        if (metodoPago == null) {
-            System.out.println("No se ha configurado un método de pago");
-            return false;
+        CompletableFuture<Boolean> cobro;
+        try {
+            cobro = metodoPago.procesarPagoAsync(Dinero.aPesos(montoCentavos));
+        } catch (RuntimeException e) {
+            cobro = new CompletableFuture<>();
+            cobro.completeExceptionally(e);
         }
         
-        boolean exito = metodoPago.procesarPago(precioTotal);
-        if (exito) {
-            pagada = true;
-            System.out.println("Pago procesado exitosamente");
+        return cobro.handle((exito, error) -> {
+            Throwable causa = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (causa instanceof CobroSinConfirmarException) {
+                esperarConfirmacion((CobroSinConfirmarException) causa, alAprobarTarde);
+                return false;
+            }
+            return concluirCobro(error == null && Boolean.TRUE.equals(exito), causa);
+        });
+    }
+    
+    /**
+     * Deja el cobro en curso hasta que la pasarela dé su respuesta tardía.
+     */
+    private void esperarConfirmacion(CobroSinConfirmarException vencimiento, Runnable alAprobarTarde) {
+        CompletableFuture<Boolean> confirmacion = new CompletableFuture<>();
+        synchronized (this) {
+            cobroSinConfirmar = confirmacion;
+        }
+        Eventos.publicar(TipoEvento.PAGO_SIN_CONFIRMAR, idReserva, vencimiento.getMessage());
+        
+        vencimiento.getRespuesta().whenComplete((exito, error) -> {
+            Throwable causa = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            boolean aprobado = concluirCobro(error == null && Boolean.TRUE.equals(exito), causa);
+            try {
+                if (aprobado && alAprobarTarde != null) {
+                    alAprobarTarde.run();
+                }
+            } finally {
+                confirmacion.complete(aprobado);
+            }
+        });
+    }
+    
+    /**
+     * Cierra el cobro en curso con su respuesta y lo informa.
+     */
+    private boolean concluirCobro(boolean aprobado, Throwable causa) {
+        synchronized (this) {
+            pagoEnCurso = false;
+            cobroSinConfirmar = null;
+            if (aprobado) {
+                pagada = true;
+            }
         }
         
-        return exito;
+        if (causa != null) {
+            Eventos.publicar(TipoEvento.PAGO_FALLIDO, idReserva, causa.getMessage());
+        } else if (aprobado) {
+            Eventos.publicar(TipoEvento.PAGO_PROCESADO, idReserva);
+        }
+        return aprobado;
+    }
+    
+    /**
+     * Marca la reserva como pagada sin pasar por el método de pago.
+     * Se usa cuando el cobro ya se confirmó por otra vía, por ejemplo al
+     * reconstruir reservas desde el registro durable.
+     */
+    public void marcarComoPagada() {
+        this.pagada = true;
     }
     
     // Getters y Setters
@@ -153,14 +414,73 @@ public class Reserva {
         this.metodoPago = metodoPago;
     }
     
+    /**
+     * @return Precio total en pesos, con los beneficios aplicados
+     */
     public double getPrecioTotal() {
-        return precioTotal;
+        return Dinero.aPesos(precioTotalCentavos);
+    }
+    
+    /**
+     * @return Precio total en centavos, con los beneficios aplicados
+     */
+    public long getPrecioTotalCentavos() {
+        return precioTotalCentavos;
+    }
+    
+    /**
+     * @return Precio en centavos antes de aplicar beneficios
+     */
+    public long getPrecioBaseCentavos() {
+        return precioBaseCentavos;
+    }
+    
+    /**
+     * Desglosa el precio total por tipo de habitación y por noche, con los
+     * beneficios ya aplicados. Cada noche se cotiza por separado, así que el
+     * redondeo puede diferir del total en algunos centavos: esa diferencia se
+     * asigna a la última noche, de modo que el desglose suma exactamente
+     * {@link #getPrecioTotalCentavos()}.
+     * 
+     * @return Por cada tipo de habitación, el importe de cada noche en centavos
+     */
+    public Map<String, long[]> desglosarPorNoche() {
+        PlanTarifas plan = Tarifas.plan();
+        Map<String, long[]> desglose = new LinkedHashMap<>();
+        long asignado = 0;
+        long[] ultimo = null;
+        for (int i = 0; i < numeroTiposTarifa; i++) {
+            long[] noches = new long[numeroNoches];
+            for (int n = 0; n < numeroNoches; n++) {
+                noches[n] = aplicarBeneficios(
+                        plan.cotizar(tiposTarifa[i], precioNochePorTipo[i], fechaInicio.plusDays(n), 1));
+                asignado += noches[n];
+            }
+            desglose.put(tiposTarifa[i], noches);
+            ultimo = noches;
+        }
+        if (ultimo != null && ultimo.length > 0) {
+            ultimo[ultimo.length - 1] += precioTotalCentavos - asignado;
+        }
+        return desglose;
+    }
+    
+    public int getNumeroNoches() {
+        return numeroNoches;
     }
     
     public boolean isPagada() {
         return pagada;
     }
     
+    /**
+     * @return Respuesta pendiente de un cobro cuyo plazo venció con la pasarela
+     *         todavía procesándolo (true si se aprueba), o null si no hay ninguno
+     */
+    public synchronized CompletableFuture<Boolean> getCobroSinConfirmar() {
+        return cobroSinConfirmar;
+    }
+    
     @Override
     public String toString() {
         return "Reserva{" +
@@ -169,7 +489,7 @@ public class Reserva {
                 ", numeroHabitaciones=" + habitaciones.size() +
                 ", fechaInicio=" + fechaInicio +
                 ", fechaFin=" + fechaFin +
-                ", precioTotal=" + precioTotal +
+                ", precioTotal=" + Dinero.formatear(precioTotalCentavos) +
                 ", pagada=" + pagada +
                 '}';
     }
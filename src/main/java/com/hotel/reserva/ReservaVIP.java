@@ -1,9 +1,15 @@
 package com.hotel.reserva;
 
+import com.hotel.eventos.Eventos;
+import com.hotel.eventos.TipoEvento;
 import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Dinero;
 import com.hotel.modelo.Habitacion;
 import com.hotel.pago.MetodoPago;
+import com.hotel.tarifas.Tarifas;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Clase que representa una reserva VIP del hotel.
@@ -14,7 +20,6 @@ import java.time.LocalDate;
  * la clase base.
  */
 public class ReservaVIP extends Reserva {
-    private static final double DESCUENTO_VIP = 0.15; // 15% de descuento
     private boolean incluyeDesayuno;
     private boolean accesoSalaVIP;
     
@@ -35,18 +40,20 @@ public class ReservaVIP extends Reserva {
     }
     
     /**
-     * Calcula el precio total con el descuento VIP aplicado.
+     * Aplica el descuento VIP del plan de tarifas al precio base. Reserva lo
+     * llama solo cuando cambian las habitaciones o las fechas, así que
+     * getPrecioTotal devuelve el total ya descontado sin volver a calcularlo.
      * 
      * LSP: Este método sobrescribe el comportamiento de la clase base pero
      * mantiene la compatibilidad. El precio total siempre será menor o igual
      * al precio base, cumpliendo con el principio de sustitución de Liskov.
      * 
-     * @return Precio total con descuento VIP aplicado
+     * @param precioBaseCentavos Precio sin descuento en centavos
+     * @return Precio total con descuento VIP aplicado en centavos
      */
     @Override
-    public double getPrecioTotal() {
-        double precioBase = super.getPrecioTotal();
-        return precioBase * (1 - DESCUENTO_VIP);
+    protected long aplicarBeneficios(long precioBaseCentavos) {
+        return Dinero.descontar(precioBaseCentavos, Tarifas.plan().getDescuentoVipPuntosBasicos());
     }
     
     /**
@@ -68,23 +75,26 @@ public class ReservaVIP extends Reserva {
     }
     
     /**
-     * Procesa el pago de la reserva VIP.
+     * Procesa el pago de la reserva VIP sin bloquear al hilo que lo solicita.
      * 
      * LSP: Este método mantiene el mismo contrato que el método de la clase base,
      * pero puede agregar funcionalidad adicional sin romper el comportamiento esperado.
      * 
-     * @return true si el pago fue exitoso
+     * La versión síncrona heredada delega en este método, así que los
+     * beneficios se activan igual por cualquiera de las dos vías.
+     * 
+     * @return Resultado futuro: true si el pago fue exitoso
      */
     @Override
-    public boolean procesarPago() {
-        boolean exito = super.procesarPago();
-        if (exito) {
-            System.out.println("Beneficios VIP activados:");
-            System.out.println("- Desayuno incluido");
-            System.out.println("- Acceso a sala VIP");
-            System.out.println("- Descuento del " + (DESCUENTO_VIP * 100) + "% aplicado");
-        }
-        return exito;
+    public CompletableFuture<Boolean> procesarPagoAsync() {
+        return super.procesarPagoAsync().thenApply(exito -> {
+            if (exito) {
+                BigDecimal porcentaje = BigDecimal.valueOf(Tarifas.plan().getDescuentoVipPuntosBasicos(), 2);
+                Eventos.publicar(TipoEvento.BENEFICIOS_VIP_ACTIVADOS, getIdReserva(),
+                        porcentaje.stripTrailingZeros().toPlainString());
+            }
+            return exito;
+        });
     }
     
     @Override
@@ -95,7 +105,7 @@ public class ReservaVIP extends Reserva {
                 ", numeroHabitaciones=" + getHabitaciones().size() +
                 ", fechaInicio=" + getFechaInicio() +
                 ", fechaFin=" + getFechaFin() +
-                ", precioTotal=" + getPrecioTotal() +
+                ", precioTotal=" + Dinero.formatear(getPrecioTotalCentavos()) +
                 ", pagada=" + isPagada() +
                 ", incluyeDesayuno=" + incluyeDesayuno +
                 ", accesoSalaVIP=" + accesoSalaVIP +
@@ -0,0 +1,25 @@
+package com.hotel.servicio;
+
+import com.hotel.pago.MetodoPago;
+import java.util.Map;
+
+/**
+ * Interfaz que define el contrato para crear el método de pago de una
+ * reserva a partir de los datos recibidos por el servicio HTTP.
+ * 
+ * DIP: ServicioReservas no conoce las pasarelas ni los métodos concretos;
+ * quien arma el servicio decide con qué pasarela cobra cada tipo.
+ * 
+ * OCP: Un método de pago nuevo se agrega en la fábrica, sin tocar el servicio.
+ */
+public interface FabricaMetodoPago {
+    
+    /**
+     * Crea un método de pago.
+     * 
+     * @param datos Campos del objeto "metodoPago" de la solicitud (incluye "tipo")
+     * @return Método de pago listo para cobrar
+     * @throws IllegalArgumentException si el tipo no existe o faltan datos
+     */
+    MetodoPago crear(Map<String, Object> datos);
+}
@@ -0,0 +1,321 @@
+package com.hotel.servicio;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lectura y escritura mínima de JSON para el servicio HTTP.
+ * 
+ * SRP: Solo convierte entre texto JSON y mapas, listas, cadenas, números y
+ * booleanos de Java; qué significan los campos lo decide ServicioReservas.
+ * 
+ * Los objetos se leen como {@code Map<String, Object>} (en el orden del
+ * texto), los arreglos como {@code List<Object>} y los números como Long si
+ * son enteros o Double si no. Al escribir, cualquier otro valor (fechas, por
+ * ejemplo) se escribe como su toString entre comillas.
+ * 
+ * La lectura es recursiva, así que acota el anidamiento de objetos y
+ * arreglos: un documento hostil no puede agotar la pila del hilo.
+ */
+public final class Json {
+    private static final int PROFUNDIDAD_MAXIMA = 64;
+    
+    private final String texto;
+    private int posicion;
+    private int profundidad;
+    
+    private Json(String texto) {
+        this.texto = texto;
+    }
+    
+    /**
+     * Lee un documento JSON completo.
+     * 
+     * @param texto Documento JSON
+     * @return Valor leído (Map, List, String, Long, Double, Boolean o null)
+     * @throws IllegalArgumentException si el texto no es JSON válido o anida más de 64 niveles
+     */
+    public static Object leer(String texto) {
+        Json lector = new Json(texto);
+        Object valor = lector.leerValor();
+        lector.saltarEspacios();
+        if (lector.posicion != texto.length()) {
+            throw lector.error("contenido después del valor");
+        }
+        return valor;
+    }
+    
+    /**
+     * Lee un documento JSON que debe ser un objeto.
+     * 
+     * @param texto Documento JSON
+     * @return Campos del objeto
+     * @throws IllegalArgumentException si el texto no es un objeto JSON válido
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> leerObjeto(String texto) {
+        Object valor = leer(texto);
+        if (!(valor instanceof Map)) {
+            throw new IllegalArgumentException("Se esperaba un objeto JSON");
+        }
+        return (Map<String, Object>) valor;
+    }
+    
+    /**
+     * Escribe un valor como JSON.
+     * 
+     * @param valor Map, Collection, String, Number, Boolean, null u otro objeto (como cadena)
+     * @return Texto JSON
+     */
+    public static String escribir(Object valor) {
+        StringBuilder salida = new StringBuilder();
+        escribir(valor, salida);
+        return salida.toString();
+    }
+    
+    private static void escribir(Object valor, StringBuilder salida) {
+        if (valor == null) {
+            salida.append("null");
+        } else if (valor instanceof Number || valor instanceof Boolean) {
+            salida.append(valor);
+        } else if (valor instanceof Map) {
+            salida.append('{');
+            boolean primero = true;
+            for (Map.Entry<?, ?> campo : ((Map<?, ?>) valor).entrySet()) {
+                if (!primero) {
+                    salida.append(',');
+                }
+                escribirCadena(String.valueOf(campo.getKey()), salida);
+                salida.append(':');
+                escribir(campo.getValue(), salida);
+                primero = false;
+            }
+            salida.append('}');
+        } else if (valor instanceof Collection) {
+            salida.append('[');
+            boolean primero = true;
+            for (Object elemento : (Collection<?>) valor) {
+                if (!primero) {
+                    salida.append(',');
+                }
+                escribir(elemento, salida);
+                primero = false;
+            }
+            salida.append(']');
+        } else {
+            escribirCadena(valor.toString(), salida);
+        }
+    }
+    
+    private static void escribirCadena(String cadena, StringBuilder salida) {
+        salida.append('"');
+        for (int i = 0; i < cadena.length(); i++) {
+            char c = cadena.charAt(i);
+            switch (c) {
+                case '"':
+                    salida.append("\\\"");
+                    break;
+                case '\\':
+                    salida.append("\\\\");
+                    break;
+                case '\n':
+                    salida.append("\\n");
+                    break;
+                case '\r':
+                    salida.append("\\r");
+                    break;
+                case '\t':
+                    salida.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        salida.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        salida.append(c);
+                    }
+            }
+        }
+        salida.append('"');
+    }
+    
+    private Object leerValor() {
+        saltarEspacios();
+        if (posicion >= texto.length()) {
+            throw error("fin inesperado");
+        }
+        char c = texto.charAt(posicion);
+        switch (c) {
+            case '{':
+                entrar();
+                Map<String, Object> objeto = leerObjetoInterno();
+                profundidad--;
+                return objeto;
+            case '[':
+                entrar();
+                List<Object> arreglo = leerArreglo();
+                profundidad--;
+                return arreglo;
+            case '"':
+                return leerCadena();
+            case 't':
+                return leerLiteral("true", Boolean.TRUE);
+            case 'f':
+                return leerLiteral("false", Boolean.FALSE);
+            case 'n':
+                return leerLiteral("null", null);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return leerNumero();
+                }
+                throw error("carácter inesperado '" + c + "'");
+        }
+    }
+    
+    private void entrar() {
+        if (++profundidad > PROFUNDIDAD_MAXIMA) {
+            throw error("más de " + PROFUNDIDAD_MAXIMA + " niveles de anidamiento");
+        }
+    }
+    
+    private Map<String, Object> leerObjetoInterno() {
+        Map<String, Object> objeto = new LinkedHashMap<>();
+        posicion++;
+        saltarEspacios();
+        if (consumir('}')) {
+            return objeto;
+        }
+        do {
+            saltarEspacios();
+            if (posicion >= texto.length() || texto.charAt(posicion) != '"') {
+                throw error("se esperaba el nombre de un campo");
+            }
+            String nombre = leerCadena();
+            saltarEspacios();
+            if (!consumir(':')) {
+                throw error("se esperaba ':'");
+            }
+            objeto.put(nombre, leerValor());
+            saltarEspacios();
+        } while (consumir(','));
+        if (!consumir('}')) {
+            throw error("se esperaba '}'");
+        }
+        return objeto;
+    }
+    
+    private List<Object> leerArreglo() {
+        List<Object> arreglo = new ArrayList<>();
+        posicion++;
+        saltarEspacios();
+        if (consumir(']')) {
+            return arreglo;
+        }
+        do {
+            arreglo.add(leerValor());
+            saltarEspacios();
+        } while (consumir(','));
+        if (!consumir(']')) {
+            throw error("se esperaba ']'");
+        }
+        return arreglo;
+    }
+    
+    private String leerCadena() {
+        posicion++;
+        StringBuilder cadena = new StringBuilder();
+        while (posicion < texto.length()) {
+            char c = texto.charAt(posicion++);
+            if (c == '"') {
+                return cadena.toString();
+            }
+            if (c != '\\') {
+                cadena.append(c);
+                continue;
+            }
+            if (posicion >= texto.length()) {
+                break;
+            }
+            char escape = texto.charAt(posicion++);
+            switch (escape) {
+                case 'b':
+                    cadena.append('\b');
+                    break;
+                case 'f':
+                    cadena.append('\f');
+                    break;
+                case 'n':
+                    cadena.append('\n');
+                    break;
+                case 'r':
+                    cadena.append('\r');
+                    break;
+                case 't':
+                    cadena.append('\t');
+                    break;
+                case 'u':
+                    if (posicion + 4 > texto.length()) {
+                        throw error("escape \\u incompleto");
+                    }
+                    try {
+                        cadena.append((char) Integer.parseInt(texto.substring(posicion, posicion + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("escape \\u inválido");
+                    }
+                    posicion += 4;
+                    break;
+                default:
+                    cadena.append(escape);
+            }
+        }
+        throw error("cadena sin cerrar");
+    }
+    
+    private Object leerNumero() {
+        int inicio = posicion;
+        boolean decimal = false;
+        while (posicion < texto.length()) {
+            char c = texto.charAt(posicion);
+            if (c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            posicion++;
+        }
+        String numero = texto.substring(inicio, posicion);
+        try {
+            return decimal ? (Object) Double.parseDouble(numero) : (Object) Long.parseLong(numero);
+        } catch (NumberFormatException e) {
+            throw error("número inválido '" + numero + "'");
+        }
+    }
+    
+    private Object leerLiteral(String literal, Object valor) {
+        if (!texto.startsWith(literal, posicion)) {
+            throw error("literal inválido");
+        }
+        posicion += literal.length();
+        return valor;
+    }
+    
+    private boolean consumir(char esperado) {
+        if (posicion < texto.length() && texto.charAt(posicion) == esperado) {
+            posicion++;
+            return true;
+        }
+        return false;
+    }
+    
+    private void saltarEspacios() {
+        while (posicion < texto.length() && Character.isWhitespace(texto.charAt(posicion))) {
+            posicion++;
+        }
+    }
+    
+    private IllegalArgumentException error(String motivo) {
+        return new IllegalArgumentException("JSON inválido en la posición " + posicion + ": " + motivo);
+    }
+}
@@ -0,0 +1,582 @@
+package com.hotel.servicio;
+
+import com.hotel.eventos.Eventos;
+import com.hotel.gestion.CriteriosBusqueda;
+import com.hotel.gestion.GestorClientes;
+import com.hotel.gestion.GestorHabitaciones;
+import com.hotel.gestion.GestorReservas;
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.Metricas;
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.reserva.Reserva;
+import com.hotel.reserva.ReservaVIP;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio HTTP/JSON de reservas sobre el servidor embebido del JDK.
+ * 
+ * SRP: Solo traduce peticiones HTTP a llamadas a los gestores y sus
+ * resultados a JSON; las reglas de negocio siguen en los gestores.
+ * 
+ * Rutas:
+ * - GET /disponibilidad?desde=AAAA-MM-DD&amp;hasta=AAAA-MM-DD[&amp;tipo=][&amp;capacidad=]
+ * - GET /cotizacion?habitaciones=101,102&amp;desde=&amp;hasta=[&amp;vip=true]
+ * - POST /reservas con {idReserva, idCliente, habitaciones, desde, hasta, vip, metodoPago};
+ *   sin idReserva se genera uno ordenado por tiempo
+ * - GET /reservas/{id}, DELETE /reservas/{id} y POST /reservas/{id}/pago
+ * 
+ * Cada habitación pedida debe existir (404), estar habilitada para la venta
+ * (409) y figurar una sola vez (422); nunca se descarta ninguna en silencio.
+ * Los cuerpos de más de 64 KiB se rechazan con 400 sin leerlos completos.
+ * 
+ * POST /reservas y POST /reservas/{id}/pago aceptan la cabecera
+ * Idempotency-Key: un reintento con la misma clave responde como la primera
+ * petición, sin volver a ocupar habitaciones ni a cobrar.
+ * 
+ * Cada petición se atiende en su propio hilo virtual cuando la JVM los
+ * ofrece (Java 21 o posterior), así que las esperas de GestorReservas y de
+ * las pasarelas de pago no ocupan hilos de plataforma. En Java 17 se usa un
+ * grupo fijo de hilos de plataforma con una cola acotada: cuando todos están
+ * ocupados y la cola está llena, la petición se responde enseguida con 503 y
+ * Retry-After en lugar de crear un hilo más por cada petición que llega.
+ */
+public class ServicioReservas implements AutoCloseable {
+    private static final String CABECERA_IDEMPOTENCIA = "Idempotency-Key";
+    private static final int TAMANO_MAXIMO_CUERPO = 64 * 1024;
+    /** Hilos de plataforma que atienden peticiones cuando no hay hilos virtuales. */
+    static final int HILOS_PLATAFORMA = 64;
+    /** Peticiones que esperan un hilo de plataforma libre antes de rechazar las siguientes. */
+    static final int COLA_PLATAFORMA = 256;
+    /** Marca la petición que se atiende en el hilo del servidor porque no hubo hilo libre. */
+    private static final ThreadLocal<Boolean> SIN_HILO_LIBRE = new ThreadLocal<>();
+    
+    private final GestorClientes gestorClientes;
+    private final GestorHabitaciones gestorHabitaciones;
+    private final GestorReservas gestorReservas;
+    private final FabricaMetodoPago fabricaMetodoPago;
+    private final boolean hilosVirtuales;
+    private final ExecutorService ejecutor;
+    private final AtomicLong rechazadasPorSaturacion = new AtomicLong();
+    private HttpServer servidor;
+    private final HistogramaLatencia latenciaDisponibilidad =
+            Metricas.registro().histograma("servicio.disponibilidad");
+    private final HistogramaLatencia latenciaCotizacion = Metricas.registro().histograma("servicio.cotizacion");
+    private final HistogramaLatencia latenciaReservas = Metricas.registro().histograma("servicio.reservas");
+    
+    /**
+     * Constructor de la clase ServicioReservas.
+     * 
+     * @param gestorClientes Gestor donde se buscan los clientes
+     * @param gestorHabitaciones Gestor donde se buscan las habitaciones y su disponibilidad
+     * @param gestorReservas Gestor donde se crean, cancelan y pagan las reservas
+     * @param fabricaMetodoPago Fábrica de los métodos de pago recibidos
+     */
+    public ServicioReservas(GestorClientes gestorClientes, GestorHabitaciones gestorHabitaciones,
+                            GestorReservas gestorReservas, FabricaMetodoPago fabricaMetodoPago) {
+        this(gestorClientes, gestorHabitaciones, gestorReservas, fabricaMetodoPago, crearEjecutorVirtual(),
+                HILOS_PLATAFORMA, COLA_PLATAFORMA);
+    }
+    
+    /**
+     * Constructor con hilos de plataforma aunque la JVM ofrezca hilos
+     * virtuales, y con el tamaño del grupo y de la cola indicados.
+     * 
+     * @param hilos Hilos de plataforma que atienden peticiones
+     * @param cola Peticiones que esperan un hilo libre antes de responder 503
+     */
+    ServicioReservas(GestorClientes gestorClientes, GestorHabitaciones gestorHabitaciones,
+                     GestorReservas gestorReservas, FabricaMetodoPago fabricaMetodoPago, int hilos, int cola) {
+        this(gestorClientes, gestorHabitaciones, gestorReservas, fabricaMetodoPago, null, hilos, cola);
+    }
+    
+    private ServicioReservas(GestorClientes gestorClientes, GestorHabitaciones gestorHabitaciones,
+                             GestorReservas gestorReservas, FabricaMetodoPago fabricaMetodoPago,
+                             ExecutorService virtual, int hilos, int cola) {
+        this.gestorClientes = gestorClientes;
+        this.gestorHabitaciones = gestorHabitaciones;
+        this.gestorReservas = gestorReservas;
+        this.fabricaMetodoPago = fabricaMetodoPago;
+        this.hilosVirtuales = virtual != null;
+        this.ejecutor = virtual != null ? virtual : crearEjecutorPlataforma(hilos, cola);
+    }
+    
+    /**
+     * Crea el ejecutor de un hilo virtual por tarea si la JVM lo ofrece. Se
+     * busca por reflexión para seguir compilando y corriendo en Java 17.
+     * 
+     * @return El ejecutor, o null si la JVM no tiene hilos virtuales
+     */
+    private static ExecutorService crearEjecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Crea el grupo acotado de hilos de plataforma. Una petición que no cabe
+     * en la cola se ejecuta en el hilo del servidor marcada con
+     * {@link #SIN_HILO_LIBRE}, para responder 503 sin llegar a los gestores:
+     * si el ejecutor la rechazara, el servidor cerraría la conexión sin
+     * respuesta.
+     */
+    private static ExecutorService crearEjecutorPlataforma(int hilos, int cola) {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor ejecutor = new ThreadPoolExecutor(hilos, hilos, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(cola), tarea -> {
+                    Thread hilo = new Thread(tarea, "servicio-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                }, (tarea, grupo) -> {
+                    if (grupo.isShutdown()) {
+                        throw new RejectedExecutionException("Servicio detenido");
+                    }
+                    SIN_HILO_LIBRE.set(Boolean.TRUE);
+                    try {
+                        tarea.run();
+                    } finally {
+                        SIN_HILO_LIBRE.remove();
+                    }
+                });
+        ejecutor.allowCoreThreadTimeOut(true);
+        return ejecutor;
+    }
+    
+    /**
+     * Empieza a atender peticiones.
+     * 
+     * @param puerto Puerto donde escuchar (0 = uno libre cualquiera)
+     * @throws IOException si no se pudo abrir el puerto
+     */
+    public void iniciar(int puerto) throws IOException {
+        // El servidor escribe cabeceras y cuerpo por separado: sin TCP_NODELAY cada
+        // respuesta espera el ACK retardado del cliente (unos 40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        servidor = HttpServer.create(new InetSocketAddress(puerto), 0);
+        servidor.createContext("/disponibilidad", intercambio -> atender(intercambio, latenciaDisponibilidad,
+                this::disponibilidad));
+        servidor.createContext("/cotizacion", intercambio -> atender(intercambio, latenciaCotizacion,
+                this::cotizacion));
+        servidor.createContext("/reservas", intercambio -> atender(intercambio, latenciaReservas,
+                (metodo, segmentos, parametros, cuerpo) -> reservas(metodo, segmentos, cuerpo,
+                        intercambio.getRequestHeaders().getFirst(CABECERA_IDEMPOTENCIA))));
+        servidor.setExecutor(ejecutor);
+        servidor.start();
+        Eventos.mensaje("Servicio de reservas escuchando en el puerto " + getPuerto()
+                + (hilosVirtuales ? " (hilos virtuales)" : " (hilos de plataforma)"));
+    }
+    
+    /**
+     * @return Puerto donde escucha el servicio
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+    
+    /**
+     * @return true si cada petición se atiende en un hilo virtual
+     */
+    public boolean usaHilosVirtuales() {
+        return hilosVirtuales;
+    }
+    
+    /**
+     * @return Peticiones respondidas con 503 porque no había hilo libre ni lugar en la cola
+     */
+    public long getRechazadasPorSaturacion() {
+        return rechazadasPorSaturacion.get();
+    }
+    
+    /**
+     * Deja de aceptar peticiones y espera brevemente las que están en curso.
+     */
+    @Override
+    public void close() {
+        if (servidor != null) {
+            servidor.stop(1);
+        }
+        ejecutor.shutdown();
+        try {
+            ejecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Atiende una ruta de la API con su petición ya decodificada.
+     */
+    private interface Ruta {
+        Respuesta atender(String metodo, String[] segmentos, Map<String, String> parametros, String cuerpo);
+    }
+    
+    /**
+     * Código de estado HTTP y cuerpo a escribir como JSON.
+     */
+    private static final class Respuesta {
+        final int estado;
+        final Object cuerpo;
+        
+        Respuesta(int estado, Object cuerpo) {
+            this.estado = estado;
+            this.cuerpo = cuerpo;
+        }
+        
+        static Respuesta error(int estado, String mensaje) {
+            Map<String, Object> cuerpo = new LinkedHashMap<>();
+            cuerpo.put("error", mensaje);
+            return new Respuesta(estado, cuerpo);
+        }
+    }
+    
+    private void atender(HttpExchange intercambio, HistogramaLatencia latencia, Ruta ruta) throws IOException {
+        long inicio = latencia.iniciar();
+        Respuesta respuesta;
+        if (Boolean.TRUE.equals(SIN_HILO_LIBRE.get())) {
+            // En el hilo del servidor: se responde sin leer el cuerpo ni llamar a los gestores
+            rechazadasPorSaturacion.incrementAndGet();
+            intercambio.getResponseHeaders().set("Retry-After", "1");
+            respuesta = Respuesta.error(503, "Servicio saturado, intente más tarde");
+        } else {
+            try {
+                String camino = intercambio.getRequestURI().getPath();
+                String[] segmentos = camino.replaceAll("^/+|/+$", "").split("/+");
+                String cuerpo = leerCuerpo(intercambio);
+                respuesta = ruta.atender(intercambio.getRequestMethod(), segmentos,
+                        leerParametros(intercambio.getRequestURI().getRawQuery()), cuerpo);
+            } catch (IllegalArgumentException | DateTimeException e) {
+                respuesta = Respuesta.error(400, e.getMessage());
+            } catch (RuntimeException e) {
+                Eventos.error("Error atendiendo " + intercambio.getRequestURI() + ": " + e);
+                respuesta = Respuesta.error(500, "Error interno");
+            }
+        }
+        
+        byte[] salida = Json.escribir(respuesta.cuerpo).getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(respuesta.estado, salida.length);
+        try (OutputStream cuerpo = intercambio.getResponseBody()) {
+            cuerpo.write(salida);
+        }
+        latencia.registrarDesde(inicio);
+    }
+    
+    /**
+     * Lee el cuerpo de la petición sin pasar del tamaño máximo.
+     * 
+     * @throws IllegalArgumentException si el cuerpo es más grande
+     */
+    private static String leerCuerpo(HttpExchange intercambio) throws IOException {
+        byte[] cuerpo = intercambio.getRequestBody().readNBytes(TAMANO_MAXIMO_CUERPO + 1);
+        if (cuerpo.length > TAMANO_MAXIMO_CUERPO) {
+            throw new IllegalArgumentException("El cuerpo supera los " + TAMANO_MAXIMO_CUERPO + " bytes");
+        }
+        return new String(cuerpo, StandardCharsets.UTF_8);
+    }
+    
+    private Respuesta disponibilidad(String metodo, String[] segmentos, Map<String, String> parametros,
+                                     String cuerpo) {
+        if (!"GET".equals(metodo)) {
+            return Respuesta.error(405, "Método no permitido");
+        }
+        LocalDate desde = fecha(parametros.get("desde"), "desde");
+        LocalDate hasta = fecha(parametros.get("hasta"), "hasta");
+        validarRango(desde, hasta);
+        
+        CriteriosBusqueda criterios = new CriteriosBusqueda();
+        criterios.setFechas(desde, hasta);
+        if (parametros.containsKey("tipo")) {
+            criterios.setTipos(parametros.get("tipo"));
+        }
+        if (parametros.containsKey("capacidad")) {
+            criterios.setCapacidadMinima(entero(parametros.get("capacidad"), "capacidad"));
+        }
+        
+        List<Object> habitaciones = new ArrayList<>();
+        for (Habitacion habitacion : gestorHabitaciones.buscarHabitaciones(criterios)) {
+            habitaciones.add(describir(habitacion));
+        }
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("desde", desde);
+        resultado.put("hasta", hasta);
+        resultado.put("habitaciones", habitaciones);
+        return new Respuesta(200, resultado);
+    }
+    
+    private Respuesta cotizacion(String metodo, String[] segmentos, Map<String, String> parametros,
+                                 String cuerpo) {
+        if (!"GET".equals(metodo)) {
+            return Respuesta.error(405, "Método no permitido");
+        }
+        LocalDate desde = fecha(parametros.get("desde"), "desde");
+        LocalDate hasta = fecha(parametros.get("hasta"), "hasta");
+        validarRango(desde, hasta);
+        String numeros = requerido(parametros.get("habitaciones"), "habitaciones");
+        boolean vip = Boolean.parseBoolean(parametros.get("vip"));
+        
+        Reserva cotizada = vip
+                ? new ReservaVIP("cotizacion", null, desde, hasta, null)
+                : new Reserva("cotizacion", null, desde, hasta, null);
+        List<String> pedidas = new ArrayList<>();
+        for (String numero : numeros.split(",")) {
+            pedidas.add(numero.trim());
+        }
+        Respuesta rechazo = agregarHabitaciones(cotizada, pedidas);
+        if (rechazo != null) {
+            return rechazo;
+        }
+        
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("desde", desde);
+        resultado.put("hasta", hasta);
+        resultado.put("noches", cotizada.getNumeroNoches());
+        resultado.put("precioBaseCentavos", cotizada.getPrecioBaseCentavos());
+        resultado.put("precioTotalCentavos", cotizada.getPrecioTotalCentavos());
+        return new Respuesta(200, resultado);
+    }
+    
+    private Respuesta reservas(String metodo, String[] segmentos, String cuerpo, String claveIdempotencia) {
+        if (segmentos.length == 1) {
+            return "POST".equals(metodo) ? reservar(cuerpo, claveIdempotencia)
+                    : Respuesta.error(405, "Método no permitido");
+        }
+        String idReserva = segmentos[1];
+        if (segmentos.length == 2 && "GET".equals(metodo)) {
+            return consultar(idReserva);
+        }
+        if (segmentos.length == 2 && "DELETE".equals(metodo)) {
+            return cancelar(idReserva);
+        }
+        if (segmentos.length == 3 && "pago".equals(segmentos[2]) && "POST".equals(metodo)) {
+            return pagar(idReserva, claveIdempotencia);
+        }
+        return Respuesta.error(404, "Ruta no encontrada");
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Respuesta reservar(String cuerpo, String claveIdempotencia) {
+        Map<String, Object> datos = Json.leerObjeto(cuerpo);
+        String idReserva = datos.get("idReserva") == null ? generarIdReserva(claveIdempotencia)
+                : requerido(cadena(datos.get("idReserva")), "idReserva");
+        String idCliente = requerido(cadena(datos.get("idCliente")), "idCliente");
+        LocalDate desde = fecha(cadena(datos.get("desde")), "desde");
+        LocalDate hasta = fecha(cadena(datos.get("hasta")), "hasta");
+        validarRango(desde, hasta);
+        if (!(datos.get("habitaciones") instanceof List) || ((List<?>) datos.get("habitaciones")).isEmpty()) {
+            throw new IllegalArgumentException("Falta la lista de habitaciones");
+        }
+        if (!(datos.get("metodoPago") instanceof Map)) {
+            throw new IllegalArgumentException("Falta el método de pago");
+        }
+        
+        Cliente cliente = gestorClientes.buscarCliente(idCliente);
+        if (cliente == null) {
+            return Respuesta.error(404, "Cliente no encontrado: " + idCliente);
+        }
+        // Con clave, un ID existente puede ser el reintento de esta misma petición
+        if (claveIdempotencia == null && gestorReservas.buscarReserva(idReserva) != null) {
+            return Respuesta.error(409, "Ya existe una reserva con el ID " + idReserva);
+        }
+        
+        boolean vip = Boolean.TRUE.equals(datos.get("vip"));
+        Reserva reserva = vip
+                ? new ReservaVIP(idReserva, cliente, desde, hasta, null)
+                : new Reserva(idReserva, cliente, desde, hasta, null);
+        List<String> pedidas = new ArrayList<>();
+        for (Object numero : (List<Object>) datos.get("habitaciones")) {
+            pedidas.add(cadena(numero));
+        }
+        Respuesta rechazo = agregarHabitaciones(reserva, pedidas);
+        if (rechazo != null) {
+            return rechazo;
+        }
+        reserva.setMetodoPago(fabricaMetodoPago.crear((Map<String, Object>) datos.get("metodoPago")));
+        
+        if (!gestorReservas.crearReserva(reserva, claveIdempotencia)) {
+            if (claveIdempotencia != null && gestorReservas.buscarReserva(idReserva) != null) {
+                return Respuesta.error(409, "Ya existe una reserva con el ID " + idReserva);
+            }
+            return Respuesta.error(409, "No se pudo crear la reserva " + idReserva
+                    + ": alguna habitación no está disponible en esas fechas");
+        }
+        // En un reintento se describe la reserva creada por la petición original
+        Reserva creada = gestorReservas.buscarReserva(idReserva);
+        return new Respuesta(201, describir(creada != null ? creada : reserva));
+    }
+    
+    /**
+     * Agrega a la reserva las habitaciones pedidas, todas o ninguna: la
+     * reserva descartaría en silencio una habitación deshabilitada.
+     * 
+     * @return La respuesta de error por la primera habitación que no sirve, o null si sirven todas
+     */
+    private Respuesta agregarHabitaciones(Reserva reserva, List<String> numeros) {
+        List<Habitacion> habitaciones = new ArrayList<>(numeros.size());
+        Set<String> vistas = new HashSet<>();
+        for (String numero : numeros) {
+            Habitacion habitacion = gestorHabitaciones.buscarHabitacion(numero);
+            if (habitacion == null) {
+                return Respuesta.error(404, "Habitación no encontrada: " + numero);
+            }
+            if (!habitacion.isDisponible()) {
+                return Respuesta.error(409, "La habitación " + numero + " no está habilitada para la venta");
+            }
+            if (!vistas.add(numero)) {
+                return Respuesta.error(422, "La habitación " + numero + " está repetida en la petición");
+            }
+            habitaciones.add(habitacion);
+        }
+        habitaciones.forEach(reserva::agregarHabitacion);
+        return null;
+    }
+    
+    /**
+     * ID para una reserva pedida sin ID: el de la petición original si es un
+     * reintento con la misma clave, o uno nuevo ordenado por tiempo.
+     */
+    private String generarIdReserva(String claveIdempotencia) {
+        String original = claveIdempotencia == null ? null : gestorReservas.buscarIdPorClave(claveIdempotencia);
+        return original != null ? original : gestorReservas.generarIdReserva();
+    }
+    
+    private Respuesta consultar(String idReserva) {
+        Reserva reserva = gestorReservas.buscarReserva(idReserva);
+        if (reserva == null) {
+            return Respuesta.error(404, "Reserva no encontrada: " + idReserva);
+        }
+        return new Respuesta(200, describir(reserva));
+    }
+    
+    private Respuesta cancelar(String idReserva) {
+        if (!gestorReservas.cancelarReserva(idReserva)) {
+            return Respuesta.error(404, "Reserva no encontrada: " + idReserva);
+        }
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("idReserva", idReserva);
+        resultado.put("cancelada", true);
+        return new Respuesta(200, resultado);
+    }
+    
+    private Respuesta pagar(String idReserva, String claveIdempotencia) {
+        Reserva reserva = gestorReservas.buscarReserva(idReserva);
+        if (reserva == null) {
+            return Respuesta.error(404, "Reserva no encontrada: " + idReserva);
+        }
+        // Con clave, una reserva pagada puede ser el reintento de este mismo pago
+        if (claveIdempotencia == null && reserva.isPagada()) {
+            return Respuesta.error(409, "La reserva " + idReserva + " ya ha sido pagada");
+        }
+        // Espera la respuesta de la pasarela: en un hilo virtual no retiene ningún hilo de plataforma
+        boolean pagada = gestorReservas.procesarPago(idReserva, claveIdempotencia);
+        if (!pagada && reserva.isPagada()) {
+            return Respuesta.error(409, "La reserva " + idReserva + " ya ha sido pagada");
+        }
+        // El plazo venció con la pasarela procesando el cobro: se acepta y se concilia después
+        boolean sinConfirmar = !pagada && reserva.getCobroSinConfirmar() != null;
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("idReserva", idReserva);
+        resultado.put("pagada", pagada);
+        if (sinConfirmar) {
+            resultado.put("sinConfirmar", true);
+        }
+        return new Respuesta(pagada ? 200 : sinConfirmar ? 202 : 402, resultado);
+    }
+    
+    private static Map<String, Object> describir(Habitacion habitacion) {
+        Map<String, Object> descripcion = new LinkedHashMap<>();
+        descripcion.put("numero", habitacion.getNumero());
+        descripcion.put("tipo", habitacion.getTipo());
+        descripcion.put("capacidad", habitacion.getCapacidad());
+        descripcion.put("precioPorNocheCentavos", habitacion.getPrecioPorNocheCentavos());
+        return descripcion;
+    }
+    
+    private static Map<String, Object> describir(Reserva reserva) {
+        List<Object> habitaciones = new ArrayList<>();
+        for (Habitacion habitacion : reserva.getHabitaciones()) {
+            habitaciones.add(habitacion.getNumero());
+        }
+        Map<String, Object> descripcion = new LinkedHashMap<>();
+        descripcion.put("idReserva", reserva.getIdReserva());
+        descripcion.put("idCliente", reserva.getCliente() == null ? null : reserva.getCliente().getId());
+        descripcion.put("habitaciones", habitaciones);
+        descripcion.put("desde", reserva.getFechaInicio());
+        descripcion.put("hasta", reserva.getFechaFin());
+        descripcion.put("noches", reserva.getNumeroNoches());
+        descripcion.put("vip", reserva instanceof ReservaVIP);
+        descripcion.put("precioTotalCentavos", reserva.getPrecioTotalCentavos());
+        descripcion.put("pagada", reserva.isPagada());
+        return descripcion;
+    }
+    
+    private static Map<String, String> leerParametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String nombre = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(nombre, StandardCharsets.UTF_8),
+                    URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+    
+    private static String cadena(Object valor) {
+        return valor == null ? null : valor.toString();
+    }
+    
+    private static String requerido(String valor, String nombre) {
+        if (valor == null || valor.trim().isEmpty()) {
+            throw new IllegalArgumentException("Falta el campo " + nombre);
+        }
+        return valor.trim();
+    }
+    
+    private static LocalDate fecha(String valor, String nombre) {
+        return LocalDate.parse(requerido(valor, nombre));
+    }
+    
+    private static int entero(String valor, String nombre) {
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El campo " + nombre + " debe ser un número entero");
+        }
+    }
+    
+    private static void validarRango(LocalDate desde, LocalDate hasta) {
+        if (!desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("La fecha 'desde' debe ser anterior a 'hasta'");
+        }
+    }
+}
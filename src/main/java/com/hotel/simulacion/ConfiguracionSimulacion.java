@@ -0,0 +1,178 @@
+package com.hotel.simulacion;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parámetros de una simulación de carga: tamaño del hotel, horizonte de
+ * fechas, hilos, duración, semilla, sesgos de popularidad y mezcla de
+ * operaciones.
+ * 
+ * SRP: Solo guarda y valida los parámetros; SimuladorCarga los usa.
+ */
+public class ConfiguracionSimulacion {
+    private int habitaciones = 1000;
+    private int clientes = 5000;
+    private int horizonteDias = 180;
+    private int nochesMaximas = 7;
+    private int hilos = 8;
+    private int segundos = 20;
+    private int segundosCalentamiento = 3;
+    private long semilla = 42;
+    private double sesgoHabitaciones = 1.0;
+    private double sesgoFechas = 0.5;
+    private final Map<OperacionSimulacion, Integer> pesos = new EnumMap<>(OperacionSimulacion.class);
+    
+    public ConfiguracionSimulacion() {
+        for (OperacionSimulacion operacion : OperacionSimulacion.values()) {
+            pesos.put(operacion, operacion.getPesoPorDefecto());
+        }
+    }
+    
+    public int getHabitaciones() {
+        return habitaciones;
+    }
+    
+    public void setHabitaciones(int habitaciones) {
+        this.habitaciones = positivo("habitaciones", habitaciones);
+    }
+    
+    public int getClientes() {
+        return clientes;
+    }
+    
+    public void setClientes(int clientes) {
+        this.clientes = positivo("clientes", clientes);
+    }
+    
+    /**
+     * @return Días, desde mañana, en los que pueden caer las estadías
+     */
+    public int getHorizonteDias() {
+        return horizonteDias;
+    }
+    
+    public void setHorizonteDias(int horizonteDias) {
+        this.horizonteDias = positivo("horizonte", horizonteDias);
+    }
+    
+    public int getNochesMaximas() {
+        return nochesMaximas;
+    }
+    
+    public void setNochesMaximas(int nochesMaximas) {
+        this.nochesMaximas = positivo("noches máximas", nochesMaximas);
+    }
+    
+    public int getHilos() {
+        return hilos;
+    }
+    
+    public void setHilos(int hilos) {
+        this.hilos = positivo("hilos", hilos);
+    }
+    
+    /**
+     * @return Segundos de medición, sin contar el calentamiento
+     */
+    public int getSegundos() {
+        return segundos;
+    }
+    
+    public void setSegundos(int segundos) {
+        this.segundos = positivo("segundos", segundos);
+    }
+    
+    public int getSegundosCalentamiento() {
+        return segundosCalentamiento;
+    }
+    
+    public void setSegundosCalentamiento(int segundosCalentamiento) {
+        if (segundosCalentamiento < 0) {
+            throw new IllegalArgumentException("El calentamiento no puede ser negativo: " + segundosCalentamiento);
+        }
+        this.segundosCalentamiento = segundosCalentamiento;
+    }
+    
+    public long getSemilla() {
+        return semilla;
+    }
+    
+    public void setSemilla(long semilla) {
+        this.semilla = semilla;
+    }
+    
+    /**
+     * @return Exponente de Zipf de la popularidad de las habitaciones (0 = uniforme)
+     */
+    public double getSesgoHabitaciones() {
+        return sesgoHabitaciones;
+    }
+    
+    public void setSesgoHabitaciones(double sesgoHabitaciones) {
+        this.sesgoHabitaciones = noNegativo("sesgo de habitaciones", sesgoHabitaciones);
+    }
+    
+    /**
+     * @return Exponente de Zipf de la anticipación de las llegadas (fechas cercanas más pedidas)
+     */
+    public double getSesgoFechas() {
+        return sesgoFechas;
+    }
+    
+    public void setSesgoFechas(double sesgoFechas) {
+        this.sesgoFechas = noNegativo("sesgo de fechas", sesgoFechas);
+    }
+    
+    public int getPeso(OperacionSimulacion operacion) {
+        return pesos.get(operacion);
+    }
+    
+    /**
+     * Cambia el peso relativo de una operación en la mezcla.
+     * 
+     * @param operacion Operación
+     * @param peso Peso (0 la excluye)
+     */
+    public void setPeso(OperacionSimulacion operacion, int peso) {
+        if (peso < 0) {
+            throw new IllegalArgumentException("El peso de " + operacion.getClave() + " no puede ser negativo");
+        }
+        pesos.put(operacion, peso);
+    }
+    
+    public int getPesoTotal() {
+        int total = 0;
+        for (int peso : pesos.values()) {
+            total += peso;
+        }
+        return total;
+    }
+    
+    private static int positivo(String nombre, int valor) {
+        if (valor <= 0) {
+            throw new IllegalArgumentException("El valor de " + nombre + " debe ser mayor que 0: " + valor);
+        }
+        return valor;
+    }
+    
+    private static double noNegativo(String nombre, double valor) {
+        if (valor < 0 || Double.isNaN(valor)) {
+            throw new IllegalArgumentException("El " + nombre + " no puede ser negativo: " + valor);
+        }
+        return valor;
+    }
+    
+    @Override
+    public String toString() {
+        return "ConfiguracionSimulacion{" +
+                "habitaciones=" + habitaciones +
+                ", clientes=" + clientes +
+                ", horizonteDias=" + horizonteDias +
+                ", hilos=" + hilos +
+                ", segundos=" + segundos +
+                ", semilla=" + semilla +
+                ", pesos=" + pesos +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.hotel.simulacion;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Distribución de Zipf sobre los rangos 0..n-1: el rango k sale con
+ * probabilidad proporcional a 1 / (k + 1)^s.
+ * 
+ * SRP: Solo sortea rangos; qué habitación o qué fecha corresponde a cada rango
+ * lo decide SimuladorCarga.
+ * 
+ * La distribución acumulada se precalcula una vez y cada muestra es una
+ * búsqueda binaria, así que la instancia es inmutable y la comparten todos
+ * los hilos (cada uno con su propio generador). Con exponente 0 es uniforme.
+ */
+public final class DistribucionZipf {
+    
+    private final double[] acumulada;
+    private final double exponente;
+    
+    /**
+     * @param elementos Cantidad de rangos (mayor que 0)
+     * @param exponente Sesgo s (0 = uniforme; 1 = Zipf clásico)
+     * @throws IllegalArgumentException si no hay elementos o el exponente es negativo
+     */
+    public DistribucionZipf(int elementos, double exponente) {
+        if (elementos <= 0) {
+            throw new IllegalArgumentException("La distribución necesita al menos un elemento");
+        }
+        if (exponente < 0 || Double.isNaN(exponente)) {
+            throw new IllegalArgumentException("El exponente no puede ser negativo: " + exponente);
+        }
+        this.exponente = exponente;
+        this.acumulada = new double[elementos];
+        double suma = 0;
+        for (int i = 0; i < elementos; i++) {
+            suma += 1.0 / Math.pow(i + 1, exponente);
+            acumulada[i] = suma;
+        }
+        for (int i = 0; i < elementos; i++) {
+            acumulada[i] /= suma;
+        }
+        // Evita que el redondeo deje un hueco al final
+        acumulada[elementos - 1] = 1.0;
+    }
+    
+    /**
+     * Sortea un rango.
+     * 
+     * @param aleatorio Generador del hilo que sortea
+     * @return Rango entre 0 y getElementos() - 1; los primeros son los más probables
+     */
+    public int muestrear(SplittableRandom aleatorio) {
+        int posicion = Arrays.binarySearch(acumulada, aleatorio.nextDouble());
+        return posicion >= 0 ? posicion : -posicion - 1;
+    }
+    
+    /**
+     * Probabilidad acumulada de los primeros rangos.
+     * 
+     * @param rangos Cantidad de rangos desde el más probable
+     * @return Fracción de las muestras que cae en esos rangos
+     */
+    public double probabilidadPrimeros(int rangos) {
+        if (rangos <= 0) {
+            return 0;
+        }
+        return acumulada[Math.min(rangos, acumulada.length) - 1];
+    }
+    
+    public int getElementos() {
+        return acumulada.length;
+    }
+    
+    public double getExponente() {
+        return exponente;
+    }
+}
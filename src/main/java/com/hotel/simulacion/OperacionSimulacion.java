@@ -0,0 +1,31 @@
+package com.hotel.simulacion;
+
+/**
+ * Operaciones que mezcla el simulador de carga.
+ * 
+ * Cada una tiene la clave con la que se configura su peso en
+ * {@code simulacion.mezcla.<clave>}.
+ */
+public enum OperacionSimulacion {
+    BUSCAR("buscar", 50),
+    RESERVAR("reservar", 25),
+    PAGAR("pagar", 10),
+    CAMBIAR_FECHA("cambiarFecha", 8),
+    CANCELAR("cancelar", 7);
+    
+    private final String clave;
+    private final int pesoPorDefecto;
+    
+    OperacionSimulacion(String clave, int pesoPorDefecto) {
+        this.clave = clave;
+        this.pesoPorDefecto = pesoPorDefecto;
+    }
+    
+    public String getClave() {
+        return clave;
+    }
+    
+    public int getPesoPorDefecto() {
+        return pesoPorDefecto;
+    }
+}
@@ -0,0 +1,142 @@
+package com.hotel.simulacion;
+
+import com.hotel.eventos.Eventos;
+import com.hotel.metricas.HistogramaLatencia;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de la fase medida de una simulación de carga.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: resumir el rendimiento
+ * sostenido (operaciones por segundo), las latencias por operación y la
+ * tasa de conflictos, e informarlos.
+ */
+public class ResultadoSimulacion {
+    private final ConfiguracionSimulacion configuracion;
+    private final double segundosMedidos;
+    private final List<Operacion> operaciones;
+    private final int reservasVigentes;
+    private final double concentracionPopulares;
+    
+    ResultadoSimulacion(ConfiguracionSimulacion configuracion, double segundosMedidos, List<Operacion> operaciones,
+                        int reservasVigentes, double concentracionPopulares) {
+        this.configuracion = configuracion;
+        this.segundosMedidos = segundosMedidos;
+        this.operaciones = Collections.unmodifiableList(operaciones);
+        this.reservasVigentes = reservasVigentes;
+        this.concentracionPopulares = concentracionPopulares;
+    }
+    
+    public List<Operacion> getOperaciones() {
+        return operaciones;
+    }
+    
+    public double getSegundosMedidos() {
+        return segundosMedidos;
+    }
+    
+    public long getTotalOperaciones() {
+        long total = 0;
+        for (Operacion operacion : operaciones) {
+            total += operacion.getConteo();
+        }
+        return total;
+    }
+    
+    public double getOperacionesPorSegundo() {
+        return getTotalOperaciones() / segundosMedidos;
+    }
+    
+    /**
+     * Fracción de las reservas y cambios de fecha que fallaron porque alguna
+     * habitación ya estaba ocupada en esas fechas.
+     * 
+     * @return Conflictos sobre intentos, entre 0 y 1
+     */
+    public double getTasaConflictos() {
+        long intentos = 0;
+        long conflictos = 0;
+        for (Operacion operacion : operaciones) {
+            if (operacion.getOperacion() == OperacionSimulacion.RESERVAR
+                    || operacion.getOperacion() == OperacionSimulacion.CAMBIAR_FECHA) {
+                intentos += operacion.getConteo();
+                conflictos += operacion.getFallidas();
+            }
+        }
+        return intentos == 0 ? 0 : (double) conflictos / intentos;
+    }
+    
+    public int getReservasVigentes() {
+        return reservasVigentes;
+    }
+    
+    /**
+     * Imprime el resumen de la simulación y una línea por operación.
+     */
+    public void imprimirResumen() {
+        Eventos.mensaje(String.format("Simulación: %d habitaciones, %d clientes, horizonte de %d días, "
+                        + "%d hilos, semilla %d", configuracion.getHabitaciones(), configuracion.getClientes(),
+                configuracion.getHorizonteDias(), configuracion.getHilos(), configuracion.getSemilla()));
+        Eventos.mensaje(String.format("Popularidad: el 10%% más pedido de las habitaciones recibe el %.0f%% de "
+                + "las solicitudes (Zipf s=%.2f)", concentracionPopulares * 100,
+                configuracion.getSesgoHabitaciones()));
+        Eventos.mensaje(String.format("%-13s %10s %9s %10s %10s %10s %10s", "Operación", "Conteo", "Fallidas",
+                "p50 ms", "p90 ms", "p99 ms", "máx ms"));
+        for (Operacion operacion : operaciones) {
+            HistogramaLatencia.Resumen latencia = operacion.getLatencia();
+            Eventos.mensaje(String.format("%-13s %10d %9d %10.3f %10.3f %10.3f %10.3f",
+                    operacion.getOperacion().getClave(), operacion.getConteo(), operacion.getFallidas(),
+                    latencia.percentilNanos(50) / 1e6, latencia.percentilNanos(90) / 1e6,
+                    latencia.percentilNanos(99) / 1e6, latencia.getMaximoNanos() / 1e6));
+        }
+        Eventos.mensaje(String.format("Total: %d operaciones en %.1f s = %.0f operaciones/s sostenidas",
+                getTotalOperaciones(), segundosMedidos, getOperacionesPorSegundo()));
+        Eventos.mensaje(String.format("Tasa de conflictos (reservas y cambios de fecha rechazados): %.1f%%",
+                getTasaConflictos() * 100));
+        Eventos.mensaje("Reservas vigentes al terminar: " + reservasVigentes);
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoSimulacion{" +
+                "operaciones=" + getTotalOperaciones() +
+                ", segundos=" + segundosMedidos +
+                ", tasaConflictos=" + getTasaConflictos() +
+                '}';
+    }
+    
+    /**
+     * Medición de un tipo de operación.
+     */
+    public static class Operacion {
+        private final OperacionSimulacion operacion;
+        private final HistogramaLatencia.Resumen latencia;
+        private final long fallidas;
+        
+        Operacion(OperacionSimulacion operacion, HistogramaLatencia.Resumen latencia, long fallidas) {
+            this.operacion = operacion;
+            this.latencia = latencia;
+            this.fallidas = fallidas;
+        }
+        
+        public OperacionSimulacion getOperacion() {
+            return operacion;
+        }
+        
+        public long getConteo() {
+            return latencia.getConteo();
+        }
+        
+        /**
+         * @return Operaciones que el gestor rechazó (conflicto de fechas o pago rechazado)
+         */
+        public long getFallidas() {
+            return fallidas;
+        }
+        
+        public HistogramaLatencia.Resumen getLatencia() {
+            return latencia;
+        }
+    }
+}
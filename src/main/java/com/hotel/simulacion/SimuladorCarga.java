@@ -0,0 +1,337 @@
+package com.hotel.simulacion;
+
+import com.hotel.gestion.CriteriosBusqueda;
+import com.hotel.gestion.GestorClientes;
+import com.hotel.gestion.GestorHabitaciones;
+import com.hotel.gestion.GestorReservas;
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.RegistroMetricas;
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.modelo.HabitacionSuite;
+import com.hotel.pago.PasarelaPago;
+import com.hotel.pago.TarjetaCredito;
+import com.hotel.reserva.Reserva;
+import com.hotel.reserva.ReservaVIP;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga sintética sobre los gestores reales.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: poblar un hotel sintético,
+ * ejecutar sobre él una mezcla de operaciones desde varios hilos y medirla.
+ * 
+ * DIP: Recibe los gestores y la pasarela ya armados, así que mide la misma
+ * configuración (particiones, inventario, pasarela con sus límites) con la
+ * que corre el sistema.
+ * 
+ * Cada hilo es un cliente que elige operaciones al azar según los pesos de la
+ * mezcla: búsquedas, reservas, pagos, cambios de fecha y cancelaciones. La
+ * habitación de cada reserva sigue una distribución de Zipf sobre un orden de
+ * popularidad sorteado, y la anticipación de las llegadas otra, de modo que
+ * las habitaciones y fechas más pedidas concentran los conflictos como en
+ * temporada alta. Todo sale de la semilla: el hotel y la secuencia de
+ * decisiones de cada hilo se repiten entre corridas (el entrelazado de los
+ * hilos, y por lo tanto qué reservas chocan, no).
+ * 
+ * Los pagos se envían sin esperar a la pasarela, como los atiende el
+ * servicio, con un máximo de cobros en curso por hilo; su latencia se
+ * registra al llegar la respuesta. Así la latencia de la pasarela no frena
+ * al resto de la mezcla y el rendimiento medido es el de los gestores.
+ * 
+ * La corrida tiene un calentamiento que no se mide y luego la medición; las
+ * latencias son las que ve el cliente, incluida la de la pasarela en los pagos.
+ */
+public class SimuladorCarga {
+    private static final long INCREMENTO_SEMILLA = 0x9E3779B97F4A7C15L;
+    private static final int PORCENTAJE_SUITES = 20;
+    private static final int PORCENTAJE_VIP = 10;
+    private static final int PAGOS_EN_CURSO_POR_HILO = 32;
+    
+    private final ConfiguracionSimulacion configuracion;
+    private final GestorClientes gestorClientes;
+    private final GestorHabitaciones gestorHabitaciones;
+    private final GestorReservas gestorReservas;
+    private final PasarelaPago pasarela;
+    private final OperacionSimulacion[] operaciones = OperacionSimulacion.values();
+    private final int[] umbrales;
+    
+    private List<Cliente> clientes;
+    private Habitacion[] porPopularidad;
+    private DistribucionZipf popularidad;
+    private DistribucionZipf anticipacion;
+    private LocalDate primerDia;
+    private volatile Fase fase;
+    private volatile boolean detener;
+    
+    /**
+     * @param configuracion Parámetros de la simulación
+     * @param gestorClientes Gestor donde se registran los clientes sintéticos
+     * @param gestorHabitaciones Gestor donde se agregan las habitaciones sintéticas
+     * @param gestorReservas Gestor contra el que se ejecuta la carga
+     * @param pasarela Pasarela con la que cobran las tarjetas de las reservas
+     */
+    public SimuladorCarga(ConfiguracionSimulacion configuracion, GestorClientes gestorClientes,
+                          GestorHabitaciones gestorHabitaciones, GestorReservas gestorReservas,
+                          PasarelaPago pasarela) {
+        if (configuracion.getPesoTotal() <= 0) {
+            throw new IllegalArgumentException("La mezcla de operaciones no tiene ningún peso");
+        }
+        this.configuracion = configuracion;
+        this.gestorClientes = gestorClientes;
+        this.gestorHabitaciones = gestorHabitaciones;
+        this.gestorReservas = gestorReservas;
+        this.pasarela = pasarela;
+        this.umbrales = new int[operaciones.length];
+        int acumulado = 0;
+        for (int i = 0; i < operaciones.length; i++) {
+            acumulado += configuracion.getPeso(operaciones[i]);
+            umbrales[i] = acumulado;
+        }
+    }
+    
+    /**
+     * Puebla el hotel, ejecuta el calentamiento y la medición y espera a que
+     * terminen todos los hilos.
+     * 
+     * @return Resultado de la fase medida
+     * @throws InterruptedException si se interrumpe al hilo que espera la corrida
+     */
+    public ResultadoSimulacion ejecutar() throws InterruptedException {
+        poblar();
+        
+        fase = new Fase();
+        detener = false;
+        List<Thread> generadores = new ArrayList<>();
+        for (int h = 0; h < configuracion.getHilos(); h++) {
+            int numeroHilo = h;
+            Thread generador = new Thread(() -> generar(numeroHilo), "simulacion-" + h);
+            generadores.add(generador);
+            generador.start();
+        }
+        
+        Fase medicion = new Fase();
+        long inicio;
+        try {
+            Thread.sleep(configuracion.getSegundosCalentamiento() * 1000L);
+            fase = medicion;
+            inicio = System.nanoTime();
+            Thread.sleep(configuracion.getSegundos() * 1000L);
+        } finally {
+            detener = true;
+            for (Thread generador : generadores) {
+                generador.join();
+            }
+        }
+        // Las operaciones en curso al detenerse se cuentan, así que el tiempo llega hasta la última
+        double segundosMedidos = (System.nanoTime() - inicio) / 1e9;
+        
+        List<ResultadoSimulacion.Operacion> resultados = new ArrayList<>();
+        for (OperacionSimulacion operacion : operaciones) {
+            resultados.add(new ResultadoSimulacion.Operacion(operacion,
+                    medicion.latencias[operacion.ordinal()].resumir(),
+                    medicion.fallidas[operacion.ordinal()].sum()));
+        }
+        return new ResultadoSimulacion(configuracion, segundosMedidos, resultados,
+                gestorReservas.obtenerNumeroTotalReservas(), popularidad.probabilidadPrimeros(
+                        Math.max(1, porPopularidad.length / 10)));
+    }
+    
+    /**
+     * Registra los clientes y las habitaciones sintéticos y sortea el orden de
+     * popularidad de las habitaciones.
+     */
+    private void poblar() {
+        SplittableRandom aleatorio = new SplittableRandom(configuracion.getSemilla());
+        
+        List<Cliente> nuevosClientes = new ArrayList<>(configuracion.getClientes());
+        for (int i = 0; i < configuracion.getClientes(); i++) {
+            nuevosClientes.add(new Cliente("SIM-C" + i, "Cliente simulado " + i,
+                    "simulado" + i + "@email.com", "300" + i));
+        }
+        gestorClientes.registrarClientes(nuevosClientes);
+        clientes = nuevosClientes;
+        
+        porPopularidad = new Habitacion[configuracion.getHabitaciones()];
+        for (int i = 0; i < porPopularidad.length; i++) {
+            String numero = String.format("S%05d", i);
+            if (aleatorio.nextInt(100) < PORCENTAJE_SUITES) {
+                porPopularidad[i] = new HabitacionSuite(numero, 150000 + aleatorio.nextInt(11) * 10000,
+                        2 + aleatorio.nextInt(3), aleatorio.nextBoolean(), aleatorio.nextBoolean());
+            } else {
+                porPopularidad[i] = new HabitacionEstandar(numero, 50000 + aleatorio.nextInt(9) * 5000,
+                        1 + aleatorio.nextInt(3));
+            }
+        }
+        gestorHabitaciones.agregarHabitaciones(List.of(porPopularidad));
+        
+        // Fisher-Yates: la popularidad no depende del número de la habitación
+        for (int i = porPopularidad.length - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            Habitacion intercambio = porPopularidad[i];
+            porPopularidad[i] = porPopularidad[j];
+            porPopularidad[j] = intercambio;
+        }
+        popularidad = new DistribucionZipf(porPopularidad.length, configuracion.getSesgoHabitaciones());
+        anticipacion = new DistribucionZipf(configuracion.getHorizonteDias(), configuracion.getSesgoFechas());
+        primerDia = LocalDate.now().plusDays(1);
+    }
+    
+    /**
+     * Bucle de un hilo cliente. Recuerda sus reservas vigentes y las que aún no
+     * pagó para poder pagarlas, moverlas o cancelarlas; una operación sin
+     * reserva sobre la cual actuar, o un pago con el cupo de cobros en curso
+     * lleno, se omite. Antes de terminar espera sus cobros pendientes.
+     */
+    private void generar(int numeroHilo) {
+        SplittableRandom aleatorio = new SplittableRandom(configuracion.getSemilla() + (numeroHilo + 1)
+                * INCREMENTO_SEMILLA);
+        List<String> vigentes = new ArrayList<>();
+        Set<String> pendientesDePago = new LinkedHashSet<>();
+        Semaphore cupoPagos = new Semaphore(PAGOS_EN_CURSO_POR_HILO);
+        
+        while (!detener) {
+            OperacionSimulacion operacion = sortearOperacion(aleatorio);
+            Fase actual = fase;
+            HistogramaLatencia latencia = actual.latencias[operacion.ordinal()];
+            boolean exitosa;
+            long inicio;
+            switch (operacion) {
+                case BUSCAR:
+                    CriteriosBusqueda criterios = sortearCriterios(aleatorio);
+                    inicio = latencia.iniciar();
+                    gestorHabitaciones.buscarHabitaciones(criterios);
+                    exitosa = true;
+                    break;
+                case RESERVAR:
+                    Reserva reserva = sortearReserva(gestorReservas.generarIdReserva(), aleatorio);
+                    inicio = latencia.iniciar();
+                    exitosa = gestorReservas.crearReserva(reserva);
+                    if (exitosa) {
+                        vigentes.add(reserva.getIdReserva());
+                        pendientesDePago.add(reserva.getIdReserva());
+                    }
+                    break;
+                case PAGAR:
+                    if (pendientesDePago.isEmpty() || !cupoPagos.tryAcquire()) {
+                        continue;
+                    }
+                    Iterator<String> masAntigua = pendientesDePago.iterator();
+                    String porPagar = masAntigua.next();
+                    masAntigua.remove();
+                    long inicioPago = latencia.iniciar();
+                    gestorReservas.procesarPagoAsync(porPagar).whenComplete((pagada, error) -> {
+                        latencia.registrarDesde(inicioPago);
+                        if (!Boolean.TRUE.equals(pagada)) {
+                            actual.fallidas[OperacionSimulacion.PAGAR.ordinal()].increment();
+                        }
+                        cupoPagos.release();
+                    });
+                    continue;
+                case CAMBIAR_FECHA:
+                    if (vigentes.isEmpty()) {
+                        continue;
+                    }
+                    String porMover = vigentes.get(aleatorio.nextInt(vigentes.size()));
+                    LocalDate nuevaEntrada = sortearEntrada(aleatorio);
+                    LocalDate nuevaSalida = nuevaEntrada.plusDays(sortearNoches(aleatorio));
+                    inicio = latencia.iniciar();
+                    exitosa = gestorReservas.cambiarFechaReserva(porMover, nuevaEntrada, nuevaSalida);
+                    break;
+                case CANCELAR:
+                    if (vigentes.isEmpty()) {
+                        continue;
+                    }
+                    int posicion = aleatorio.nextInt(vigentes.size());
+                    String porCancelar = vigentes.get(posicion);
+                    vigentes.set(posicion, vigentes.get(vigentes.size() - 1));
+                    vigentes.remove(vigentes.size() - 1);
+                    pendientesDePago.remove(porCancelar);
+                    inicio = latencia.iniciar();
+                    exitosa = gestorReservas.cancelarReserva(porCancelar);
+                    break;
+                default:
+                    throw new IllegalStateException("Operación sin simular: " + operacion);
+            }
+            latencia.registrarDesde(inicio);
+            if (!exitosa) {
+                actual.fallidas[operacion.ordinal()].increment();
+            }
+        }
+        cupoPagos.acquireUninterruptibly(PAGOS_EN_CURSO_POR_HILO);
+    }
+    
+    private OperacionSimulacion sortearOperacion(SplittableRandom aleatorio) {
+        int sorteo = aleatorio.nextInt(umbrales[umbrales.length - 1]);
+        for (int i = 0; i < umbrales.length; i++) {
+            if (sorteo < umbrales[i]) {
+                return operaciones[i];
+            }
+        }
+        return operaciones[operaciones.length - 1];
+    }
+    
+    /**
+     * Búsqueda por tipo, capacidad y fechas; el tipo y la capacidad salen de
+     * una habitación popular, como los que piden los huéspedes.
+     */
+    private CriteriosBusqueda sortearCriterios(SplittableRandom aleatorio) {
+        Habitacion referencia = porPopularidad[popularidad.muestrear(aleatorio)];
+        LocalDate entrada = sortearEntrada(aleatorio);
+        CriteriosBusqueda criterios = new CriteriosBusqueda();
+        criterios.setTipos(referencia.getTipo());
+        criterios.setCapacidadMinima(1 + aleatorio.nextInt(referencia.getCapacidad()));
+        criterios.setFechas(entrada, entrada.plusDays(sortearNoches(aleatorio)));
+        return criterios;
+    }
+    
+    private Reserva sortearReserva(String idReserva, SplittableRandom aleatorio) {
+        Cliente cliente = clientes.get(aleatorio.nextInt(clientes.size()));
+        LocalDate entrada = sortearEntrada(aleatorio);
+        LocalDate salida = entrada.plusDays(sortearNoches(aleatorio));
+        TarjetaCredito tarjeta = new TarjetaCredito("4111111111111111", cliente.getNombre(), pasarela);
+        Reserva reserva = aleatorio.nextInt(100) < PORCENTAJE_VIP
+                ? new ReservaVIP(idReserva, cliente, entrada, salida, tarjeta)
+                : new Reserva(idReserva, cliente, entrada, salida, tarjeta);
+        reserva.agregarHabitacion(porPopularidad[popularidad.muestrear(aleatorio)]);
+        return reserva;
+    }
+    
+    private LocalDate sortearEntrada(SplittableRandom aleatorio) {
+        return primerDia.plusDays(anticipacion.muestrear(aleatorio));
+    }
+    
+    /**
+     * Estadías de 1 a nochesMaximas noches, más frecuentes cuanto más cortas.
+     */
+    private int sortearNoches(SplittableRandom aleatorio) {
+        int maximo = configuracion.getNochesMaximas();
+        return 1 + Math.min(aleatorio.nextInt(maximo), aleatorio.nextInt(maximo));
+    }
+    
+    /**
+     * Latencias y fallos de una fase (calentamiento o medición), con su
+     * propio registro para no mezclarse con las métricas del sistema.
+     */
+    private final class Fase {
+        final HistogramaLatencia[] latencias = new HistogramaLatencia[operaciones.length];
+        final LongAdder[] fallidas = new LongAdder[operaciones.length];
+        
+        Fase() {
+            RegistroMetricas registro = new RegistroMetricas();
+            for (OperacionSimulacion operacion : operaciones) {
+                latencias[operacion.ordinal()] = registro.histograma("simulacion." + operacion.getClave());
+                fallidas[operacion.ordinal()] = registro.contador("simulacion." + operacion.getClave() + ".fallidas");
+            }
+        }
+    }
+}
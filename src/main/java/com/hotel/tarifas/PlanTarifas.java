@@ -0,0 +1,334 @@
+package com.hotel.tarifas;
+
+import com.hotel.modelo.Dinero;
+import java.text.Normalizer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Plan de tarifas: reglas de precio por tipo de habitación, temporada, día de
+ * la semana y fecha, más el descuento VIP y las comisiones de cada método de pago.
+ * 
+ * SRP: Esta clase tiene una única responsabilidad: decidir cuánto cuesta una
+ * estadía según las reglas configuradas.
+ * OCP: Las reglas se agregan por configuración, sin modificar Habitacion ni Reserva.
+ * 
+ * Cada regla es un factor multiplicativo (1.10 = +10 %) sobre el precio por
+ * noche de la habitación, guardado en puntos básicos. Para cada tipo de
+ * habitación se precalcula, la primera vez que se cotiza, un calendario de
+ * sumas acumuladas de los factores por noche en un arreglo de long: cotizar
+ * una estadía es restar dos posiciones del arreglo y multiplicar por el precio
+ * base, sin importar cuántas noches o reglas haya. Las fechas fuera del
+ * calendario se calculan noche a noche.
+ * 
+ * Las reglas se definen antes de publicar el plan con {@link Tarifas#configurar};
+ * después el plan solo se consulta y puede compartirse entre hilos.
+ */
+public class PlanTarifas {
+    /** Descuento VIP cuando la configuración no indica otro. */
+    public static final double DESCUENTO_VIP_POR_DEFECTO = 0.15;
+    
+    private static final int FACTOR_NEUTRO = Dinero.PUNTOS_BASICOS_TOTALES;
+    
+    private final LocalDate inicioCalendario;
+    private final int diasCalendario;
+    private final Map<String, Integer> factoresTipo = new HashMap<>();
+    private final List<Temporada> temporadas = new ArrayList<>();
+    private final Set<DayOfWeek> diasFinDeSemana = EnumSet.noneOf(DayOfWeek.class);
+    private int factorFinDeSemana = FACTOR_NEUTRO;
+    private final Map<String, Integer> factoresFinDeSemanaTipo = new HashMap<>();
+    private final Map<LocalDate, Integer> factoresFecha = new HashMap<>();
+    private final Map<String, Integer> comisiones = new HashMap<>();
+    private int descuentoVip = aPuntosBasicos(DESCUENTO_VIP_POR_DEFECTO);
+    private boolean plano = true;
+    private final ConcurrentMap<String, long[]> calendarios = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructor de la clase PlanTarifas. Sin reglas, cada noche cuesta el
+     * precio por noche de la habitación.
+     * 
+     * @param inicioCalendario Primera noche del calendario precalculado
+     * @param diasCalendario Número de noches del calendario precalculado
+     */
+    public PlanTarifas(LocalDate inicioCalendario, int diasCalendario) {
+        if (inicioCalendario == null || diasCalendario < 0) {
+            throw new IllegalArgumentException("Calendario de tarifas no válido");
+        }
+        this.inicioCalendario = inicioCalendario;
+        this.diasCalendario = diasCalendario;
+    }
+    
+    /**
+     * Define el factor fijo de un tipo de habitación (por ejemplo, "suite").
+     */
+    public void definirFactorTipo(String tipo, double factor) {
+        factoresTipo.put(claveTipo(tipo), aFactor(factor));
+        reglasCambiadas();
+    }
+    
+    /**
+     * Agrega una temporada que se repite cada año entre dos días (inclusive).
+     * Si fin es anterior a inicio, la temporada cruza el fin de año. Cuando
+     * dos temporadas se solapan, se aplica la primera que se agregó.
+     * 
+     * @param nombre Nombre de la temporada
+     * @param inicio Primer día de la temporada
+     * @param fin Último día de la temporada
+     * @param factor Factor de la temporada para todos los tipos
+     */
+    public void agregarTemporada(String nombre, MonthDay inicio, MonthDay fin, double factor) {
+        temporadas.add(new Temporada(nombre, inicio, fin, aFactor(factor)));
+        reglasCambiadas();
+    }
+    
+    /**
+     * Define el factor de una temporada ya agregada para un tipo de habitación.
+     */
+    public void definirFactorTemporada(String nombre, String tipo, double factor) {
+        for (Temporada temporada : temporadas) {
+            if (temporada.nombre.equals(nombre)) {
+                temporada.factoresTipo.put(claveTipo(tipo), aFactor(factor));
+                reglasCambiadas();
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Temporada no definida: " + nombre);
+    }
+    
+    /**
+     * Define qué noches son de fin de semana y su recargo para todos los tipos.
+     * 
+     * @param dias Días de la semana en que empieza la noche (por ejemplo, viernes y sábado)
+     * @param factor Factor de esas noches
+     */
+    public void definirFinDeSemana(Set<DayOfWeek> dias, double factor) {
+        diasFinDeSemana.clear();
+        diasFinDeSemana.addAll(dias);
+        factorFinDeSemana = aFactor(factor);
+        reglasCambiadas();
+    }
+    
+    /**
+     * Define el recargo de fin de semana de un tipo de habitación.
+     */
+    public void definirFactorFinDeSemana(String tipo, double factor) {
+        factoresFinDeSemanaTipo.put(claveTipo(tipo), aFactor(factor));
+        reglasCambiadas();
+    }
+    
+    /**
+     * Define el factor de una fecha puntual (por ejemplo, un festivo), que se
+     * combina con los de temporada y fin de semana.
+     */
+    public void definirFactorFecha(LocalDate fecha, double factor) {
+        factoresFecha.put(fecha, aFactor(factor));
+        reglasCambiadas();
+    }
+    
+    /**
+     * Define el descuento de las reservas VIP.
+     * 
+     * @param fraccion Descuento entre 0 y 1 (0.15 = 15 %)
+     */
+    public void setDescuentoVip(double fraccion) {
+        if (fraccion < 0 || fraccion > 1) {
+            throw new IllegalArgumentException("Descuento VIP fuera de rango: " + fraccion);
+        }
+        descuentoVip = aPuntosBasicos(fraccion);
+    }
+    
+    /**
+     * Define la comisión que se cobra al pagar con un método de pago.
+     * 
+     * @param metodo Clave del método (ver {@code MetodoPago#getClave()})
+     * @param fraccion Comisión sobre el monto (0.03 = 3 %)
+     */
+    public void definirComision(String metodo, double fraccion) {
+        if (fraccion < 0) {
+            throw new IllegalArgumentException("Comisión negativa para " + metodo);
+        }
+        comisiones.put(metodo, aPuntosBasicos(fraccion));
+    }
+    
+    /**
+     * Cotiza una estadía de una o varias habitaciones del mismo tipo.
+     * 
+     * @param tipo Tipo de habitación (ver {@code Habitacion#getTipo()})
+     * @param precioNocheCentavos Suma de los precios por noche de las habitaciones
+     * @param entrada Primera noche de la estadía
+     * @param noches Número de noches
+     * @return Precio de la estadía en centavos, redondeado una sola vez al final
+     */
+    public long cotizar(String tipo, long precioNocheCentavos, LocalDate entrada, int noches) {
+        if (noches <= 0 || plano) {
+            return Dinero.multiplicar(precioNocheCentavos, noches);
+        }
+        return Dinero.escalar(precioNocheCentavos, sumarFactores(tipo, entrada, noches));
+    }
+    
+    /**
+     * Suma los factores de las noches de una estadía, en puntos básicos.
+     */
+    long sumarFactores(String tipo, LocalDate entrada, int noches) {
+        long desplazamiento = entrada.toEpochDay() - inicioCalendario.toEpochDay();
+        if (desplazamiento >= 0 && desplazamiento + noches <= diasCalendario) {
+            long[] acumulados = calendario(tipo);
+            int desde = (int) desplazamiento;
+            return acumulados[desde + noches] - acumulados[desde];
+        }
+        
+        String clave = claveTipo(tipo);
+        long suma = 0;
+        for (int i = 0; i < noches; i++) {
+            suma += calcularFactor(clave, entrada.plusDays(i));
+        }
+        return suma;
+    }
+    
+    /**
+     * Obtiene el factor de una noche para un tipo de habitación.
+     * 
+     * @return Factor en puntos básicos (10000 = precio base)
+     */
+    public int factorNoche(String tipo, LocalDate noche) {
+        return calcularFactor(claveTipo(tipo), noche);
+    }
+    
+    /**
+     * Calcula la comisión de un método de pago sobre un monto.
+     * 
+     * @param metodo Clave del método de pago
+     * @param montoCentavos Monto sobre el que se cobra la comisión
+     * @return Comisión en centavos, o 0 si el método no tiene comisión
+     */
+    public long comisionCentavos(String metodo, long montoCentavos) {
+        Integer comision = metodo != null ? comisiones.get(metodo) : null;
+        return comision == null ? 0 : Dinero.escalar(montoCentavos, comision);
+    }
+    
+    public int getDescuentoVipPuntosBasicos() {
+        return descuentoVip;
+    }
+    
+    public LocalDate getInicioCalendario() {
+        return inicioCalendario;
+    }
+    
+    public int getDiasCalendario() {
+        return diasCalendario;
+    }
+    
+    public int getNumeroTemporadas() {
+        return temporadas.size();
+    }
+    
+    /**
+     * Devuelve (o precalcula) las sumas acumuladas de factores de un tipo:
+     * la posición i guarda la suma de las i primeras noches del calendario.
+     */
+    private long[] calendario(String tipo) {
+        long[] acumulados = calendarios.get(tipo);
+        if (acumulados != null) {
+            return acumulados;
+        }
+        return calendarios.computeIfAbsent(tipo, t -> {
+            String clave = claveTipo(t);
+            long[] suma = new long[diasCalendario + 1];
+            LocalDate noche = inicioCalendario;
+            for (int i = 0; i < diasCalendario; i++) {
+                suma[i + 1] = suma[i] + calcularFactor(clave, noche);
+                noche = noche.plusDays(1);
+            }
+            return suma;
+        });
+    }
+    
+    private int calcularFactor(String clave, LocalDate noche) {
+        int factor = factoresTipo.getOrDefault(clave, FACTOR_NEUTRO);
+        
+        MonthDay dia = MonthDay.from(noche);
+        for (Temporada temporada : temporadas) {
+            if (temporada.contiene(dia)) {
+                factor = combinar(factor, temporada.factoresTipo.getOrDefault(clave, temporada.factor));
+                break;
+            }
+        }
+        
+        if (diasFinDeSemana.contains(noche.getDayOfWeek())) {
+            factor = combinar(factor, factoresFinDeSemanaTipo.getOrDefault(clave, factorFinDeSemana));
+        }
+        
+        Integer factorFecha = factoresFecha.get(noche);
+        if (factorFecha != null) {
+            factor = combinar(factor, factorFecha);
+        }
+        return factor;
+    }
+    
+    private void reglasCambiadas() {
+        plano = false;
+        calendarios.clear();
+    }
+    
+    private static int combinar(int factor, int otro) {
+        return (int) (((long) factor * otro + FACTOR_NEUTRO / 2) / FACTOR_NEUTRO);
+    }
+    
+    private static int aFactor(double factor) {
+        if (!(factor >= 0)) {
+            throw new IllegalArgumentException("Factor de tarifa no válido: " + factor);
+        }
+        return aPuntosBasicos(factor);
+    }
+    
+    private static int aPuntosBasicos(double fraccion) {
+        return (int) Math.round(fraccion * Dinero.PUNTOS_BASICOS_TOTALES);
+    }
+    
+    /**
+     * Normaliza un tipo de habitación para usarlo como clave de configuración:
+     * "Estándar" y "estandar" son el mismo tipo.
+     */
+    static String claveTipo(String tipo) {
+        if (tipo == null) {
+            return "";
+        }
+        String sinTildes = Normalizer.normalize(tipo, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Temporada que se repite cada año.
+     */
+    private static class Temporada {
+        private final String nombre;
+        private final MonthDay inicio;
+        private final MonthDay fin;
+        private final int factor;
+        private final Map<String, Integer> factoresTipo = new HashMap<>();
+        
+        Temporada(String nombre, MonthDay inicio, MonthDay fin, int factor) {
+            this.nombre = nombre;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.factor = factor;
+        }
+        
+        boolean contiene(MonthDay dia) {
+            if (!inicio.isAfter(fin)) {
+                return !dia.isBefore(inicio) && !dia.isAfter(fin);
+            }
+            return !dia.isBefore(inicio) || !dia.isAfter(fin);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.hotel.tarifas;
+
+import java.time.LocalDate;
+
+/**
+ * Acceso al plan de tarifas activo.
+ * 
+ * DIP: Reserva y ReservaVIP cotizan contra el plan publicado aquí, sin
+ * conocer de dónde salen las reglas.
+ * 
+ * Mientras no se configure otro, el plan activo no tiene reglas: cada noche
+ * cuesta el precio de la habitación y el descuento VIP es el de siempre.
+ */
+public final class Tarifas {
+    /** Noches del calendario del plan por defecto (tres años). */
+    public static final int DIAS_CALENDARIO_POR_DEFECTO = 3 * 366;
+    
+    private static volatile PlanTarifas plan = new PlanTarifas(
+            LocalDate.now().withDayOfYear(1), DIAS_CALENDARIO_POR_DEFECTO);
+    
+    private Tarifas() {
+    }
+    
+    /**
+     * @return Plan de tarifas activo
+     */
+    public static PlanTarifas plan() {
+        return plan;
+    }
+    
+    /**
+     * Reemplaza el plan activo. Las reservas existentes conservan su precio
+     * hasta que cambien sus habitaciones o sus fechas.
+     * 
+     * @param nuevoPlan Plan con todas sus reglas ya definidas
+     */
+    public static void configurar(PlanTarifas nuevoPlan) {
+        if (nuevoPlan == null) {
+            throw new IllegalArgumentException("El plan de tarifas no puede ser nulo");
+        }
+        plan = nuevoPlan;
+    }
+}
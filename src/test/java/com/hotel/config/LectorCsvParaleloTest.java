@@ -0,0 +1,117 @@
+package com.hotel.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LectorCsvParaleloTest {
+    private static final String CSV = "id,nombre,nota,noches\n"
+            + "C1,\"Pérez, Ana\",\"dice \"\"hola\"\"\",3\n"
+            + "C2, Luis ,\"  con espacios  \",4\r\n"
+            + "\n"
+            + "C3,\"sin cerrar,x,5\n"
+            + "C4,Eva,,no-es-numero\n"
+            + "X1,Rechazado,,1\n"
+            + "C5,\"\",\"a,b,c\"  ,6\n"
+            + "C6,\"Ñandú\" y más,,7\n"
+            + "C7,Final,\"\"\"\",8";
+    
+    @TempDir
+    Path directorio;
+    
+    @Test
+    void losCamposEntreComillasAdmitenComasEspaciosYComillasDobles() {
+        List<String> cargadas = new ArrayList<>();
+        ResultadoCarga resultado = new LectorCsvParalelo(1).leer("memoria",
+                ByteBuffer.wrap(CSV.getBytes(StandardCharsets.UTF_8)), LectorCsvParaleloTest::convertir,
+                registrar(cargadas));
+        
+        assertEquals(List.of(
+                "C1|Pérez, Ana|dice \"hola\"|3",
+                "C2|Luis|  con espacios  |4",
+                "C5||a,b,c|6",
+                "C7|Final|\"|8"), cargadas);
+        assertEquals(8, resultado.getFilasLeidas());
+        assertEquals(4, resultado.getFilasCargadas());
+        assertEquals(List.of(5L, 6L, 7L, 9L), lineasConError(resultado));
+        assertTrue(resultado.getErrores().get(0).getMensaje().contains("comillas sin cerrar"));
+        assertTrue(resultado.getErrores().get(3).getMensaje().contains("después de las comillas"));
+    }
+    
+    @Test
+    void unaLineaCortadaPorElLimiteDeUnBloqueSeLeeEntera() throws IOException {
+        Path archivo = directorio.resolve("filas.csv");
+        Files.write(archivo, CSV.getBytes(StandardCharsets.UTF_8));
+        long bytes = Files.size(archivo);
+        
+        // Con bloques de un byte en adelante, cada límite cae alguna vez en medio de cada línea
+        for (int paralelismo = 1; paralelismo <= bytes; paralelismo++) {
+            List<String> cargadas = new ArrayList<>();
+            ResultadoCarga resultado = new LectorCsvParalelo(paralelismo, 1).leer(archivo,
+                    LectorCsvParaleloTest::convertir, registrar(cargadas));
+            
+            String caso = "Paralelismo " + paralelismo;
+            assertEquals(Set.of("C1|Pérez, Ana|dice \"hola\"|3", "C2|Luis|  con espacios  |4", "C5||a,b,c|6",
+                    "C7|Final|\"|8"), Set.copyOf(cargadas), caso);
+            assertEquals(4, cargadas.size(), caso);
+            assertEquals(8, resultado.getFilasLeidas(), caso);
+            assertEquals(List.of(5L, 6L, 7L, 9L), lineasConError(resultado), caso);
+        }
+    }
+    
+    @Test
+    void unArchivoGrandeSeParteEnBloquesSinPerderNiRepetirFilas() throws IOException {
+        StringBuilder contenido = new StringBuilder("id,nombre,nota,noches\n");
+        for (int i = 0; i < 20_000; i++) {
+            contenido.append('R').append(i).append(",\"Apellido, Nombre ").append(i).append("\",x,")
+                    .append(i % 30).append(i % 7 == 0 ? "\r\n" : "\n");
+        }
+        Path archivo = directorio.resolve("grande.csv");
+        Files.write(archivo, contenido.toString().getBytes(StandardCharsets.UTF_8));
+        
+        List<String> cargadas = new ArrayList<>();
+        ResultadoCarga resultado = new LectorCsvParalelo(7, 4_096).leer(archivo,
+                LectorCsvParaleloTest::convertir, registrar(cargadas));
+        assertEquals(20_000, resultado.getFilasCargadas());
+        assertEquals(List.of(), resultado.getErrores());
+        assertTrue(cargadas.contains("R19999|Apellido, Nombre 19999|x|19"));
+    }
+    
+    private static String convertir(FilaCsv fila) {
+        return fila.texto(0) + "|" + fila.texto(1) + "|" + fila.texto(2) + "|" + fila.entero(3);
+    }
+    
+    /**
+     * Destino que rechaza los ids que empiezan con X, como lo haría
+     * GestorClientes::registrarCliente con un duplicado.
+     */
+    private static Predicate<String> registrar(List<String> cargadas) {
+        return registro -> {
+            if (registro.startsWith("X")) {
+                return false;
+            }
+            synchronized (cargadas) {
+                cargadas.add(registro);
+            }
+            return true;
+        };
+    }
+    
+    private static List<Long> lineasConError(ResultadoCarga resultado) {
+        return new ArrayList<>(resultado.getErrores().stream().map(ResultadoCarga.ErrorFila::getNumeroLinea)
+                .collect(Collectors.toCollection(TreeSet::new)));
+    }
+}
@@ -0,0 +1,155 @@
+package com.hotel.eventos;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class BusEventosTest {
+    private final List<Evento> recibidos = new CopyOnWriteArrayList<>();
+    private final CountDownLatch primeroRecibido = new CountDownLatch(1);
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    
+    /**
+     * Sumidero que se queda trabado en el primer evento hasta que se lo libera.
+     */
+    private final SumideroEventos trabado = evento -> {
+        recibidos.add(evento);
+        primeroRecibido.countDown();
+        try {
+            liberar.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    };
+    
+    @Test
+    void conElBuferLlenoSeDescartaSinFrenarAlProductor() throws InterruptedException {
+        BusEventos bus = new BusEventos(4, trabado);
+        assertEquals(4, bus.getCapacidad());
+        assertTrue(bus.publicar(TipoEvento.CLIENTE_REGISTRADO, "C0"));
+        assertTrue(primeroRecibido.await(5, TimeUnit.SECONDS));
+        
+        // El consumidor quedó en el primer evento: caben cuatro más
+        List<Boolean> resultados = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            resultados.add(bus.publicar(TipoEvento.CLIENTE_REGISTRADO, "C" + i));
+        }
+        assertEquals(List.of(true, true, true, true, false, false, false, false, false, false), resultados);
+        assertEquals(6, bus.getDescartados());
+        assertEquals(4, bus.getPendientes());
+        
+        liberar.countDown();
+        bus.vaciar();
+        assertEquals(List.of("C0", "C1", "C2", "C3", "C4"), primerosArgumentos());
+        assertEquals(0, bus.getPendientes());
+        
+        // Al vaciarse vuelve a haber lugar
+        assertTrue(bus.publicar(TipoEvento.CLIENTE_REGISTRADO, "C11"));
+        bus.close();
+        assertEquals("C11", primerosArgumentos().get(5));
+    }
+    
+    @Test
+    void alCerrarSeEntreganLosPendientesYVaciarNoEspera() throws Exception {
+        BusEventos bus = new BusEventos(8, trabado);
+        bus.publicar(TipoEvento.HABITACION_AGREGADA, "101");
+        assertTrue(primeroRecibido.await(5, TimeUnit.SECONDS));
+        bus.publicar(TipoEvento.HABITACION_AGREGADA, "102");
+        bus.publicar(TipoEvento.HABITACION_DUPLICADA, "102");
+        
+        ExecutorService hilo = Executors.newSingleThreadExecutor();
+        Future<?> cierre = hilo.submit(bus::close);
+        liberar.countDown();
+        cierre.get(10, TimeUnit.SECONDS);
+        hilo.shutdown();
+        assertEquals(List.of("101", "102", "102"), primerosArgumentos());
+        
+        assertFalse(bus.publicar(TipoEvento.HABITACION_AGREGADA, "103"));
+        assertEquals(1, bus.getDescartados());
+        assertTimeoutPreemptively(Duration.ofSeconds(2), bus::vaciar);
+        assertTimeoutPreemptively(Duration.ofSeconds(2), bus::close);
+        assertEquals(3, recibidos.size());
+    }
+    
+    @Test
+    void losEventosLleganEnOrdenConSusArgumentos() {
+        liberar.countDown();
+        BusEventos bus = new BusEventos(2, trabado);
+        int publicados = 0;
+        for (int i = 0; i < 1_000; i++) {
+            // Con dos ranuras hay descartes; los que entran deben llegar en orden
+            if (bus.publicar(TipoEvento.CLIENTE_ID_DUPLICADO, i)) {
+                publicados++;
+            }
+            if (i % 16 == 0) {
+                bus.vaciar();
+            }
+        }
+        bus.close();
+        
+        assertEquals(publicados, recibidos.size());
+        assertEquals(1_000, publicados + bus.getDescartados());
+        int anterior = -1;
+        for (Evento evento : recibidos) {
+            int valor = (Integer) evento.getArgumentos()[0];
+            assertTrue(valor > anterior);
+            anterior = valor;
+        }
+        assertArrayEquals(new Object[] {0}, recibidos.get(0).getArgumentos());
+        assertEquals("Ya existe un cliente con el ID 0", recibidos.get(0).getMensaje());
+    }
+    
+    @Test
+    void todoLoQueSePublicoMientrasSeCierraSeEntrega() throws Exception {
+        liberar.countDown();
+        BusEventos bus = new BusEventos(1_024, trabado);
+        AtomicBoolean cerrado = new AtomicBoolean();
+        ExecutorService productores = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> aceptados = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            aceptados.add(productores.submit(() -> {
+                int aceptadosPorHilo = 0;
+                // Se sigue publicando durante el cierre y un poco después
+                while (!cerrado.get()) {
+                    if (bus.publicar(TipoEvento.CLIENTE_REGISTRADO, "C")) {
+                        aceptadosPorHilo++;
+                    }
+                    Thread.yield();
+                }
+                return aceptadosPorHilo;
+            }));
+        }
+        Thread.sleep(50);
+        bus.close();
+        cerrado.set(true);
+        
+        int total = 0;
+        for (Future<Integer> aceptadosPorHilo : aceptados) {
+            total += aceptadosPorHilo.get(10, TimeUnit.SECONDS);
+        }
+        productores.shutdown();
+        assertEquals(total, recibidos.size(), "Se aceptó un evento que nunca llegó al sumidero");
+    }
+    
+    private List<Object> primerosArgumentos() {
+        List<Object> argumentos = new ArrayList<>();
+        for (Evento evento : recibidos) {
+            argumentos.add(evento.getArgumentos()[0]);
+        }
+        return argumentos;
+    }
+}
@@ -0,0 +1,106 @@
+package com.hotel.gestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.modelo.HabitacionSuite;
+import com.hotel.reserva.Reserva;
+import com.hotel.tarifas.PlanTarifas;
+import com.hotel.tarifas.Tarifas;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AgregadosDiariosTest {
+    private static final LocalDate ENTRADA = LocalDate.of(2030, 1, 30);
+    private static final String ESTANDAR = new HabitacionEstandar("", 0, 0).getTipo();
+    private static final String SUITE = new HabitacionSuite("", 0, 0, false, false).getTipo();
+    
+    @Test
+    void unaReservaQueCruzaElMesSeSumaEnCadaNocheYTipo() {
+        AgregadosDiarios agregados = new AgregadosDiarios();
+        // Noches del 30 y 31 de enero y del 1 de febrero
+        Reserva reserva = reservar("R1", ENTRADA, ENTRADA.plusDays(3));
+        agregados.registrar(reserva);
+        agregados.registrar(reserva);
+        
+        assertEquals(3, agregados.consultarDia(ENTRADA).getHabitacionesVendidas());
+        assertEquals(3, agregados.consultarDia(ENTRADA).getLlegadas());
+        assertEquals(3, agregados.consultarDia(LocalDate.of(2030, 2, 1)).getHabitacionesVendidas());
+        assertEquals(2, agregados.consultarDia(ESTANDAR, LocalDate.of(2030, 2, 1)).getHabitacionesVendidas());
+        assertEquals(1, agregados.consultarDia(SUITE, LocalDate.of(2030, 2, 1)).getHabitacionesVendidas());
+        // La salida no es una noche vendida
+        assertEquals(0, agregados.consultarDia(LocalDate.of(2030, 2, 2)).getHabitacionesVendidas());
+        assertEquals(3, agregados.consultarDia(LocalDate.of(2030, 2, 2)).getSalidas());
+        assertEquals(30_000, agregados.consultarDia(SUITE, ENTRADA).getIngresosCentavos());
+        
+        List<ResumenDia> febrero = agregados.consultarMes(YearMonth.of(2030, 2));
+        assertEquals(28, febrero.size());
+        assertEquals(LocalDate.of(2030, 2, 28), febrero.get(27).getFecha());
+        long ingresos = ingresos(agregados.consultarMes(YearMonth.of(2030, 1))) + ingresos(febrero);
+        assertEquals(reserva.getPrecioTotalCentavos(), ingresos);
+        assertEquals(0, ingresos(agregados.consultarMes("Otro", YearMonth.of(2030, 1))));
+    }
+    
+    @Test
+    void cancelarYCambiarFechasRestanLoQueSeHabiaSumado() {
+        AgregadosDiarios agregados = new AgregadosDiarios();
+        Reserva reserva = reservar("R1", ENTRADA, ENTRADA.plusDays(3));
+        agregados.registrar(reserva);
+        
+        assertTrue(reserva.cambiarFecha(LocalDate.of(2030, 3, 10), LocalDate.of(2030, 3, 12)));
+        agregados.actualizar(reserva);
+        assertEquals(0, totalVendidas(agregados, YearMonth.of(2030, 1)));
+        assertEquals(0, totalVendidas(agregados, YearMonth.of(2030, 2)));
+        assertEquals(6, totalVendidas(agregados, YearMonth.of(2030, 3)));
+        assertEquals(reserva.getPrecioTotalCentavos(), ingresos(agregados.consultarMes(YearMonth.of(2030, 3))));
+        
+        agregados.retirar(reserva);
+        agregados.retirar(reserva);
+        for (ResumenDia dia : agregados.consultarMes(YearMonth.of(2030, 3))) {
+            assertEquals(0, dia.getHabitacionesVendidas() | dia.getIngresosCentavos()
+                    | dia.getLlegadas() | dia.getSalidas(), "Quedó algo sumado el " + dia.getFecha());
+        }
+    }
+    
+    @Test
+    void alCancelarSeRestaLoAportadoAunqueElPlanHayaCambiado() {
+        PlanTarifas anterior = Tarifas.plan();
+        PlanTarifas temporada = new PlanTarifas(LocalDate.of(2030, 1, 1), 365);
+        temporada.agregarTemporada("alta", MonthDay.of(1, 1), MonthDay.of(1, 31), 2.0);
+        AgregadosDiarios agregados = new AgregadosDiarios();
+        try {
+            Tarifas.configurar(temporada);
+            Reserva reserva = reservar("R1", ENTRADA, ENTRADA.plusDays(3));
+            agregados.registrar(reserva);
+            assertEquals(60_000, agregados.consultarDia(SUITE, ENTRADA).getIngresosCentavos());
+            
+            Tarifas.configurar(anterior);
+            agregados.retirar(reserva);
+        } finally {
+            Tarifas.configurar(anterior);
+        }
+        assertEquals(0, ingresos(agregados.consultarMes(YearMonth.of(2030, 1))));
+        assertEquals(0, ingresos(agregados.consultarMes(YearMonth.of(2030, 2))));
+    }
+    
+    private static Reserva reservar(String id, LocalDate entrada, LocalDate salida) {
+        Reserva reserva = new Reserva(id, new Cliente("C1", "Ana", "ana@correo.com", "555"), entrada, salida, null);
+        reserva.agregarHabitacion(new HabitacionEstandar("101", 100.0, 2));
+        reserva.agregarHabitacion(new HabitacionEstandar("102", 100.0, 2));
+        reserva.agregarHabitacion(new HabitacionSuite("201", 300.0, 4, true, true));
+        return reserva;
+    }
+    
+    private static long ingresos(List<ResumenDia> dias) {
+        return dias.stream().mapToLong(ResumenDia::getIngresosCentavos).sum();
+    }
+    
+    private static long totalVendidas(AgregadosDiarios agregados, YearMonth mes) {
+        return agregados.consultarMes(mes).stream().mapToLong(ResumenDia::getHabitacionesVendidas).sum();
+    }
+}
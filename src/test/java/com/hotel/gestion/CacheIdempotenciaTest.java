@@ -0,0 +1,109 @@
+package com.hotel.gestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class CacheIdempotenciaTest {
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+    
+    @Test
+    void unReintentoRecibeElResultadoOriginalSinEjecutarOtraVez() {
+        CacheIdempotencia<Boolean> cache = new CacheIdempotencia<>(4, Duration.ofHours(1));
+        CompletableFuture<Boolean> pendiente = new CompletableFuture<>();
+        
+        CompletableFuture<Boolean> primera = cache.ejecutar("k1", "R1", contar(() -> pendiente));
+        CompletableFuture<Boolean> reintento = cache.ejecutar("k1", "R1", contar(() -> pendiente));
+        assertSame(primera, reintento);
+        pendiente.complete(true);
+        
+        assertTrue(cache.ejecutar("k1", "R1", contar(() -> CompletableFuture.completedFuture(false))).join());
+        assertEquals(1, ejecuciones.get());
+        assertEquals(2, cache.getAciertos());
+    }
+    
+    @Test
+    void unaClaveUsadaConOtraHuellaSeRechaza() {
+        CacheIdempotencia<Boolean> cache = new CacheIdempotencia<>(4, Duration.ofHours(1));
+        cache.ejecutar("k1", "R1", contar(() -> CompletableFuture.completedFuture(true)));
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> cache.ejecutar("k1", "R2", contar(() -> CompletableFuture.completedFuture(true))));
+        assertEquals(1, ejecuciones.get());
+        assertEquals("R1", cache.huellaDe("k1"));
+    }
+    
+    @Test
+    void alLlenarseSeOlvidanLasMasAntiguas() {
+        CacheIdempotencia<Boolean> cache = new CacheIdempotencia<>(2, Duration.ofHours(1));
+        for (String clave : new String[] {"k1", "k2", "k3", "k4"}) {
+            cache.ejecutar(clave, "R", contar(() -> CompletableFuture.completedFuture(true)));
+        }
+        assertTrue(cache.getTamano() <= 3);
+        
+        // k1 ya se desalojó: vuelve a ejecutarse; k4 sigue recordada
+        cache.ejecutar("k1", "R", contar(() -> CompletableFuture.completedFuture(true)));
+        assertEquals(5, ejecuciones.get());
+        cache.ejecutar("k4", "R", contar(() -> CompletableFuture.completedFuture(true)));
+        assertEquals(5, ejecuciones.get());
+    }
+    
+    @Test
+    void unaClaveVencidaVuelveAEjecutarse() throws InterruptedException {
+        CacheIdempotencia<Boolean> cache = new CacheIdempotencia<>(4, Duration.ofMillis(20));
+        cache.ejecutar("k1", "R1", contar(() -> CompletableFuture.completedFuture(true)));
+        Thread.sleep(40);
+        
+        assertNull(cache.huellaDe("k1"));
+        // Vencida, la clave se puede usar incluso con otra huella
+        cache.ejecutar("k1", "R2", contar(() -> CompletableFuture.completedFuture(true)));
+        assertEquals(2, ejecuciones.get());
+        assertEquals(1, cache.getTamano());
+    }
+    
+    @Test
+    void unFracasoNoConservadoOUnaExcepcionPermitenReintentar() {
+        CacheIdempotencia<Boolean> cache = new CacheIdempotencia<>(4, Duration.ofHours(1));
+        
+        assertEquals(false, cache.ejecutar("k1", "R1", contar(() -> CompletableFuture.completedFuture(false)),
+                Boolean.TRUE::equals).join());
+        assertThrows(IllegalStateException.class, () -> cache.ejecutar("k1", "R1", contar(() -> {
+            throw new IllegalStateException("falla");
+        }), Boolean.TRUE::equals));
+        assertTrue(cache.ejecutar("k1", "R1", contar(() -> CompletableFuture.completedFuture(true)),
+                Boolean.TRUE::equals).join());
+        assertTrue(cache.ejecutar("k1", "R1", contar(() -> CompletableFuture.completedFuture(true)),
+                Boolean.TRUE::equals).join());
+        assertEquals(3, ejecuciones.get());
+        assertEquals(1, cache.getTamano());
+    }
+    
+    @Test
+    void losFracasosOlvidadosNoHacenCrecerLaCola() {
+        CacheIdempotencia<Boolean> cache = new CacheIdempotencia<>(8, Duration.ofHours(1));
+        cache.ejecutar("viva", "R", contar(() -> CompletableFuture.completedFuture(true)));
+        for (int i = 0; i < 10_000; i++) {
+            cache.ejecutar("k" + i, "R", contar(() -> CompletableFuture.completedFuture(false)),
+                    Boolean.TRUE::equals);
+        }
+        
+        assertTrue(cache.getEnCola() <= 2 * cache.getCapacidad() + 1, "Cola: " + cache.getEnCola());
+        assertEquals(1, cache.getTamano());
+        assertEquals("R", cache.huellaDe("viva"));
+    }
+    
+    private <V> Supplier<CompletableFuture<V>> contar(Supplier<CompletableFuture<V>> operacion) {
+        return () -> {
+            ejecuciones.incrementAndGet();
+            return operacion.get();
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package com.hotel.gestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class GeneradorIdReservaTest {
+    private static final long AHORA = Instant.parse("2030-01-01T00:00:00Z").toEpochMilli();
+    private static final int HILOS = 4;
+    private static final int IDS_POR_HILO = 20_000;
+    
+    @Test
+    void variosHilosRecibenIdsUnicosYCrecientesEnCadaHilo() throws Exception {
+        GeneradorIdReserva generador = new GeneradorIdReserva(7);
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        List<Future<long[]>> resultados = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            resultados.add(hilos.submit(() -> {
+                long[] ids = new long[IDS_POR_HILO];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generador.siguiente();
+                    if (i % 256 == 0) {
+                        Thread.yield();
+                    }
+                }
+                return ids;
+            }));
+        }
+        
+        Set<Long> todos = new HashSet<>();
+        for (Future<long[]> resultado : resultados) {
+            long[] ids = resultado.get(30, TimeUnit.SECONDS);
+            for (int i = 0; i < ids.length; i++) {
+                assertTrue(i == 0 || ids[i] > ids[i - 1], "Un hilo recibió un ID menor que el anterior");
+                assertEquals(7, GeneradorIdReserva.nodoDe(ids[i]));
+                todos.add(ids[i]);
+            }
+        }
+        hilos.shutdown();
+        assertEquals(HILOS * IDS_POR_HILO, todos.size(), "Se repitieron IDs");
+    }
+    
+    @Test
+    void siElRelojRetrocedeSeSigueDesdeElUltimoEntregado() {
+        AtomicLong reloj = new AtomicLong(AHORA);
+        GeneradorIdReserva generador = new GeneradorIdReserva(1, reloj::get);
+        long antes = generador.siguiente();
+        
+        reloj.set(AHORA - 60_000);
+        long despues = generador.siguiente();
+        assertTrue(despues > antes);
+        assertEquals(Instant.ofEpochMilli(AHORA), GeneradorIdReserva.instanteDe(despues));
+        
+        // Cuando el reloj alcanza y pasa al último entregado, vuelve a usar la hora real
+        reloj.set(AHORA + 5);
+        long alcanzado = generador.siguiente();
+        assertTrue(alcanzado > despues);
+        assertEquals(Instant.ofEpochMilli(AHORA + 5), GeneradorIdReserva.instanteDe(alcanzado));
+    }
+    
+    @Test
+    void masDe4096IdsEnUnMilisegundoSiguenEnElSiguiente() {
+        GeneradorIdReserva generador = new GeneradorIdReserva(1, () -> AHORA);
+        long anterior = -1;
+        for (int i = 0; i < 5_000; i++) {
+            long id = generador.siguiente();
+            assertTrue(id > anterior);
+            anterior = id;
+        }
+        assertEquals(Instant.ofEpochMilli(AHORA + 1), GeneradorIdReserva.instanteDe(anterior));
+    }
+    
+    @Test
+    void nodosDistintosNoCoincidenEnElMismoMilisegundo() {
+        GeneradorIdReserva uno = new GeneradorIdReserva(1, () -> AHORA);
+        GeneradorIdReserva dos = new GeneradorIdReserva(2, () -> AHORA);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(ids.add(uno.siguiente()));
+            assertTrue(ids.add(dos.siguiente()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new GeneradorIdReserva(1024));
+    }
+    
+    @Test
+    void elTextoOrdenaComoElNumeroYSeDecodifica() {
+        GeneradorIdReserva generador = new GeneradorIdReserva(3, () -> AHORA);
+        String primero = generador.siguienteTexto();
+        String segundo = generador.siguienteTexto();
+        assertEquals(GeneradorIdReserva.ANCHO, primero.length());
+        assertTrue(primero.compareTo(segundo) < 0);
+        assertEquals(GeneradorIdReserva.decodificar(primero) + 1, GeneradorIdReserva.decodificar(segundo));
+        assertEquals(GeneradorIdReserva.decodificar(primero),
+                GeneradorIdReserva.decodificar(primero.toLowerCase()));
+        assertTrue(GeneradorIdReserva.primeroEn(Instant.ofEpochMilli(AHORA)).compareTo(primero) <= 0);
+        assertTrue(GeneradorIdReserva.primeroEn(Instant.ofEpochMilli(AHORA + 1)).compareTo(segundo) > 0);
+        
+        assertFalse(GeneradorIdReserva.esId("R001"));
+        assertFalse(GeneradorIdReserva.esId("8000000000000"));
+        assertFalse(GeneradorIdReserva.esId("0000000000O00"));
+        assertEquals(Long.MAX_VALUE, GeneradorIdReserva.decodificar(GeneradorIdReserva.codificar(Long.MAX_VALUE)));
+    }
+}
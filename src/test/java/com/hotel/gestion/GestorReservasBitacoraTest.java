@@ -0,0 +1,212 @@
+package com.hotel.gestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.reserva.Reserva;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GestorReservasBitacoraTest {
+    private static final LocalDate ENTRADA = LocalDate.of(2030, 3, 1);
+    
+    private final Cliente cliente = new Cliente("C1", "Ana", "ana@correo.com", "555");
+    private final Habitacion habitacion = new HabitacionEstandar("101", 100.0, 2);
+    private final ExecutorService hilos = Executors.newCachedThreadPool();
+    private IndiceDisponibilidad indice;
+    private GestorReservas gestor;
+    private BitacoraManual bitacora;
+    
+    @BeforeEach
+    void preparar() {
+        indice = new IndiceDisponibilidad();
+        gestor = new GestorReservas(indice, 2);
+        bitacora = new BitacoraManual();
+        gestor.setBitacora(bitacora);
+    }
+    
+    @AfterEach
+    void cerrar() {
+        gestor.close();
+        hilos.shutdownNow();
+    }
+    
+    @Test
+    void laParticionSigueConOtrasOperacionesMientrasElDiscoConfirma() throws InterruptedException {
+        // Todas en la misma habitación, así que van a la misma partición
+        CompletableFuture<Boolean> primera = crearEnSegundoPlano("R1", 0);
+        CompletableFuture<Boolean> segunda = crearEnSegundoPlano("R2", 5);
+        CompletableFuture<Boolean> tercera = crearEnSegundoPlano("R3", 10);
+        
+        // Las tres llegan a la bitácora sin que ninguna sea durable todavía
+        CompletableFuture<Void> registro1 = bitacora.siguiente();
+        CompletableFuture<Void> registro2 = bitacora.siguiente();
+        CompletableFuture<Void> registro3 = bitacora.siguiente();
+        assertNull(gestor.buscarReserva("R1"));
+        
+        registro1.complete(null);
+        registro2.complete(null);
+        registro3.complete(null);
+        assertTrue(primera.join());
+        assertTrue(segunda.join());
+        assertTrue(tercera.join());
+        assertNotNull(gestor.buscarReserva("R3"));
+    }
+    
+    @Test
+    void unaCancelacionNoLiberaLasNochesHastaSerDurable() throws InterruptedException {
+        CompletableFuture<Boolean> creacion = crearEnSegundoPlano("R1", 0);
+        bitacora.siguiente().complete(null);
+        assertTrue(creacion.join());
+        
+        CompletableFuture<Boolean> cancelacion = CompletableFuture.supplyAsync(() -> gestor.cancelarReserva("R1"),
+                hilos);
+        CompletableFuture<Void> registroCancelacion = bitacora.siguiente();
+        esperarAlEscritor();
+        assertFalse(indice.estaDisponible("101", ENTRADA, ENTRADA.plusDays(2)));
+        // Mientras puede deshacerse, la reserva sigue en los índices y en los totales
+        assertEquals(1, gestor.obtenerReservasPorHabitacion("101").size());
+        assertEquals(1, gestor.getAgregadosDiarios().consultarDia(ENTRADA).getHabitacionesVendidas());
+        
+        registroCancelacion.completeExceptionally(new IOException("disco lleno"));
+        assertFalse(cancelacion.join());
+        assertNotNull(gestor.buscarReserva("R1"));
+        assertFalse(indice.estaDisponible("101", ENTRADA, ENTRADA.plusDays(2)));
+    }
+    
+    @Test
+    void unaFallaDeshaceTodosLosCambiosPendientesPosteriores() throws InterruptedException {
+        CompletableFuture<Boolean> primera = crearEnSegundoPlano("R1", 0);
+        CompletableFuture<Boolean> segunda = crearEnSegundoPlano("R2", 5);
+        CompletableFuture<Void> registro1 = bitacora.siguiente();
+        CompletableFuture<Void> registro2 = bitacora.siguiente();
+        
+        // La bitácora se detiene: fallan el registro y todos los que lo siguen
+        IOException falla = new IOException("fsync fallido");
+        registro2.completeExceptionally(falla);
+        registro1.completeExceptionally(falla);
+        assertFalse(primera.join());
+        assertFalse(segunda.join());
+        
+        assertNull(gestor.buscarReserva("R1"));
+        assertNull(gestor.buscarReserva("R2"));
+        assertTrue(indice.estaDisponible("101", ENTRADA, ENTRADA.plusDays(7)));
+    }
+    
+    @Test
+    void unCambioDeFechasRetieneAmbosRangosHastaSerDurable() throws InterruptedException {
+        CompletableFuture<Boolean> creacion = crearEnSegundoPlano("R1", 0);
+        bitacora.siguiente().complete(null);
+        assertTrue(creacion.join());
+        
+        CompletableFuture<Boolean> cambio = CompletableFuture.supplyAsync(
+                () -> gestor.cambiarFechaReserva("R1", ENTRADA.plusDays(1), ENTRADA.plusDays(3)), hilos);
+        CompletableFuture<Void> registroCambio = bitacora.siguiente();
+        esperarAlEscritor();
+        assertFalse(indice.estaDisponible("101", ENTRADA, ENTRADA.plusDays(1)));
+        assertFalse(indice.estaDisponible("101", ENTRADA.plusDays(2), ENTRADA.plusDays(3)));
+        
+        // Mientras puede deshacerse, la reserva conserva sus fechas en los índices y los totales
+        Reserva reserva = gestor.buscarReserva("R1");
+        assertEquals(ENTRADA, reserva.getFechaInicio());
+        assertEquals(1, gestor.obtenerLlegadas(ENTRADA).size());
+        assertEquals(0, gestor.getAgregadosDiarios().consultarDia(ENTRADA.plusDays(2)).getHabitacionesVendidas());
+        
+        registroCambio.complete(null);
+        assertTrue(cambio.join());
+        assertTrue(indice.estaDisponible("101", ENTRADA, ENTRADA.plusDays(1)));
+        assertFalse(indice.estaDisponible("101", ENTRADA.plusDays(1), ENTRADA.plusDays(3)));
+        assertEquals(ENTRADA.plusDays(1), reserva.getFechaInicio());
+        assertEquals(1, gestor.obtenerLlegadas(ENTRADA.plusDays(1)).size());
+        assertEquals(0, gestor.getAgregadosDiarios().consultarDia(ENTRADA).getHabitacionesVendidas());
+    }
+    
+    @Test
+    void unCambioDeFechasFallidoDevuelveLasNochesNuevas() throws InterruptedException {
+        CompletableFuture<Boolean> creacion = crearEnSegundoPlano("R1", 0);
+        bitacora.siguiente().complete(null);
+        assertTrue(creacion.join());
+        
+        CompletableFuture<Boolean> cambio = CompletableFuture.supplyAsync(
+                () -> gestor.cambiarFechaReserva("R1", ENTRADA.plusDays(5), ENTRADA.plusDays(7)), hilos);
+        bitacora.siguiente().completeExceptionally(new IOException("disco lleno"));
+        assertFalse(cambio.join());
+        
+        Reserva reserva = gestor.buscarReserva("R1");
+        assertEquals(ENTRADA, reserva.getFechaInicio());
+        assertEquals(ENTRADA.plusDays(2), reserva.getFechaFin());
+        assertFalse(indice.estaDisponible("101", ENTRADA, ENTRADA.plusDays(2)));
+        assertTrue(indice.estaDisponible("101", ENTRADA.plusDays(2), ENTRADA.plusDays(7)));
+    }
+    
+    /**
+     * Una consulta de todas las reservas pasa por los hilos escritores: al
+     * volver, la operación anterior ya terminó y publicó sus cambios en el índice.
+     */
+    private void esperarAlEscritor() {
+        gestor.obtenerTodasLasReservas();
+    }
+    
+    private CompletableFuture<Boolean> crearEnSegundoPlano(String id, int desplazamiento) {
+        Reserva reserva = new Reserva(id, cliente, ENTRADA.plusDays(desplazamiento),
+                ENTRADA.plusDays(desplazamiento + 2), null);
+        reserva.agregarHabitacion(habitacion);
+        return CompletableFuture.supplyAsync(() -> gestor.crearReserva(reserva), hilos);
+    }
+    
+    /**
+     * Bitácora que deja cada evento pendiente hasta que la prueba lo confirma o lo hace fallar.
+     */
+    private static final class BitacoraManual implements BitacoraReservas {
+        private final BlockingQueue<CompletableFuture<Void>> recibidos = new LinkedBlockingQueue<>();
+        
+        CompletableFuture<Void> siguiente() throws InterruptedException {
+            CompletableFuture<Void> registro = recibidos.poll(5, TimeUnit.SECONDS);
+            assertNotNull(registro, "La bitácora no recibió el evento esperado");
+            return registro;
+        }
+        
+        private CompletableFuture<Void> recibir() {
+            CompletableFuture<Void> registro = new CompletableFuture<>();
+            recibidos.add(registro);
+            return registro;
+        }
+        
+        @Override
+        public CompletableFuture<Void> registrarCreacion(Reserva reserva) {
+            return recibir();
+        }
+        
+        @Override
+        public CompletableFuture<Void> registrarCancelacion(Reserva reserva) {
+            return recibir();
+        }
+        
+        @Override
+        public CompletableFuture<Void> registrarCambioFecha(Reserva reserva, LocalDate nuevaFechaInicio,
+                                                            LocalDate nuevaFechaFin, long precioBaseCentavos,
+                                                            long precioTotalCentavos) {
+            return recibir();
+        }
+        
+        @Override
+        public CompletableFuture<Void> registrarPago(Reserva reserva) {
+            return recibir();
+        }
+    }
+}
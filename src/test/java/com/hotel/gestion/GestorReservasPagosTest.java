@@ -0,0 +1,139 @@
+package com.hotel.gestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.pago.PasarelaLimitada;
+import com.hotel.pago.PasarelaManual;
+import com.hotel.pago.TarjetaCredito;
+import com.hotel.reserva.Reserva;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GestorReservasPagosTest {
+    private static final LocalDate ENTRADA = LocalDate.of(2030, 3, 1);
+    private static final long PLAZO_MS = 50;
+    
+    private PasarelaManual pasarela;
+    private PasarelaLimitada limitada;
+    private GestorReservas gestor;
+    private List<String> pagosRegistrados;
+    private Reserva reserva;
+    
+    @BeforeEach
+    void preparar() {
+        pasarela = new PasarelaManual();
+        limitada = new PasarelaLimitada(pasarela, 1, 10, PLAZO_MS);
+        gestor = new GestorReservas(new IndiceDisponibilidad());
+        reserva = reservar("R1", "101");
+        
+        pagosRegistrados = new CopyOnWriteArrayList<>();
+        gestor.setBitacora(new BitacoraPagos(pagosRegistrados));
+    }
+    
+    @Test
+    void aprobacionTardiaSeConciliaSinCobrarDosVeces() {
+        // Vence el plazo con el cobro ya enviado: todavía no hay respuesta
+        assertFalse(gestor.procesarPago("R1"));
+        assertNotNull(reserva.getCobroSinConfirmar());
+        assertFalse(reserva.isPagada());
+        
+        // Un reintento espera la respuesta pendiente en lugar de cobrar otra vez
+        CompletableFuture<Boolean> reintento = gestor.procesarPagoAsync("R1");
+        assertEquals(1, pasarela.getCobrosRecibidos());
+        
+        pasarela.cobro(0).complete(true);
+        assertTrue(reintento.join());
+        assertTrue(reserva.isPagada());
+        assertNull(reserva.getCobroSinConfirmar());
+        assertEquals(List.of("R1"), pagosRegistrados);
+        assertEquals(1, pasarela.getCobrosRecibidos());
+    }
+    
+    @Test
+    void rechazoTardioPermiteUnNuevoCobro() {
+        assertFalse(gestor.procesarPago("R1"));
+        CompletableFuture<Boolean> pendiente = reserva.getCobroSinConfirmar();
+        pasarela.cobro(0).complete(false);
+        assertFalse(pendiente.join());
+        assertFalse(reserva.isPagada());
+        
+        CompletableFuture<Boolean> nuevo = gestor.procesarPagoAsync("R1");
+        assertEquals(2, pasarela.getCobrosRecibidos());
+        pasarela.cobro(1).complete(true);
+        assertTrue(nuevo.join());
+        assertEquals(List.of("R1"), pagosRegistrados);
+    }
+    
+    @Test
+    void reintentoConLaMismaClaveTrasUnVencimientoLlegaALaPasarela() {
+        // R2 ocupa el único cupo, así que el cobro de R1 vence esperando en la cola
+        reservar("R2", "102");
+        gestor.procesarPagoAsync("R2");
+        assertFalse(gestor.procesarPago("R1", "clave-1"));
+        assertEquals(1, pasarela.getCobrosRecibidos());
+        assertFalse(reserva.isPagada());
+        
+        pasarela.cobro(0).complete(true);
+        CompletableFuture<Boolean> reintento = gestor.procesarPagoAsync("R1", "clave-1");
+        assertEquals(2, pasarela.getCobrosRecibidos());
+        pasarela.cobro(1).complete(true);
+        assertTrue(reintento.join());
+        
+        // Aprobado, el resultado sí se recuerda: otro reintento no vuelve a cobrar
+        assertTrue(gestor.procesarPago("R1", "clave-1"));
+        assertEquals(2, pasarela.getCobrosRecibidos());
+    }
+    
+    private Reserva reservar(String id, String numeroHabitacion) {
+        Cliente cliente = new Cliente("C-" + id, "Ana", id + "@correo.com", "555");
+        Reserva nueva = new Reserva(id, cliente, ENTRADA, ENTRADA.plusDays(2),
+                new TarjetaCredito("4111111111111111", "Ana", limitada));
+        nueva.agregarHabitacion(new HabitacionEstandar(numeroHabitacion, 100.0, 2));
+        assertTrue(gestor.crearReserva(nueva));
+        return nueva;
+    }
+    
+    /**
+     * Bitácora que solo anota los pagos registrados.
+     */
+    private static final class BitacoraPagos implements BitacoraReservas {
+        private final List<String> pagos;
+        
+        BitacoraPagos(List<String> pagos) {
+            this.pagos = pagos;
+        }
+        
+        @Override
+        public CompletableFuture<Void> registrarCreacion(Reserva reserva) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        @Override
+        public CompletableFuture<Void> registrarCancelacion(Reserva reserva) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        @Override
+        public CompletableFuture<Void> registrarCambioFecha(Reserva reserva, LocalDate nuevaFechaInicio,
+                                                            LocalDate nuevaFechaFin, long precioBaseCentavos,
+                                                            long precioTotalCentavos) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        @Override
+        public CompletableFuture<Void> registrarPago(Reserva reserva) {
+            pagos.add(reserva.getIdReserva());
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hotel.gestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.junit.jupiter.api.Test;
+
+class IndiceDisponibilidadTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+    private static final int HABITACIONES = 16;
+    private static final int ESCRITORES = 6;
+    private static final int RESERVAS_POR_ESCRITOR = 1_000;
+    
+    @Test
+    void lasInstantaneasVenReservasEnterasYNoSePierdenEscrituras() throws Exception {
+        // Pocos candados: las acciones se cruzan a menudo sobre las mismas franjas
+        IndiceDisponibilidad indice = new IndiceDisponibilidad(4);
+        int totalReservas = ESCRITORES * RESERVAS_POR_ESCRITOR;
+        AtomicReferenceArray<String[]> habitacionesPorDia = new AtomicReferenceArray<>(totalReservas);
+        AtomicInteger siguienteDia = new AtomicInteger();
+        AtomicBoolean escribiendo = new AtomicBoolean(true);
+        AtomicInteger inconsistencias = new AtomicInteger();
+        
+        ExecutorService hilos = Executors.newFixedThreadPool(ESCRITORES + 2);
+        List<Future<?>> escritores = new ArrayList<>();
+        for (int e = 0; e < ESCRITORES; e++) {
+            escritores.add(hilos.submit(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                for (int r = 0; r < RESERVAS_POR_ESCRITOR; r++) {
+                    // Cada reserva usa un día propio, así que siempre se puede ocupar
+                    int dia = siguienteDia.getAndIncrement();
+                    String primera = habitacion(azar.nextInt(HABITACIONES));
+                    String segunda = habitacion(azar.nextInt(HABITACIONES));
+                    habitacionesPorDia.set(dia, new String[] {primera, segunda});
+                    // Cada ocupar es una llamada anidada que se suma a la versión de la externa
+                    indice.ejecutarConHabitacionesBloqueadas(List.of(primera, segunda), () -> {
+                        ocupar(indice, primera, dia, "R" + dia);
+                        Thread.yield();
+                        if (!segunda.equals(primera)) {
+                            ocupar(indice, segunda, dia, "R" + dia);
+                        }
+                        return null;
+                    });
+                }
+            }));
+        }
+        for (int l = 0; l < 2; l++) {
+            hilos.submit(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                while (escribiendo.get()) {
+                    int dia = azar.nextInt(Math.max(1, siguienteDia.get()));
+                    String[] habitaciones = habitacionesPorDia.get(dia);
+                    if (habitaciones == null) {
+                        continue;
+                    }
+                    InstantaneaDisponibilidad instantanea = indice.instantanea();
+                    LocalDate fecha = BASE.plusDays(dia);
+                    if (instantanea.estaDisponible(habitaciones[0], fecha, fecha.plusDays(1))
+                            != instantanea.estaDisponible(habitaciones[1], fecha, fecha.plusDays(1))) {
+                        inconsistencias.incrementAndGet();
+                    }
+                    Thread.yield();
+                }
+            });
+        }
+        
+        for (Future<?> escritor : escritores) {
+            escritor.get(60, TimeUnit.SECONDS);
+        }
+        escribiendo.set(false);
+        hilos.shutdown();
+        assertTrue(hilos.awaitTermination(10, TimeUnit.SECONDS));
+        
+        assertEquals(0, inconsistencias.get(), "Una instantánea mostró una reserva a medias");
+        int ocupaciones = 0;
+        for (int h = 0; h < HABITACIONES; h++) {
+            ocupaciones += indice.obtenerNumeroOcupaciones(habitacion(h));
+        }
+        int dobles = 0;
+        for (int dia = 0; dia < totalReservas; dia++) {
+            String[] habitaciones = habitacionesPorDia.get(dia);
+            dobles += habitaciones[0].equals(habitaciones[1]) ? 0 : 1;
+        }
+        assertEquals(totalReservas + dobles, ocupaciones, "Se perdieron ocupaciones");
+    }
+    
+    @Test
+    void unaAccionAnidadaNoPuedeTomarCandadosNuevos() {
+        IndiceDisponibilidad indice = new IndiceDisponibilidad(HABITACIONES * 4);
+        String bloqueada = habitacion(0);
+        String fuera = null;
+        for (int h = 1; h < HABITACIONES && fuera == null; h++) {
+            String candidata = habitacion(h);
+            try {
+                indice.ejecutarConHabitacionesBloqueadas(List.of(bloqueada),
+                        () -> indice.ejecutarConHabitacionesBloqueadas(List.of(candidata), () -> null));
+            } catch (IllegalStateException e) {
+                fuera = candidata;
+            }
+        }
+        assertNotNull(fuera, "Todas las habitaciones cayeron en la misma franja");
+        
+        String nueva = fuera;
+        assertThrows(IllegalStateException.class, () -> indice.ejecutarConHabitacionesBloqueadas(
+                List.of(bloqueada), () -> {
+                    ocupar(indice, bloqueada, 0, "R1");
+                    return indice.ocupar(nueva, BASE, BASE.plusDays(1), "R1");
+                }));
+        // Lo hecho en la habitación bloqueada se publica igual, como si se hubiera escrito en el lugar
+        assertEquals(1, indice.obtenerNumeroOcupaciones(bloqueada));
+        assertEquals(0, indice.obtenerNumeroOcupaciones(nueva));
+    }
+    
+    private static void ocupar(IndiceDisponibilidad indice, String numero, int dia, String idReserva) {
+        LocalDate fecha = BASE.plusDays(dia);
+        assertTrue(indice.ocupar(numero, fecha, fecha.plusDays(1), idReserva));
+    }
+    
+    private static String habitacion(int indice) {
+        return String.valueOf(100 + indice);
+    }
+}
@@ -0,0 +1,122 @@
+package com.hotel.gestion;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hotel.modelo.Habitacion;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.modelo.HabitacionSuite;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class InventarioColumnarTest {
+    private static final int HABITACIONES = 1_000;
+    
+    @Test
+    void alCrecerSeConservanLasHabitacionesYLasVistasAnteriores() {
+        InventarioColumnar inventario = new InventarioColumnar();
+        assertTrue(inventario.agregar(new HabitacionEstandar("0", 100.0, 2)));
+        Habitacion primera = inventario.buscar("0");
+        
+        for (int i = 1; i < HABITACIONES; i++) {
+            assertTrue(inventario.agregar(new HabitacionEstandar(String.valueOf(i), 100.0 + i, 2)));
+        }
+        assertFalse(inventario.agregar(new HabitacionEstandar("500", 1.0, 1)));
+        assertEquals(HABITACIONES, inventario.tamano());
+        for (int i = 0; i < HABITACIONES; i++) {
+            assertEquals(10_000 + 100L * i, inventario.buscar(String.valueOf(i)).getPrecioPorNocheCentavos());
+        }
+        assertNull(inventario.buscar(String.valueOf(HABITACIONES)));
+        
+        // Una vista tomada antes de crecer escribe en las columnas nuevas
+        primera.setCapacidad(5);
+        assertEquals(5, inventario.buscar("0").getCapacidad());
+    }
+    
+    @Test
+    void unLoteSaltaLosRepetidosDentroYFueraDelLote() {
+        InventarioColumnar inventario = new InventarioColumnar();
+        inventario.agregar(new HabitacionEstandar("101", 100.0, 2));
+        List<Habitacion> lote = new ArrayList<>();
+        lote.add(new HabitacionEstandar("101", 100.0, 2));
+        for (int i = 0; i < 100; i++) {
+            lote.add(new HabitacionEstandar("L" + i, 100.0, 2));
+        }
+        lote.add(new HabitacionEstandar("L7", 100.0, 2));
+        
+        boolean[] agregadas = inventario.agregarTodas(lote);
+        assertFalse(agregadas[0]);
+        assertFalse(agregadas[agregadas.length - 1]);
+        for (int i = 1; i <= 100; i++) {
+            assertTrue(agregadas[i]);
+        }
+        assertEquals(101, inventario.tamano());
+        assertEquals(101, inventario.todas().stream().map(Habitacion::getNumero).distinct().count());
+    }
+    
+    @Test
+    void lasVistasLeenYEscribenLasColumnasYNoLaHabitacionOriginal() {
+        InventarioColumnar inventario = new InventarioColumnar();
+        HabitacionSuite original = new HabitacionSuite("301", 350.0, 4, true, false);
+        inventario.agregar(original);
+        original.setPrecioPorNoche(1.0);
+        
+        Habitacion vista = inventario.buscar("301");
+        HabitacionSuite suite = assertInstanceOf(HabitacionSuite.class, vista);
+        assertEquals(original.getTipo(), suite.getTipo());
+        assertTrue(suite.tieneJacuzzi());
+        assertFalse(suite.tieneBar());
+        assertEquals(35_000, suite.getPrecioPorNocheCentavos());
+        
+        suite.setPrecioPorNoche(400.005);
+        assertEquals(40_001, inventario.buscar("301").getPrecioPorNocheCentavos());
+        suite.setPrecioPorNocheCentavos(41_000);
+        assertEquals(41_000, inventario.buscar("301").getPrecioPorNocheCentavos());
+        assertEquals(82_000, inventario.buscar("301").calcularPrecioTotalCentavos(2));
+        
+        suite.setDisponible(false);
+        assertTrue(inventario.habilitadas(numero -> true).isEmpty());
+        assertTrue(((HabitacionSuite) inventario.buscar("301")).tieneJacuzzi(), "Deshabilitar no debe borrar otras marcas");
+        assertThrows(UnsupportedOperationException.class, () -> suite.setNumero("302"));
+    }
+    
+    @Test
+    void buscarFiltraPorTipoMarcasCapacidadYPrecio() {
+        InventarioColumnar inventario = new InventarioColumnar();
+        inventario.agregarTodas(List.of(
+                new HabitacionEstandar("101", 100.0, 2),
+                new HabitacionEstandar("102", 150.0, 4),
+                new HabitacionSuite("201", 300.0, 4, true, true),
+                new HabitacionSuite("202", 250.0, 4, false, true),
+                new HabitacionSuite("203", 500.0, 6, true, false)));
+        
+        CriteriosBusqueda criterios = new CriteriosBusqueda();
+        criterios.setCapacidadMinima(4);
+        assertEquals(List.of("102", "201", "202", "203"), numeros(inventario.buscar(criterios)));
+        
+        criterios.setTipos(new HabitacionSuite("", 0, 0, false, false).getTipo());
+        criterios.setConBar(true);
+        assertEquals(List.of("201", "202"), numeros(inventario.buscar(criterios)));
+        
+        criterios.setConJacuzzi(false);
+        assertEquals(List.of("202"), numeros(inventario.buscar(criterios)));
+        
+        criterios.setConJacuzzi(null);
+        criterios.setPrecioMaximoCentavos(25_000);
+        assertEquals(List.of("202"), numeros(inventario.buscar(criterios)));
+        
+        assertArrayEquals(new String[] {"101", "102"}, inventario.habilitadas(numero -> numero.startsWith("1"))
+                .stream().map(Habitacion::getNumero).toArray());
+    }
+    
+    private static List<String> numeros(List<Habitacion> habitaciones) {
+        return habitaciones.stream().map(Habitacion::getNumero).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,117 @@
+package com.hotel.gestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.reserva.Reserva;
+import com.hotel.reserva.ReservaVIP;
+import java.time.LocalDate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ListaEsperaTest {
+    private static final LocalDate ENTRADA = LocalDate.of(2030, 3, 1);
+    private static final String ESTANDAR = "Estándar";
+    
+    private final Cliente cliente = new Cliente("C1", "Ana", "ana@correo.com", "555");
+    private GestorReservas gestorReservas;
+    private GestorHabitaciones gestorHabitaciones;
+    private ListaEspera listaEspera;
+    
+    @BeforeEach
+    void preparar() {
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        gestorReservas = new GestorReservas(indice);
+        gestorHabitaciones = new GestorHabitaciones(indice);
+        listaEspera = new ListaEspera(gestorReservas, gestorHabitaciones);
+        gestorReservas.setOyenteDisponibilidad(listaEspera);
+        gestorHabitaciones.setOyenteDisponibilidad(listaEspera);
+    }
+    
+    @AfterEach
+    void cerrar() {
+        gestorReservas.close();
+    }
+    
+    @Test
+    void unaCancelacionAtiendeUnaSolicitudYLuegoSoloLasNochesQueQuedanLibres() {
+        Habitacion habitacion = agregarHabitacion("101", 2);
+        reservar("R1", habitacion, 0, 6);
+        
+        esperar("E1", 1, 3, false);
+        esperar("E2", 2, 4, true);
+        esperar("E3", 4, 6, false);
+        esperar("E4", 0, 2, false);
+        assertTrue(gestorReservas.cancelarReserva("R1"));
+        
+        // La VIP primero; luego las que caben en las noches libres a cada lado
+        assertTrue(gestorReservas.buscarReserva("E2") instanceof ReservaVIP);
+        assertNotNull(gestorReservas.buscarReserva("E3"));
+        assertNotNull(gestorReservas.buscarReserva("E4"));
+        assertTrue(listaEspera.estaEnEspera("E1"));
+        assertEquals(1, listaEspera.tamano());
+    }
+    
+    @Test
+    void unaHabitacionNuevaSoloAtiendeLasCapacidadesQueAdmite() {
+        esperar("E1", 0, 2, true, 4);
+        esperar("E2", 0, 2, false, 2);
+        
+        agregarHabitacion("101", 2);
+        assertTrue(listaEspera.estaEnEspera("E1"));
+        assertNotNull(gestorReservas.buscarReserva("E2"));
+        
+        agregarHabitacion("102", 4);
+        assertNotNull(gestorReservas.buscarReserva("E1"));
+        assertEquals(0, listaEspera.tamano());
+    }
+    
+    @Test
+    void unCambioDeFechasAvisaLasNochesQueDejaLibres() {
+        Habitacion habitacion = agregarHabitacion("101", 2);
+        reservar("R1", habitacion, 0, 4);
+        esperar("E1", 0, 2, false);
+        
+        assertTrue(gestorReservas.cambiarFechaReserva("R1", ENTRADA.plusDays(2), ENTRADA.plusDays(5)));
+        assertNotNull(gestorReservas.buscarReserva("E1"));
+    }
+    
+    @Test
+    void rehabilitarUnaHabitacionAtiendeALaLista() {
+        agregarHabitacion("101", 2);
+        assertTrue(gestorHabitaciones.habilitarHabitacion("101", false));
+        esperar("E1", 0, 2, false);
+        assertTrue(listaEspera.estaEnEspera("E1"));
+        
+        assertTrue(gestorHabitaciones.habilitarHabitacion("101", true));
+        assertNotNull(gestorReservas.buscarReserva("E1"));
+        assertFalse(gestorHabitaciones.habilitarHabitacion("999", true));
+    }
+    
+    private Habitacion agregarHabitacion(String numero, int capacidad) {
+        Habitacion habitacion = new HabitacionEstandar(numero, 100.0, capacidad);
+        assertTrue(gestorHabitaciones.agregarHabitacion(habitacion));
+        return habitacion;
+    }
+    
+    private void reservar(String id, Habitacion habitacion, int desde, int hasta) {
+        Reserva reserva = new Reserva(id, cliente, ENTRADA.plusDays(desde), ENTRADA.plusDays(hasta), null);
+        reserva.agregarHabitacion(habitacion);
+        assertTrue(gestorReservas.crearReserva(reserva));
+    }
+    
+    private void esperar(String id, int desde, int hasta, boolean vip) {
+        esperar(id, desde, hasta, vip, 1);
+    }
+    
+    private void esperar(String id, int desde, int hasta, boolean vip, int capacidad) {
+        assertTrue(listaEspera.agregar(new SolicitudEspera(id, cliente, ENTRADA.plusDays(desde),
+                ENTRADA.plusDays(hasta), ESTANDAR, capacidad, vip, null)));
+    }
+}
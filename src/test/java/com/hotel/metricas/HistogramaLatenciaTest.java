@@ -0,0 +1,113 @@
+package com.hotel.metricas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class HistogramaLatenciaTest {
+    private final RegistroMetricas registro = new RegistroMetricas();
+    
+    @Test
+    void lasCubetasSonExactasHasta32YCubrenSuRangoSinHuecos() {
+        assertEquals(31, HistogramaLatencia.indiceCubeta(31));
+        assertEquals(32, HistogramaLatencia.indiceCubeta(32));
+        assertEquals(63, HistogramaLatencia.indiceCubeta(63));
+        // Desde 64 cada cubeta abarca más de un valor
+        assertEquals(64, HistogramaLatencia.indiceCubeta(64));
+        assertEquals(64, HistogramaLatencia.indiceCubeta(65));
+        assertEquals(65, HistogramaLatencia.indiceCubeta(66));
+        
+        long inferior = 0;
+        for (int indice = 0; indice < 1_024; indice++) {
+            long superior = HistogramaLatencia.limiteSuperior(indice);
+            assertEquals(indice, HistogramaLatencia.indiceCubeta(inferior), "Inicio de la cubeta " + indice);
+            assertEquals(indice, HistogramaLatencia.indiceCubeta(superior), "Fin de la cubeta " + indice);
+            // El error relativo de informar el límite superior queda debajo del 3,2 %
+            assertTrue(superior - inferior <= Math.max(0, inferior / 32), "Cubeta " + indice);
+            inferior = superior + 1;
+        }
+        assertEquals((1L << 36) - 1, inferior - 1);
+    }
+    
+    @Test
+    void losPercentilesEnElBordeDeUnaCubetaCaenEnElValorCorrecto() {
+        HistogramaLatencia histograma = registro.histograma("borde");
+        // 90 mediciones de 63 ns (última de una cubeta) y 10 de 64 ns (primera de la siguiente)
+        for (int i = 0; i < 90; i++) {
+            histograma.registrar(63);
+        }
+        for (int i = 0; i < 10; i++) {
+            histograma.registrar(64);
+        }
+        HistogramaLatencia.Resumen resumen = histograma.resumir();
+        
+        assertEquals(63, resumen.percentilNanos(0));
+        assertEquals(63, resumen.percentilNanos(90));
+        // Apenas por encima del 90 % ya es la cubeta de 64 y 65, recortada al máximo
+        assertEquals(64, resumen.percentilNanos(90.01));
+        assertEquals(64, resumen.percentilNanos(100));
+        assertEquals(64, resumen.percentilNanos(250));
+        assertEquals(63.1, resumen.getMediaNanos(), 1e-9);
+    }
+    
+    @Test
+    void unPercentilInformaElLimiteSuperiorDeSuCubeta() {
+        HistogramaLatencia histograma = registro.histograma("limite");
+        histograma.registrar(1_000);
+        histograma.registrar(1_000_000);
+        HistogramaLatencia.Resumen resumen = histograma.resumir();
+        
+        long p50 = resumen.percentilNanos(50);
+        assertEquals(HistogramaLatencia.limiteSuperior(HistogramaLatencia.indiceCubeta(1_000)), p50);
+        assertTrue(p50 >= 1_000 && p50 < 1_032, "p50: " + p50);
+        assertEquals(1_000_000, resumen.percentilNanos(99.9));
+        assertEquals(1_000_000, resumen.getMaximoNanos());
+    }
+    
+    @Test
+    void losValoresFueraDeRangoVanALosExtremos() {
+        HistogramaLatencia histograma = registro.histograma("extremos");
+        assertEquals(0, histograma.resumir().percentilNanos(99));
+        histograma.registrar(-5);
+        histograma.registrar(Long.MAX_VALUE / 2);
+        HistogramaLatencia.Resumen resumen = histograma.resumir();
+        
+        assertEquals(2, resumen.getConteo());
+        assertEquals(0, resumen.percentilNanos(50));
+        assertEquals((1L << 36) - 1, resumen.percentilNanos(100));
+        assertEquals(Long.MAX_VALUE / 2, resumen.getMaximoNanos());
+    }
+    
+    @Test
+    void variosHilosNoPierdenMediciones() throws Exception {
+        HistogramaLatencia histograma = registro.histograma("hilos");
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < 4; h++) {
+            long valor = 100L << h;
+            tareas.add(hilos.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histograma.registrar(valor);
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        hilos.shutdown();
+        
+        HistogramaLatencia.Resumen resumen = histograma.resumir();
+        assertEquals(40_000, resumen.getConteo());
+        assertEquals(375.0, resumen.getMediaNanos(), 1e-9);
+        assertEquals(HistogramaLatencia.limiteSuperior(HistogramaLatencia.indiceCubeta(200)),
+                resumen.percentilNanos(50));
+        assertEquals(800, resumen.percentilNanos(100));
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotel.modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class DineroTest {
+    
+    @Test
+    void aCentavosRedondeaLasMitadesLejosDeCero() {
+        assertEquals(101, Dinero.aCentavos(1.005));
+        assertEquals(-101, Dinero.aCentavos(-1.005));
+        assertEquals(1, Dinero.aCentavos(0.005));
+        assertEquals(-1, Dinero.aCentavos(-0.005));
+        assertEquals(0, Dinero.aCentavos(0.004));
+        assertEquals(45_000_050, Dinero.aCentavos(450_000.50));
+        assertThrows(ArithmeticException.class, () -> Dinero.aCentavos(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Dinero.aCentavos(1e30));
+    }
+    
+    @Test
+    void escalarRedondeaLasMitadesLejosDeCero() {
+        // 1 centavo al 50 % es medio centavo
+        assertEquals(1, Dinero.escalar(1, 5_000));
+        assertEquals(-1, Dinero.escalar(-1, 5_000));
+        assertEquals(2, Dinero.escalar(3, 5_000));
+        assertEquals(-2, Dinero.escalar(-3, 5_000));
+        // Apenas debajo de la mitad baja, también en negativo
+        assertEquals(0, Dinero.escalar(1, 4_999));
+        assertEquals(0, Dinero.escalar(-1, 4_999));
+        assertEquals(300, Dinero.escalar(10_000, 300));
+    }
+    
+    @Test
+    void escalarCercaDelLimiteNoDesbordaEnSilencio() {
+        assertEquals(922_337_203_685_478L, Dinero.escalar(Long.MAX_VALUE, 1));
+        assertEquals(-922_337_203_685_478L, Dinero.escalar(Long.MIN_VALUE + 1, 1));
+        assertThrows(ArithmeticException.class, () -> Dinero.escalar(Long.MAX_VALUE, 2));
+        assertThrows(ArithmeticException.class, () -> Dinero.multiplicar(Long.MAX_VALUE / 2, 3));
+    }
+    
+    @Test
+    void descontarAplicaElPorcentajeYValidaElRango() {
+        // 15 % de descuento sobre 19,99: 16,9915 queda en 16,99
+        assertEquals(1_699, Dinero.descontar(1_999, 1_500));
+        assertEquals(-1_699, Dinero.descontar(-1_999, 1_500));
+        assertEquals(0, Dinero.descontar(1_999, Dinero.PUNTOS_BASICOS_TOTALES));
+        assertThrows(IllegalArgumentException.class, () -> Dinero.descontar(1_999, -1));
+        assertThrows(IllegalArgumentException.class, () -> Dinero.descontar(1_999, 10_001));
+    }
+    
+    @Test
+    void formatearMuestraElSignoYDosDecimales() {
+        assertEquals("450000.50", Dinero.formatear(45_000_050));
+        assertEquals("-0.05", Dinero.formatear(-5));
+        assertEquals("-1234.56", Dinero.formatear(-123_456));
+        assertEquals("0.00", Dinero.formatear(0));
+    }
+}
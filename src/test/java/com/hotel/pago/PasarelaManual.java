@@ -0,0 +1,40 @@
+package com.hotel.pago;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pasarela que no responde sola: cada cobro queda pendiente hasta que la
+ * prueba lo aprueba, lo rechaza o lo hace fallar.
+ */
+public class PasarelaManual implements PasarelaPago {
+    private final List<CompletableFuture<Boolean>> cobros = new CopyOnWriteArrayList<>();
+    
+    @Override
+    public CompletableFuture<Boolean> cobrar(double monto, String referencia) {
+        CompletableFuture<Boolean> respuesta = new CompletableFuture<>();
+        cobros.add(respuesta);
+        return respuesta;
+    }
+    
+    /**
+     * @param indice Orden del cobro recibido (desde 0)
+     * @return Respuesta pendiente de ese cobro
+     */
+    public CompletableFuture<Boolean> cobro(int indice) {
+        return cobros.get(indice);
+    }
+    
+    /**
+     * @return Cobros que llegaron a la pasarela
+     */
+    public int getCobrosRecibidos() {
+        return cobros.size();
+    }
+    
+    @Override
+    public String getNombre() {
+        return "manual";
+    }
+}
@@ -0,0 +1,120 @@
+package com.hotel.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Canal que delega en un archivo real y, a pedido, falla a mitad de una
+ * escritura (después de escribir parte del búfer) o al sincronizar.
+ */
+class CanalConFallas extends FileChannel {
+    private final FileChannel real;
+    volatile boolean fallarEscritura;
+    volatile boolean fallarSincronizacion;
+    
+    CanalConFallas(FileChannel real) {
+        this.real = real;
+    }
+    
+    @Override
+    public int write(ByteBuffer origen) throws IOException {
+        if (!fallarEscritura) {
+            return real.write(origen);
+        }
+        ByteBuffer mitad = origen.slice();
+        mitad.limit(Math.max(1, origen.remaining() / 2));
+        int escritos = real.write(mitad);
+        origen.position(origen.position() + escritos);
+        throw new IOException("Falla simulada a mitad de la escritura");
+    }
+    
+    @Override
+    public void force(boolean metadatos) throws IOException {
+        if (fallarSincronizacion) {
+            throw new IOException("Falla simulada de fsync");
+        }
+        real.force(metadatos);
+    }
+    
+    @Override
+    public int read(ByteBuffer destino) throws IOException {
+        return real.read(destino);
+    }
+    
+    @Override
+    public long read(ByteBuffer[] destinos, int desde, int cantidad) throws IOException {
+        return real.read(destinos, desde, cantidad);
+    }
+    
+    @Override
+    public long write(ByteBuffer[] origenes, int desde, int cantidad) throws IOException {
+        return real.write(origenes, desde, cantidad);
+    }
+    
+    @Override
+    public long position() throws IOException {
+        return real.position();
+    }
+    
+    @Override
+    public FileChannel position(long posicion) throws IOException {
+        real.position(posicion);
+        return this;
+    }
+    
+    @Override
+    public long size() throws IOException {
+        return real.size();
+    }
+    
+    @Override
+    public FileChannel truncate(long tamano) throws IOException {
+        real.truncate(tamano);
+        return this;
+    }
+    
+    @Override
+    public long transferTo(long posicion, long cantidad, WritableByteChannel destino) throws IOException {
+        return real.transferTo(posicion, cantidad, destino);
+    }
+    
+    @Override
+    public long transferFrom(ReadableByteChannel origen, long posicion, long cantidad) throws IOException {
+        return real.transferFrom(origen, posicion, cantidad);
+    }
+    
+    @Override
+    public int read(ByteBuffer destino, long posicion) throws IOException {
+        return real.read(destino, posicion);
+    }
+    
+    @Override
+    public int write(ByteBuffer origen, long posicion) throws IOException {
+        return real.write(origen, posicion);
+    }
+    
+    @Override
+    public MappedByteBuffer map(MapMode modo, long posicion, long tamano) throws IOException {
+        return real.map(modo, posicion, tamano);
+    }
+    
+    @Override
+    public FileLock lock(long posicion, long tamano, boolean compartido) throws IOException {
+        return real.lock(posicion, tamano, compartido);
+    }
+    
+    @Override
+    public FileLock tryLock(long posicion, long tamano, boolean compartido) throws IOException {
+        return real.tryLock(posicion, tamano, compartido);
+    }
+    
+    @Override
+    protected void implCloseChannel() throws IOException {
+        real.close();
+    }
+}
@@ -0,0 +1,143 @@
+package com.hotel.persistencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hotel.gestion.GestorClientes;
+import com.hotel.gestion.GestorHabitaciones;
+import com.hotel.gestion.GestorReservas;
+import com.hotel.gestion.IndiceDisponibilidad;
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.reserva.Reserva;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InstantaneaBinariaTest {
+    private static final LocalDate ENTRADA = LocalDate.of(2025, 3, 1);
+    
+    @TempDir
+    Path directorio;
+    
+    @Test
+    void cargaRestauraPrecioVendidoYHabitacionesDeshabilitadas() throws IOException {
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        GestorClientes clientes = new GestorClientes();
+        GestorHabitaciones habitaciones = new GestorHabitaciones(indice);
+        GestorReservas reservas = new GestorReservas(indice);
+        Cliente cliente = new Cliente("C1", "Ana", "ana@correo.com", "555");
+        Habitacion habitacion = new HabitacionEstandar("101", 100.0, 2);
+        clientes.registrarCliente(cliente);
+        habitaciones.agregarHabitacion(habitacion);
+        Reserva vendida = new Reserva("R1", cliente, ENTRADA, ENTRADA.plusDays(2), null);
+        vendida.agregarHabitacion(habitacion);
+        assertTrue(reservas.crearReserva(vendida));
+        
+        // Después de la venta la habitación sube de precio y sale de servicio
+        habitacion.setPrecioPorNoche(250.0);
+        habitacion.setDisponible(false);
+        InstantaneaBinaria instantanea = new InstantaneaBinaria(directorio.resolve("estado.bin"));
+        instantanea.escribir(clientes, habitaciones, reservas, 7);
+        
+        IndiceDisponibilidad indiceCargado = new IndiceDisponibilidad();
+        GestorClientes clientesCargados = new GestorClientes();
+        GestorHabitaciones habitacionesCargadas = new GestorHabitaciones(indiceCargado);
+        GestorReservas reservasCargadas = new GestorReservas(indiceCargado);
+        assertEquals(7, instantanea.cargar(clientesCargados, habitacionesCargadas, reservasCargadas));
+        
+        Reserva restaurada = reservasCargadas.buscarReserva("R1");
+        assertNotNull(restaurada);
+        assertEquals(1, restaurada.getHabitaciones().size());
+        assertEquals(vendida.getPrecioBaseCentavos(), restaurada.getPrecioBaseCentavos());
+        assertEquals(vendida.getPrecioTotalCentavos(), restaurada.getPrecioTotalCentavos());
+        assertFalse(habitacionesCargadas.buscarHabitacion("101").isDisponible());
+        assertFalse(indiceCargado.estaDisponible("101", ENTRADA, ENTRADA.plusDays(1)));
+    }
+    
+    @Test
+    void textosLargosYPreciosEnCentavosSeConservanExactos() throws IOException {
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        GestorClientes clientes = new GestorClientes();
+        GestorHabitaciones habitaciones = new GestorHabitaciones(indice);
+        GestorReservas reservas = new GestorReservas(indice);
+        // Más de lo que cabe en la longitud de dos bytes de las versiones anteriores
+        String nombreLargo = "ñ".repeat(40_000);
+        clientes.registrarCliente(new Cliente("C1", nombreLargo, "ana@correo.com", "555"));
+        Habitacion habitacion = new HabitacionEstandar("101", 0, 2);
+        habitacion.setPrecioPorNocheCentavos(12_345_678_901L);
+        habitaciones.agregarHabitacion(habitacion);
+        InstantaneaBinaria instantanea = new InstantaneaBinaria(directorio.resolve("estado.bin"));
+        instantanea.escribir(clientes, habitaciones, reservas, 1);
+        
+        GestorClientes clientesCargados = new GestorClientes();
+        GestorHabitaciones habitacionesCargadas = new GestorHabitaciones(new IndiceDisponibilidad());
+        instantanea.cargar(clientesCargados, habitacionesCargadas, new GestorReservas(new IndiceDisponibilidad()));
+        assertEquals(nombreLargo, clientesCargados.buscarCliente("C1").getNombre());
+        assertEquals(12_345_678_901L, habitacionesCargadas.buscarHabitacion("101").getPrecioPorNocheCentavos());
+    }
+    
+    @Test
+    void seSigueLeyendoLaVersionConCamposCortos() throws IOException {
+        Path archivo = directorio.resolve("v2.bin");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream salida = new DataOutputStream(bytes);
+        salida.writeInt(InstantaneaBinaria.MAGIA);
+        salida.writeShort(2);
+        salida.writeLong(9);
+        salida.writeInt(1);
+        for (String texto : new String[] {"C1", "Ana", "ana@correo.com", "555"}) {
+            textoCorto(salida, texto);
+        }
+        salida.writeInt(1);
+        salida.writeByte(0);
+        textoCorto(salida, "101");
+        salida.writeDouble(99.99);
+        salida.writeInt(2);
+        salida.writeByte(1);
+        salida.writeInt(1);
+        textoCorto(salida, "R1");
+        textoCorto(salida, "C1");
+        salida.writeBoolean(false);
+        salida.writeLong(ENTRADA.toEpochDay());
+        salida.writeLong(ENTRADA.plusDays(2).toEpochDay());
+        salida.writeBoolean(true);
+        salida.writeLong(19_998);
+        salida.writeLong(19_998);
+        salida.writeShort(1);
+        textoCorto(salida, "101");
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        salida.writeInt((int) crc.getValue());
+        Files.write(archivo, bytes.toByteArray());
+        
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        GestorClientes clientes = new GestorClientes();
+        GestorHabitaciones habitaciones = new GestorHabitaciones(indice);
+        GestorReservas reservas = new GestorReservas(indice);
+        assertEquals(9, new InstantaneaBinaria(archivo).cargar(clientes, habitaciones, reservas));
+        
+        assertEquals("Ana", clientes.buscarCliente("C1").getNombre());
+        assertEquals(9_999, habitaciones.buscarHabitacion("101").getPrecioPorNocheCentavos());
+        Reserva reserva = reservas.buscarReserva("R1");
+        assertEquals(19_998, reserva.getPrecioTotalCentavos());
+        assertTrue(reserva.isPagada());
+        assertEquals(1, reserva.getHabitaciones().size());
+    }
+    
+    private static void textoCorto(DataOutputStream salida, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        salida.writeShort(bytes.length);
+        salida.write(bytes);
+    }
+}
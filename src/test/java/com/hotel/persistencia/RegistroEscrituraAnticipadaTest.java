@@ -0,0 +1,206 @@
+package com.hotel.persistencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.hotel.gestion.GestorClientes;
+import com.hotel.gestion.GestorHabitaciones;
+import com.hotel.gestion.GestorReservas;
+import com.hotel.gestion.IndiceDisponibilidad;
+import com.hotel.gestion.OyenteDisponibilidad;
+import com.hotel.metricas.HistogramaLatencia;
+import com.hotel.metricas.Metricas;
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.Habitacion;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.reserva.Reserva;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RegistroEscrituraAnticipadaTest {
+    private static final LocalDate ENTRADA = LocalDate.of(2025, 3, 1);
+    
+    @TempDir
+    Path directorio;
+    
+    private Path archivo;
+    private Cliente cliente;
+    private Habitacion habitacion;
+    
+    @BeforeEach
+    void preparar() {
+        archivo = directorio.resolve("reservas.wal");
+        cliente = new Cliente("C1", "Ana", "ana@correo.com", "555");
+        habitacion = new HabitacionEstandar("101", 100.0, 2);
+    }
+    
+    @Test
+    void colaIncompletaSeDescartaAlAbrir() throws IOException {
+        try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo)) {
+            registro.registrarCreacion(reserva("R1", 0)).join();
+            registro.registrarCreacion(reserva("R2", 5)).join();
+        }
+        // Simula una escritura interrumpida: el último registro queda cortado
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 3);
+        }
+        
+        try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo)) {
+            assertEquals(1, registro.getUltimoLsn());
+            registro.registrarCreacion(reserva("R3", 10)).join();
+        }
+        
+        GestorReservas reconstruido = reproducir();
+        assertNotNull(reconstruido.buscarReserva("R1"));
+        assertNull(reconstruido.buscarReserva("R2"));
+        assertNotNull(reconstruido.buscarReserva("R3"));
+    }
+    
+    @Test
+    void escrituraFallidaRecortaElLoteYDetieneElRegistro() throws IOException {
+        CanalConFallas canal = new CanalConFallas(FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, canal);
+        registro.registrarCreacion(reserva("R1", 0)).join();
+        long tamanoConfirmado = Files.size(archivo);
+        
+        canal.fallarEscritura = true;
+        assertFalla(registro.registrarCreacion(reserva("R2", 5)));
+        canal.fallarEscritura = false;
+        
+        // Detenido: un evento posterior no puede quedar detrás de un lote dudoso
+        assertNotNull(registro.getAveria());
+        assertFalla(registro.registrarCreacion(reserva("R3", 10)));
+        assertEquals(tamanoConfirmado, Files.size(archivo));
+        registro.close();
+        
+        GestorReservas reconstruido = reproducir();
+        assertNotNull(reconstruido.buscarReserva("R1"));
+        assertNull(reconstruido.buscarReserva("R2"));
+        assertNull(reconstruido.buscarReserva("R3"));
+    }
+    
+    @Test
+    void fsyncFallidoNoDejaElLoteParaReproducir() throws IOException {
+        CanalConFallas canal = new CanalConFallas(FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo, canal);
+        registro.registrarCreacion(reserva("R1", 0)).join();
+        
+        canal.fallarSincronizacion = true;
+        assertFalla(registro.registrarCreacion(reserva("R2", 5)));
+        canal.fallarSincronizacion = false;
+        registro.close();
+        
+        try (RegistroEscrituraAnticipada reabierto = new RegistroEscrituraAnticipada(archivo)) {
+            assertEquals(1, reabierto.getUltimoLsn());
+            assertNull(reabierto.getAveria());
+        }
+        assertNull(reproducir().buscarReserva("R2"));
+    }
+    
+    @Test
+    void reproduccionRestauraPrecioYHabitacionesComoSeVendieron() throws IOException {
+        Reserva vendida = reserva("R1", 0);
+        try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo)) {
+            registro.registrarCreacion(vendida).join();
+        }
+        
+        // Al reproducir, la habitación subió de precio y está fuera de servicio
+        habitacion = new HabitacionEstandar("101", 250.0, 2);
+        habitacion.setDisponible(false);
+        Reserva restaurada = reproducir().buscarReserva("R1");
+        
+        assertNotNull(restaurada);
+        assertEquals(1, restaurada.getHabitaciones().size());
+        assertEquals(vendida.getPrecioTotalCentavos(), restaurada.getPrecioTotalCentavos());
+        assertEquals(vendida.getPrecioBaseCentavos(), restaurada.getPrecioBaseCentavos());
+    }
+    
+    @Test
+    void reproduccionAplicaCambiosYCancelacionesComoSeRegistraronYEnSilencio() throws IOException {
+        Reserva movida = reserva("R1", 0);
+        Reserva cancelada = reserva("R2", 5);
+        try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo)) {
+            registro.registrarCreacion(movida).join();
+            registro.registrarCreacion(cancelada).join();
+            // Precio cotizado con un plan que ya no está vigente al reproducir
+            registro.registrarCambioFecha(movida, ENTRADA.plusDays(1), ENTRADA.plusDays(4), 45_000, 40_500).join();
+            registro.registrarCancelacion(cancelada).join();
+            registro.registrarPago(cancelada).join();
+        }
+        
+        HistogramaLatencia latenciaCancelar = Metricas.registro().histograma("reservas.cancelar");
+        HistogramaLatencia latenciaCambiarFecha = Metricas.registro().histograma("reservas.cambiarFecha");
+        long cancelacionesMedidas = latenciaCancelar.resumir().getConteo();
+        long cambiosMedidos = latenciaCambiarFecha.resumir().getConteo();
+        List<String> avisos = new ArrayList<>();
+        GestorReservas reconstruido = reproducir(new OyenteDisponibilidad() {
+            @Override
+            public void habitacionesLiberadas(List<Habitacion> habitaciones, LocalDate desde, LocalDate hasta) {
+                avisos.add("liberadas " + desde + " " + hasta);
+            }
+            
+            @Override
+            public void habitacionesAgregadas(List<Habitacion> habitaciones) {
+                avisos.add("agregadas");
+            }
+        });
+        
+        Reserva restaurada = reconstruido.buscarReserva("R1");
+        assertEquals(ENTRADA.plusDays(1), restaurada.getFechaInicio());
+        assertEquals(45_000, restaurada.getPrecioBaseCentavos());
+        assertEquals(40_500, restaurada.getPrecioTotalCentavos());
+        assertNull(reconstruido.buscarReserva("R2"));
+        assertEquals(1, reconstruido.obtenerReservasPorHabitacion("101").size());
+        
+        // Los eventos ya ocurrieron: reproducirlos no avisa a la lista de espera ni mide latencias
+        assertEquals(List.of(), avisos);
+        assertEquals(cancelacionesMedidas, latenciaCancelar.resumir().getConteo());
+        assertEquals(cambiosMedidos, latenciaCambiarFecha.resumir().getConteo());
+    }
+    
+    private static void assertFalla(CompletableFuture<Void> registro) {
+        CompletionException falla = assertThrows(CompletionException.class, registro::join);
+        assertInstanceOf(IOException.class, falla.getCause());
+    }
+    
+    private Reserva reserva(String id, int desplazamiento) {
+        Reserva reserva = new Reserva(id, cliente, ENTRADA.plusDays(desplazamiento),
+                ENTRADA.plusDays(desplazamiento + 2), null);
+        reserva.agregarHabitacion(habitacion);
+        return reserva;
+    }
+    
+    private GestorReservas reproducir() throws IOException {
+        return reproducir(null);
+    }
+    
+    private GestorReservas reproducir(OyenteDisponibilidad oyente) throws IOException {
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        GestorClientes clientes = new GestorClientes();
+        GestorHabitaciones habitaciones = new GestorHabitaciones(indice);
+        clientes.registrarCliente(cliente);
+        habitaciones.agregarHabitacion(habitacion);
+        GestorReservas reservas = new GestorReservas(indice);
+        reservas.setOyenteDisponibilidad(oyente);
+        try (RegistroEscrituraAnticipada registro = new RegistroEscrituraAnticipada(archivo)) {
+            registro.reproducir(reservas, clientes, habitaciones);
+        }
+        return reservas;
+    }
+}
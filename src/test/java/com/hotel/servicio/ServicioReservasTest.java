@@ -0,0 +1,158 @@
+package com.hotel.servicio;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hotel.gestion.GestorClientes;
+import com.hotel.gestion.GestorHabitaciones;
+import com.hotel.gestion.GestorReservas;
+import com.hotel.gestion.IndiceDisponibilidad;
+import com.hotel.modelo.Cliente;
+import com.hotel.modelo.HabitacionEstandar;
+import com.hotel.pago.MetodoPago;
+import com.hotel.reserva.Reserva;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ServicioReservasTest {
+    private final HttpClient cliente = HttpClient.newHttpClient();
+    private GestorReservas gestorReservas;
+    private GestorHabitaciones gestorHabitaciones;
+    private ServicioReservas servicio;
+    
+    @BeforeEach
+    void preparar() throws IOException {
+        IndiceDisponibilidad indice = new IndiceDisponibilidad();
+        GestorClientes gestorClientes = new GestorClientes();
+        gestorClientes.registrarCliente(new Cliente("C1", "Ana", "ana@correo.com", "555"));
+        gestorHabitaciones = new GestorHabitaciones(indice);
+        gestorHabitaciones.agregarHabitacion(new HabitacionEstandar("101", 100.0, 2));
+        gestorHabitaciones.agregarHabitacion(new HabitacionEstandar("102", 100.0, 2));
+        gestorReservas = new GestorReservas(indice);
+        servicio = new ServicioReservas(gestorClientes, gestorHabitaciones, gestorReservas, datos -> null);
+        servicio.iniciar(0);
+    }
+    
+    @AfterEach
+    void cerrar() {
+        servicio.close();
+        gestorReservas.close();
+    }
+    
+    @Test
+    void unaHabitacionDeshabilitadaSeRechazaEnLugarDeDescartarse() throws Exception {
+        gestorHabitaciones.habilitarHabitacion("102", false);
+        
+        assertEquals(409, reservar("[\"101\",\"102\"]").statusCode());
+        assertNull(gestorReservas.buscarReserva("W1"));
+        assertEquals(409, get("/cotizacion?habitaciones=101,102&desde=2030-01-10&hasta=2030-01-12")
+                .statusCode());
+        assertEquals(404, get("/cotizacion?habitaciones=101,999&desde=2030-01-10&hasta=2030-01-12")
+                .statusCode());
+    }
+    
+    @Test
+    void unaHabitacionRepetidaSeRechaza() throws Exception {
+        assertEquals(422, reservar("[\"101\",\"101\"]").statusCode());
+        assertNull(gestorReservas.buscarReserva("W1"));
+    }
+    
+    @Test
+    void unCuerpoDemasiadoGrandeOMuyAnidadoResponde400() throws Exception {
+        assertEquals(400, post("/reservas", "\"" + "x".repeat(100_000) + "\"").statusCode());
+        assertEquals(400, post("/reservas", "[".repeat(10_000)).statusCode());
+    }
+    
+    @Test
+    void sinHiloLibreNiLugarEnLaColaResponde503() throws Exception {
+        CompletableFuture<Boolean> cobro = new CompletableFuture<>();
+        CountDownLatch cobrando = new CountDownLatch(1);
+        MetodoPago pasarelaLenta = new MetodoPago() {
+            @Override
+            public boolean procesarPago(double monto) {
+                return MetodoPago.esperarResultado(procesarPagoAsync(monto));
+            }
+            
+            @Override
+            public CompletableFuture<Boolean> procesarPagoAsync(double monto) {
+                cobrando.countDown();
+                return cobro;
+            }
+            
+            @Override
+            public String getNombreMetodo() {
+                return "Pasarela lenta";
+            }
+            
+            @Override
+            public boolean estaDisponible() {
+                return true;
+            }
+        };
+        servicio.close();
+        // Un hilo y una petición en cola: con el hilo esperando la pasarela, cabe una más
+        servicio = new ServicioReservas(new GestorClientes(), gestorHabitaciones, gestorReservas,
+                datos -> pasarelaLenta, 1, 1);
+        servicio.iniciar(0);
+        Reserva reserva = new Reserva("W1", null, LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12),
+                pasarelaLenta);
+        reserva.agregarHabitacion(gestorHabitaciones.buscarHabitacion("101"));
+        assertTrue(gestorReservas.crearReserva(reserva));
+        
+        CompletableFuture<HttpResponse<String>> pago = enviar(HttpRequest.newBuilder(uri("/reservas/W1/pago"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build());
+        assertTrue(cobrando.await(5, TimeUnit.SECONDS));
+        CompletableFuture<HttpResponse<String>> primera = enviar(HttpRequest.newBuilder(uri("/reservas/W1"))
+                .GET().build());
+        CompletableFuture<HttpResponse<String>> segunda = enviar(HttpRequest.newBuilder(uri("/reservas/W1"))
+                .GET().build());
+        
+        // La que no cupo responde sin esperar a que el hilo se libere
+        HttpResponse<String> rechazada = CompletableFuture.anyOf(primera, segunda)
+                .thenApply(respuesta -> (HttpResponse<String>) respuesta).get(5, TimeUnit.SECONDS);
+        assertEquals(503, rechazada.statusCode());
+        assertEquals("1", rechazada.headers().firstValue("Retry-After").orElse(null));
+        assertFalse(pago.isDone());
+        
+        cobro.complete(true);
+        assertEquals(200, pago.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(Set.of(200, 503), Set.of(primera.get(5, TimeUnit.SECONDS).statusCode(),
+                segunda.get(5, TimeUnit.SECONDS).statusCode()));
+        assertEquals(1, servicio.getRechazadasPorSaturacion());
+    }
+    
+    private CompletableFuture<HttpResponse<String>> enviar(HttpRequest peticion) {
+        return cliente.sendAsync(peticion, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private HttpResponse<String> reservar(String habitaciones) throws Exception {
+        return post("/reservas", "{\"idReserva\":\"W1\",\"idCliente\":\"C1\",\"habitaciones\":" + habitaciones
+                + ",\"desde\":\"2030-01-10\",\"hasta\":\"2030-01-12\",\"metodoPago\":{\"tipo\":\"tarjeta\"}}");
+    }
+    
+    private HttpResponse<String> get(String ruta) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(uri(ruta)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private HttpResponse<String> post(String ruta, String cuerpo) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(uri(ruta)).POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private URI uri(String ruta) {
+        return URI.create("http://localhost:" + servicio.getPuerto() + ruta);
+    }
+}
@@ -0,0 +1,64 @@
+package com.hotel.tarifas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import org.junit.jupiter.api.Test;
+
+class PlanTarifasTest {
+    private static final long PRECIO_NOCHE = 10_000;
+    
+    @Test
+    void unaEstadiaQueEntraEnTemporadaCobraCadaNocheConSuFactor() {
+        PlanTarifas plan = new PlanTarifas(LocalDate.of(2030, 1, 1), 365);
+        plan.agregarTemporada("alta", MonthDay.of(6, 15), MonthDay.of(6, 30), 1.5);
+        
+        // 13 y 14 de junio a precio base; 15 y 16 en temporada
+        assertEquals(50_000, plan.cotizar("Estándar", PRECIO_NOCHE, LocalDate.of(2030, 6, 13), 4));
+        // 29 y 30 en temporada; 1 y 2 de julio ya no
+        assertEquals(50_000, plan.cotizar("Estándar", PRECIO_NOCHE, LocalDate.of(2030, 6, 29), 4));
+    }
+    
+    @Test
+    void unaTemporadaQueCruzaElFinDeAnoSeCotizaIgualDentroYFueraDelCalendario() {
+        PlanTarifas soloEsteAno = new PlanTarifas(LocalDate.of(2030, 1, 1), 365);
+        PlanTarifas dosAnos = new PlanTarifas(LocalDate.of(2030, 1, 1), 730);
+        for (PlanTarifas plan : new PlanTarifas[] {soloEsteAno, dosAnos}) {
+            plan.agregarTemporada("fiestas", MonthDay.of(12, 20), MonthDay.of(1, 5), 2.0);
+        }
+        
+        // Del 30 de diciembre al 2 de enero: en el primer plan la estadía sale del calendario
+        LocalDate fin = LocalDate.of(2030, 12, 30);
+        assertEquals(60_000, soloEsteAno.cotizar("Estándar", PRECIO_NOCHE, fin, 3));
+        assertEquals(60_000, dosAnos.cotizar("Estándar", PRECIO_NOCHE, fin, 3));
+        // 4 y 5 de enero en temporada, 6 ya no
+        LocalDate reyes = LocalDate.of(2031, 1, 4);
+        assertEquals(50_000, soloEsteAno.cotizar("Estándar", PRECIO_NOCHE, reyes, 3));
+        assertEquals(50_000, dosAnos.cotizar("Estándar", PRECIO_NOCHE, reyes, 3));
+    }
+    
+    @Test
+    void elFactorDeTemporadaDeUnTipoReemplazaAlGeneralYSeCombinaConLaFecha() {
+        PlanTarifas plan = new PlanTarifas(LocalDate.of(2030, 1, 1), 365);
+        plan.agregarTemporada("alta", MonthDay.of(6, 15), MonthDay.of(6, 30), 1.5);
+        plan.definirFactorTemporada("alta", "Suite", 2.0);
+        plan.definirFactorFecha(LocalDate.of(2030, 6, 20), 1.1);
+        
+        LocalDate entrada = LocalDate.of(2030, 6, 19);
+        // Las claves ignoran tildes y mayúsculas; la noche del 20 suma el 10 % sobre la temporada
+        assertEquals(20_000 + 22_000, plan.cotizar("suite", PRECIO_NOCHE, entrada, 2));
+        assertEquals(15_000 + 16_500, plan.cotizar("estandar", PRECIO_NOCHE, entrada, 2));
+        assertEquals(22_000, plan.factorNoche("Suite", entrada.plusDays(1)));
+    }
+    
+    @Test
+    void laEstadiaSeRedondeaUnaSolaVezAlFinal() {
+        PlanTarifas plan = new PlanTarifas(LocalDate.of(2030, 1, 1), 365);
+        plan.definirFactorTipo("Estándar", 1.1);
+        
+        // 3,33 x 1,1 x 3 = 10,989: redondeando cada noche daría 10,98
+        assertEquals(1_099, plan.cotizar("Estándar", 333, LocalDate.of(2030, 3, 1), 3));
+        assertEquals(0, plan.cotizar("Estándar", 333, LocalDate.of(2030, 3, 1), 0));
+    }
+}